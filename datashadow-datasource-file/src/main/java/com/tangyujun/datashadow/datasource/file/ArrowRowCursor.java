@@ -0,0 +1,338 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.Decimal256Vector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.LargeVarBinaryVector;
+import org.apache.arrow.vector.LargeVarCharVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeMicroVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeNanoVector;
+import org.apache.arrow.vector.TimeSecVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.UInt1Vector;
+import org.apache.arrow.vector.UInt2Vector;
+import org.apache.arrow.vector.UInt4Vector;
+import org.apache.arrow.vector.UInt8Vector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import com.tangyujun.datashadow.datasource.IndexedRow;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datasource.RowSchema;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * Arrow IPC游标
+ * 逐个加载Arrow IPC文件中的记录批次,按行返回批次中的数据,同一时间只保留一个批次在内存中
+ *
+ * 说明:
+ * 1. 同时支持文件格式(以ARROW1开头)和流格式,根据文件开头的标记自动识别
+ * 2. 设置了列投影时只转换投影中的列;IPC批次按整体读取,投影减少的是取值和类型转换,而不是读取的字节
+ * 3. 取值保留列的原始类型,比较器不需要再解析文本:
+ *    - 整数: Integer(64位为Long,无符号64位为BigInteger),浮点数: Float/Double,布尔: Boolean
+ *    - Decimal: BigDecimal,字符串: String,二进制: byte[]
+ *    - Date: LocalDate,Time: LocalTime
+ *    - Timestamp: LocalDateTime,带时区的转换为系统时区的本地时间
+ *    - 字典编码的列取字典中的值,其他类型(List、Struct等)为其文本形式
+ * 4. 不支持压缩的IPC文件
+ * 5. Arrow通过堆外内存读取数据,在JDK 16及以上需要--add-opens=java.base/java.nio=ALL-UNNAMED
+ */
+final class ArrowRowCursor implements RowCursor {
+
+    /**
+     * 文件格式的开头标记
+     */
+    private static final byte[] FILE_MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 列取值方式
+     */
+    @FunctionalInterface
+    private interface ValueReader {
+
+        /**
+         * 读取指定行的值
+         *
+         * @param index 行在批次中的序号
+         * @return 列值,为空时返回null
+         */
+        Object read(int index);
+    }
+
+    private final Path path;
+
+    private final BufferAllocator allocator;
+
+    private final ArrowReader reader;
+
+    private final VectorSchemaRoot root;
+
+    /**
+     * 数据行结构,只包含需要读取的列
+     */
+    private final RowSchema schema;
+
+    /**
+     * 当前批次中每一列的取值方式,与schema中的列一一对应
+     */
+    private final ValueReader[] readers;
+
+    /**
+     * 当前批次的行数
+     */
+    private int batchRows;
+
+    /**
+     * 下一行在当前批次中的序号
+     */
+    private int index;
+
+    private Map<String, Object> current;
+
+    /**
+     * 打开Arrow IPC文件并读取结构
+     *
+     * @param path       文件路径
+     * @param projection 需要读取的列,为null时读取全部列
+     * @throws DataAccessException 文件格式错误或读取失败时抛出
+     */
+    ArrowRowCursor(Path path, Set<String> projection) throws DataAccessException {
+        this.path = path;
+        try {
+            allocator = new RootAllocator();
+        } catch (RuntimeException | LinkageError e) {
+            throw new DataAccessException("无法初始化Arrow内存分配器,请使用--add-opens=java.base/java.nio=ALL-UNNAMED启动: "
+                    + e.getMessage(), e);
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            reader = isFileFormat(channel)
+                    ? new ArrowFileReader(channel, allocator)
+                    : new ArrowStreamReader(channel, allocator);
+            root = reader.getVectorSchemaRoot();
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            allocator.close();
+            throw new DataAccessException("读取Arrow文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+        List<String> columns = new ArrayList<>();
+        for (Field field : root.getSchema().getFields()) {
+            if (projection == null || projection.contains(field.getName())) {
+                columns.add(field.getName());
+            }
+        }
+        schema = new RowSchema(columns.toArray(String[]::new));
+        readers = new ValueReader[columns.size()];
+    }
+
+    /**
+     * 只读取文件的结构,获取全部列名
+     *
+     * @param path 文件路径
+     * @return 列名列表
+     * @throws DataAccessException 文件格式错误或读取失败时抛出
+     */
+    static List<String> readColumns(Path path) throws DataAccessException {
+        try (ArrowRowCursor cursor = new ArrowRowCursor(path, null)) {
+            return cursor.getColumns();
+        }
+    }
+
+    /**
+     * 判断是否为文件格式,判断后将读取位置恢复到文件开头
+     */
+    private static boolean isFileFormat(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(FILE_MAGIC.length);
+        while (head.hasRemaining() && channel.read(head) >= 0) {
+            // 读取到标记的长度或文件结束为止
+        }
+        channel.position(0);
+        return !head.hasRemaining() && head.flip().equals(ByteBuffer.wrap(FILE_MAGIC));
+    }
+
+    /**
+     * 加载下一个非空的批次,并为投影中的列创建取值方式
+     *
+     * @return 没有更多批次时返回false
+     */
+    private boolean loadBatch() throws IOException {
+        do {
+            if (!reader.loadNextBatch()) {
+                return false;
+            }
+        } while (root.getRowCount() == 0);
+        // 流格式中字典可能随批次替换,每个批次重新创建取值方式
+        Map<Long, Dictionary> dictionaries = reader.getDictionaryVectors();
+        for (int i = 0; i < readers.length; i++) {
+            FieldVector vector = root.getVector(schema.getColumn(i));
+            DictionaryEncoding encoding = vector.getField().getDictionary();
+            readers[i] = encoding == null
+                    ? valueReader(vector)
+                    : dictionaryReader((BaseIntVector) vector, dictionaries.get(encoding.getId()));
+        }
+        batchRows = root.getRowCount();
+        index = 0;
+        return true;
+    }
+
+    /**
+     * 创建字典编码列的取值方式,列中保存的是字典的序号
+     */
+    private static ValueReader dictionaryReader(BaseIntVector indices, Dictionary dictionary) {
+        ValueReader values = valueReader(dictionary.getVector());
+        return i -> indices.isNull(i) ? null : values.read((int) indices.getValueAsLong(i));
+    }
+
+    /**
+     * 根据列的类型选择取值方式
+     */
+    private static ValueReader valueReader(FieldVector vector) {
+        ValueReader reader = switch (vector) {
+            case TinyIntVector v -> i -> (int) v.get(i);
+            case SmallIntVector v -> i -> (int) v.get(i);
+            case IntVector v -> v::get;
+            case BigIntVector v -> v::get;
+            case UInt1Vector v -> i -> (int) v.getValueAsLong(i);
+            case UInt2Vector v -> i -> (int) v.get(i);
+            case UInt4Vector v -> v::getValueAsLong;
+            case UInt8Vector v -> v::getObjectNoOverflow;
+            case Float4Vector v -> v::get;
+            case Float8Vector v -> v::get;
+            case BitVector v -> i -> v.get(i) != 0;
+            case DecimalVector v -> v::getObject;
+            case Decimal256Vector v -> v::getObject;
+            case VarCharVector v -> i -> new String(v.get(i), StandardCharsets.UTF_8);
+            case LargeVarCharVector v -> i -> new String(v.get(i), StandardCharsets.UTF_8);
+            case VarBinaryVector v -> v::get;
+            case LargeVarBinaryVector v -> v::get;
+            case FixedSizeBinaryVector v -> v::get;
+            case DateDayVector v -> i -> LocalDate.ofEpochDay(v.get(i));
+            case DateMilliVector v -> i -> LocalDate.ofEpochDay(Math.floorDiv(v.get(i), 86_400_000L));
+            case TimeSecVector v -> i -> LocalTime.ofSecondOfDay(v.get(i));
+            case TimeMilliVector v -> i -> LocalTime.ofNanoOfDay(v.get(i) * 1_000_000L);
+            case TimeMicroVector v -> i -> LocalTime.ofNanoOfDay(v.get(i) * 1_000L);
+            case TimeNanoVector v -> i -> LocalTime.ofNanoOfDay(v.get(i));
+            case TimeStampVector v -> timestampReader(v);
+            default -> i -> String.valueOf(vector.getObject(i));
+        };
+        return i -> vector.isNull(i) ? null : reader.read(i);
+    }
+
+    /**
+     * 创建时间戳列的取值方式
+     * 不带时区的时间戳为本地时间;带时区的时间戳表示UTC时刻,转换为系统时区的本地时间
+     */
+    private static ValueReader timestampReader(TimeStampVector vector) {
+        ArrowType.Timestamp type = (ArrowType.Timestamp) vector.getField().getType();
+        TimeUnit unit = type.getUnit();
+        ZoneId zone = type.getTimezone() == null ? ZoneOffset.UTC : ZoneId.systemDefault();
+        return i -> {
+            long value = vector.get(i);
+            Instant instant = switch (unit) {
+                case SECOND -> Instant.ofEpochSecond(value);
+                case MILLISECOND -> Instant.ofEpochMilli(value);
+                case MICROSECOND -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L),
+                        Math.floorMod(value, 1_000_000L) * 1_000L);
+                case NANOSECOND -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L),
+                        Math.floorMod(value, 1_000_000_000L));
+            };
+            return LocalDateTime.ofInstant(instant, zone);
+        };
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        try {
+            if (index >= batchRows && !loadBatch()) {
+                current = null;
+                return false;
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new DataAccessException("读取Arrow文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+        Object[] values = new Object[readers.length];
+        for (int i = 0; i < readers.length; i++) {
+            values[i] = readers[i].read(index);
+        }
+        index++;
+        current = new IndexedRow(schema, values);
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return schema.getColumns();
+    }
+
+    /**
+     * 关闭游标
+     * 释放当前批次占用的堆外内存并关闭文件
+     */
+    @Override
+    public void close() {
+        current = null;
+        batchRows = 0;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // 只读文件关闭失败不影响结果
+        }
+        allocator.close();
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            // 只读文件关闭失败不影响结果
+        }
+    }
+}
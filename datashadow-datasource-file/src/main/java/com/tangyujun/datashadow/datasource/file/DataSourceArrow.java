@@ -0,0 +1,157 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.File;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.tangyujun.datashadow.datasource.DataSourceGenerator;
+import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+/**
+ * Arrow IPC数据源
+ * 读取Arrow IPC文件格式(.arrow、.feather)和流格式(.arrows)的列式文件,
+ * 逐个批次读取,取值保留列的原始类型
+ */
+public class DataSourceArrow extends DataSourceFile {
+
+    /**
+     * 支持的文件扩展名
+     */
+    private static final List<String> EXTENSIONS = List.of(".arrow", ".arrows", ".feather", ".ipc");
+
+    /**
+     * 注册Arrow IPC数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "文件", friendlyName = "Arrow IPC")
+    public static DataSourceGenerator generator() {
+        return () -> new DataSourceArrow();
+    }
+
+    /**
+     * 验证Arrow文件路径是否正确
+     *
+     * @throws DataSourceValidException 当文件路径为空、格式错误或文件不可读时抛出
+     */
+    @Override
+    public void valid() throws DataSourceValidException {
+        if (path == null || path.isBlank()) {
+            throw new DataSourceValidException("Arrow文件路径不能为空", null);
+        }
+        String lowercasePath = path.toLowerCase();
+        if (EXTENSIONS.stream().noneMatch(lowercasePath::endsWith)) {
+            throw new DataSourceValidException("文件不是Arrow IPC格式", null);
+        }
+        // 检查文件是否存在且可读
+        File file = new File(path);
+        if (!file.exists()) {
+            throw new DataSourceValidException("Arrow文件不存在", null);
+        }
+        if (!file.canRead()) {
+            throw new DataSourceValidException("Arrow文件无法读取", null);
+        }
+    }
+
+    /**
+     * 从Arrow文件中获取数据
+     * 设置了列投影时只转换投影中的列
+     *
+     * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
+     * @throws DataAccessException 当文件读取失败或格式错误时抛出
+     */
+    @Override
+    public List<Map<String, Object>> acquireValues() throws DataAccessException {
+        try (RowCursor cursor = openCursor()) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 打开数据行游标
+     * 逐个加载记录批次,同一时间只保留一个批次在内存中,详见ArrowRowCursor
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当文件读取失败或格式错误时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
+        try {
+            return new ArrowRowCursor(Paths.get(path), getProjection());
+        } catch (InvalidPathException e) {
+            throw new DataAccessException("读取Arrow文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取Arrow文件的列名
+     * 只读取文件的结构,不加载记录批次
+     *
+     * @return 列名列表,如果读取失败则返回空列表
+     */
+    @Override
+    public List<String> getColumns() {
+        try {
+            return ArrowRowCursor.readColumns(Paths.get(path));
+        } catch (Exception e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * 获取数据源的描述信息
+     * 用于在界面上显示数据源的基本信息
+     * 例如: Arrow文件: D:/orders.arrow
+     *
+     * @return 数据源的描述信息字符串
+     */
+    @Override
+    public String getDescription() {
+        if (path == null || path.isBlank()) {
+            return "";
+        }
+        return "Arrow文件: " + path;
+    }
+
+    /**
+     * 导出为JSON，包含dataType和originData和父类的字段
+     * 例如：{"path":"/path/to/file.arrow","mappings":{}}
+     */
+    @Override
+    public String exportSource() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 导入为JSON，包含dataType和originData和父类的字段
+     * 例如：{"path":"/path/to/file.arrow","mappings":{}}
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void importSource(String exportValueString) {
+        // 解析JSON
+        Map<String, Object> map = JSON.parseObject(exportValueString, new TypeReference<Map<String, Object>>() {
+        });
+        if (map == null) {
+            return;
+        }
+        // 解析数据
+        try {
+            this.setPath((String) map.get("path"));
+            this.setMappings((Map<String, String>) map.get("mappings"));
+        } catch (Exception e) {
+        }
+    }
+}
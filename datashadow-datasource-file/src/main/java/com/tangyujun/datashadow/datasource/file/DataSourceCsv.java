@@ -11,6 +11,7 @@ import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,6 +26,7 @@ import com.alibaba.fastjson2.TypeReference;
 import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
 import com.tangyujun.datashadow.datasource.DataSourceGenerator;
 import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.RowCursor;
 import com.tangyujun.datashadow.exception.DataAccessException;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
@@ -98,20 +100,74 @@ public class DataSourceCsv extends DataSourceFile {
      * 从CSV文件中获取数据
      * 读取CSV文件的所有数据,第一行作为表头
      * 支持自定义编码格式读取
+     * 设置了列投影时只读取投影中的列
      * 
      * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
      * @throws DataAccessException 当CSV文件读取失败时抛出
      */
     @Override
     public List<Map<String, Object>> acquireValues() throws DataAccessException {
+        try (RowCursor cursor = openCursor()) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 打开数据行游标
+     * 编码支持时通过内存映射分块并行解析,按文件顺序逐行返回,详见MappedCsvCursor;
+     * 其他编码使用Commons CSV顺序读取
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当CSV文件读取失败时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
+        Charset charset;
+        try {
+            charset = getCharset();
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("读取CSV文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+        if (!MappedCsvCursor.supports(charset)) {
+            return RowCursor.of(parseValues());
+        }
+        try {
+            return new MappedCsvCursor(Paths.get(path), charset, getProjection(), MappedCsvCursor.DEFAULT_CHUNK_SIZE);
+        } catch (IOException | InvalidPathException e) {
+            throw new DataAccessException("读取CSV文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取文件编码
+     *
+     * @return 配置的编码,未配置时为UTF-8
+     */
+    private Charset getCharset() {
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 使用Commons CSV顺序读取全部数据
+     *
+     * @return 数据行列表
+     * @throws DataAccessException 当CSV文件读取失败时抛出
+     */
+    private List<Map<String, Object>> parseValues() throws DataAccessException {
         List<Map<String, Object>> result = new ArrayList<>();
         try (FileReader reader = new FileReader(path,
                 encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8);
                 CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().build().parse(reader)) {
 
+            // 需要读取的列在解析表头后确定一次,不再逐行判断
+            List<String> headers = parser.getHeaderNames().stream().filter(this::isProjected).toList();
             for (CSVRecord record : parser) {
                 Map<String, Object> rowData = new HashMap<>();
-                parser.getHeaderNames().forEach(header -> rowData.put(header, record.get(header)));
+                headers.forEach(header -> rowData.put(header, record.get(header)));
                 result.add(rowData);
             }
         } catch (IOException | IllegalArgumentException e) {
@@ -168,6 +224,13 @@ public class DataSourceCsv extends DataSourceFile {
      */
     @Override
     public List<String> getColumns() {
+        try {
+            if (MappedCsvCursor.supports(getCharset())) {
+                return new ArrayList<>(MappedCsvCursor.readHeader(Paths.get(path), getCharset()));
+            }
+        } catch (Exception e) {
+            return new ArrayList<>();
+        }
         try (Reader reader = Files.newBufferedReader(Paths.get(path),
                 encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding))) {
             CSVParser parser = CSVFormat.DEFAULT.parse(reader);
@@ -2,13 +2,15 @@ package com.tangyujun.datashadow.datasource.file;
 
 import java.io.File;
 
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.TypeReference;
 import com.tangyujun.datashadow.datasource.DataSourceGenerator;
 import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.RowCursor;
 import com.tangyujun.datashadow.exception.DataAccessException;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
@@ -16,6 +18,7 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 
 import java.io.FileInputStream;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -27,6 +30,7 @@ import java.io.IOException;
  * Excel数据源
  * 支持读取.xls和.xlsx格式的Excel文件
  * 将Excel表格数据转换为结构化数据
+ * .xlsx文件基于POI的事件模型流式读取,.xls文件使用HSSF读取
  */
 public class DataSourceExcel extends DataSourceFile {
 
@@ -64,9 +68,21 @@ public class DataSourceExcel extends DataSourceFile {
                 throw new DataSourceValidException("Excel文件路径格式错误", null);
             }
 
+            if (lowercasePath.endsWith(".xlsx")) {
+                // 只读取工作簿中的工作表列表,不解析工作表内容
+                List<String> sheetNames = XlsxRowCursor.readSheetNames(Paths.get(path));
+                if (sheetName != null && !sheetName.isBlank()) {
+                    if (!sheetNames.contains(sheetName)) {
+                        throw new DataSourceValidException("Excel工作表不存在: " + sheetName, null);
+                    }
+                } else if (sheetNames.isEmpty()) {
+                    throw new DataSourceValidException("Excel文件路径格式错误", null);
+                }
+                return;
+            }
+
             try (FileInputStream fis = new FileInputStream(path);
-                    Workbook workbook = lowercasePath.endsWith(".xlsx") ? new XSSFWorkbook(fis)
-                            : new HSSFWorkbook(fis)) {
+                    Workbook workbook = new HSSFWorkbook(fis)) {
                 Sheet sheet;
                 if (sheetName != null && !sheetName.isBlank()) {
                     sheet = workbook.getSheet(sheetName);
@@ -80,7 +96,7 @@ public class DataSourceExcel extends DataSourceFile {
                     }
                 }
             }
-        } catch (IOException | IllegalArgumentException e) {
+        } catch (IOException | OpenXML4JException | POIXMLException | IllegalArgumentException e) {
             throw new DataSourceValidException("Excel文件路径格式错误", e);
         }
     }
@@ -89,18 +105,53 @@ public class DataSourceExcel extends DataSourceFile {
      * 从Excel文件中获取数据
      * 读取指定工作表的数据,第一行作为表头
      * 如果未指定工作表名称则读取第一个工作表
+     * 设置了列投影时只读取投影中的列,其他列的单元格不做取值和类型转换
      * 
      * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
      * @throws DataAccessException 当Excel文件读取失败时抛出
      */
     @Override
     public List<Map<String, Object>> acquireValues() throws DataAccessException {
+        try (RowCursor cursor = openCursor()) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 打开数据行游标
+     * .xlsx文件通过XlsxRowCursor逐行解析工作表的XML,不构建整个工作簿,详见XlsxRowCursor;
+     * .xls文件使用HSSF读取全部数据后逐行返回
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当Excel文件读取失败时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
+        if (!path.toLowerCase().endsWith(".xlsx")) {
+            return RowCursor.of(readWorkbook());
+        }
+        try {
+            return new XlsxRowCursor(Paths.get(path), sheetName, getProjection());
+        } catch (InvalidPathException e) {
+            throw new DataAccessException("读取Excel文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 使用HSSF读取.xls文件的全部数据
+     *
+     * @return 数据行列表
+     * @throws DataAccessException 当Excel文件读取失败时抛出
+     */
+    private List<Map<String, Object>> readWorkbook() throws DataAccessException {
         List<Map<String, Object>> result = new ArrayList<>();
         try {
-            String lowercasePath = path.toLowerCase();
             try (FileInputStream fis = new FileInputStream(path);
-                    Workbook workbook = lowercasePath.endsWith(".xlsx") ? new XSSFWorkbook(fis)
-                            : new HSSFWorkbook(fis)) {
+                    Workbook workbook = new HSSFWorkbook(fis)) {
 
                 Sheet sheet;
                 if (sheetName != null && !sheetName.isBlank()) {
@@ -111,10 +162,15 @@ public class DataSourceExcel extends DataSourceFile {
 
                 Row headerRow = sheet.getRow(0);
                 List<String> headers = new ArrayList<>();
+                List<Integer> indexes = new ArrayList<>();
 
-                // 读取表头
+                // 读取表头,记录需要读取的列序号
                 for (Cell cell : headerRow) {
-                    headers.add(cell.getStringCellValue());
+                    String header = cell.getStringCellValue();
+                    headers.add(header);
+                    if (isProjected(header)) {
+                        indexes.add(headers.size() - 1);
+                    }
                 }
 
                 // 读取数据行
@@ -124,7 +180,7 @@ public class DataSourceExcel extends DataSourceFile {
                         continue;
 
                     Map<String, Object> rowData = new HashMap<>();
-                    for (int j = 0; j < headers.size(); j++) {
+                    for (int j : indexes) {
                         Cell cell = row.getCell(j);
                         if (cell != null) {
                             rowData.put(headers.get(j), getCellValue(cell));
@@ -172,11 +228,19 @@ public class DataSourceExcel extends DataSourceFile {
      * 获取Excel文件的列名
      * 读取Excel文件第一行作为列名
      * 如果指定了工作表名称则读取指定工作表,否则读取第一个工作表
+     * .xlsx文件只解析到第一行为止
      * 
      * @return 列名列表,如果读取失败则返回空列表
      */
     @Override
     public List<String> getColumns() {
+        if (path != null && path.toLowerCase().endsWith(".xlsx")) {
+            try (XlsxRowCursor cursor = new XlsxRowCursor(Paths.get(path), sheetName, null)) {
+                return new ArrayList<>(cursor.getHeaders());
+            } catch (Exception e) {
+                return new ArrayList<>();
+            }
+        }
         try (Workbook workbook = WorkbookFactory.create(new File(path))) {
             Sheet sheet;
             if (sheetName != null && !sheetName.isBlank()) {
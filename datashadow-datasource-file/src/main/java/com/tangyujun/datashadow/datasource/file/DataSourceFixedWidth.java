@@ -0,0 +1,473 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.TypeReference;
+import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
+import com.tangyujun.datashadow.datasource.DataSourceGenerator;
+import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * 定长文件数据源
+ * 读取每条记录字节长度相同的文本文件,如主机下传文件和银行对账文件,
+ * 按配置的字段布局从每条记录中截取字段,文件没有表头
+ */
+public class DataSourceFixedWidth extends DataSourceFile {
+
+    /**
+     * 文件编码
+     * 如果未指定则默认使用UTF-8编码
+     */
+    private String encoding;
+
+    /**
+     * 记录的字节长度,包括换行符,为0时按第一个换行符自动识别
+     */
+    private int recordLength;
+
+    /**
+     * 字段布局
+     */
+    private List<FixedWidthField> fields = new ArrayList<>();
+
+    /**
+     * 注册定长文件数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "文件", friendlyName = "定长文件")
+    public static DataSourceGenerator generator() {
+        return () -> new DataSourceFixedWidth();
+    }
+
+    /**
+     * 验证定长文件的路径、编码和字段布局是否正确
+     *
+     * @throws DataSourceValidException 当文件不可读、编码不支持或字段布局错误时抛出
+     */
+    @Override
+    public void valid() throws DataSourceValidException {
+        if (path == null || path.isBlank()) {
+            throw new DataSourceValidException("定长文件路径不能为空", null);
+        }
+        try {
+            if (!Files.isReadable(Paths.get(path))) {
+                throw new DataSourceValidException("定长文件路径不可读", null);
+            }
+        } catch (InvalidPathException e) {
+            throw new DataSourceValidException("定长文件路径格式错误", e);
+        }
+        try {
+            if (!FixedWidthCursor.supports(getCharset())) {
+                throw new DataSourceValidException("定长文件不支持编码: " + encoding, null);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new DataSourceValidException("定长文件不支持编码: " + encoding, e);
+        }
+        if (recordLength < 0) {
+            throw new DataSourceValidException("记录长度不能小于0", null);
+        }
+        if (fields == null || fields.isEmpty()) {
+            throw new DataSourceValidException("定长文件字段布局不能为空", null);
+        }
+        Set<String> names = new HashSet<>();
+        for (FixedWidthField field : fields) {
+            if (field.getName() == null || field.getName().isBlank()) {
+                throw new DataSourceValidException("字段名称不能为空", null);
+            }
+            if (!names.add(field.getName())) {
+                throw new DataSourceValidException("字段名称重复: " + field.getName(), null);
+            }
+            if (field.getOffset() < 0 || field.getLength() <= 0 || field.getType() == null) {
+                throw new DataSourceValidException("字段" + field.getName() + "的位置、长度或类型错误", null);
+            }
+            if (recordLength > 0 && field.getOffset() + field.getLength() > recordLength) {
+                throw new DataSourceValidException("字段" + field.getName() + "超出记录长度", null);
+            }
+        }
+    }
+
+    /**
+     * 从定长文件中获取数据
+     * 设置了列投影时只解码投影中的字段
+     *
+     * @return 查询结果列表,每行数据以Map形式存储,key为字段名称,value为字段值
+     * @throws DataAccessException 当文件读取失败或字段无法解析时抛出
+     */
+    @Override
+    public List<Map<String, Object>> acquireValues() throws DataAccessException {
+        try (RowCursor cursor = openCursor()) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 打开数据行游标
+     * 通过内存映射按记录分段并行解码,按文件顺序逐行返回,详见FixedWidthCursor
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当文件读取失败或编码不支持时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
+        Charset charset;
+        try {
+            charset = getCharset();
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("读取定长文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+        if (!FixedWidthCursor.supports(charset)) {
+            throw new DataAccessException("读取定长文件失败: 不支持编码" + charset.name(), null);
+        }
+        try {
+            return new FixedWidthCursor(Paths.get(path), charset, fields, recordLength, getProjection(),
+                    FixedWidthCursor.DEFAULT_CHUNK_SIZE);
+        } catch (IOException | InvalidPathException e) {
+            throw new DataAccessException("读取定长文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取文件编码
+     *
+     * @return 配置的编码,未配置时为UTF-8
+     */
+    private Charset getCharset() {
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 获取列名
+     * 为字段布局中的字段名称,不读取文件
+     *
+     * @return 列名列表
+     */
+    @Override
+    public List<String> getColumns() {
+        List<String> columns = new ArrayList<>();
+        if (fields != null) {
+            fields.forEach(field -> columns.add(field.getName()));
+        }
+        return columns;
+    }
+
+    /**
+     * 获取数据源的描述信息
+     * 用于在界面上显示数据源的基本信息
+     * 例如: 定长文件: D:/bank.dat(GBK, 5个字段)
+     *
+     * @return 数据源的描述信息字符串
+     */
+    @Override
+    public String getDescription() {
+        if (path == null || path.isBlank()) {
+            return "";
+        }
+        return "定长文件: " + path + "(" + (encoding == null ? "UTF-8" : encoding) + ", "
+                + (fields == null ? 0 : fields.size()) + "个字段)";
+    }
+
+    /**
+     * 获取文件编码
+     *
+     * @return 编码格式,未设置时为null
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * 设置文件编码
+     * 如果不设置则默认使用UTF-8编码
+     *
+     * @param encoding 编码格式,如UTF-8、GBK、IBM037等
+     */
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * 获取记录长度
+     *
+     * @return 记录的字节长度,包括换行符,为0时自动识别
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * 设置记录长度
+     *
+     * @param recordLength 记录的字节长度,包括换行符,为0时按第一个换行符自动识别
+     */
+    public void setRecordLength(int recordLength) {
+        this.recordLength = recordLength;
+    }
+
+    /**
+     * 获取字段布局
+     *
+     * @return 字段定义列表
+     */
+    public List<FixedWidthField> getFields() {
+        return fields;
+    }
+
+    /**
+     * 设置字段布局
+     *
+     * @param fields 字段定义列表
+     */
+    public void setFields(List<FixedWidthField> fields) {
+        this.fields = fields == null ? new ArrayList<>() : fields;
+    }
+
+    /**
+     * 重写equals方法
+     * 如果两个对象的path、encoding、recordLength和fields属性都相等,则认为这两个对象相等
+     *
+     * @param o 要比较的对象
+     * @return 如果对象相等返回true,否则返回false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        if (!super.equals(o))
+            return false;
+        DataSourceFixedWidth that = (DataSourceFixedWidth) o;
+        return recordLength == that.recordLength && Objects.equals(encoding, that.encoding)
+                && Objects.equals(fields, that.fields);
+    }
+
+    /**
+     * 重写hashCode方法
+     * 根据对象的path、encoding、recordLength和fields属性生成哈希码
+     *
+     * @return 对象的哈希码
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), encoding, recordLength, fields);
+    }
+
+    /**
+     * 导出为JSON，包含dataType和originData和父类的字段
+     * 例如：{"path":"/path/to/file.dat","encoding":"GBK","recordLength":0,
+     * "fields":[{"name":"账号","offset":0,"length":19,"trim":true,"type":"STRING"}],"mappings":{}}
+     */
+    @Override
+    public String exportSource() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 导入为JSON，包含dataType和originData和父类的字段
+     * 例如：{"path":"/path/to/file.dat","encoding":"GBK","recordLength":0,
+     * "fields":[{"name":"账号","offset":0,"length":19,"trim":true,"type":"STRING"}],"mappings":{}}
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void importSource(String exportValueString) {
+        // 解析JSON
+        Map<String, Object> map = JSON.parseObject(exportValueString, new TypeReference<Map<String, Object>>() {
+        });
+        if (map == null) {
+            return;
+        }
+        // 解析数据
+        try {
+            this.setPath((String) map.get("path"));
+            this.setEncoding((String) map.get("encoding"));
+            this.setRecordLength(map.get("recordLength") instanceof Number number ? number.intValue() : 0);
+            if (map.get("fields") instanceof JSONArray array) {
+                this.setFields(array.toJavaList(FixedWidthField.class));
+            }
+            this.setMappings((Map<String, String>) map.get("mappings"));
+        } catch (Exception e) {
+        }
+    }
+
+    /**
+     * 配置定长文件数据源
+     * 提供文件选择、编码、记录长度和字段布局的设置
+     *
+     * @param primaryStage 主窗口
+     * @param callback     配置完成后的回调函数
+     */
+    @Override
+    public void configure(Window primaryStage, DataSourceConfigurationCallback callback) {
+        // 创建配置对话框
+        Stage dialog = new Stage();
+        dialog.initOwner(primaryStage);
+        dialog.initModality(Modality.WINDOW_MODAL);
+        dialog.setTitle("配置定长文件数据源");
+
+        VBox root = new VBox(10);
+        root.setPadding(new Insets(10));
+
+        // 文件路径选择区域
+        HBox pathBox = new HBox(10);
+        pathBox.setAlignment(Pos.CENTER_LEFT);
+        TextField pathField = new TextField();
+        pathField.setEditable(false);
+        pathField.setPrefWidth(300);
+        if (path != null) {
+            pathField.setText(path);
+        }
+        Button browseButton = new Button("浏览");
+        pathBox.getChildren().addAll(new Label("文件路径:"), pathField, browseButton);
+
+        // 编码和记录长度区域
+        HBox encodingBox = new HBox(10);
+        encodingBox.setAlignment(Pos.CENTER_LEFT);
+        ComboBox<String> encodingCombo = new ComboBox<>();
+        encodingCombo.getItems().addAll(
+                "UTF-8",
+                "GBK",
+                "GB18030",
+                "ISO-8859-1",
+                "IBM037");
+        encodingCombo.setValue(encoding != null ? encoding : "UTF-8");
+        TextField recordLengthField = new TextField(recordLength > 0 ? String.valueOf(recordLength) : "");
+        recordLengthField.setPromptText("自动识别");
+        recordLengthField.setPrefWidth(100);
+        encodingBox.getChildren().addAll(new Label("文件编码:"), encodingCombo,
+                new Label("记录长度(含换行):"), recordLengthField);
+
+        // 字段布局区域
+        TextArea layoutArea = new TextArea(FixedWidthField.formatLayout(fields));
+        layoutArea.setPromptText("每行一个字段: 名称,起始位置,长度[,类型[,是否去空格]]\n"
+                + "起始位置按字节从0开始,类型为STRING、INTEGER、DECIMAL、DATE\n例如: 账号,0,19,STRING,true");
+        layoutArea.setPrefRowCount(10);
+
+        // 按钮区域
+        HBox buttonBox = new HBox(10);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+        Button confirmButton = new Button("确定");
+        Button cancelButton = new Button("取消");
+        buttonBox.getChildren().addAll(cancelButton, confirmButton);
+
+        // 将所有组件添加到根容器
+        root.getChildren().addAll(pathBox, encodingBox, new Label("字段布局:"), layoutArea, buttonBox);
+
+        // 设置浏览按钮事件
+        browseButton.setOnAction(event -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("选择定长文件");
+            fileChooser.getExtensionFilters().addAll(
+                    new FileChooser.ExtensionFilter("Fixed Width Files", "*.txt", "*.dat"),
+                    new FileChooser.ExtensionFilter("All Files", "*.*"));
+            // 如果已有路径，则设置初始目录
+            if (path != null && !path.isBlank()) {
+                File currentFile = new File(path);
+                if (currentFile.getParentFile() != null) {
+                    fileChooser.setInitialDirectory(currentFile.getParentFile());
+                }
+            }
+            File selectedFile = fileChooser.showOpenDialog(dialog);
+            if (selectedFile != null) {
+                pathField.setText(selectedFile.getAbsolutePath());
+            }
+        });
+
+        // 设置确定按钮事件
+        confirmButton.setOnAction(event -> {
+            String selectedPath = pathField.getText();
+            if (selectedPath == null || selectedPath.isBlank()) {
+                showError("请选择定长文件");
+                return;
+            }
+            List<FixedWidthField> selectedFields;
+            int selectedRecordLength;
+            try {
+                selectedFields = FixedWidthField.parseLayout(layoutArea.getText());
+                String lengthText = recordLengthField.getText();
+                selectedRecordLength = lengthText == null || lengthText.isBlank() ? 0
+                        : Integer.parseInt(lengthText.strip());
+            } catch (IllegalArgumentException e) {
+                showError("配置格式错误: " + e.getMessage());
+                return;
+            }
+
+            // 更新数据源配置
+            setPath(selectedPath);
+            setEncoding(encodingCombo.getValue());
+            setRecordLength(selectedRecordLength);
+            setFields(selectedFields);
+
+            try {
+                // 验证配置
+                valid();
+                // 通知配置完成
+                callback.onConfigureFinished();
+                dialog.close();
+            } catch (DataSourceValidException e) {
+                showError("配置验证失败: " + e.getMessage());
+            }
+        });
+
+        // 设置取消按钮事件
+        cancelButton.setOnAction(event -> {
+            callback.onConfigureCancelled();
+            dialog.close();
+        });
+
+        // 显示对话框
+        Scene scene = new Scene(root);
+        dialog.setScene(scene);
+        dialog.showAndWait();
+    }
+
+    /**
+     * 显示错误信息对话框
+     *
+     * @param message 错误信息
+     */
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("错误");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -1,8 +1,7 @@
 package com.tangyujun.datashadow.datasource.file;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,14 +11,21 @@ import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.TypeReference;
 import com.tangyujun.datashadow.datasource.DataSourceGenerator;
 import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.RowCursor;
 import com.tangyujun.datashadow.exception.DataAccessException;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
 /**
  * JSON数据源
+ * 读取内容为对象数组的JSON文件,每个对象为一行数据
  */
 public class DataSourceJson extends DataSourceFile {
 
+    /**
+     * 获取列名时读取的对象个数
+     */
+    private static final int COLUMN_SAMPLE = 10;
+
     /**
      * 注册JSON数据源生成器
      * 
@@ -57,43 +63,49 @@ public class DataSourceJson extends DataSourceFile {
 
     /**
      * 从JSON文件中获取数据
+     * 设置了列投影时逐个字段解析,投影以外的字段直接跳过,不构建其值
      * 
      * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
      * @throws DataAccessException 当JSON文件读取失败时抛出
      */
     @Override
     public List<Map<String, Object>> acquireValues() throws DataAccessException {
-        List<Map<String, Object>> result = new ArrayList<>();
+        try (RowCursor cursor = openCursor()) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 打开数据行游标
+     * 按块读取文件,每次只解析数组中的一个对象,详见JsonArrayCursor
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当JSON文件读取失败或格式错误时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
         try {
-            String jsonContent = new String(Files.readAllBytes(java.nio.file.Paths.get(path)), "UTF-8");
-            result = JSON.parseObject(jsonContent,
-                    new TypeReference<List<Map<String, Object>>>() {
-                    });
-        } catch (IOException e) {
+            return new JsonArrayCursor(Paths.get(path), getProjection(), JsonArrayCursor.BUFFER_SIZE);
+        } catch (InvalidPathException e) {
             throw new DataAccessException("读取JSON文件失败: " + path + ", 原因: " + e.getMessage(), e);
         }
-        return result;
     }
 
     /**
      * 获取JSON文件的列名
-     * 读取JSON文件第一行作为列名
+     * 读取数组开头的COLUMN_SAMPLE个对象,按出现顺序合并其字段名作为列名,不解析文件的其余部分
      * 
      * @return 列名列表,如果读取失败则返回空列表
      */
     @Override
     public List<String> getColumns() {
         try {
-            String jsonContent = new String(Files.readAllBytes(Paths.get(path)), "UTF-8");
-            List<Map<String, Object>> data = JSON.parseObject(jsonContent,
-                    new TypeReference<List<Map<String, Object>>>() {
-                    });
-            if (data != null && !data.isEmpty()) {
-                // 返回第一条数据的所有键作为列名
-                return new ArrayList<>(data.get(0).keySet());
-            }
-            return new ArrayList<>();
-        } catch (IOException e) {
+            return JsonArrayCursor.readColumns(Paths.get(path), COLUMN_SAMPLE);
+        } catch (Exception e) {
             return new ArrayList<>();
         }
     }
@@ -0,0 +1,349 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
+import com.tangyujun.datashadow.datasource.DataSourceGenerator;
+import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * JSON Lines数据源
+ * 支持读取每行一个JSON对象的文件(.jsonl、.ndjson),每个对象为一行数据
+ * 支持gzip压缩的文件,可以将嵌套对象展开为以点号连接路径命名的列
+ */
+public class DataSourceNdjson extends DataSourceFile {
+
+    /**
+     * 获取列名时读取的行数
+     */
+    private static final int COLUMN_SAMPLE = 10;
+
+    /**
+     * 支持的文件扩展名,可以再加上.gz
+     */
+    private static final List<String> EXTENSIONS = List.of(".jsonl", ".ndjson");
+
+    /**
+     * 是否将嵌套对象展开为列
+     * 展开时{"a":{"b":1}}得到列a.b,否则列a的值为嵌套对象
+     */
+    private boolean flatten;
+
+    /**
+     * 注册JSON Lines数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "文件", friendlyName = "JSON Lines")
+    public static DataSourceGenerator generator() {
+        return () -> new DataSourceNdjson();
+    }
+
+    /**
+     * 验证JSON Lines文件路径是否正确
+     *
+     * @throws DataSourceValidException 当文件路径为空、格式错误或文件不可读时抛出
+     */
+    @Override
+    public void valid() throws DataSourceValidException {
+        if (path == null || path.isBlank()) {
+            throw new DataSourceValidException("JSON Lines文件路径不能为空", null);
+        }
+        String lowercasePath = path.toLowerCase();
+        if (lowercasePath.endsWith(".gz")) {
+            lowercasePath = lowercasePath.substring(0, lowercasePath.length() - 3);
+        }
+        if (EXTENSIONS.stream().noneMatch(lowercasePath::endsWith)) {
+            throw new DataSourceValidException("文件不是JSON Lines格式", null);
+        }
+        try {
+            if (!Files.isReadable(Paths.get(path))) {
+                throw new DataSourceValidException("JSON Lines文件路径不可读", null);
+            }
+        } catch (InvalidPathException e) {
+            throw new DataSourceValidException("JSON Lines文件路径格式错误", e);
+        }
+    }
+
+    /**
+     * 从JSON Lines文件中获取数据
+     * 设置了列投影时投影以外的字段直接跳过,不构建其值
+     *
+     * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
+     * @throws DataAccessException 当文件读取失败或格式错误时抛出
+     */
+    @Override
+    public List<Map<String, Object>> acquireValues() throws DataAccessException {
+        try (RowCursor cursor = openCursor()) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 打开数据行游标
+     * 按换行切分为块后并行解析,按文件顺序逐行返回,详见NdjsonCursor
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当文件读取失败时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
+        try {
+            return new NdjsonCursor(Paths.get(path), getProjection(), flatten, NdjsonCursor.DEFAULT_CHUNK_SIZE);
+        } catch (IOException | InvalidPathException e) {
+            throw new DataAccessException("读取JSON Lines文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取JSON Lines文件的列名
+     * 读取开头的COLUMN_SAMPLE行,按出现顺序合并其字段名作为列名
+     *
+     * @return 列名列表,如果读取失败则返回空列表
+     */
+    @Override
+    public List<String> getColumns() {
+        try {
+            return NdjsonCursor.readColumns(Paths.get(path), flatten, COLUMN_SAMPLE);
+        } catch (Exception e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * 获取数据源的描述信息
+     * 用于在界面上显示数据源的基本信息
+     * 例如: JSON Lines文件: D:/orders.jsonl(展开嵌套对象)
+     *
+     * @return 数据源的描述信息字符串
+     */
+    @Override
+    public String getDescription() {
+        if (path == null || path.isBlank()) {
+            return "";
+        }
+        return "JSON Lines文件: " + path + (flatten ? "(展开嵌套对象)" : "");
+    }
+
+    /**
+     * 是否将嵌套对象展开为列
+     *
+     * @return 展开时返回true
+     */
+    public boolean isFlatten() {
+        return flatten;
+    }
+
+    /**
+     * 设置是否将嵌套对象展开为列
+     *
+     * @param flatten 展开时为true
+     */
+    public void setFlatten(boolean flatten) {
+        this.flatten = flatten;
+    }
+
+    /**
+     * 重写equals方法
+     * 如果两个对象的path和flatten属性都相等,则认为这两个对象相等
+     *
+     * @param o 要比较的对象
+     * @return 如果对象相等返回true,否则返回false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        if (!super.equals(o))
+            return false;
+        DataSourceNdjson that = (DataSourceNdjson) o;
+        return flatten == that.flatten;
+    }
+
+    /**
+     * 重写hashCode方法
+     * 根据对象的path和flatten属性生成哈希码
+     *
+     * @return 对象的哈希码
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), flatten);
+    }
+
+    /**
+     * 导出为JSON，包含dataType和originData和父类的字段
+     * 例如：{"path":"/path/to/file.jsonl","flatten":true,"mappings":{}}
+     */
+    @Override
+    public String exportSource() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 导入为JSON，包含dataType和originData和父类的字段
+     * 例如：{"path":"/path/to/file.jsonl","flatten":true,"mappings":{}}
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void importSource(String exportValueString) {
+        // 解析JSON
+        Map<String, Object> map = JSON.parseObject(exportValueString, new TypeReference<Map<String, Object>>() {
+        });
+        if (map == null) {
+            return;
+        }
+        // 解析数据
+        try {
+            this.setPath((String) map.get("path"));
+            this.setFlatten(Boolean.TRUE.equals(map.get("flatten")));
+            this.setMappings((Map<String, String>) map.get("mappings"));
+        } catch (Exception e) {
+        }
+    }
+
+    /**
+     * 配置JSON Lines数据源
+     * 提供文件选择和是否展开嵌套对象的设置
+     *
+     * @param primaryStage 主窗口
+     * @param callback     配置完成后的回调函数
+     */
+    @Override
+    public void configure(Window primaryStage, DataSourceConfigurationCallback callback) {
+        // 创建配置对话框
+        Stage dialog = new Stage();
+        dialog.initOwner(primaryStage);
+        dialog.initModality(Modality.WINDOW_MODAL);
+        dialog.setTitle("配置JSON Lines数据源");
+
+        VBox root = new VBox(10);
+        root.setPadding(new Insets(10));
+
+        // 文件路径选择区域
+        HBox pathBox = new HBox(10);
+        pathBox.setAlignment(Pos.CENTER_LEFT);
+        TextField pathField = new TextField();
+        pathField.setEditable(false);
+        pathField.setPrefWidth(300);
+        if (path != null) {
+            pathField.setText(path);
+        }
+        Button browseButton = new Button("浏览");
+        pathBox.getChildren().addAll(new Label("文件路径:"), pathField, browseButton);
+
+        // 展开嵌套对象
+        CheckBox flattenCheck = new CheckBox("将嵌套对象展开为列(如a.b)");
+        flattenCheck.setSelected(flatten);
+
+        // 按钮区域
+        HBox buttonBox = new HBox(10);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+        Button confirmButton = new Button("确定");
+        Button cancelButton = new Button("取消");
+        buttonBox.getChildren().addAll(cancelButton, confirmButton);
+
+        // 将所有组件添加到根容器
+        root.getChildren().addAll(pathBox, flattenCheck, buttonBox);
+
+        // 设置浏览按钮事件
+        browseButton.setOnAction(event -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("选择JSON Lines文件");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON Lines Files",
+                    "*.jsonl", "*.ndjson", "*.jsonl.gz", "*.ndjson.gz"));
+            // 如果已有路径，则设置初始目录
+            if (path != null && !path.isBlank()) {
+                File currentFile = new File(path);
+                if (currentFile.getParentFile() != null) {
+                    fileChooser.setInitialDirectory(currentFile.getParentFile());
+                }
+            }
+            File selectedFile = fileChooser.showOpenDialog(dialog);
+            if (selectedFile != null) {
+                pathField.setText(selectedFile.getAbsolutePath());
+            }
+        });
+
+        // 设置确定按钮事件
+        confirmButton.setOnAction(event -> {
+            String selectedPath = pathField.getText();
+            if (selectedPath == null || selectedPath.isBlank()) {
+                showError("请选择JSON Lines文件");
+                return;
+            }
+
+            // 更新数据源配置
+            setPath(selectedPath);
+            setFlatten(flattenCheck.isSelected());
+
+            try {
+                // 验证配置
+                valid();
+                // 通知配置完成
+                callback.onConfigureFinished();
+                dialog.close();
+            } catch (DataSourceValidException e) {
+                showError("配置验证失败: " + e.getMessage());
+            }
+        });
+
+        // 设置取消按钮事件
+        cancelButton.setOnAction(event -> {
+            callback.onConfigureCancelled();
+            dialog.close();
+        });
+
+        // 显示对话框
+        Scene scene = new Scene(root);
+        dialog.setScene(scene);
+        dialog.showAndWait();
+    }
+
+    /**
+     * 显示错误信息对话框
+     *
+     * @param message 错误信息
+     */
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("错误");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -1,29 +1,40 @@
 package com.tangyujun.datashadow.datasource.file;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import java.util.Objects;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.TypeReference;
+import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
 import com.tangyujun.datashadow.datasource.DataSourceGenerator;
 import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datatype.XmlRecordCursor;
 import com.tangyujun.datashadow.exception.DataAccessException;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
 /**
  * XML数据源
  * 
@@ -32,6 +43,9 @@ import com.tangyujun.datashadow.exception.DataSourceValidException;
  * XML文件格式要求:
  * 1. 根元素下包含多个相同结构的子元素,每个子元素代表一条数据记录
  * 2. 每条记录的子元素名称作为列名,元素内容作为数据值
+ * 3. 记录不在根元素下时,可以配置记录路径,如export/orders/order
+ * 
+ * 基于StAX逐条读取记录,不构建整个文档的DOM,详见XmlRecordCursor
  * 
  * 示例XML格式:
  * ┌─────────────────────────┐
@@ -61,6 +75,12 @@ import com.tangyujun.datashadow.exception.DataSourceValidException;
  */
 public class DataSourceXml extends DataSourceFile {
 
+    /**
+     * 记录元素的路径
+     * 从根元素开始、以斜杠分隔的元素名称,为空时读取根元素下的每个子元素
+     */
+    private String recordPath;
+
     /**
      * 注册XML数据源生成器
      * 
@@ -77,8 +97,9 @@ public class DataSourceXml extends DataSourceFile {
      * 1. 文件路径不能为空
      * 2. 文件必须以.xml结尾
      * 3. 文件必须存在且可读
+     * 4. 记录路径格式正确
      * 
-     * @throws DataSourceValidException 当XML文件路径格式错误时抛出
+     * @throws DataSourceValidException 当XML文件路径或记录路径格式错误时抛出
      */
     @Override
     public void valid() throws DataSourceValidException {
@@ -98,112 +119,64 @@ public class DataSourceXml extends DataSourceFile {
         if (!file.canRead()) {
             throw new DataSourceValidException("XML文件无法读取", null);
         }
+        try {
+            XmlRecordCursor.parsePath(recordPath);
+        } catch (IllegalArgumentException e) {
+            throw new DataSourceValidException("XML记录路径格式错误", e);
+        }
     }
 
     /**
      * 从XML文件中获取数据
-     * 读取步骤:
-     * 1. 创建XML解析器
-     * 2. 解析XML文档获取DOM树
-     * 3. 遍历根元素下的每个子元素(数据记录)
-     * 4. 将每个记录的子元素名称和内容转换为Map
-     * 5. 将所有记录添加到结果列表中
+     * 逐条读取记录元素,每条记录的子元素名称和内容转换为Map,
+     * 设置了列投影时跳过投影以外的子元素,不读取其内容
      * 
      * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
-     * @throws DataAccessException 当XML文件读取失败时抛出,可能的原因包括:
-     *                             - XML解析器配置错误
-     *                             - XML文件格式错误
-     *                             - 文件读取IO异常
+     * @throws DataAccessException 当XML文件读取失败或格式错误时抛出
      */
     @Override
     public List<Map<String, Object>> acquireValues() throws DataAccessException {
-        List<Map<String, Object>> result = new ArrayList<>();
-        try {
-            // 创建DocumentBuilder
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-
-            // 解析XML文件
-            Document document = builder.parse(new File(path));
-            document.getDocumentElement().normalize();
-
-            // 获取根元素下的所有子节点
-            NodeList nodeList = document.getDocumentElement().getChildNodes();
-
-            // 遍历每个子节点
-            for (int i = 0; i < nodeList.getLength(); i++) {
-                Node node = nodeList.item(i);
-                if (node.getNodeType() == Node.ELEMENT_NODE) {
-                    Element element = (Element) node;
-                    Map<String, Object> rowData = new HashMap<>();
-
-                    // 获取元素的所有子节点
-                    NodeList childNodes = element.getChildNodes();
-                    for (int j = 0; j < childNodes.getLength(); j++) {
-                        Node childNode = childNodes.item(j);
-                        if (childNode.getNodeType() == Node.ELEMENT_NODE) {
-                            String key = childNode.getNodeName();
-                            String value = childNode.getTextContent();
-                            rowData.put(key, value);
-                        }
-                    }
-
-                    if (!rowData.isEmpty()) {
-                        result.add(rowData);
-                    }
-                }
+        try (RowCursor cursor = openCursor()) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (cursor.next()) {
+                result.add(cursor.current());
             }
-
             return result;
-        } catch (ParserConfigurationException e) {
-            throw new DataAccessException("XML解析器配置错误: " + e.getMessage(), e);
-        } catch (SAXException e) {
-            throw new DataAccessException("XML文件格式错误: " + e.getMessage(), e);
-        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * 打开数据行游标
+     * 每读到一个记录元素返回一行数据
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当XML文件读取失败时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
+        try {
+            return new XmlRecordCursor(new BufferedInputStream(Files.newInputStream(Paths.get(path))), recordPath,
+                    getProjection());
+        } catch (IOException | InvalidPathException e) {
             throw new DataAccessException("读取XML文件失败: " + path + ", 原因: " + e.getMessage(), e);
         }
     }
 
     /**
      * 获取XML文件的列名
-     * 通过以下步骤获取列名:
-     * 1. 解析XML文档
-     * 2. 获取根元素下的第一个子元素(第一条记录)
-     * 3. 获取该记录的所有子元素名称作为列名
+     * 读取到第一条记录为止,以其子元素名称作为列名
      * 
      * @return 列名列表,如果读取失败或XML为空则返回空列表
      */
     @Override
     public List<String> getColumns() {
-        try {
-            // 创建DocumentBuilder
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-
-            // 解析XML文件
-            Document document = builder.parse(new File(path));
-            document.getDocumentElement().normalize();
-
-            // 获取根元素下的第一个子元素
-            NodeList nodeList = document.getDocumentElement().getChildNodes();
-            for (int i = 0; i < nodeList.getLength(); i++) {
-                Node node = nodeList.item(i);
-                if (node.getNodeType() == Node.ELEMENT_NODE) {
-                    Element element = (Element) node;
-                    // 获取第一个元素的所有子节点名称作为列名
-                    NodeList childNodes = element.getChildNodes();
-                    List<String> columns = new ArrayList<>();
-                    for (int j = 0; j < childNodes.getLength(); j++) {
-                        Node childNode = childNodes.item(j);
-                        if (childNode.getNodeType() == Node.ELEMENT_NODE) {
-                            columns.add(childNode.getNodeName());
-                        }
-                    }
-                    return columns;
-                }
+        try (XmlRecordCursor cursor = new XmlRecordCursor(
+                new BufferedInputStream(Files.newInputStream(Paths.get(path))), recordPath, null)) {
+            if (cursor.next()) {
+                return new ArrayList<>(cursor.getColumns());
             }
             return new ArrayList<>();
-        } catch (IOException | ParserConfigurationException | SAXException e) {
+        } catch (Exception e) {
             return new ArrayList<>();
         }
     }
@@ -211,7 +184,7 @@ public class DataSourceXml extends DataSourceFile {
     /**
      * 获取数据源的描述信息
      * 用于在界面上显示数据源的基本信息
-     * 例如: XML文件: D:/test.xml
+     * 例如: XML文件: D:/test.xml(orders/order)
      * 
      * @return 数据源的描述信息字符串,如果路径为空则返回空字符串
      */
@@ -220,12 +193,61 @@ public class DataSourceXml extends DataSourceFile {
         if (path == null || path.isBlank()) {
             return "";
         }
-        return "XML文件: " + path;
+        return "XML文件: " + path + (recordPath == null || recordPath.isBlank() ? "" : "(" + recordPath + ")");
+    }
+
+    /**
+     * 获取记录元素的路径
+     * 
+     * @return 记录路径,未指定时为null
+     */
+    public String getRecordPath() {
+        return recordPath;
+    }
+
+    /**
+     * 设置记录元素的路径
+     * 如果不设置则读取根元素下的每个子元素
+     * 
+     * @param recordPath 记录路径,如orders/order,某一级为*时匹配任意名称
+     */
+    public void setRecordPath(String recordPath) {
+        this.recordPath = recordPath;
+    }
+
+    /**
+     * 重写equals方法
+     * 如果两个对象的path和recordPath属性都相等,则认为这两个对象相等
+     *
+     * @param o 要比较的对象
+     * @return 如果对象相等返回true,否则返回false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        if (!super.equals(o))
+            return false;
+        DataSourceXml that = (DataSourceXml) o;
+        return Objects.equals(recordPath, that.recordPath);
+    }
+
+    /**
+     * 重写hashCode方法
+     * 根据对象的path和recordPath属性生成哈希码
+     *
+     * @return 对象的哈希码
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), recordPath);
     }
 
     /**
      * 导出为JSON，包含dataType和originData和父类的字段
-     * 例如：{"path":"/path/to/file.xml","mappings":{}}
+     * 例如：{"path":"/path/to/file.xml","recordPath":"orders/order","mappings":{}}
      */
     @Override
     public String exportSource() {
@@ -234,7 +256,7 @@ public class DataSourceXml extends DataSourceFile {
 
     /**
      * 导入为JSON，包含dataType和originData和父类的字段
-     * 例如：{"path":"/path/to/file.xml","mappings":{}}
+     * 例如：{"path":"/path/to/file.xml","recordPath":"orders/order","mappings":{}}
      */
     @SuppressWarnings("unchecked")
     @Override
@@ -248,8 +270,127 @@ public class DataSourceXml extends DataSourceFile {
         // 解析数据
         try {
             this.setPath((String) map.get("path"));
+            this.setRecordPath((String) map.get("recordPath"));
             this.setMappings((Map<String, String>) map.get("mappings"));
         } catch (Exception e) {
         }
     }
+
+    /**
+     * 配置XML数据源
+     * 提供文件选择和记录路径设置功能
+     *
+     * @param primaryStage 主窗口
+     * @param callback     配置完成后的回调函数
+     */
+    @Override
+    public void configure(Window primaryStage, DataSourceConfigurationCallback callback) {
+        // 创建配置对话框
+        Stage dialog = new Stage();
+        dialog.initOwner(primaryStage);
+        dialog.initModality(Modality.WINDOW_MODAL);
+        dialog.setTitle("配置XML数据源");
+
+        VBox root = new VBox(10);
+        root.setPadding(new Insets(10));
+
+        // 文件路径选择区域
+        HBox pathBox = new HBox(10);
+        pathBox.setAlignment(Pos.CENTER_LEFT);
+        TextField pathField = new TextField();
+        pathField.setEditable(false);
+        pathField.setPrefWidth(300);
+        if (path != null) {
+            pathField.setText(path);
+        }
+        Button browseButton = new Button("浏览");
+        pathBox.getChildren().addAll(new Label("文件路径:"), pathField, browseButton);
+
+        // 记录路径区域
+        HBox recordBox = new HBox(10);
+        recordBox.setAlignment(Pos.CENTER_LEFT);
+        TextField recordField = new TextField();
+        recordField.setPrefWidth(300);
+        recordField.setPromptText("为空时读取根元素下的每个子元素,如orders/order");
+        if (recordPath != null) {
+            recordField.setText(recordPath);
+        }
+        recordBox.getChildren().addAll(new Label("记录路径:"), recordField);
+
+        // 按钮区域
+        HBox buttonBox = new HBox(10);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+        Button confirmButton = new Button("确定");
+        Button cancelButton = new Button("取消");
+        buttonBox.getChildren().addAll(cancelButton, confirmButton);
+
+        // 将所有组件添加到根容器
+        root.getChildren().addAll(pathBox, recordBox, buttonBox);
+
+        // 设置浏览按钮事件
+        browseButton.setOnAction(event -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("选择XML文件");
+            fileChooser.getExtensionFilters().add(
+                    new FileChooser.ExtensionFilter("XML Files", "*.xml"));
+            // 如果已有路径，则设置初始目录
+            if (path != null && !path.isBlank()) {
+                File currentFile = new File(path);
+                if (currentFile.getParentFile() != null) {
+                    fileChooser.setInitialDirectory(currentFile.getParentFile());
+                }
+            }
+            File selectedFile = fileChooser.showOpenDialog(dialog);
+            if (selectedFile != null) {
+                pathField.setText(selectedFile.getAbsolutePath());
+            }
+        });
+
+        // 设置确定按钮事件
+        confirmButton.setOnAction(event -> {
+            String selectedPath = pathField.getText();
+            if (selectedPath == null || selectedPath.isBlank()) {
+                showError("请选择XML文件");
+                return;
+            }
+
+            // 更新数据源配置
+            setPath(selectedPath);
+            setRecordPath(recordField.getText().isBlank() ? null : recordField.getText().strip());
+
+            try {
+                // 验证配置
+                valid();
+                // 通知配置完成
+                callback.onConfigureFinished();
+                dialog.close();
+            } catch (DataSourceValidException e) {
+                showError("配置验证失败: " + e.getMessage());
+            }
+        });
+
+        // 设置取消按钮事件
+        cancelButton.setOnAction(event -> {
+            callback.onConfigureCancelled();
+            dialog.close();
+        });
+
+        // 显示对话框
+        Scene scene = new Scene(root);
+        dialog.setScene(scene);
+        dialog.showAndWait();
+    }
+
+    /**
+     * 显示错误信息对话框
+     *
+     * @param message 错误信息
+     */
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("错误");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
 }
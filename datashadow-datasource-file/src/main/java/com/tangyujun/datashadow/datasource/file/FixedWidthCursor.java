@@ -0,0 +1,488 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tangyujun.datashadow.datasource.IndexedRow;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datasource.RowSchema;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 内存映射的并行定长文件游标
+ * 每条记录的字节长度相同,按记录个数把文件切分为若干段,多个线程并行映射和解码各段,调用方按文件顺序逐行读取
+ *
+ * 说明:
+ * 1. 字段直接从映射的字节中按位置截取,不构建整行的字符串;只解码列投影中的字段,其他字段的字节不读取
+ * 2. 去空格在字节上进行,只解码去掉空格后的部分;数值和日期在编码与ASCII兼容时直接从字节解析,不创建字符串
+ * 3. 记录长度包括换行符,未指定时取第一个换行符之后的位置,文件中没有换行符时为字段布局的宽度
+ * 4. 文件末尾不完整的记录按实际长度截取字段,只包含换行符的部分忽略
+ * 5. 同时解码的段数不超过线程数的两倍,内存占用只与分段大小有关,与文件大小无关
+ * 6. 支持空格为单字节的编码,如UTF-8、GBK、ISO-8859-1和EBCDIC(如IBM037)
+ */
+final class FixedWidthCursor implements RowCursor {
+
+    /**
+     * 默认分段大小
+     */
+    static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+
+    /**
+     * 识别记录长度时最多扫描的字节数
+     */
+    private static final int DETECT_LIMIT = 1 << 20;
+
+    /**
+     * 文件末尾可以忽略的字节:换行符和DOS文件结束符
+     */
+    private static final String TRAILING_BYTES = "\r\n\u001A";
+
+    /**
+     * 解码线程编号
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final FileChannel channel;
+
+    private final Charset charset;
+
+    /**
+     * 编码中空格的字节
+     */
+    private final byte space;
+
+    /**
+     * 编码中的数字、正负号和小数点是否与ASCII相同
+     */
+    private final boolean asciiDigits;
+
+    /**
+     * 数据行结构,只包含需要读取的列
+     */
+    private final RowSchema schema;
+
+    /**
+     * 需要读取的字段,与schema中的列一一对应
+     */
+    private final FixedWidthField[] fields;
+
+    /**
+     * 文件长度
+     */
+    private final long size;
+
+    /**
+     * 记录长度,包括换行符
+     */
+    private final int recordLength;
+
+    /**
+     * 记录个数
+     */
+    private final long recordCount;
+
+    /**
+     * 每段的记录个数
+     */
+    private final int recordsPerChunk;
+
+    /**
+     * 分段个数
+     */
+    private final long chunkCount;
+
+    private final ExecutorService executor;
+
+    /**
+     * 已提交解码的段,按段顺序
+     */
+    private final Deque<Future<List<Object[]>>> pending = new ArrayDeque<>();
+
+    /**
+     * 同时解码的最大段数
+     */
+    private final int lookahead;
+
+    /**
+     * 下一个提交解码的段序号
+     */
+    private long nextChunk;
+
+    /**
+     * 当前段的数据行
+     */
+    private Iterator<Object[]> rows;
+
+    private Map<String, Object> current;
+
+    /**
+     * 判断编码是否支持按字节截取字段
+     *
+     * @param charset 文件编码
+     * @return 空格为单字节时返回true
+     */
+    static boolean supports(Charset charset) {
+        return charset.canEncode() && " ".getBytes(charset).length == 1;
+    }
+
+    /**
+     * 打开定长文件
+     *
+     * @param path         文件路径
+     * @param charset      文件编码,需要满足supports
+     * @param layout       字段布局
+     * @param recordLength 记录长度,包括换行符,为0时自动识别
+     * @param projection   需要读取的列,为null时读取全部列
+     * @param chunkSize    分段大小
+     * @throws IOException         读取失败时抛出
+     * @throws DataAccessException 字段超出记录长度时抛出
+     */
+    FixedWidthCursor(Path path, Charset charset, List<FixedWidthField> layout, int recordLength,
+            Set<String> projection, int chunkSize) throws IOException {
+        this.charset = charset;
+        this.space = " ".getBytes(charset)[0];
+        this.asciiDigits = Arrays.equals("0123456789+-.".getBytes(charset),
+                "0123456789+-.".getBytes(StandardCharsets.US_ASCII));
+        this.fields = layout.stream()
+                .filter(field -> projection == null || projection.contains(field.getName()))
+                .toArray(FixedWidthField[]::new);
+        this.schema = new RowSchema(Arrays.stream(fields).map(FixedWidthField::getName).toArray(String[]::new));
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            int width = layout.stream().mapToInt(field -> field.getOffset() + field.getLength()).max().orElse(0);
+            this.recordLength = recordLength > 0 ? recordLength : detectRecordLength(channel, width);
+            for (FixedWidthField field : layout) {
+                if (field.getOffset() + field.getLength() > this.recordLength) {
+                    throw new DataAccessException("定长文件格式错误: 字段" + field.getName() + "超出记录长度"
+                            + this.recordLength, null);
+                }
+            }
+            this.size = channel.size();
+            this.recordCount = countRecords(channel, this.recordLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.recordsPerChunk = Math.max(1, chunkSize / this.recordLength);
+        this.chunkCount = (recordCount + recordsPerChunk - 1) / recordsPerChunk;
+        int threads = (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), chunkCount));
+        this.lookahead = threads * 2;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "datashadow-fixed-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        submitChunks();
+    }
+
+    /**
+     * 识别记录长度
+     * 取第一个换行符之后的位置,文件开头DETECT_LIMIT字节内没有换行符时为字段布局的宽度
+     *
+     * @param channel 文件通道
+     * @param width   字段布局的宽度
+     * @return 记录长度
+     * @throws IOException 读取失败时抛出
+     */
+    private static int detectRecordLength(FileChannel channel, int width) throws IOException {
+        int limit = (int) Math.min(channel.size(), DETECT_LIMIT);
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, limit);
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return Math.max(1, width);
+    }
+
+    /**
+     * 计算记录个数
+     * 文件末尾不足一条记录的部分只包含换行符时不计入
+     *
+     * @param channel      文件通道
+     * @param recordLength 记录长度
+     * @return 记录个数
+     * @throws IOException 读取失败时抛出
+     */
+    private static long countRecords(FileChannel channel, int recordLength) throws IOException {
+        long size = channel.size();
+        long count = size / recordLength;
+        int remainder = (int) (size % recordLength);
+        if (remainder > 0) {
+            ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, size - remainder, remainder);
+            for (int i = 0; i < remainder; i++) {
+                if (TRAILING_BYTES.indexOf(tail.get(i)) < 0) {
+                    return count + 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 提交后续的段进行解码,保持同时解码的段数不超过lookahead
+     */
+    private void submitChunks() {
+        while (pending.size() < lookahead && nextChunk < chunkCount) {
+            long first = nextChunk * recordsPerChunk;
+            long last = Math.min(first + recordsPerChunk, recordCount);
+            pending.add(executor.submit(() -> decode(first, last)));
+            nextChunk++;
+        }
+    }
+
+    /**
+     * 读取下一段的数据行
+     *
+     * @return 存在下一段时返回true
+     * @throws DataAccessException 读取失败或字段无法解析时抛出
+     */
+    private boolean advance() throws DataAccessException {
+        Future<List<Object[]>> chunk = pending.poll();
+        if (chunk == null) {
+            return false;
+        }
+        try {
+            rows = chunk.get().iterator();
+            submitChunks();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new DataAccessException("读取定长文件被中断", e);
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof RecordException record) {
+                throw new DataAccessException("定长文件格式错误: " + record.getMessage(), record.getCause());
+            }
+            cause = cause instanceof UncheckedIOException unchecked ? unchecked.getCause() : cause;
+            throw new DataAccessException("读取定长文件失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 映射并解码一段记录
+     *
+     * @param first 第一条记录的序号
+     * @param last  最后一条记录之后的序号
+     * @return 数据行的值
+     */
+    private List<Object[]> decode(long first, long last) {
+        long from = first * recordLength;
+        long to = Math.min(last * recordLength, size);
+        ByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        FieldDecoder decoder = new FieldDecoder(buffer);
+        List<Object[]> result = new ArrayList<>((int) (last - first));
+        for (long record = first; record < last; record++) {
+            int base = (int) ((record - first) * recordLength);
+            int available = Math.min(recordLength, buffer.limit() - base);
+            Object[] values = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                FixedWidthField field = fields[i];
+                int length = Math.min(field.getLength(), available - field.getOffset());
+                try {
+                    values[i] = decoder.decode(field, base + field.getOffset(), Math.max(0, length));
+                } catch (NumberFormatException | ArithmeticException | DateTimeException e) {
+                    throw new RecordException("第" + (record + 1) + "条记录的字段" + field.getName() + "不是"
+                            + field.getType().getDisplayName() + ": "
+                            + decoder.text(base + field.getOffset(), Math.max(0, length)), e);
+                }
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        while (rows == null || !rows.hasNext()) {
+            if (!advance()) {
+                current = null;
+                return false;
+            }
+        }
+        current = new IndexedRow(schema, rows.next());
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return schema.getColumns();
+    }
+
+    /**
+     * 关闭游标
+     * 停止尚未完成的解码任务并关闭文件
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        pending.clear();
+        rows = null;
+        current = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // 只读通道关闭失败不影响结果
+        }
+    }
+
+    /**
+     * 字段解码器
+     * 每个解码任务使用一个,复用截取字段时的临时数组
+     */
+    private final class FieldDecoder {
+
+        private final ByteBuffer buffer;
+
+        private byte[] bytes = new byte[64];
+
+        private char[] chars = new char[64];
+
+        FieldDecoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * 解码一个字段
+         *
+         * @param field  字段定义
+         * @param offset 字段在缓冲区中的位置
+         * @param length 字段的字节长度
+         * @return 字段的值
+         */
+        Object decode(FixedWidthField field, int offset, int length) {
+            int start = offset;
+            int end = offset + length;
+            boolean trim = field.isTrim() || field.getType() != FixedWidthField.Type.STRING;
+            if (trim) {
+                while (start < end && buffer.get(start) == space) {
+                    start++;
+                }
+                while (end > start && buffer.get(end - 1) == space) {
+                    end--;
+                }
+            }
+            if (field.getType() == FixedWidthField.Type.STRING) {
+                return start == end ? "" : text(start, end - start);
+            }
+            if (start == end) {
+                return null;
+            }
+            return switch (field.getType()) {
+                case INTEGER -> asciiDigits ? parseLong(start, end) : Long.parseLong(text(start, end - start));
+                case DECIMAL -> asciiDigits ? new BigDecimal(ascii(start, end), 0, end - start)
+                        : new BigDecimal(text(start, end - start));
+                case DATE -> parseDate(text(start, end - start));
+                default -> text(start, end - start);
+            };
+        }
+
+        /**
+         * 按文件编码解码指定范围的字节
+         */
+        String text(int offset, int length) {
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            buffer.get(offset, bytes, 0, length);
+            return new String(bytes, 0, length, charset);
+        }
+
+        /**
+         * 把ASCII字节复制到字符数组,用于BigDecimal直接解析
+         */
+        private char[] ascii(int start, int end) {
+            if (chars.length < end - start) {
+                chars = new char[Math.max(end - start, chars.length * 2)];
+            }
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b < 0) {
+                    throw new NumberFormatException();
+                }
+                chars[i - start] = (char) b;
+            }
+            return chars;
+        }
+
+        /**
+         * 直接从ASCII字节解析整数
+         */
+        private long parseLong(int start, int end) {
+            boolean negative = false;
+            byte first = buffer.get(start);
+            if (first == '+' || first == '-') {
+                negative = first == '-';
+                start++;
+                if (start == end) {
+                    throw new NumberFormatException();
+                }
+            }
+            long value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException();
+                }
+                // 按负数累加,可以表示Long.MIN_VALUE
+                value = Math.subtractExact(Math.multiplyExact(value, 10), digit);
+            }
+            return negative ? value : Math.negateExact(value);
+        }
+
+        /**
+         * 解析yyyyMMdd或yyyy-MM-dd格式的日期,全为0时为null
+         */
+        private LocalDate parseDate(String text) {
+            if (text.chars().allMatch(c -> c == '0')) {
+                return null;
+            }
+            return text.length() == 8 ? LocalDate.parse(text, DateTimeFormatter.BASIC_ISO_DATE) : LocalDate.parse(text);
+        }
+    }
+
+    /**
+     * 记录中的字段无法解析
+     */
+    private static final class RecordException extends RuntimeException {
+
+        RecordException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
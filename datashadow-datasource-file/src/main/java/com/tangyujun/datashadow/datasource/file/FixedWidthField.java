@@ -0,0 +1,280 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 定长文件的字段定义
+ * 字段在记录中的位置和长度按字节计算,起始位置从0开始
+ */
+public class FixedWidthField {
+
+    /**
+     * 字段类型
+     */
+    public enum Type {
+
+        /**
+         * 文本,取值为String
+         */
+        STRING("文本"),
+
+        /**
+         * 整数,取值为Long,可以带正负号,空白时为null
+         */
+        INTEGER("整数"),
+
+        /**
+         * 小数,取值为BigDecimal,可以带正负号和小数点,空白时为null
+         */
+        DECIMAL("小数"),
+
+        /**
+         * 日期,格式为yyyyMMdd或yyyy-MM-dd,取值为LocalDate,空白或全为0时为null
+         */
+        DATE("日期");
+
+        /** 显示名称 */
+        private final String displayName;
+
+        /**
+         * 构造函数
+         *
+         * @param displayName 显示名称
+         */
+        Type(String displayName) {
+            this.displayName = displayName;
+        }
+
+        /**
+         * 获取显示名称
+         *
+         * @return 显示名称
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * 字段名称,作为列名
+     */
+    private String name;
+
+    /**
+     * 字段在记录中的起始字节位置,从0开始
+     */
+    private int offset;
+
+    /**
+     * 字段的字节长度
+     */
+    private int length;
+
+    /**
+     * 是否去掉文本两端的空格,数值和日期类型总是去掉
+     */
+    private boolean trim = true;
+
+    /**
+     * 字段类型
+     */
+    private Type type = Type.STRING;
+
+    /**
+     * 创建空的字段定义,用于导入配置
+     */
+    public FixedWidthField() {
+    }
+
+    /**
+     * 创建字段定义
+     *
+     * @param name   字段名称
+     * @param offset 起始字节位置,从0开始
+     * @param length 字节长度
+     * @param trim   是否去掉文本两端的空格
+     * @param type   字段类型
+     */
+    public FixedWidthField(String name, int offset, int length, boolean trim, Type type) {
+        this.name = name;
+        this.offset = offset;
+        this.length = length;
+        this.trim = trim;
+        this.type = type;
+    }
+
+    /**
+     * 解析文本形式的字段布局
+     * 每行一个字段,格式为: 名称,起始位置,长度[,类型[,是否去空格]]
+     * 类型为STRING、INTEGER、DECIMAL、DATE,默认为STRING;是否去空格为true或false,默认为true;
+     * 空行和以#开头的行忽略
+     *
+     * @param text 字段布局文本
+     * @return 字段定义列表
+     * @throws IllegalArgumentException 格式错误时抛出
+     */
+    public static List<FixedWidthField> parseLayout(String text) {
+        List<FixedWidthField> fields = new ArrayList<>();
+        if (text == null) {
+            return fields;
+        }
+        String[] lines = text.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s*,\\s*");
+            if (parts.length < 3 || parts.length > 5) {
+                throw new IllegalArgumentException("第" + (i + 1) + "行格式错误: " + line);
+            }
+            try {
+                Type type = parts.length > 3 ? Type.valueOf(parts[3].toUpperCase()) : Type.STRING;
+                boolean trim = parts.length <= 4 || Boolean.parseBoolean(parts[4]);
+                fields.add(new FixedWidthField(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        trim, type));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("第" + (i + 1) + "行格式错误: " + line, e);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * 将字段布局转换为parseLayout可以解析的文本
+     *
+     * @param fields 字段定义列表
+     * @return 字段布局文本
+     */
+    public static String formatLayout(List<FixedWidthField> fields) {
+        if (fields == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (FixedWidthField field : fields) {
+            text.append(field.name).append(',').append(field.offset).append(',').append(field.length)
+                    .append(',').append(field.type).append(',').append(field.trim).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * 获取字段名称
+     *
+     * @return 字段名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 设置字段名称
+     *
+     * @param name 字段名称
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 获取起始字节位置
+     *
+     * @return 起始字节位置,从0开始
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * 设置起始字节位置
+     *
+     * @param offset 起始字节位置,从0开始
+     */
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * 获取字节长度
+     *
+     * @return 字节长度
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 设置字节长度
+     *
+     * @param length 字节长度
+     */
+    public void setLength(int length) {
+        this.length = length;
+    }
+
+    /**
+     * 是否去掉文本两端的空格
+     *
+     * @return 去掉时返回true
+     */
+    public boolean isTrim() {
+        return trim;
+    }
+
+    /**
+     * 设置是否去掉文本两端的空格
+     *
+     * @param trim 去掉时为true
+     */
+    public void setTrim(boolean trim) {
+        this.trim = trim;
+    }
+
+    /**
+     * 获取字段类型
+     *
+     * @return 字段类型
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 设置字段类型
+     *
+     * @param type 字段类型
+     */
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * 重写equals方法
+     * 名称、位置、长度、是否去空格和类型都相等时认为两个字段定义相等
+     *
+     * @param o 要比较的对象
+     * @return 如果对象相等返回true,否则返回false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        FixedWidthField that = (FixedWidthField) o;
+        return offset == that.offset && length == that.length && trim == that.trim
+                && Objects.equals(name, that.name) && type == that.type;
+    }
+
+    /**
+     * 重写hashCode方法
+     *
+     * @return 对象的哈希码
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, offset, length, trim, type);
+    }
+}
@@ -0,0 +1,329 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONReader;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 流式JSON数组游标
+ * 按块读取内容为对象数组的UTF-8 JSON文件,每次只解析数组中的一个对象,
+ * 不需要把整个文件读成字符串,也不需要同时保留全部数据行
+ *
+ * 说明:
+ * 1. 按字节扫描对象的边界,只识别引号、转义和括号,UTF-8多字节字符中不会出现这些字节
+ * 2. 每个对象通过fastjson2的JSONReader解析,取值类型与JSON.parseObject一致
+ * 3. 设置了列投影时投影以外的字段直接跳过,不构建其值
+ * 4. 缓冲区从BUFFER_SIZE开始,单个对象超过缓冲区时按需扩大,内存占用只与最大的单个对象有关
+ * 5. 文件为空或内容为null时没有数据行,文件开头的字节顺序标记忽略
+ */
+final class JsonArrayCursor implements RowCursor {
+
+    /**
+     * 初始缓冲区大小
+     */
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private final InputStream input;
+
+    private final Path path;
+
+    /**
+     * 需要读取的列,为null时读取全部列
+     */
+    private final Set<String> projection;
+
+    private byte[] buffer;
+
+    /**
+     * 缓冲区中下一个未处理字节的位置
+     */
+    private int start;
+
+    /**
+     * 缓冲区中有效数据的长度
+     */
+    private int limit;
+
+    /**
+     * 文件是否已读取完毕
+     */
+    private boolean eof;
+
+    /**
+     * 数组是否已读取完毕
+     */
+    private boolean ended;
+
+    private final List<String> columns = new ArrayList<>();
+
+    private Map<String, Object> current;
+
+    /**
+     * 打开JSON文件并定位到数组的第一个元素
+     *
+     * @param path       文件路径
+     * @param projection 需要读取的列,为null时读取全部列
+     * @param bufferSize 初始缓冲区大小
+     * @throws DataAccessException 文件读取失败或内容不是数组时抛出
+     */
+    JsonArrayCursor(Path path, Set<String> projection, int bufferSize) throws DataAccessException {
+        this.path = path;
+        this.projection = projection;
+        this.buffer = new byte[bufferSize];
+        try {
+            this.input = Files.newInputStream(path);
+        } catch (IOException e) {
+            throw new DataAccessException("读取JSON文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+        if (projection != null) {
+            columns.addAll(projection);
+        }
+        try {
+            open();
+        } catch (DataAccessException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取文件开头几个对象的字段名作为列名
+     * 各对象的字段不完全相同时按出现顺序合并,读取到指定个数的对象后停止
+     *
+     * @param path   文件路径
+     * @param sample 最多读取的对象个数
+     * @return 列名列表
+     * @throws DataAccessException 文件读取失败或格式错误时抛出
+     */
+    static List<String> readColumns(Path path, int sample) throws DataAccessException {
+        Set<String> names = new LinkedHashSet<>();
+        try (JsonArrayCursor cursor = new JsonArrayCursor(path, null, BUFFER_SIZE)) {
+            for (int i = 0; i < sample && cursor.next(); i++) {
+                names.addAll(cursor.current().keySet());
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * 从JSONReader读取一个对象作为数据行
+     *
+     * @param reader     定位在对象开头的JSONReader
+     * @param projection 需要读取的列,为null时读取全部列
+     * @return 数据行
+     * @throws JSONException 当内容不是对象时抛出
+     */
+    static Map<String, Object> readRow(JSONReader reader, Set<String> projection) {
+        if (projection == null) {
+            return reader.readObject();
+        }
+        if (!reader.nextIfObjectStart()) {
+            throw new JSONException("JSON数组元素不是对象");
+        }
+        Map<String, Object> row = new JSONObject();
+        while (!reader.nextIfObjectEnd()) {
+            String name = reader.readFieldName();
+            if (projection.contains(name)) {
+                row.put(name, reader.readAny());
+            } else {
+                reader.skipValue();
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 跳过字节顺序标记,读取数组的开始符号
+     */
+    private void open() throws DataAccessException {
+        fill();
+        if (limit >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) {
+            start = 3;
+        }
+        int c = peek();
+        if (c == -1) {
+            ended = true;
+        } else if (c == 'n') {
+            // 内容为null时没有数据行
+            ended = true;
+        } else if (c != '[') {
+            throw formatError("JSON文件内容不是数组");
+        } else {
+            start++;
+            if (peek() == ']') {
+                ended = true;
+            }
+        }
+    }
+
+    /**
+     * 跳过空白字符,返回下一个字节
+     *
+     * @return 下一个字节,文件结束时返回-1
+     */
+    private int peek() throws DataAccessException {
+        while (true) {
+            while (start < limit) {
+                byte b = buffer[start];
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return b;
+                }
+                start++;
+            }
+            if (!fill()) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 读取更多数据到缓冲区
+     * 先把未处理的数据移到缓冲区开头,缓冲区已满时扩大为两倍
+     *
+     * @return 读取到数据时返回true,文件结束时返回false
+     */
+    private boolean fill() throws DataAccessException {
+        if (eof) {
+            return false;
+        }
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, limit - start);
+            limit -= start;
+            start = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        try {
+            int read = input.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+                return false;
+            }
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new DataAccessException("读取JSON文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 扫描从start开始的对象,返回对象结束后的位置
+     *
+     * @return 对象最后一个字节之后的位置
+     */
+    private int scanObject() throws DataAccessException {
+        int depth = 0;
+        boolean inString = false;
+        boolean escape = false;
+        int i = start;
+        while (true) {
+            if (i == limit) {
+                int shift = start;
+                if (!fill()) {
+                    throw formatError("JSON文件内容不完整");
+                }
+                i -= shift - start;
+            }
+            byte b = buffer[i++];
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                } else if (b == '\\') {
+                    escape = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == 0) {
+                return i;
+            }
+        }
+    }
+
+    private DataAccessException formatError(String message) {
+        return new DataAccessException("JSON文件格式错误: " + path + ", 原因: " + message, null);
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        if (ended) {
+            current = null;
+            return false;
+        }
+        int c = peek();
+        if (c != '{') {
+            throw formatError(c == -1 ? "JSON文件内容不完整" : "JSON数组元素不是对象");
+        }
+        int end = scanObject();
+        try (JSONReader reader = JSONReader.of(buffer, start, end - start)) {
+            current = readRow(reader, projection);
+        } catch (JSONException e) {
+            throw new DataAccessException("JSON文件格式错误: " + path + ", 原因: " + e.getMessage(), e);
+        }
+        start = end;
+
+        // 对象之后为逗号或数组结束符号
+        c = peek();
+        if (c == ',') {
+            start++;
+        } else if (c == ']') {
+            start++;
+            ended = true;
+        } else {
+            throw formatError(c == -1 ? "JSON文件内容不完整" : "JSON数组元素之间缺少逗号");
+        }
+        if (projection == null && columns.isEmpty()) {
+            columns.addAll(current.keySet());
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    /**
+     * 获取列名
+     * 设置了列投影时为投影中的列,否则为第一个对象的字段名
+     *
+     * @return 列名列表
+     */
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 关闭游标
+     * 关闭文件并释放缓冲区
+     */
+    @Override
+    public void close() {
+        current = null;
+        buffer = null;
+        ended = true;
+        try {
+            input.close();
+        } catch (IOException e) {
+            // 只读流关闭失败不影响结果
+        }
+    }
+}
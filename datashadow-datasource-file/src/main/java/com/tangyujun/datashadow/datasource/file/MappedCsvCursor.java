@@ -0,0 +1,614 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tangyujun.datashadow.datasource.IndexedRow;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datasource.RowSchema;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 内存映射的并行CSV游标
+ * 将CSV文件映射到内存后按固定大小分块,多个线程并行解码和解析各块,调用方按文件顺序逐行读取
+ *
+ * 分块与解析:
+ * 1. 分块边界取分块位置之后的第一个换行,只扫描换行和引号所在的编码单元,不解码
+ * 2. 各块从边界处按记录开头解析,解析完成后检查块末尾是否仍在引号内;
+ *    换行位于引号内的字段中时说明边界不是记录结尾,与下一块合并后重新解析,结果与顺序解析一致
+ * 3. 同时解析的块数不超过线程数的两倍,内存占用只与块大小有关,与文件大小无关
+ * 4. 数据行以IndexedRow返回,设置了列投影时投影以外的字段只跳过,不创建字符串
+ *
+ * 格式与Commons CSV的默认格式一致:逗号分隔,双引号包围,两个双引号表示一个双引号,
+ * 换行为LF、CRLF或CR,忽略空行,第一条记录为表头。缺少的字段为null,多出的字段忽略
+ *
+ * 编码:
+ * 1. 支持UTF-8、GBK、GB2312、GB18030、ISO-8859-1等多字节字符中不会出现引号和换行字节的编码
+ * 2. 支持UTF-16、UTF-16BE、UTF-16LE,按两个字节的编码单元扫描,UTF-16按字节顺序标记确定字节序
+ * 3. 文件开头的字节顺序标记不计入表头
+ */
+final class MappedCsvCursor implements RowCursor {
+
+    /**
+     * 默认分块大小
+     */
+    static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+
+    /**
+     * 多字节字符中不会出现引号和换行字节的单字节单元编码
+     */
+    private static final Set<String> BYTE_UNIT_CHARSETS = Set.of("UTF-8", "GBK", "GB2312", "GB18030",
+            "ISO-8859-1", "US-ASCII", "windows-1252", "Big5");
+
+    /**
+     * 解析线程编号
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final FileChannel channel;
+
+    private final Encoding encoding;
+
+    /**
+     * 数据行结构,只包含需要读取的列
+     */
+    private final RowSchema schema;
+
+    /**
+     * 文件中每一列在数据行中的位置,不需要读取的列为-1
+     */
+    private final int[] positions;
+
+    /**
+     * 分块边界,第一个为表头之后的位置,最后一个为文件长度
+     */
+    private final long[] boundaries;
+
+    private final ExecutorService executor;
+
+    /**
+     * 已提交解析的块,按块顺序
+     */
+    private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+
+    /**
+     * 同时解析的最大块数
+     */
+    private final int lookahead;
+
+    /**
+     * 下一个提交解析的块序号
+     */
+    private int nextChunk;
+
+    /**
+     * 下一个读取的块序号
+     */
+    private int chunkIndex;
+
+    /**
+     * 当前块的数据行
+     */
+    private Iterator<Object[]> rows;
+
+    private Map<String, Object> current;
+
+    /**
+     * 判断编码是否支持内存映射读取
+     *
+     * @param charset 文件编码
+     * @return 支持时返回true
+     */
+    static boolean supports(Charset charset) {
+        return BYTE_UNIT_CHARSETS.contains(charset.name()) || charset.name().startsWith("UTF-16");
+    }
+
+    /**
+     * 读取CSV文件的表头
+     *
+     * @param path    文件路径
+     * @param charset 文件编码,需要满足supports
+     * @return 表头列名,文件为空时返回空列表
+     * @throws IOException 读取失败时抛出
+     */
+    static List<String> readHeader(Path path, Charset charset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Encoding encoding = Encoding.detect(channel, charset);
+            return Arrays.asList(readHeader(channel, encoding).columns());
+        }
+    }
+
+    /**
+     * 打开CSV文件
+     *
+     * @param path       文件路径
+     * @param charset    文件编码,需要满足supports
+     * @param projection 需要读取的列,为null时读取全部列
+     * @param chunkSize  分块大小
+     * @throws IOException 读取失败时抛出
+     */
+    MappedCsvCursor(Path path, Charset charset, Set<String> projection, int chunkSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.encoding = Encoding.detect(channel, charset);
+            Header header = readHeader(channel, encoding);
+            List<String> columns = new ArrayList<>();
+            this.positions = new int[header.columns().length];
+            for (int i = 0; i < positions.length; i++) {
+                String column = header.columns()[i];
+                positions[i] = projection == null || projection.contains(column) ? columns.size() : -1;
+                if (positions[i] >= 0) {
+                    columns.add(column);
+                }
+            }
+            this.schema = new RowSchema(columns.toArray(String[]::new));
+            this.boundaries = planChunks(header.end(), chunkSize - chunkSize % encoding.unit());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), boundaries.length - 1));
+        this.lookahead = threads * 2;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "datashadow-csv-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        submitChunks();
+    }
+
+    /**
+     * 规划分块边界
+     * 从表头之后每隔chunkSize取一个分块位置,边界为该位置之后的第一个换行之后,块内没有换行时不拆分
+     *
+     * @param start     数据开始位置
+     * @param chunkSize 分块大小
+     * @return 分块边界
+     * @throws IOException 读取失败时抛出
+     */
+    private long[] planChunks(long start, int chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> result = new ArrayList<>();
+        result.add(start);
+        long split = start + chunkSize;
+        while (split < size) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, split, Math.min(chunkSize, size - split));
+            int unit = encoding.unit();
+            for (int i = 0; i + unit <= buffer.limit(); i += unit) {
+                if (encoding.read(buffer, i) == '\n') {
+                    result.add(split + i + unit);
+                    break;
+                }
+            }
+            split += chunkSize;
+        }
+        if (result.get(result.size() - 1) < size) {
+            result.add(size);
+        }
+        return result.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * 提交后续的块进行解析,保持同时解析的块数不超过lookahead
+     */
+    private void submitChunks() {
+        while (pending.size() < lookahead && nextChunk < boundaries.length - 1) {
+            long from = boundaries[nextChunk];
+            long to = boundaries[nextChunk + 1];
+            pending.add(executor.submit(() -> parse(from, to)));
+            nextChunk++;
+        }
+    }
+
+    /**
+     * 取出指定块的解析任务
+     *
+     * @param index 块序号,需要为尚未读取的第一个块
+     * @return 解析任务,尚未提交时返回null
+     */
+    private Future<Chunk> takeChunk(int index) {
+        if (index < nextChunk) {
+            return pending.poll();
+        }
+        nextChunk = index + 1;
+        return null;
+    }
+
+    /**
+     * 读取下一个块的数据行
+     * 块末尾仍在引号内时与后续的块合并,在当前线程重新解析
+     *
+     * @return 存在下一个块时返回true
+     * @throws DataAccessException 解析失败或文件末尾引号未闭合时抛出
+     */
+    private boolean advance() throws DataAccessException {
+        if (chunkIndex >= boundaries.length - 1) {
+            return false;
+        }
+        try {
+            Chunk chunk = takeChunk(chunkIndex).get();
+            int end = chunkIndex + 1;
+            while (!chunk.complete() && end < boundaries.length - 1) {
+                Future<Chunk> discarded = takeChunk(end);
+                if (discarded != null) {
+                    // 不能中断正在映射文件的线程,中断会关闭共享的文件通道,导致后续的块读取失败
+                    discarded.cancel(false);
+                }
+                end++;
+                chunk = parse(boundaries[chunkIndex], boundaries[end]);
+            }
+            if (!chunk.complete()) {
+                throw new DataAccessException("CSV文件格式错误: 文件末尾的引号未闭合", null);
+            }
+            chunkIndex = end;
+            submitChunks();
+            rows = chunk.rows().iterator();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new DataAccessException("读取CSV文件被中断", e);
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause()
+                    : e.getCause();
+            throw new DataAccessException("读取CSV文件失败: " + cause.getMessage(), cause);
+        } catch (UncheckedIOException e) {
+            close();
+            throw new DataAccessException("读取CSV文件失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 解码并解析一个块
+     *
+     * @param from 开始位置,为记录开头
+     * @param to   结束位置
+     * @return 解析结果
+     */
+    private Chunk parse(long from, long to) {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new UncheckedIOException(new IOException("单条记录超过2GB,无法解析"));
+        }
+        CharBuffer chars;
+        try {
+            chars = encoding.decode(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Object[]> result = new ArrayList<>();
+        boolean complete = parseRecords(chars.array(), chars.arrayOffset() + chars.position(),
+                chars.arrayOffset() + chars.limit(), positions, schema.size(), result);
+        return new Chunk(result, complete);
+    }
+
+    /**
+     * 解析字符数组中的记录
+     *
+     * @param chars     字符数组
+     * @param from      开始位置,为记录开头
+     * @param limit     结束位置
+     * @param positions 每一列在数据行中的位置,不需要读取的列为-1
+     * @param width     数据行的列数
+     * @param rows      解析出的数据行
+     * @return 结束位置不在引号内时返回true
+     */
+    private static boolean parseRecords(char[] chars, int from, int limit, int[] positions, int width,
+            List<Object[]> rows) {
+        int pos = from;
+        int column = 0;
+        Object[] values = new Object[width];
+        while (pos < limit) {
+            boolean keep = column < positions.length && positions[column] >= 0;
+            int fieldStart = pos;
+            String value = null;
+            if (chars[pos] == '"') {
+                pos++;
+                int start = pos;
+                StringBuilder escaped = null;
+                while (pos < limit && !(chars[pos] == '"' && (pos + 1 == limit || chars[pos + 1] != '"'))) {
+                    if (chars[pos] == '"') {
+                        // 两个双引号表示一个双引号
+                        if (keep) {
+                            escaped = (escaped == null ? new StringBuilder() : escaped)
+                                    .append(chars, start, pos - start + 1);
+                        }
+                        pos++;
+                        start = pos + 1;
+                    }
+                    pos++;
+                }
+                if (pos >= limit) {
+                    return false;
+                }
+                if (keep) {
+                    value = escaped == null ? new String(chars, start, pos - start)
+                            : escaped.append(chars, start, pos - start).toString();
+                }
+                pos++;
+                // 闭合引号与分隔符之间的字符按原样追加
+                int tail = pos;
+                while (pos < limit && chars[pos] != ',' && chars[pos] != '\n' && chars[pos] != '\r') {
+                    pos++;
+                }
+                if (keep && pos > tail) {
+                    value = value + new String(chars, tail, pos - tail);
+                }
+            } else {
+                while (pos < limit && chars[pos] != ',' && chars[pos] != '\n' && chars[pos] != '\r') {
+                    pos++;
+                }
+                if (keep) {
+                    value = new String(chars, fieldStart, pos - fieldStart);
+                }
+            }
+            if (keep) {
+                values[positions[column]] = value;
+            }
+            if (pos < limit && chars[pos] == ',') {
+                column++;
+                pos++;
+                if (pos == limit && column < positions.length && positions[column] >= 0) {
+                    values[positions[column]] = "";
+                }
+                continue;
+            }
+            // 记录结束,只有一个空字段的记录为空行
+            if (column > 0 || pos > fieldStart) {
+                rows.add(values);
+            }
+            values = new Object[width];
+            column = 0;
+            if (pos < limit) {
+                pos += chars[pos] == '\r' && pos + 1 < limit && chars[pos + 1] == '\n' ? 2 : 1;
+            }
+        }
+        if (column > 0) {
+            rows.add(values);
+        }
+        return true;
+    }
+
+    /**
+     * 读取表头
+     * 跳过字节顺序标记和表头之前的空行,按编码单元找到第一条记录的结尾后解码解析
+     *
+     * @param channel  文件通道
+     * @param encoding 文件编码
+     * @return 表头
+     * @throws IOException 读取失败时抛出
+     */
+    private static Header readHeader(FileChannel channel, Encoding encoding) throws IOException {
+        long size = channel.size();
+        long start = encoding.bomLength();
+        while (start < size) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(size - start, Integer.MAX_VALUE));
+            int end = findRecordEnd(buffer, encoding);
+            String[] columns = parseHeader(encoding.decode(buffer.limit(end)));
+            if (columns.length > 0) {
+                return new Header(columns, start + end);
+            }
+            start += end;
+        }
+        return new Header(new String[0], size);
+    }
+
+    /**
+     * 解析表头字段
+     *
+     * @param chars 表头记录
+     * @return 列名,为空行时返回空数组
+     */
+    private static String[] parseHeader(CharBuffer chars) {
+        int limit = chars.arrayOffset() + chars.limit();
+        int from = chars.arrayOffset() + chars.position();
+        int fields = 1;
+        for (int i = from; i < limit; i++) {
+            if (chars.array()[i] == ',') {
+                fields++;
+            }
+        }
+        int[] positions = new int[fields];
+        Arrays.setAll(positions, i -> i);
+        List<Object[]> rows = new ArrayList<>(1);
+        parseRecords(chars.array(), from, limit, positions, fields, rows);
+        if (rows.isEmpty()) {
+            return new String[0];
+        }
+        // 引号内的逗号不分隔字段,去掉多余的列
+        Object[] values = rows.get(0);
+        int count = values.length;
+        while (count > 1 && values[count - 1] == null) {
+            count--;
+        }
+        String[] columns = new String[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = values[i] == null ? "" : (String) values[i];
+        }
+        return columns;
+    }
+
+    /**
+     * 按编码单元查找第一条记录的结尾,识别引号内的换行
+     *
+     * @param buffer   从记录开头开始的缓冲区
+     * @param encoding 文件编码
+     * @return 记录结尾(换行之后)相对缓冲区开头的位置,没有换行时为缓冲区长度
+     */
+    private static int findRecordEnd(ByteBuffer buffer, Encoding encoding) {
+        int unit = encoding.unit();
+        boolean fieldStart = true;
+        boolean quoted = false;
+        for (int pos = 0; pos + unit <= buffer.limit(); pos += unit) {
+            int c = encoding.read(buffer, pos);
+            if (quoted) {
+                if (c == '"') {
+                    if (pos + 2 * unit <= buffer.limit() && encoding.read(buffer, pos + unit) == '"') {
+                        pos += unit;
+                    } else {
+                        quoted = false;
+                    }
+                }
+                continue;
+            }
+            if (c == '"' && fieldStart) {
+                quoted = true;
+            } else if (c == '\n') {
+                return pos + unit;
+            } else if (c == '\r') {
+                boolean crlf = pos + 2 * unit <= buffer.limit() && encoding.read(buffer, pos + unit) == '\n';
+                return pos + (crlf ? 2 : 1) * unit;
+            }
+            fieldStart = c == ',';
+        }
+        return buffer.limit();
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        while (rows == null || !rows.hasNext()) {
+            if (!advance()) {
+                current = null;
+                return false;
+            }
+        }
+        current = new IndexedRow(schema, rows.next());
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return schema.getColumns();
+    }
+
+    /**
+     * 关闭游标
+     * 取消尚未开始的解析任务并关闭文件,不中断正在解析的线程,这些线程的结果直接丢弃
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        rows = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // 只读通道关闭失败不影响结果
+        }
+    }
+
+    /**
+     * 块的解析结果
+     *
+     * @param rows     数据行的值
+     * @param complete 块末尾不在引号内时为true
+     */
+    private record Chunk(List<Object[]> rows, boolean complete) {
+    }
+
+    /**
+     * 表头
+     *
+     * @param columns 列名
+     * @param end     表头记录结尾在文件中的位置
+     */
+    private record Header(String[] columns, long end) {
+    }
+
+    /**
+     * 文件编码
+     *
+     * @param charset      解码使用的字符集
+     * @param unit         编码单元的字节数
+     * @param littleEndian 两个字节的编码单元是否为小端字节序
+     * @param bomLength    文件开头字节顺序标记的长度
+     */
+    private record Encoding(Charset charset, int unit, boolean littleEndian, int bomLength) {
+
+        /**
+         * 按配置的字符集和文件开头的字节顺序标记确定编码
+         *
+         * @param channel 文件通道
+         * @param charset 配置的字符集
+         * @return 文件编码
+         * @throws IOException 读取失败时抛出
+         */
+        static Encoding detect(FileChannel channel, Charset charset) throws IOException {
+            ByteBuffer head = ByteBuffer.allocate(3);
+            channel.read(head, 0);
+            int b0 = head.position() > 0 ? head.get(0) & 0xFF : -1;
+            int b1 = head.position() > 1 ? head.get(1) & 0xFF : -1;
+            int b2 = head.position() > 2 ? head.get(2) & 0xFF : -1;
+            if (!charset.name().startsWith("UTF-16")) {
+                boolean bom = charset.equals(StandardCharsets.UTF_8) && b0 == 0xEF && b1 == 0xBB && b2 == 0xBF;
+                return new Encoding(charset, 1, false, bom ? 3 : 0);
+            }
+            boolean bigEndianBom = b0 == 0xFE && b1 == 0xFF;
+            boolean littleEndianBom = b0 == 0xFF && b1 == 0xFE;
+            boolean littleEndian = charset.equals(StandardCharsets.UTF_16LE)
+                    || charset.equals(StandardCharsets.UTF_16) && littleEndianBom;
+            boolean bom = littleEndian ? littleEndianBom : bigEndianBom;
+            return new Encoding(littleEndian ? StandardCharsets.UTF_16LE : StandardCharsets.UTF_16BE, 2,
+                    littleEndian, bom ? 2 : 0);
+        }
+
+        /**
+         * 读取指定位置的编码单元
+         *
+         * @param buffer   缓冲区
+         * @param position 位置
+         * @return 编码单元的值
+         */
+        int read(ByteBuffer buffer, int position) {
+            if (unit == 1) {
+                return buffer.get(position) & 0xFF;
+            }
+            int first = buffer.get(position) & 0xFF;
+            int second = buffer.get(position + 1) & 0xFF;
+            return littleEndian ? second << 8 | first : first << 8 | second;
+        }
+
+        /**
+         * 解码字节,无法解码的字节替换为替换字符
+         *
+         * @param bytes 字节
+         * @return 基于数组的字符缓冲区
+         * @throws CharacterCodingException 解码失败时抛出
+         */
+        CharBuffer decode(ByteBuffer bytes) throws CharacterCodingException {
+            return charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(bytes);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONReader;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 并行解析的JSON Lines游标
+ * 按顺序读取UTF-8编码的JSON Lines文件,在换行处切分为块,多个线程并行解析各块,调用方按文件顺序逐行读取
+ *
+ * 分块与解析:
+ * 1. JSON字符串中的换行必须转义,换行一定是记录的边界,块在最后一个换行之后切分,不需要校验或合并
+ * 2. 单行超过块大小时扩大当前块,直到包含完整的一行
+ * 3. 同时解析的块数不超过线程数的两倍,内存占用只与块大小有关,与文件大小无关
+ * 4. 空行忽略,文件开头的字节顺序标记忽略,行不是JSON对象时报告其所在的行号
+ *
+ * 文件以gzip的魔数开头时按gzip格式边读边解压,解压仍在读取线程中顺序进行,解析同样并行
+ *
+ * 展开嵌套对象时,嵌套对象的字段以点号连接的路径作为列名,例如{"a":{"b":1}}得到列a.b,
+ * 数组不展开,作为一列的值;设置了列投影时,不包含投影列的嵌套对象直接跳过
+ */
+final class NdjsonCursor implements RowCursor {
+
+    /**
+     * 默认分块大小
+     */
+    static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    /**
+     * 解析线程编号
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final Path path;
+
+    private final InputStream input;
+
+    /**
+     * 需要读取的列,为null时读取全部列
+     */
+    private final Set<String> projection;
+
+    /**
+     * 投影列的所有上级路径,用于判断嵌套对象是否需要展开,未设置列投影时为null
+     */
+    private final Set<String> prefixes;
+
+    /**
+     * 是否展开嵌套对象
+     */
+    private final boolean flatten;
+
+    private final int chunkSize;
+
+    private final ExecutorService executor;
+
+    /**
+     * 已提交解析的块,按块顺序
+     */
+    private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+
+    /**
+     * 同时解析的最大块数
+     */
+    private final int lookahead;
+
+    /**
+     * 上一块末尾不完整的行
+     */
+    private byte[] carry = new byte[0];
+
+    /**
+     * 文件是否已读取完毕
+     */
+    private boolean eof;
+
+    /**
+     * 是否为第一块,用于跳过字节顺序标记
+     */
+    private boolean first = true;
+
+    /**
+     * 已读取的块中的行数,用于计算出错的行号
+     */
+    private long linesBefore;
+
+    /**
+     * 当前块的数据行
+     */
+    private Iterator<Map<String, Object>> rows;
+
+    private final List<String> columns = new ArrayList<>();
+
+    private Map<String, Object> current;
+
+    /**
+     * 打开JSON Lines文件
+     *
+     * @param path       文件路径
+     * @param projection 需要读取的列,为null时读取全部列
+     * @param flatten    是否展开嵌套对象
+     * @param chunkSize  分块大小
+     * @throws IOException 读取失败时抛出
+     */
+    NdjsonCursor(Path path, Set<String> projection, boolean flatten, int chunkSize) throws IOException {
+        this.path = path;
+        this.input = openInput(path);
+        this.projection = projection;
+        this.prefixes = projection == null ? null : prefixesOf(projection);
+        this.flatten = flatten;
+        this.chunkSize = chunkSize;
+        if (projection != null) {
+            columns.addAll(projection);
+        }
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.lookahead = threads * 2;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "datashadow-ndjson-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            submitChunks();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取文件开头几行的字段名作为列名
+     * 各行的字段不完全相同时按出现顺序合并,读取到指定行数后停止
+     *
+     * @param path    文件路径
+     * @param flatten 是否展开嵌套对象
+     * @param sample  最多读取的行数,不包括空行
+     * @return 列名列表
+     * @throws IOException   读取失败时抛出
+     * @throws JSONException 行不是JSON对象时抛出
+     */
+    static List<String> readColumns(Path path, boolean flatten, int sample) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(openInput(path), StandardCharsets.UTF_8))) {
+            String line;
+            int rows = 0;
+            while (rows < sample && (line = reader.readLine()) != null) {
+                if (rows == 0 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                try (JSONReader json = JSONReader.of(line)) {
+                    names.addAll(readRow(json, null, null, flatten).keySet());
+                }
+                rows++;
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * 打开文件,以gzip魔数开头时边读边解压
+     *
+     * @param path 文件路径
+     * @return 文件内容的输入流
+     * @throws IOException 读取失败时抛出
+     */
+    private static InputStream openInput(Path path) throws IOException {
+        InputStream input = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+        try {
+            input.mark(2);
+            boolean gzip = input.read() == 0x1F && input.read() == 0x8B;
+            input.reset();
+            return gzip ? new GZIPInputStream(input, 1 << 16) : input;
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 计算投影列的所有上级路径
+     * 例如投影列a.b.c的上级路径为a和a.b
+     *
+     * @param projection 投影列
+     * @return 上级路径
+     */
+    private static Set<String> prefixesOf(Set<String> projection) {
+        Set<String> result = new HashSet<>();
+        for (String column : projection) {
+            for (int i = column.indexOf('.'); i > 0; i = column.indexOf('.', i + 1)) {
+                result.add(column.substring(0, i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从JSONReader读取一行
+     *
+     * @param reader     定位在行开头的JSONReader
+     * @param projection 需要读取的列,为null时读取全部列
+     * @param prefixes   投影列的所有上级路径,未设置列投影时为null
+     * @param flatten    是否展开嵌套对象
+     * @return 数据行
+     * @throws JSONException 当行不是JSON对象或对象之后还有其他内容时抛出
+     */
+    private static Map<String, Object> readRow(JSONReader reader, Set<String> projection, Set<String> prefixes,
+            boolean flatten) {
+        if (!reader.isObject()) {
+            throw new JSONException("行的内容不是JSON对象");
+        }
+        Map<String, Object> row;
+        if (flatten) {
+            row = new JSONObject();
+            readFlat(reader, "", projection, prefixes, row);
+        } else {
+            row = JsonArrayCursor.readRow(reader, projection);
+        }
+        // 一行只能有一个对象,例如{"a":1} {"a":2}不能只读取第一个对象
+        if (!reader.isEnd()) {
+            throw new JSONException("JSON对象之后还有多余的内容");
+        }
+        return row;
+    }
+
+    /**
+     * 展开读取一个对象,嵌套对象的字段以点号连接的路径作为列名
+     *
+     * @param reader     定位在对象开头的JSONReader
+     * @param prefix     上级路径,顶层对象为空字符串
+     * @param projection 需要读取的列,为null时读取全部列
+     * @param prefixes   投影列的所有上级路径,未设置列投影时为null
+     * @param row        数据行
+     */
+    private static void readFlat(JSONReader reader, String prefix, Set<String> projection, Set<String> prefixes,
+            Map<String, Object> row) {
+        reader.nextIfObjectStart();
+        while (!reader.nextIfObjectEnd()) {
+            String name = prefix + reader.readFieldName();
+            if (reader.isObject()) {
+                if (prefixes == null || prefixes.contains(name)) {
+                    readFlat(reader, name + ".", projection, prefixes, row);
+                } else {
+                    reader.skipValue();
+                }
+            } else if (projection == null || projection.contains(name)) {
+                row.put(name, reader.readAny());
+            } else {
+                reader.skipValue();
+            }
+        }
+    }
+
+    /**
+     * 读取后续的块并提交解析,保持同时解析的块数不超过lookahead
+     *
+     * @throws IOException 读取失败时抛出
+     */
+    private void submitChunks() throws IOException {
+        while (pending.size() < lookahead && !eof) {
+            byte[] data = readChunk();
+            if (data.length > 0) {
+                pending.add(executor.submit(() -> parse(data)));
+            }
+        }
+    }
+
+    /**
+     * 读取一块以换行结束的数据
+     * 最后一个换行之后的内容留到下一块,一块中没有换行时继续读取直到遇到换行或文件结束
+     *
+     * @return 块数据,文件结束时可能为空数组
+     * @throws IOException 读取失败时抛出
+     */
+    private byte[] readChunk() throws IOException {
+        byte[] buffer = Arrays.copyOf(carry, Math.max(chunkSize, carry.length * 2));
+        int length = carry.length;
+        int scanned = 0;
+        while (true) {
+            int read = input.readNBytes(buffer, length, buffer.length - length);
+            length += read;
+            if (length < buffer.length) {
+                eof = true;
+            }
+            int end = length;
+            while (end > scanned && buffer[end - 1] != '\n') {
+                end--;
+            }
+            if (end > scanned || eof) {
+                int cut = eof ? length : end;
+                carry = Arrays.copyOfRange(buffer, cut, length);
+                int from = 0;
+                if (first && cut >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB
+                        && buffer[2] == (byte) 0xBF) {
+                    from = 3;
+                }
+                first = false;
+                return Arrays.copyOfRange(buffer, from, cut);
+            }
+            // 块中没有换行,扩大块继续读取
+            scanned = length;
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    /**
+     * 解析一块数据
+     *
+     * @param data 块数据,以换行结束或为文件末尾
+     * @return 解析结果
+     */
+    private Chunk parse(byte[] data) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        int lines = 0;
+        int start = 0;
+        while (start < data.length) {
+            int end = start;
+            while (end < data.length && data[end] != '\n') {
+                end++;
+            }
+            lines++;
+            int from = start;
+            int to = end;
+            while (from < to && isWhitespace(data[from])) {
+                from++;
+            }
+            while (to > from && isWhitespace(data[to - 1])) {
+                to--;
+            }
+            if (from < to) {
+                try (JSONReader reader = JSONReader.of(data, from, to - from)) {
+                    result.add(readRow(reader, projection, prefixes, flatten));
+                    // JSONReader把对象之后的逗号当作分隔符跳过,需要单独检查
+                    if (data[to - 1] != '}') {
+                        throw new JSONException("JSON对象之后还有多余的内容");
+                    }
+                } catch (JSONException e) {
+                    throw new LineException(lines, e);
+                }
+            }
+            start = end + 1;
+        }
+        return new Chunk(result, lines);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * 读取下一个块的数据行
+     *
+     * @return 存在下一个块时返回true
+     * @throws DataAccessException 读取或解析失败时抛出
+     */
+    private boolean advance() throws DataAccessException {
+        Future<Chunk> future = pending.poll();
+        if (future == null) {
+            return false;
+        }
+        try {
+            Chunk chunk = future.get();
+            linesBefore += chunk.lines();
+            submitChunks();
+            rows = chunk.rows().iterator();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new DataAccessException("读取JSON Lines文件被中断", e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof LineException line) {
+                throw new DataAccessException("JSON Lines文件格式错误: " + path + ", 第" + (linesBefore + line.line)
+                        + "行, 原因: " + line.getCause().getMessage(), line.getCause());
+            }
+            throw new DataAccessException("读取JSON Lines文件失败: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            close();
+            throw new DataAccessException("读取JSON Lines文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        while (rows == null || !rows.hasNext()) {
+            if (!advance()) {
+                current = null;
+                return false;
+            }
+        }
+        current = rows.next();
+        if (projection == null && columns.isEmpty()) {
+            columns.addAll(current.keySet());
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    /**
+     * 获取列名
+     * 设置了列投影时为投影中的列,否则为第一行的字段名
+     *
+     * @return 列名列表
+     */
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 关闭游标
+     * 停止尚未完成的解析任务并关闭文件
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        pending.clear();
+        rows = null;
+        eof = true;
+        try {
+            input.close();
+        } catch (IOException e) {
+            // 只读流关闭失败不影响结果
+        }
+    }
+
+    /**
+     * 块的解析结果
+     *
+     * @param rows  数据行
+     * @param lines 块中的行数,包括空行
+     */
+    private record Chunk(List<Map<String, Object>> rows, int lines) {
+    }
+
+    /**
+     * 块中某一行解析失败,行号为块内的行号,从1开始
+     */
+    private static final class LineException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int line;
+
+        LineException(int line, JSONException cause) {
+            super(cause);
+            this.line = line;
+        }
+    }
+}
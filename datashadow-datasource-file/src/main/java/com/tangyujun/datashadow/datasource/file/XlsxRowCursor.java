@@ -0,0 +1,442 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import com.tangyujun.datashadow.datasource.IndexedRow;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datasource.RowSchema;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 流式XLSX游标
+ * 基于POI的事件模型读取.xlsx文件,通过XSSFReader取得工作表的XML流后逐行解析,
+ * 不构建整个工作簿的对象模型,内存占用只与共享字符串表和单行数据有关,与行数无关
+ *
+ * 说明:
+ * 1. 第一行作为表头,列名按单元格所在的列对应,没有表头的列忽略
+ * 2. 单元格取值与DataSourceExcel读取.xls时一致:文本为String,数值为Double,
+ *    日期格式的数值为Date,布尔值为Boolean,公式取缓存的计算结果,空单元格为空字符串
+ * 3. 数据行以IndexedRow返回,设置了列投影时投影以外的单元格只跳过,不做取值和类型转换
+ * 4. 工作表XML使用POI提供的安全配置的StAX解析器按需拉取,不需要额外的解析线程
+ */
+final class XlsxRowCursor implements RowCursor {
+
+    private final OPCPackage pkg;
+
+    private final InputStream sheetStream;
+
+    private final XMLStreamReader reader;
+
+    private final ReadOnlySharedStringsTable sharedStrings;
+
+    private final StylesTable styles;
+
+    /**
+     * 工作簿是否使用1904日期系统
+     */
+    private final boolean date1904;
+
+    /**
+     * 样式序号是否为日期格式的缓存
+     */
+    private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+    /**
+     * 数据行结构,只包含需要读取的列
+     */
+    private final RowSchema schema;
+
+    /**
+     * 所有列的列名,不受投影影响
+     */
+    private final List<String> headers = new ArrayList<>();
+
+    /**
+     * 工作表中每一列在数据行中的位置,不需要读取的列为-1
+     */
+    private final int[] positions;
+
+    private Map<String, Object> current;
+
+    /**
+     * 打开工作表并读取表头
+     *
+     * @param path       文件路径
+     * @param sheetName  工作表名称,为空时读取第一个工作表
+     * @param projection 需要读取的列,为null时读取全部列
+     * @throws DataAccessException 文件格式错误、工作表不存在或读取失败时抛出
+     */
+    XlsxRowCursor(Path path, String sheetName, Set<String> projection) throws DataAccessException {
+        OPCPackage opened = null;
+        InputStream stream = null;
+        try {
+            opened = OPCPackage.open(path.toFile(), PackageAccess.READ);
+            XSSFReader xssfReader = new XSSFReader(opened);
+            stream = openSheet(xssfReader, sheetName);
+            if (stream == null) {
+                throw new DataAccessException("Excel工作表不存在: " + sheetName, null);
+            }
+            sharedStrings = new ReadOnlySharedStringsTable(opened, false);
+            styles = xssfReader.getStylesTable();
+            try (InputStream workbook = xssfReader.getWorkbookData()) {
+                date1904 = isDate1904(workbook);
+            }
+            reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(stream);
+            pkg = opened;
+            sheetStream = stream;
+        } catch (IOException | OpenXML4JException | SAXException | XMLStreamException | POIXMLException e) {
+            closeQuietly(stream, opened);
+            throw new DataAccessException("读取Excel文件失败: " + path + ", 原因: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            closeQuietly(stream, opened);
+            throw e;
+        }
+
+        // 第一行作为表头,记录每一列在数据行中的位置
+        List<Object> headerRow;
+        try {
+            headerRow = readRow(null);
+        } catch (DataAccessException e) {
+            close();
+            throw e;
+        }
+        List<String> columns = new ArrayList<>();
+        positions = new int[headerRow == null ? 0 : headerRow.size()];
+        for (int i = 0; i < positions.length; i++) {
+            Object header = headerRow.get(i);
+            positions[i] = -1;
+            if (header == null) {
+                continue;
+            }
+            headers.add(header.toString());
+            if (projection == null || projection.contains(header.toString())) {
+                positions[i] = columns.size();
+                columns.add(header.toString());
+            }
+        }
+        schema = new RowSchema(columns.toArray(String[]::new));
+    }
+
+    /**
+     * 读取工作簿中所有工作表的名称
+     *
+     * @param path 文件路径
+     * @return 按工作簿中的顺序排列的工作表名称
+     * @throws IOException          读取失败时抛出
+     * @throws OpenXML4JException 文件不是有效的XLSX文件时抛出
+     */
+    static List<String> readSheetNames(Path path) throws IOException, OpenXML4JException {
+        try (OPCPackage opened = OPCPackage.open(path.toFile(), PackageAccess.READ)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(opened).getSheetsData();
+            List<String> names = new ArrayList<>();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                names.add(sheets.getSheetName());
+            }
+            return names;
+        }
+    }
+
+    /**
+     * 打开指定工作表的XML流
+     *
+     * @param xssfReader XLSX读取器
+     * @param sheetName  工作表名称,为空时返回第一个工作表
+     * @return 工作表的XML流,工作表不存在时返回null
+     */
+    private static InputStream openSheet(XSSFReader xssfReader, String sheetName)
+            throws IOException, OpenXML4JException {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        while (sheets.hasNext()) {
+            InputStream stream = sheets.next();
+            if (sheetName == null || sheetName.isBlank() || sheetName.equals(sheets.getSheetName())) {
+                return stream;
+            }
+            stream.close();
+        }
+        return null;
+    }
+
+    /**
+     * 读取workbook.xml中的日期系统设置
+     *
+     * @param workbook workbook.xml的内容
+     * @return 使用1904日期系统时返回true
+     */
+    private static boolean isDate1904(InputStream workbook) throws XMLStreamException {
+        XMLInputFactory factory = XMLHelper.newXMLInputFactory();
+        XMLStreamReader xml = factory.createXMLStreamReader(workbook);
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT) {
+                    if ("workbookPr".equals(xml.getLocalName())) {
+                        String value = xml.getAttributeValue(null, "date1904");
+                        return "1".equals(value) || "true".equals(value);
+                    }
+                    if ("sheets".equals(xml.getLocalName())) {
+                        return false;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            xml.close();
+        }
+    }
+
+    /**
+     * 读取下一行
+     * 跳到下一个row元素,按单元格所在的列存放取值
+     *
+     * @param values 按数据行位置存放取值的数组,为null时按列存放所有单元格的取值
+     * @return 读取表头时返回按列存放的取值,读取数据行时返回空列表,没有下一行时返回null
+     */
+    private List<Object> readRow(Object[] values) throws DataAccessException {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+                    return readCells(values);
+                }
+            }
+            return null;
+        } catch (XMLStreamException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new DataAccessException("读取Excel文件失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取当前row元素中的单元格
+     *
+     * @param values 按数据行位置存放取值的数组,为null时按列存放所有单元格的取值
+     * @return 按列存放的取值,values不为null时为空列表
+     */
+    private List<Object> readCells(Object[] values) throws XMLStreamException {
+        List<Object> cells = new ArrayList<>();
+        int column = -1;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(reader.getLocalName())) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT || !"c".equals(reader.getLocalName())) {
+                continue;
+            }
+            String ref = reader.getAttributeValue(null, "r");
+            column = ref != null ? new CellReference(ref).getCol() : column + 1;
+            int position;
+            if (values == null) {
+                position = column;
+            } else {
+                position = column < positions.length ? positions[column] : -1;
+            }
+            if (position < 0) {
+                skipElement();
+                continue;
+            }
+            Object value = readCell(values == null);
+            if (values == null) {
+                while (cells.size() <= column) {
+                    cells.add(null);
+                }
+                cells.set(column, value);
+            } else {
+                values[position] = value;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 读取当前c元素的取值
+     *
+     * @param text 是否按文本读取,用于表头
+     * @return 单元格的值
+     */
+    private Object readCell(boolean text) throws XMLStreamException {
+        String type = reader.getAttributeValue(null, "t");
+        String style = reader.getAttributeValue(null, "s");
+        String raw = null;
+        StringBuilder inline = null;
+        boolean formula = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(reader.getLocalName())) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "v" -> raw = reader.getElementText();
+                case "f" -> {
+                    formula = true;
+                    skipElement();
+                }
+                case "is" -> inline = readInlineString();
+                default -> skipElement();
+            }
+        }
+        if (type == null) {
+            type = "n";
+        }
+        return switch (type) {
+            case "s" -> raw == null ? "" : sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString();
+            case "inlineStr" -> inline == null ? "" : inline.toString();
+            case "b" -> text ? raw : "1".equals(raw);
+            case "e" -> "";
+            case "n" -> {
+                if (raw == null || raw.isEmpty()) {
+                    yield "";
+                }
+                if (text) {
+                    yield raw;
+                }
+                double number = Double.parseDouble(raw);
+                if (!formula && style != null && isDateStyle(Integer.parseInt(style))
+                        && DateUtil.isValidExcelDate(number)) {
+                    yield DateUtil.getJavaDate(number, date1904);
+                }
+                yield number;
+            }
+            default -> raw == null ? "" : raw;
+        };
+    }
+
+    /**
+     * 读取内联字符串,拼接各段文本,不包含注音
+     *
+     * @return 内联字符串的文本
+     */
+    private StringBuilder readInlineString() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "is".equals(reader.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("t".equals(reader.getLocalName())) {
+                    text.append(reader.getElementText());
+                } else if ("rPh".equals(reader.getLocalName())) {
+                    skipElement();
+                }
+            }
+        }
+        return text;
+    }
+
+    /**
+     * 跳过当前元素及其子元素
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * 判断样式是否为日期格式
+     *
+     * @param styleIndex 样式序号
+     * @return 日期格式时返回true
+     */
+    private boolean isDateStyle(int styleIndex) {
+        if (styles == null) {
+            return false;
+        }
+        return dateStyles.computeIfAbsent(styleIndex, index -> {
+            XSSFCellStyle cellStyle = styles.getStyleAt(index);
+            return cellStyle != null
+                    && DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+        });
+    }
+
+    /**
+     * 获取工作表的所有列名
+     *
+     * @return 所有列名,不受投影影响
+     */
+    List<String> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        Object[] values = new Object[schema.size()];
+        if (readRow(values) == null) {
+            current = null;
+            return false;
+        }
+        current = new IndexedRow(schema, values);
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return schema.getColumns();
+    }
+
+    /**
+     * 关闭游标
+     * 关闭工作表的XML流和XLSX文件,不保存任何修改
+     */
+    @Override
+    public void close() {
+        current = null;
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // 只读解析器关闭失败不影响结果
+        }
+        closeQuietly(sheetStream, pkg);
+    }
+
+    private static void closeQuietly(InputStream stream, OPCPackage opened) {
+        try {
+            if (stream != null) {
+                stream.close();
+            }
+        } catch (IOException e) {
+            // 只读流关闭失败不影响结果
+        }
+        if (opened != null) {
+            opened.revert();
+        }
+    }
+}
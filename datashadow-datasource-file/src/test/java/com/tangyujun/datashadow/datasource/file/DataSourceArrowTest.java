@@ -0,0 +1,232 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ArrowWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Arrow IPC数据源测试类
+ * 用于测试Arrow IPC文件格式和流格式的读取、分批次读取、列投影和原始类型的保留
+ */
+class DataSourceArrowTest {
+
+    /**
+     * 每个批次的行数
+     */
+    private static final int BATCH_ROWS = 100;
+
+    /**
+     * 批次个数
+     */
+    private static final int BATCHES = 3;
+
+    /**
+     * 测试使用的临时目录
+     */
+    private Path directory;
+
+    private DataSourceArrow dataSource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("datashadow-arrow");
+        dataSource = new DataSourceArrow();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * 生成测试文件
+     * 包含整数、字符串、浮点数、日期、时间戳、布尔、Decimal和字典编码的字符串列,
+     * 每个批次BATCH_ROWS行,共BATCHES个批次,每10行的金额为空
+     *
+     * @param name   文件名
+     * @param stream 是否使用流格式
+     * @return 文件路径
+     */
+    private Path write(String name, boolean stream) throws IOException {
+        Path file = directory.resolve(name);
+        try (BufferAllocator allocator = new RootAllocator();
+                VarCharVector statusValues = new VarCharVector("状态", allocator)) {
+            // 状态列使用字典编码
+            statusValues.allocateNew();
+            statusValues.setSafe(0, "待付款".getBytes(StandardCharsets.UTF_8));
+            statusValues.setSafe(1, "已完成".getBytes(StandardCharsets.UTF_8));
+            statusValues.setValueCount(2);
+            Dictionary dictionary = new Dictionary(statusValues,
+                    new DictionaryEncoding(1L, false, new ArrowType.Int(32, true)));
+            DictionaryProvider.MapDictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider(dictionary);
+
+            IntVector id = new IntVector("编号", allocator);
+            VarCharVector customer = new VarCharVector("客户", allocator);
+            Float8Vector amount = new Float8Vector("金额", allocator);
+            DateDayVector date = new DateDayVector("日期", allocator);
+            TimeStampMilliVector createdAt = new TimeStampMilliVector("创建时间", allocator);
+            BitVector paid = new BitVector("已付款", allocator);
+            DecimalVector price = new DecimalVector("单价", allocator, 10, 2);
+            VarCharVector statusText = new VarCharVector("状态", allocator);
+            List<FieldVector> vectors = new ArrayList<>(List.of(id, customer, amount, date, createdAt, paid, price));
+
+            // 每个批次的状态相同,编码一次后重复写出
+            statusText.allocateNew();
+            for (int i = 0; i < BATCH_ROWS; i++) {
+                statusText.setSafe(i, (i % 2 == 0 ? "待付款" : "已完成").getBytes(StandardCharsets.UTF_8));
+            }
+            statusText.setValueCount(BATCH_ROWS);
+            FieldVector encoded = (FieldVector) DictionaryEncoder.encode(statusText, dictionary);
+            statusText.close();
+            vectors.add(encoded);
+
+            try (VectorSchemaRoot root = new VectorSchemaRoot(vectors);
+                    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    ArrowWriter writer = stream
+                            ? new ArrowStreamWriter(root, provider, channel)
+                            : new ArrowFileWriter(root, provider, channel)) {
+                writer.start();
+                for (int batch = 0; batch < BATCHES; batch++) {
+                    for (int i = 0; i < BATCH_ROWS; i++) {
+                        int row = batch * BATCH_ROWS + i + 1;
+                        id.setSafe(i, row);
+                        customer.setSafe(i, ("客户" + row).getBytes(StandardCharsets.UTF_8));
+                        if (row % 10 == 0) {
+                            amount.setNull(i);
+                        } else {
+                            amount.setSafe(i, row * 1.5);
+                        }
+                        date.setSafe(i, (int) LocalDate.of(2024, 1, 1).plusDays(row).toEpochDay());
+                        createdAt.setSafe(i, LocalDateTime.of(2024, 1, 1, 8, 30).plusMinutes(row)
+                                .toInstant(ZoneOffset.UTC).toEpochMilli());
+                        paid.setSafe(i, row % 2);
+                        price.setSafe(i, BigDecimal.valueOf(row, 2));
+                    }
+                    root.setRowCount(BATCH_ROWS);
+                    writer.writeBatch();
+                }
+                writer.end();
+            }
+        }
+        return file;
+    }
+
+    /**
+     * 测试文件路径验证
+     * 验证空路径、扩展名错误、文件不存在时验证失败,.arrow文件验证通过
+     */
+    @Test
+    void testValid() throws IOException {
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setPath(directory.resolve("data.parquet").toString());
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setPath(directory.resolve("missing.arrow").toString());
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+
+        dataSource.setPath(write("data.arrow", false).toString());
+        assertDoesNotThrow(() -> dataSource.valid());
+    }
+
+    /**
+     * 测试读取文件格式的多个批次
+     * 验证行数、行的顺序、原始类型的保留、空值和字典编码的列
+     */
+    @Test
+    void testFileFormat() throws Exception {
+        dataSource.setPath(write("data.arrow", false).toString());
+        assertEquals(List.of("编号", "客户", "金额", "日期", "创建时间", "已付款", "单价", "状态"),
+                dataSource.getColumns());
+
+        List<Map<String, Object>> values = dataSource.acquireValues();
+        assertEquals(BATCH_ROWS * BATCHES, values.size());
+        Map<String, Object> row = values.get(150);
+        assertEquals(151, row.get("编号"));
+        assertEquals("客户151", row.get("客户"));
+        assertEquals(226.5, row.get("金额"));
+        assertEquals(LocalDate.of(2024, 1, 1).plusDays(151), row.get("日期"));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 8, 30).plusMinutes(151), row.get("创建时间"));
+        assertEquals(true, row.get("已付款"));
+        assertEquals(new BigDecimal("1.51"), row.get("单价"));
+        assertEquals("待付款", row.get("状态"));
+        assertNull(values.get(9).get("金额"));
+        assertEquals("已完成", values.get(299).get("状态"));
+    }
+
+    /**
+     * 测试读取流格式和列投影
+     * 验证流格式根据文件内容识别,投影以外的列不返回
+     */
+    @Test
+    void testStreamFormatProjection() throws Exception {
+        dataSource.setPath(write("data.arrows", true).toString());
+        dataSource.setProjection(Set.of("编号", "状态"));
+        try (RowCursor cursor = dataSource.openCursor()) {
+            assertEquals(List.of("编号", "状态"), cursor.getColumns());
+            int rows = 0;
+            while (cursor.next()) {
+                rows++;
+                assertEquals(Map.of("编号", rows, "状态", rows % 2 == 1 ? "待付款" : "已完成"), cursor.current());
+            }
+            assertEquals(BATCH_ROWS * BATCHES, rows);
+        }
+    }
+
+    /**
+     * 测试配置的导出和导入
+     */
+    @Test
+    void testExportImport() {
+        dataSource.setPath("/data/orders.arrow");
+        dataSource.setMappings(Map.of("orderId", "编号"));
+
+        DataSourceArrow imported = new DataSourceArrow();
+        imported.importSource(dataSource.exportSource());
+        assertEquals(dataSource, imported);
+        assertEquals("编号", imported.getMappings().get("orderId"));
+    }
+}
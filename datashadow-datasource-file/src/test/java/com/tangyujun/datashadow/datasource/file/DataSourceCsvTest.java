@@ -7,9 +7,20 @@ import com.tangyujun.datashadow.exception.DataAccessException;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
 import java.io.File;
+import java.io.StringReader;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -107,6 +118,24 @@ class DataSourceCsvTest {
         assertEquals("北京", firstRow.get("城市"));
     }
 
+    /**
+     * 测试设置列投影后读取数据
+     * 验证:
+     * 1. 只包含投影中的列
+     * 2. 投影中不存在的列被忽略
+     */
+    @Test
+    void testAcquireValuesWithProjection() throws DataAccessException {
+        URL resource = getClass().getClassLoader().getResource("csv/test.csv");
+        assertNotNull(resource, "测试文件不存在");
+        csv.setPath(new File(resource.getFile()).getAbsolutePath());
+        csv.setProjection(Set.of("姓名", "城市", "不存在"));
+
+        List<Map<String, Object>> values = csv.acquireValues();
+        assertEquals(3, values.size());
+        assertEquals(Map.of("姓名", "张三", "城市", "北京"), values.get(0));
+    }
+
     /**
      * 测试使用错误的文件扩展名时的验证
      * 预期:valid()方法应抛出DataSourceValidException异常
@@ -186,4 +215,127 @@ class DataSourceCsvTest {
         assertTrue(columns.contains("年龄"), "应包含'年龄'列");
         assertTrue(columns.contains("城市"), "应包含'城市'列");
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试内存映射分块并行读取
+     * 验证:
+     * 1. 分块很小、引号内的字段包含换行时,结果与Commons CSV顺序读取一致且保持文件顺序
+     * 2. 列投影只返回投影中的列
+     */
+    @Test
+    void testMappedChunks() throws Exception {
+        StringBuilder content = new StringBuilder("\uFEFFid,name,remark\r\n");
+        for (int i = 0; i < 500; i++) {
+            String remark = switch (i % 4) {
+                case 0 -> "\"line1\nline2,\"\"quoted\"\"\"";
+                case 1 -> "";
+                case 2 -> "\"\"";
+                default -> "plain";
+            };
+            content.append(i).append(",\"name ").append(i).append("\",").append(remark)
+                    .append(i % 2 == 0 ? "\r\n" : "\n");
+            if (i % 100 == 0) {
+                content.append("\n");
+            }
+        }
+        Path file = Files.createTempFile("datashadow-mapped", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        List<CSVRecord> expected;
+        try (CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().build()
+                .parse(new StringReader(content.substring(1)))) {
+            expected = parser.getRecords();
+        }
+        List<Map<String, Object>> actual = new ArrayList<>();
+        try (MappedCsvCursor cursor = new MappedCsvCursor(file, StandardCharsets.UTF_8, null, 64)) {
+            assertEquals(List.of("id", "name", "remark"), cursor.getColumns());
+            while (cursor.next()) {
+                actual.add(cursor.current());
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toMap(), actual.get(i));
+        }
+
+        try (MappedCsvCursor cursor = new MappedCsvCursor(file, StandardCharsets.UTF_8, Set.of("remark"), 64)) {
+            assertTrue(cursor.next());
+            assertEquals(Map.of("remark", "line1\nline2,\"quoted\""), cursor.current());
+        }
+        Files.delete(file);
+    }
+
+    /**
+     * 测试内存映射游标在解析任务进行中提前关闭,以及引号跨块时反复合并
+     * 合并和关闭都不能中断正在映射文件的线程,否则共享的文件通道被关闭,后续的块读取失败
+     */
+    @Test
+    void testMappedEarlyClose() throws Exception {
+        StringBuilder content = new StringBuilder("id,remark\n");
+        for (int i = 0; i < 5000; i++) {
+            content.append(i).append(",\"first line\nsecond line ").append(i).append("\"\n");
+        }
+        Path file = Files.createTempFile("datashadow-mapped", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                try (MappedCsvCursor cursor = new MappedCsvCursor(file, StandardCharsets.UTF_8, null, 48)) {
+                    for (int i = 0; i < round * 10 + 1; i++) {
+                        assertTrue(cursor.next());
+                        assertEquals(String.valueOf(i), cursor.current().get("id"));
+                    }
+                }
+            }
+            int rows = 0;
+            try (MappedCsvCursor cursor = new MappedCsvCursor(file, StandardCharsets.UTF_8, null, 48)) {
+                while (cursor.next()) {
+                    assertEquals("first line\nsecond line " + rows, cursor.current().get("remark"));
+                    rows++;
+                }
+            }
+            assertEquals(5000, rows);
+
+            // 关闭后解析线程在已开始的任务完成后退出
+            long deadline = System.currentTimeMillis() + 5000;
+            while (Thread.getAllStackTraces().keySet().stream()
+                    .anyMatch(thread -> thread.getName().startsWith("datashadow-csv-"))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(Thread.getAllStackTraces().keySet().stream()
+                    .noneMatch(thread -> thread.getName().startsWith("datashadow-csv-")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * 测试编码选择中的双字节编码
+     * 验证UTF-16LE(带字节顺序标记)和GBK文件的表头和数据读取正确
+     */
+    @Test
+    void testMappedEncodings() throws Exception {
+        String content = "姓名,城市\n张三,\"北京\n朝阳\"\n李四,上海\n";
+        for (String name : List.of("UTF-16", "UTF-16LE", "GBK")) {
+            Path file = Files.createTempFile("datashadow-encoding", ".csv");
+            byte[] bytes = content.getBytes(name.equals("UTF-16") ? StandardCharsets.UTF_16LE : Charset.forName(name));
+            if (name.equals("UTF-16")) {
+                byte[] withBom = new byte[bytes.length + 2];
+                withBom[0] = (byte) 0xFF;
+                withBom[1] = (byte) 0xFE;
+                System.arraycopy(bytes, 0, withBom, 2, bytes.length);
+                bytes = withBom;
+            }
+            Files.write(file, bytes);
+            csv.setPath(file.toString());
+            csv.setEncoding(name);
+
+            assertEquals(List.of("姓名", "城市"), csv.getColumns(), name);
+            List<Map<String, Object>> values = csv.acquireValues();
+            assertEquals(2, values.size(), name);
+            assertEquals("北京\n朝阳", values.get(0).get("城市"), name);
+            assertEquals("李四", values.get(1).get("姓名"), name);
+            Files.delete(file);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.tangyujun.datashadow.datasource.file;
 
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -7,9 +12,14 @@ import com.tangyujun.datashadow.exception.DataAccessException;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
 import java.io.File;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -226,4 +236,71 @@ class DataSourceExcelTest {
         assertTrue(columns.contains("年龄"), "应包含'年龄'列");
         assertTrue(columns.contains("城市"), "应包含'城市'列");
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试.xlsx文件的流式读取
+     * 使用SXSSF生成内联字符串的工作簿,验证:
+     * 1. 指定工作表读取和工作表不存在时验证失败
+     * 2. 数值、日期、布尔值、公式和空单元格的取值类型
+     * 3. 没有表头的列被忽略,列投影只读取投影中的列
+     * 4. 获取列名只读取表头
+     */
+    @Test
+    void testStreamingXlsx() throws Exception {
+        Path file = Files.createTempFile("datashadow-excel", ".xlsx");
+        Date birthday = new Date(1_700_000_000_000L / 86_400_000L * 86_400_000L);
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            workbook.createSheet("说明").createRow(0).createCell(0).setCellValue("无数据");
+            Sheet sheet = workbook.createSheet("数据");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("编号");
+            header.createCell(1).setCellValue("姓名");
+            header.createCell(2).setCellValue("生日");
+            header.createCell(3).setCellValue("在职");
+            header.createCell(5).setCellValue("合计");
+            for (int i = 1; i <= 1000; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("员工" + i);
+                Cell date = row.createCell(2);
+                date.setCellValue(birthday);
+                date.setCellStyle(dateStyle);
+                row.createCell(3).setCellValue(i % 2 == 0);
+                row.createCell(4).setCellValue("无表头");
+                row.createCell(5).setCellFormula("A" + (i + 1) + "*2");
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+        }
+        try {
+            excel.setPath(file.toString());
+            excel.setSheetName("不存在");
+            assertThrows(DataSourceValidException.class, () -> excel.valid());
+            excel.setSheetName("数据");
+            assertDoesNotThrow(() -> excel.valid());
+            assertEquals(List.of("编号", "姓名", "生日", "在职", "合计"), excel.getColumns());
+
+            List<Map<String, Object>> values = excel.acquireValues();
+            assertEquals(1000, values.size());
+            Map<String, Object> second = values.get(1);
+            assertEquals(2.0, second.get("编号"));
+            assertEquals("员工2", second.get("姓名"));
+            assertEquals(birthday, second.get("生日"));
+            assertEquals(true, second.get("在职"));
+            assertEquals(false, values.get(0).get("在职"));
+            assertTrue(second.get("合计") instanceof Double || second.get("合计") instanceof String);
+            assertEquals(5, second.size());
+
+            excel.setProjection(Set.of("姓名"));
+            values = excel.acquireValues();
+            assertEquals(Map.of("姓名", "员工1000"), values.get(999));
+        } finally {
+            excel.setProjection(null);
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tangyujun.datashadow.datasource.file.FixedWidthField.Type;
+import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 定长文件数据源测试类
+ * 用于测试定长文件的字段截取、类型转换、分段并行解码、列投影和不同编码的读取
+ */
+class DataSourceFixedWidthTest {
+
+    /**
+     * 测试使用的临时目录
+     */
+    private Path directory;
+
+    private DataSourceFixedWidth dataSource;
+
+    /**
+     * 测试使用的字段布局
+     * 账号10字节,户名10字节,金额12字节右对齐,日期8字节,笔数5字节补0,每条记录45字节
+     */
+    private final List<FixedWidthField> layout = List.of(
+            new FixedWidthField("账号", 0, 10, true, Type.STRING),
+            new FixedWidthField("户名", 10, 10, true, Type.STRING),
+            new FixedWidthField("金额", 20, 12, true, Type.DECIMAL),
+            new FixedWidthField("日期", 32, 8, true, Type.DATE),
+            new FixedWidthField("笔数", 40, 5, true, Type.INTEGER));
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("datashadow-fixed");
+        dataSource = new DataSourceFixedWidth();
+        dataSource.setFields(layout);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * 按字节长度在右侧补空格
+     */
+    private static byte[] pad(String value, int length, Charset charset) {
+        byte[] bytes = value.getBytes(charset);
+        byte[] result = (" ".repeat(length)).getBytes(charset);
+        System.arraycopy(bytes, 0, result, 0, bytes.length);
+        return result;
+    }
+
+    /**
+     * 生成测试文件
+     * 第i条记录的金额为-i.25,每7条记录的日期为00000000,最后一条记录没有换行符
+     *
+     * @param name       文件名
+     * @param records    记录条数
+     * @param charset    文件编码
+     * @param terminator 换行符,为空时记录之间没有换行符
+     * @return 文件路径
+     */
+    private Path write(String name, int records, Charset charset, String terminator) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 1; i <= records; i++) {
+            out.writeBytes(pad(String.format("%010d", i), 10, charset));
+            out.writeBytes(pad("客户" + i, 10, charset));
+            out.writeBytes(String.format("%12s", "-" + i + ".25").getBytes(charset));
+            out.writeBytes((i % 7 == 0 ? "00000000" : LocalDate.of(2024, 1, 1).plusDays(i)
+                    .format(DateTimeFormatter.BASIC_ISO_DATE)).getBytes(charset));
+            out.writeBytes(String.format("%05d", i % 100).getBytes(charset));
+            if (i < records) {
+                out.writeBytes(terminator.getBytes(charset));
+            }
+        }
+        return Files.write(directory.resolve(name), out.toByteArray());
+    }
+
+    /**
+     * 测试配置验证
+     * 验证文件不存在、编码不支持、字段布局为空、字段名称重复和字段超出记录长度时验证失败
+     */
+    @Test
+    void testValid() throws IOException {
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setPath(directory.resolve("missing.dat").toString());
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+
+        dataSource.setPath(write("data.dat", 1, Charset.forName("GBK"), "\r\n").toString());
+        dataSource.setEncoding("GBK");
+        assertDoesNotThrow(() -> dataSource.valid());
+
+        dataSource.setEncoding("UTF-16");
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setEncoding("GBK");
+        dataSource.setRecordLength(40);
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setRecordLength(0);
+        dataSource.setFields(List.of(layout.get(0), layout.get(0)));
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setFields(List.of());
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+    }
+
+    /**
+     * 测试按很小的分段并行解码
+     * 验证记录的顺序、取值类型、去空格、全为0的日期、多字节字符和末尾没有换行符的记录
+     */
+    @Test
+    void testParallelChunks() throws Exception {
+        Charset gbk = Charset.forName("GBK");
+        Path file = write("data.dat", 3000, gbk, "\r\n");
+        try (FixedWidthCursor cursor = new FixedWidthCursor(file, gbk, layout, 0, null, 500)) {
+            int rows = 0;
+            while (cursor.next()) {
+                rows++;
+                Map<String, Object> row = cursor.current();
+                assertEquals(String.format("%010d", rows), row.get("账号"));
+                assertEquals("客户" + rows, row.get("户名"));
+                assertEquals(new BigDecimal("-" + rows + ".25"), row.get("金额"));
+                assertEquals(rows % 7 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(rows), row.get("日期"));
+                assertEquals((long) (rows % 100), row.get("笔数"));
+            }
+            assertEquals(3000, rows);
+            assertEquals(List.of("账号", "户名", "金额", "日期", "笔数"), cursor.getColumns());
+        }
+
+        dataSource.setPath(file.toString());
+        dataSource.setEncoding("GBK");
+        dataSource.setProjection(Set.of("账号", "笔数"));
+        List<Map<String, Object>> values = dataSource.acquireValues();
+        assertEquals(3000, values.size());
+        assertEquals(Map.of("账号", "0000003000", "笔数", 0L), values.get(2999));
+    }
+
+    /**
+     * 测试没有换行符的EBCDIC文件
+     * 验证记录长度取字段布局的宽度,空格和数字按EBCDIC编码识别
+     */
+    @Test
+    void testEbcdic() throws Exception {
+        Charset ebcdic = Charset.forName("IBM037");
+        Path file = write("data.ebc", 20, ebcdic, "");
+        dataSource.setPath(file.toString());
+        dataSource.setEncoding("IBM037");
+        dataSource.setFields(List.of(layout.get(0), layout.get(2), layout.get(4)));
+        List<Map<String, Object>> values = dataSource.acquireValues();
+        assertEquals(20, values.size());
+        assertEquals("0000000005", values.get(4).get("账号"));
+        assertEquals(new BigDecimal("-20.25"), values.get(19).get("金额"));
+        assertEquals(19L, values.get(18).get("笔数"));
+    }
+
+    /**
+     * 测试字段无法解析时报告记录序号和字段名称
+     */
+    @Test
+    void testInvalidField() throws Exception {
+        Path file = write("data.dat", 50, Charset.forName("GBK"), "\n");
+        dataSource.setPath(file.toString());
+        dataSource.setEncoding("GBK");
+        dataSource.setFields(List.of(new FixedWidthField("户名", 10, 10, true, Type.INTEGER)));
+        DataAccessException e = assertThrows(DataAccessException.class, () -> dataSource.acquireValues());
+        assertTrue(e.getMessage().contains("第1条记录的字段户名"), e.getMessage());
+    }
+
+    /**
+     * 测试字段布局文本的解析和配置的导出导入
+     */
+    @Test
+    void testLayoutAndExportImport() {
+        List<FixedWidthField> parsed = FixedWidthField.parseLayout(FixedWidthField.formatLayout(layout));
+        assertEquals(layout, parsed);
+        assertEquals(List.of(new FixedWidthField("备注", 45, 20, true, Type.STRING)),
+                FixedWidthField.parseLayout("# 注释\n\n备注, 45, 20\n"));
+        assertThrows(IllegalArgumentException.class, () -> FixedWidthField.parseLayout("备注,45"));
+        assertThrows(IllegalArgumentException.class, () -> FixedWidthField.parseLayout("备注,45,20,TIME"));
+
+        dataSource.setPath("/data/bank.dat");
+        dataSource.setEncoding("GBK");
+        dataSource.setRecordLength(47);
+        dataSource.setMappings(Map.of("account", "账号"));
+
+        DataSourceFixedWidth imported = new DataSourceFixedWidth();
+        imported.importSource(dataSource.exportSource());
+        assertEquals(dataSource, imported);
+        assertEquals(layout, imported.getFields());
+        assertEquals(47, imported.getRecordLength());
+        assertEquals("账号", imported.getMappings().get("account"));
+    }
+}
@@ -7,8 +7,11 @@ import com.tangyujun.datashadow.exception.DataSourceValidException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * JSON数据源测试类
@@ -112,6 +115,24 @@ public class DataSourceJsonTest {
         assertEquals("上海", secondRecord.get("城市"));
     }
 
+    /**
+     * 测试设置列投影后读取数据
+     * 验证:
+     * 1. 数据条数不变
+     * 2. 只包含投影中的字段,字段值与不投影时一致
+     */
+    @Test
+    void testAcquireValuesWithProjection() throws DataAccessException {
+        dataSource = new DataSourceJson();
+        dataSource.setPath(validJsonPath);
+        dataSource.setProjection(Set.of("姓名", "年龄"));
+        List<Map<String, Object>> values = dataSource.acquireValues();
+
+        assertEquals(3, values.size(), "应该包含3条记录");
+        assertEquals(Map.of("姓名", "张三", "年龄", 25), values.get(0));
+        assertFalse(values.get(2).containsKey("城市"));
+    }
+
     /**
      * 测试使用无效路径读取数据
      * 验证:
@@ -156,4 +177,60 @@ public class DataSourceJsonTest {
         assertTrue(columns.contains("年龄"), "应包含'年龄'列");
         assertTrue(columns.contains("城市"), "应包含'城市'列");
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试流式读取JSON数组
+     * 使用很小的缓冲区,验证:
+     * 1. 对象跨越缓冲区、字符串中包含括号和转义引号、嵌套对象和数组时逐个对象正确解析
+     * 2. 获取列名合并开头几个对象的字段
+     * 3. 空数组、null和非数组内容
+     */
+    @Test
+    void testStreamingArray() throws Exception {
+        Path file = Files.createTempFile("datashadow-json", ".json");
+        try {
+            StringBuilder json = new StringBuilder("\uFEFF[");
+            for (int i = 1; i <= 500; i++) {
+                json.append(i == 1 ? "" : ",\n").append("{\"编号\":").append(i)
+                        .append(",\"备注\":\"含{括号}和\\\"引号\\\"]\"")
+                        .append(",\"明细\":{\"标签\":[1,2,{\"a\":null}]}");
+                if (i == 2) {
+                    json.append(",\"附加\":true");
+                }
+                json.append("}");
+            }
+            json.append("]");
+            Files.writeString(file, json);
+
+            try (JsonArrayCursor cursor = new JsonArrayCursor(file, null, 16)) {
+                int rows = 0;
+                while (cursor.next()) {
+                    rows++;
+                    assertEquals(rows, cursor.current().get("编号"));
+                    assertEquals("含{括号}和\"引号\"]", cursor.current().get("备注"));
+                }
+                assertEquals(500, rows);
+            }
+            try (JsonArrayCursor cursor = new JsonArrayCursor(file, Set.of("编号"), 16)) {
+                assertTrue(cursor.next());
+                assertEquals(Map.of("编号", 1), cursor.current());
+            }
+
+            dataSource = new DataSourceJson();
+            dataSource.setPath(file.toString());
+            assertEquals(List.of("编号", "备注", "明细", "附加"), dataSource.getColumns());
+            assertEquals(500, dataSource.acquireValues().size());
+
+            Files.writeString(file, " [ ] ");
+            assertTrue(dataSource.acquireValues().isEmpty());
+            Files.writeString(file, "null");
+            assertTrue(dataSource.acquireValues().isEmpty());
+            Files.writeString(file, "{\"编号\":1}");
+            assertThrows(DataAccessException.class, () -> dataSource.acquireValues());
+            Files.writeString(file, "[{\"编号\":1} {\"编号\":2}]");
+            assertThrows(DataAccessException.class, () -> dataSource.acquireValues());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
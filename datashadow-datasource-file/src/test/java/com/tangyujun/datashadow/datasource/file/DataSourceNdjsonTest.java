@@ -0,0 +1,199 @@
+package com.tangyujun.datashadow.datasource.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON Lines数据源测试类
+ * 用于测试JSON Lines格式数据源的读取、分块并行解析、gzip解压和嵌套对象展开
+ */
+class DataSourceNdjsonTest {
+
+    /**
+     * 测试使用的临时目录
+     */
+    private Path directory;
+
+    private DataSourceNdjson dataSource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("datashadow-ndjson");
+        dataSource = new DataSourceNdjson();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * 生成测试数据
+     * 第1行之后有一个空行,第2行起使用CRLF换行
+     *
+     * @param rows 行数
+     * @return 文件内容
+     */
+    private String content(int rows) {
+        StringBuilder text = new StringBuilder("\uFEFF");
+        for (int i = 1; i <= rows; i++) {
+            text.append("{\"编号\":").append(i).append(",\"客户\":{\"姓名\":\"客户").append(i)
+                    .append("\",\"地址\":{\"城市\":\"北京\"}},\"标签\":[\"a\\nb\"]}")
+                    .append(i == 1 ? "\n\n" : "\r\n");
+        }
+        return text.toString();
+    }
+
+    /**
+     * 测试文件路径验证
+     * 验证空路径、扩展名错误、文件不存在时验证失败,.jsonl和.ndjson.gz验证通过
+     */
+    @Test
+    void testValid() throws IOException {
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setPath(directory.resolve("data.json").toString());
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+        dataSource.setPath(directory.resolve("missing.jsonl").toString());
+        assertThrows(DataSourceValidException.class, () -> dataSource.valid());
+
+        Path plain = Files.writeString(directory.resolve("data.jsonl"), content(1));
+        dataSource.setPath(plain.toString());
+        assertDoesNotThrow(() -> dataSource.valid());
+        Path gzip = Files.writeString(directory.resolve("data.ndjson.gz"), "");
+        dataSource.setPath(gzip.toString());
+        assertDoesNotThrow(() -> dataSource.valid());
+    }
+
+    /**
+     * 测试按很小的块并行解析
+     * 验证行的顺序、取值类型、字节顺序标记和空行
+     */
+    @Test
+    void testParallelChunks() throws Exception {
+        Path file = Files.writeString(directory.resolve("data.jsonl"), content(2000));
+        try (NdjsonCursor cursor = new NdjsonCursor(file, null, false, 64)) {
+            int rows = 0;
+            while (cursor.next()) {
+                rows++;
+                assertEquals(rows, cursor.current().get("编号"));
+                assertTrue(cursor.current().get("客户") instanceof Map);
+            }
+            assertEquals(2000, rows);
+            assertEquals(List.of("编号", "客户", "标签"), cursor.getColumns());
+        }
+
+        dataSource.setPath(file.toString());
+        List<Map<String, Object>> values = dataSource.acquireValues();
+        assertEquals(2000, values.size());
+        assertEquals(List.of("a\nb"), values.get(0).get("标签"));
+    }
+
+    /**
+     * 测试gzip压缩的文件和嵌套对象展开
+     * 验证:
+     * 1. 展开后的列名为点号连接的路径
+     * 2. 列投影只读取投影中的列,不包含投影列的嵌套对象被跳过
+     */
+    @Test
+    void testGzipAndFlatten() throws Exception {
+        Path file = directory.resolve("data.jsonl.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content(300).getBytes(StandardCharsets.UTF_8));
+        }
+        dataSource.setPath(file.toString());
+        dataSource.setFlatten(true);
+        assertEquals(List.of("编号", "客户.姓名", "客户.地址.城市", "标签"), dataSource.getColumns());
+
+        List<Map<String, Object>> values = dataSource.acquireValues();
+        assertEquals(300, values.size());
+        assertEquals("客户300", values.get(299).get("客户.姓名"));
+        assertEquals("北京", values.get(0).get("客户.地址.城市"));
+
+        dataSource.setProjection(Set.of("编号", "客户.地址.城市"));
+        values = dataSource.acquireValues();
+        assertEquals(Map.of("编号", 2, "客户.地址.城市", "北京"), values.get(1));
+    }
+
+    /**
+     * 测试行不是JSON对象时报告文件中的行号
+     */
+    @Test
+    void testInvalidLine() throws Exception {
+        Path file = directory.resolve("data.jsonl");
+        Files.writeString(file, content(100) + "[1,2]\n");
+        try (NdjsonCursor cursor = new NdjsonCursor(file, null, false, 128)) {
+            DataAccessException e = assertThrows(DataAccessException.class, () -> {
+                while (cursor.next()) {
+                    // 读取到出错的行为止
+                }
+            });
+            assertTrue(e.getMessage().contains("第102行"), e.getMessage());
+        }
+    }
+
+    /**
+     * 测试一行中JSON对象之后还有其他内容时报告文件中的行号
+     * 验证展开和不展开嵌套对象时都不会只读取第一个对象
+     */
+    @Test
+    void testTrailingContent() throws Exception {
+        for (String trailing : List.of(" {\"编号\":0}", " junk", ",")) {
+            Path file = directory.resolve("data.jsonl");
+            Files.writeString(file, content(100) + "{\"编号\":101}" + trailing + "\n{\"编号\":102}\n");
+            for (boolean flatten : List.of(false, true)) {
+                try (NdjsonCursor cursor = new NdjsonCursor(file, null, flatten, 128)) {
+                    DataAccessException e = assertThrows(DataAccessException.class, () -> {
+                        while (cursor.next()) {
+                            // 读取到出错的行为止
+                        }
+                    });
+                    assertTrue(e.getMessage().contains("第102行"), e.getMessage());
+                }
+            }
+        }
+        Path file = directory.resolve("data.jsonl");
+        Files.writeString(file, "{\"编号\":1}  \t\r\n");
+        try (NdjsonCursor cursor = new NdjsonCursor(file, null, false, 128)) {
+            assertTrue(cursor.next());
+            assertEquals(Map.of("编号", 1), cursor.current());
+            assertFalse(cursor.next());
+        }
+    }
+
+    /**
+     * 测试配置的导出和导入
+     */
+    @Test
+    void testExportImport() {
+        dataSource.setPath("/data/orders.ndjson");
+        dataSource.setFlatten(true);
+        dataSource.setMappings(Map.of("orderId", "编号"));
+
+        DataSourceNdjson imported = new DataSourceNdjson();
+        imported.importSource(dataSource.exportSource());
+        assertEquals(dataSource, imported);
+        assertTrue(imported.isFlatten());
+        assertEquals("编号", imported.getMappings().get("orderId"));
+    }
+}
@@ -7,8 +7,11 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -146,4 +149,49 @@ class DataSourceXmlTest {
         assertTrue(columns.contains("age"), "应包含'age'列");
         assertTrue(columns.contains("grade"), "应包含'grade'列");
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试按记录路径流式读取
+     * 验证:
+     * 1. 记录路径以外的元素被跳过,*匹配任意名称
+     * 2. 字段值包含下级元素的文本和CDATA,命名空间前缀保留在列名中
+     * 3. 列投影只读取投影中的字段,获取列名只读取第一条记录
+     * 4. 记录路径格式错误时验证失败
+     */
+    @Test
+    void testRecordPath() throws Exception {
+        Path file = Files.createTempFile("datashadow-xml", ".xml");
+        try {
+            StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<export xmlns:x=\"urn:ext\"><meta><count>1000</count></meta><orders>");
+            for (int i = 1; i <= 1000; i++) {
+                xml.append("<order><id>").append(i).append("</id><x:note><![CDATA[备注<").append(i)
+                        .append(">]]></x:note><address><city>北京</city><zip>1000").append(i % 10)
+                        .append("</zip></address></order>");
+            }
+            xml.append("</orders></export>");
+            Files.writeString(file, xml);
+
+            dataSourceXml.setPath(file.toString());
+            dataSourceXml.setRecordPath("/export/*/order");
+            assertDoesNotThrow(() -> dataSourceXml.valid());
+            assertEquals(List.of("id", "x:note", "address"), dataSourceXml.getColumns());
+
+            List<Map<String, Object>> values = dataSourceXml.acquireValues();
+            assertEquals(1000, values.size());
+            assertEquals("2", values.get(1).get("id"));
+            assertEquals("备注<2>", values.get(1).get("x:note"));
+            assertEquals("北京10002", values.get(1).get("address"));
+
+            dataSourceXml.setProjection(Set.of("id"));
+            values = dataSourceXml.acquireValues();
+            assertEquals(Map.of("id", "1000"), values.get(999));
+
+            dataSourceXml.setRecordPath("export//order");
+            assertThrows(DataSourceValidException.class, () -> dataSourceXml.valid());
+        } finally {
+            dataSourceXml.setProjection(null);
+            Files.delete(file);
+        }
+    }
+}
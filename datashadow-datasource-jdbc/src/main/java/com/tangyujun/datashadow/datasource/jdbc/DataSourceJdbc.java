@@ -0,0 +1,603 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.alibaba.fastjson2.annotation.JSONField;
+import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
+import com.tangyujun.datashadow.datasource.DataSourceGenerator;
+import com.tangyujun.datashadow.datasource.DataSourceRegistry;
+import com.tangyujun.datashadow.datasource.db.DataSourceDb;
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 通用JDBC数据源
+ * 通过连接URL连接任意提供JDBC驱动的数据库,内置PostgreSQL、SQL Server、H2、SQLite的数据库方言
+ * 继承自DataSourceDb抽象类,连接池、流式读取、按类型读取、并行和分页读取与MySQL、Oracle数据源相同
+ *
+ * 驱动加载:
+ * 1. 驱动不随程序发布,将驱动jar放入插件目录(系统设置中配置,默认为用户目录/.datashadow/plugins)或指定驱动jar的路径
+ * 2. 驱动类名为空时使用数据库类型的默认驱动类名,其他数据库通过jar中的驱动服务声明按URL查找
+ *
+ * 流式读取:
+ * PostgreSQL只在事务中使用服务端游标,自动提交模式下会读取整个结果集,
+ * 因此查询前关闭连接的自动提交,连接归还连接池时由连接池回滚并恢复
+ */
+public class DataSourceJdbc extends DataSourceDb {
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceJdbc.class);
+
+    /**
+     * 数据库类型
+     */
+    protected JdbcDatabase database = JdbcDatabase.OTHER;
+
+    /**
+     * 连接URL
+     */
+    protected String url;
+
+    /**
+     * 驱动类名,为空时使用数据库类型的默认驱动类名
+     */
+    protected String driverClass;
+
+    /**
+     * 驱动jar文件或所在目录,为空时使用插件目录
+     */
+    protected String driverPath;
+
+    /**
+     * 已加载的JDBC驱动
+     */
+    private transient Driver loadedDriver;
+
+    /**
+     * 已加载的JDBC驱动对应的 驱动类名 + 驱动路径,配置变化后重新加载
+     */
+    private transient String loadedDriverKey;
+
+    /**
+     * 构造通用JDBC数据源
+     */
+    public DataSourceJdbc() {
+    }
+
+    /**
+     * 构造指定数据库类型的JDBC数据源
+     *
+     * @param database 数据库类型
+     */
+    public DataSourceJdbc(JdbcDatabase database) {
+        setDatabase(database);
+    }
+
+    /**
+     * 获取数据库类型
+     *
+     * @return 数据库类型
+     */
+    public JdbcDatabase getDatabase() {
+        return database;
+    }
+
+    /**
+     * 设置数据库类型
+     *
+     * @param database 数据库类型,为null时为其他数据库
+     */
+    public void setDatabase(JdbcDatabase database) {
+        this.database = database == null ? JdbcDatabase.OTHER : database;
+    }
+
+    /**
+     * 获取连接URL
+     *
+     * @return 连接URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 设置连接URL
+     *
+     * @param url 连接URL
+     */
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * 获取驱动类名
+     *
+     * @return 驱动类名
+     */
+    public String getDriverClass() {
+        return driverClass;
+    }
+
+    /**
+     * 设置驱动类名
+     *
+     * @param driverClass 驱动类名,为空时使用数据库类型的默认驱动类名
+     */
+    public void setDriverClass(String driverClass) {
+        this.driverClass = driverClass;
+    }
+
+    /**
+     * 获取驱动jar文件或所在目录
+     *
+     * @return 驱动路径
+     */
+    public String getDriverPath() {
+        return driverPath;
+    }
+
+    /**
+     * 设置驱动jar文件或所在目录
+     *
+     * @param driverPath 驱动路径,为空时使用插件目录
+     */
+    public void setDriverPath(String driverPath) {
+        this.driverPath = driverPath;
+    }
+
+    /**
+     * 获取数据库类型名称
+     *
+     * @return 数据库类型的显示名称
+     */
+    @Override
+    protected String getDatabaseType() {
+        return database.getDisplayName();
+    }
+
+    /**
+     * 获取数据库方言
+     *
+     * @return 数据库类型对应的方言,其他数据库返回null
+     */
+    @Override
+    @JSONField(serialize = false)
+    public JdbcDialect getDialect() {
+        return database.getDialect();
+    }
+
+    /**
+     * 获取驱动类名
+     *
+     * @return 填写的驱动类名,未填写时为数据库类型的默认驱动类名
+     */
+    @Override
+    protected String getDriverClassName() {
+        return driverClass != null && !driverClass.isBlank() ? driverClass.trim() : database.getDriverClassName();
+    }
+
+    /**
+     * 加载JDBC驱动
+     * 先从类路径查找,找不到时从驱动路径或插件目录中的jar文件加载,详见DriverLoader
+     *
+     * @return JDBC驱动实例
+     * @throws ReflectiveOperationException 找不到驱动或无法实例化时抛出
+     */
+    @Override
+    protected Driver loadDriver() throws ReflectiveOperationException {
+        String key = getDriverClassName() + File.pathSeparator + driverPath;
+        if (loadedDriver == null || !key.equals(loadedDriverKey)) {
+            loadedDriver = DriverLoader.load(getDriverClassName(), buildUrl(), driverPath,
+                    getClass().getClassLoader());
+            loadedDriverKey = key;
+        }
+        return loadedDriver;
+    }
+
+    /**
+     * 判断连接信息是否完整
+     * 嵌入式数据库不需要用户名和密码,只要求填写连接URL
+     *
+     * @return 连接信息完整时返回true
+     */
+    @Override
+    protected boolean isConnectionInfoComplete() {
+        return url != null && url.startsWith("jdbc:");
+    }
+
+    /**
+     * 构建数据库连接URL
+     *
+     * @return 填写的连接URL
+     */
+    @Override
+    protected String buildUrl() {
+        return url == null ? null : url.trim();
+    }
+
+    /**
+     * 配置查询语句
+     * PostgreSQL关闭自动提交,使fetchSize生效,按批从服务端游标读取
+     *
+     * @param statement 查询语句
+     * @throws SQLException 设置参数失败时抛出
+     */
+    @Override
+    protected void configureStatement(Statement statement) throws SQLException {
+        super.configureStatement(statement);
+        Connection connection = statement.getConnection();
+        if (database == JdbcDatabase.POSTGRESQL && connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+        }
+    }
+
+    /**
+     * 注册PostgreSQL数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "数据库", friendlyName = "PostgreSQL")
+    public static DataSourceGenerator postgresql() {
+        return () -> new DataSourceJdbc(JdbcDatabase.POSTGRESQL);
+    }
+
+    /**
+     * 注册SQL Server数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "数据库", friendlyName = "SQL Server")
+    public static DataSourceGenerator sqlServer() {
+        return () -> new DataSourceJdbc(JdbcDatabase.SQLSERVER);
+    }
+
+    /**
+     * 注册H2数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "数据库", friendlyName = "H2")
+    public static DataSourceGenerator h2() {
+        return () -> new DataSourceJdbc(JdbcDatabase.H2);
+    }
+
+    /**
+     * 注册SQLite数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "数据库", friendlyName = "SQLite")
+    public static DataSourceGenerator sqlite() {
+        return () -> new DataSourceJdbc(JdbcDatabase.SQLITE);
+    }
+
+    /**
+     * 注册通用JDBC数据源生成器
+     *
+     * @return 数据源生成器
+     */
+    @DataSourceRegistry(group = "数据库", friendlyName = "通用JDBC")
+    public static DataSourceGenerator generator() {
+        return () -> new DataSourceJdbc();
+    }
+
+    /**
+     * 获取数据源描述
+     *
+     * @return 数据源描述
+     */
+    @Override
+    public String getDescription() {
+        return url;
+    }
+
+    /**
+     * 配置JDBC数据源
+     *
+     * @param primaryStage 主窗口
+     * @param callback     配置完成后的回调函数
+     */
+    @Override
+    public void configure(Window primaryStage, DataSourceConfigurationCallback callback) {
+        Stage stage = new Stage();
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.initOwner(primaryStage);
+        stage.setTitle(database.getDisplayName() + "数据源配置");
+
+        // 创建主布局容器
+        VBox mainLayout = new VBox(10);
+        mainLayout.setPadding(new Insets(20));
+
+        // 数据库连接配置区域
+        VBox connectionConfig = new VBox(10);
+        Label connectionLabel = new Label("数据库连接配置");
+        connectionLabel.setStyle("-fx-font-weight: bold");
+
+        // 数据库类型,切换时未修改过的连接URL替换为新类型的示例
+        HBox databaseBox = new HBox(10);
+        Label databaseLabel = new Label("数据库类型:");
+        ComboBox<JdbcDatabase> databaseComboBox = new ComboBox<>();
+        databaseComboBox.getItems().addAll(JdbcDatabase.values());
+        databaseComboBox.setValue(database);
+        databaseBox.getChildren().addAll(databaseLabel, databaseComboBox);
+
+        // 连接URL
+        HBox urlBox = new HBox(10);
+        Label urlLabel = new Label("连接URL:");
+        TextField urlField = new TextField(url == null ? database.getUrlTemplate() : url);
+        HBox.setHgrow(urlField, Priority.ALWAYS);
+        urlBox.getChildren().addAll(urlLabel, urlField);
+
+        // 驱动类名和驱动路径
+        HBox driverClassBox = new HBox(10);
+        Label driverClassLabel = new Label("驱动类名:");
+        TextField driverClassField = new TextField(driverClass);
+        driverClassField.setPromptText(database.getDriverClassName() == null ? "留空按URL自动查找"
+                : database.getDriverClassName());
+        HBox.setHgrow(driverClassField, Priority.ALWAYS);
+        driverClassBox.getChildren().addAll(driverClassLabel, driverClassField);
+
+        HBox driverPathBox = new HBox(10);
+        Label driverPathLabel = new Label("驱动路径:");
+        TextField driverPathField = new TextField(driverPath);
+        driverPathField.setPromptText("驱动jar或所在目录,留空使用插件目录");
+        HBox.setHgrow(driverPathField, Priority.ALWAYS);
+        Button driverPathButton = new Button("选择...");
+        driverPathButton.setOnAction(event -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("选择JDBC驱动");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JDBC驱动", "*.jar"));
+            File file = fileChooser.showOpenDialog(stage);
+            if (file != null) {
+                driverPathField.setText(file.getAbsolutePath());
+            }
+        });
+        driverPathBox.getChildren().addAll(driverPathLabel, driverPathField, driverPathButton);
+
+        databaseComboBox.setOnAction(event -> {
+            JdbcDatabase selected = databaseComboBox.getValue();
+            String currentUrl = urlField.getText();
+            boolean untouched = currentUrl == null || currentUrl.isBlank() || Arrays.stream(JdbcDatabase.values())
+                    .anyMatch(type -> type.getUrlTemplate().equals(currentUrl));
+            if (untouched) {
+                urlField.setText(selected.getUrlTemplate());
+            }
+            driverClassField.setPromptText(selected.getDriverClassName() == null ? "留空按URL自动查找"
+                    : selected.getDriverClassName());
+        });
+
+        // 用户名
+        HBox usernameBox = new HBox(10);
+        Label usernameLabel = new Label("用户名:");
+        TextField usernameField = new TextField(username);
+        usernameField.setPromptText("嵌入式数据库可留空");
+        usernameBox.getChildren().addAll(usernameLabel, usernameField);
+
+        // 密码
+        HBox passwordBox = new HBox(10);
+        Label passwordLabel = new Label("密码:");
+        PasswordField passwordField = new PasswordField();
+        if (password != null) {
+            passwordField.setText(password);
+        }
+        passwordField.setPromptText("******");
+        passwordBox.getChildren().addAll(passwordLabel, passwordField);
+
+        connectionConfig.getChildren().addAll(connectionLabel, databaseBox, urlBox, driverClassBox, driverPathBox,
+                usernameBox, passwordBox);
+
+        // SQL查询配置区域
+        VBox sqlConfig = new VBox(10);
+        Label sqlLabel = new Label("SQL查询配置");
+        sqlLabel.setStyle("-fx-font-weight: bold");
+        TextArea sqlArea = new TextArea(sql);
+        sqlArea.setPromptText("SELECT * FROM table");
+        sqlArea.setPrefRowCount(5);
+
+        // 每批读取行数,使用服务端游标分批读取,避免驱动缓存整个结果集
+        HBox fetchSizeBox = new HBox(10);
+        Label fetchSizeLabel = new Label("每批读取行数:");
+        TextField fetchSizeField = new TextField(String.valueOf(fetchSize));
+        fetchSizeField.setPromptText(String.valueOf(DEFAULT_FETCH_SIZE));
+        fetchSizeField.setPrefWidth(100);
+        fetchSizeBox.getChildren().addAll(fetchSizeLabel, fetchSizeField);
+
+        // 并行读取,按拆分列将查询拆分为多个分区同时读取
+        HBox parallelBox = new HBox(10);
+        Label splitColumnLabel = new Label("拆分列:");
+        TextField splitColumnField = new TextField(splitColumn);
+        splitColumnField.setPromptText("数值主键,留空不拆分");
+        Label parallelismLabel = new Label("并行度:");
+        TextField parallelismField = new TextField(String.valueOf(parallelism));
+        parallelismField.setPromptText("1-" + MAX_PARALLELISM);
+        parallelismField.setPrefWidth(100);
+        parallelBox.getChildren().addAll(splitColumnLabel, splitColumnField, parallelismLabel, parallelismField);
+        // 键集分页读取,每页为独立的短查询,避免长时间占用连接和事务
+        HBox pageBox = new HBox(10);
+        Label pageColumnsLabel = new Label("分页列:");
+        TextField pageColumnsField = new TextField(pageColumns);
+        pageColumnsField.setPromptText("唯一键,多个以逗号分隔,留空不分页");
+        Label pageSizeLabel = new Label("每页行数:");
+        TextField pageSizeField = new TextField(pageSize > 0 ? String.valueOf(pageSize) : "");
+        pageSizeField.setPromptText("如10000");
+        pageSizeField.setPrefWidth(100);
+        pageBox.getChildren().addAll(pageColumnsLabel, pageColumnsField, pageSizeLabel, pageSizeField);
+        // 增量对比,只对比水位列大于上次水位的数据行,清空上次水位后下次为全量对比
+        HBox watermarkBox = new HBox(10);
+        Label watermarkColumnLabel = new Label("水位列:");
+        TextField watermarkColumnField = new TextField(watermarkColumn);
+        watermarkColumnField.setPromptText("更新时间或版本号,留空不增量对比");
+        Label watermarkLabel = new Label("上次水位:");
+        TextField watermarkField = new TextField(watermark);
+        watermarkField.setPromptText("留空全量对比");
+        watermarkField.setPrefWidth(160);
+        watermarkBox.getChildren().addAll(watermarkColumnLabel, watermarkColumnField, watermarkLabel, watermarkField);
+        sqlConfig.getChildren().addAll(sqlLabel, sqlArea, fetchSizeBox, parallelBox, pageBox, watermarkBox);
+
+        // 按钮区域
+        HBox buttonBox = new HBox(10);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+        Button testButton = new Button("测试连接");
+        Button confirmButton = new Button("确定");
+        Button cancelButton = new Button("取消");
+
+        // 测试连接按钮事件
+        testButton.setOnAction(event -> {
+            try {
+                DataSourceJdbc testDs = new DataSourceJdbc(databaseComboBox.getValue());
+                testDs.setUrl(urlField.getText());
+                testDs.setDriverClass(driverClassField.getText().trim());
+                testDs.setDriverPath(driverPathField.getText().trim());
+                testDs.setUsername(usernameField.getText());
+                testDs.setPassword(passwordField.getText());
+                testDs.valid();
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("连接测试");
+                alert.setHeaderText(null);
+                alert.setContentText("连接测试成功！");
+                alert.showAndWait();
+            } catch (DataSourceValidException e) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("连接测试");
+                alert.setHeaderText(null);
+                alert.setContentText("连接测试失败：" + e.getMessage());
+                alert.showAndWait();
+            }
+        });
+
+        // 确定按钮事件
+        confirmButton.setOnAction(event -> {
+            String scope = watermarkScope();
+            try {
+                setDatabase(databaseComboBox.getValue());
+                setUrl(urlField.getText().trim());
+                setDriverClass(driverClassField.getText().trim());
+                setDriverPath(driverPathField.getText().trim());
+                setUsername(usernameField.getText());
+                setPassword(passwordField.getText());
+                setSql(sqlArea.getText());
+                setFetchSize(fetchSizeField.getText().isBlank() ? DEFAULT_FETCH_SIZE
+                        : Integer.parseInt(fetchSizeField.getText().trim()));
+                setSplitColumn(splitColumnField.getText().trim());
+                setParallelism(parallelismField.getText().isBlank() ? 1
+                        : Integer.parseInt(parallelismField.getText().trim()));
+                setPageColumns(pageColumnsField.getText().trim());
+                setPageSize(pageSizeField.getText().isBlank() ? 0
+                        : Integer.parseInt(pageSizeField.getText().trim()));
+                setWatermarkColumn(watermarkColumnField.getText().trim());
+                applyWatermark(scope, watermarkField.getText());
+
+                if (callback != null) {
+                    callback.onConfigureFinished();
+                }
+                stage.close();
+            } catch (NumberFormatException e) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("配置错误");
+                alert.setHeaderText(null);
+                alert.setContentText("每批读取行数、并行度和每页行数必须是数字");
+                alert.showAndWait();
+            }
+        });
+
+        // 取消按钮事件
+        cancelButton.setOnAction(event -> stage.close());
+
+        buttonBox.getChildren().addAll(testButton, confirmButton, cancelButton);
+
+        // 将所有组件添加到主布局
+        mainLayout.getChildren().addAll(connectionConfig, sqlConfig, buttonBox);
+
+        // 设置统一的标签宽度
+        databaseLabel.setPrefWidth(100);
+        urlLabel.setPrefWidth(100);
+        driverClassLabel.setPrefWidth(100);
+        driverPathLabel.setPrefWidth(100);
+        usernameLabel.setPrefWidth(100);
+        passwordLabel.setPrefWidth(100);
+        fetchSizeLabel.setPrefWidth(100);
+        splitColumnLabel.setPrefWidth(100);
+        parallelismLabel.setPrefWidth(80);
+        pageColumnsLabel.setPrefWidth(100);
+        pageSizeLabel.setPrefWidth(80);
+        watermarkColumnLabel.setPrefWidth(100);
+        watermarkLabel.setPrefWidth(80);
+
+        Scene scene = new Scene(mainLayout);
+        stage.setScene(scene);
+        stage.showAndWait();
+    }
+
+    /**
+     * 导出为JSON，包含数据库类型、连接URL、驱动配置和父类的字段
+     * 例如：{"database":"POSTGRESQL","url":"jdbc:postgresql://localhost:5432/database","username":"postgres",
+     * "password":"******","sql":"SELECT * FROM table","mappings":{}}
+     */
+    @Override
+    public String exportSource() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 从JSON导入，格式同exportSource
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void importSource(String exportValueString) {
+        // 解析JSON
+        Map<String, Object> map = JSON.parseObject(exportValueString, new TypeReference<Map<String, Object>>() {
+        });
+        if (map == null) {
+            return;
+        }
+        // 解析数据
+        try {
+            if (map.get("database") instanceof String type) {
+                this.setDatabase(JdbcDatabase.valueOf(type));
+            }
+            this.setUrl((String) map.get("url"));
+            this.setDriverClass((String) map.get("driverClass"));
+            this.setDriverPath((String) map.get("driverPath"));
+            this.setUsername((String) map.get("username"));
+            this.setPassword((String) map.get("password"));
+            this.setSql((String) map.get("sql"));
+            if (map.get("fetchSize") instanceof Number number) {
+                this.setFetchSize(number.intValue());
+            }
+            this.setSplitColumn((String) map.get("splitColumn"));
+            if (map.get("parallelism") instanceof Number number) {
+                this.setParallelism(number.intValue());
+            }
+            this.setPageColumns((String) map.get("pageColumns"));
+            if (map.get("pageSize") instanceof Number number) {
+                this.setPageSize(number.intValue());
+            }
+            this.setWatermarkColumn((String) map.get("watermarkColumn"));
+            this.setWatermark((String) map.get("watermark"));
+            this.setMappings((Map<String, String>) map.get("mappings"));
+        } catch (Exception e) {
+            logger.error("解析数据源配置时发生错误: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tangyujun.datashadow.config.ConfigFactory;
+
+/**
+ * JDBC驱动加载器
+ * 驱动不随程序发布,由用户将驱动jar放入插件目录或指定驱动jar的路径,
+ * 加载时依次查找:
+ * 1. 数据源所在的类加载器(驱动已在类路径中,如与插件一起加载)
+ * 2. 指定的驱动jar文件,或指定目录下的全部jar文件,未指定时为系统设置中的插件目录
+ *
+ * 同一组jar文件只创建一个类加载器并一直保留,驱动加载后可以被多个数据源和连接池共享;
+ * 驱动类名为空时,通过jar中声明的java.sql.Driver服务查找接受该连接URL的驱动
+ */
+final class DriverLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverLoader.class);
+
+    /**
+     * jar文件列表到类加载器的缓存
+     */
+    private static final Map<List<String>, ClassLoader> LOADERS = new ConcurrentHashMap<>();
+
+    private DriverLoader() {
+    }
+
+    /**
+     * 加载并实例化JDBC驱动
+     *
+     * @param className  驱动类名,为空时按连接URL查找
+     * @param url        连接URL
+     * @param driverPath 驱动jar文件或所在目录,为空时使用插件目录
+     * @param parent     数据源所在的类加载器
+     * @return JDBC驱动实例
+     * @throws ReflectiveOperationException 找不到驱动或无法实例化时抛出
+     */
+    static Driver load(String className, String url, String driverPath, ClassLoader parent)
+            throws ReflectiveOperationException {
+        boolean byClassName = className != null && !className.isBlank();
+        if (byClassName) {
+            try {
+                return instantiate(Class.forName(className.trim(), true, parent));
+            } catch (ClassNotFoundException e) {
+                logger.debug("类路径中没有驱动{},从驱动jar中查找", className);
+            }
+        }
+        String path = driverPath == null || driverPath.isBlank() ? ConfigFactory.getInstance().getPluginDir()
+                : driverPath.trim();
+        ClassLoader loader = loaderFor(path, parent);
+        if (byClassName) {
+            return instantiate(Class.forName(className.trim(), true, loader));
+        }
+        for (Driver driver : ServiceLoader.load(Driver.class, loader)) {
+            try {
+                if (driver.acceptsURL(url)) {
+                    return driver;
+                }
+            } catch (SQLException e) {
+                logger.debug("驱动{}无法识别连接URL: {}", driver.getClass().getName(), e.getMessage());
+            }
+        }
+        throw new ClassNotFoundException("在" + path + "中没有找到支持" + url + "的JDBC驱动");
+    }
+
+    /**
+     * 实例化驱动类
+     *
+     * @param driverClass 驱动类
+     * @return 驱动实例
+     * @throws ReflectiveOperationException 无法实例化时抛出
+     */
+    private static Driver instantiate(Class<?> driverClass) throws ReflectiveOperationException {
+        if (!Driver.class.isAssignableFrom(driverClass)) {
+            throw new ClassNotFoundException(driverClass.getName() + "不是JDBC驱动");
+        }
+        return (Driver) driverClass.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * 获取加载指定路径下jar文件的类加载器
+     *
+     * @param path   jar文件或所在目录
+     * @param parent 父类加载器
+     * @return 类加载器
+     * @throws ClassNotFoundException 路径下没有jar文件时抛出
+     */
+    private static ClassLoader loaderFor(String path, ClassLoader parent) throws ClassNotFoundException {
+        File file = new File(path);
+        File[] jars = file.isDirectory()
+                ? file.listFiles((dir, name) -> name.toLowerCase().endsWith(".jar"))
+                : file.isFile() ? new File[] { file } : null;
+        if (jars == null || jars.length == 0) {
+            throw new ClassNotFoundException("驱动路径下没有jar文件: " + path);
+        }
+        List<String> key = Arrays.stream(jars).map(File::getAbsolutePath).sorted().toList();
+        return LOADERS.computeIfAbsent(key, paths -> {
+            List<URL> urls = new ArrayList<>(paths.size());
+            for (String jar : paths) {
+                try {
+                    urls.add(new File(jar).toURI().toURL());
+                } catch (MalformedURLException e) {
+                    logger.warn("忽略无效的驱动jar: {}", jar);
+                }
+            }
+            logger.info("从{}个jar文件加载JDBC驱动: {}", urls.size(), path);
+            return new URLClassLoader(urls.toArray(URL[]::new), parent);
+        });
+    }
+}
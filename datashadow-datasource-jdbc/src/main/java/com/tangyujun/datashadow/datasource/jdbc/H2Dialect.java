@@ -0,0 +1,44 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+
+/**
+ * H2数据库方言
+ * 使用ORA_HASH计算哈希,H2的ORA_HASH只接受字符和二进制类型,每个值先转换为文本,
+ * 其余规则与Oracle方言相同:NULL记为N,对拼接后的文本再计算一次ORA_HASH
+ */
+public class H2Dialect implements JdbcDialect {
+
+    /**
+     * 方言实例,无状态,可共享
+     */
+    public static final H2Dialect INSTANCE = new H2Dialect();
+
+    /**
+     * 使用双引号引用标识符,查询结果的列名按原样(通常为大写)引用
+     *
+     * @param identifier 标识符
+     * @return 引用后的标识符
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * 构建ORA_HASH组合哈希表达式
+     *
+     * @param expressions 参与哈希的表达式
+     * @return 哈希表达式,取值为0到2^32-1
+     */
+    @Override
+    public String hashExpression(List<String> expressions) {
+        return expressions.stream()
+                .map(expression -> "NVL2(" + expression + ", TO_CHAR(ORA_HASH(CAST(" + expression
+                        + " AS VARCHAR))), 'N')")
+                .collect(Collectors.joining(" || ',' || ", "ORA_HASH(", ")"));
+    }
+}
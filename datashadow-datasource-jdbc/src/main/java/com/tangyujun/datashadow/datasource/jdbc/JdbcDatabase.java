@@ -0,0 +1,105 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+
+/**
+ * 通用JDBC数据源支持的数据库类型
+ * 每种类型提供默认的驱动类名、连接URL示例和数据库方言
+ */
+public enum JdbcDatabase {
+
+    /**
+     * PostgreSQL
+     */
+    POSTGRESQL("PostgreSQL", "org.postgresql.Driver", "jdbc:postgresql://localhost:5432/database",
+            PostgresDialect.INSTANCE),
+
+    /**
+     * SQL Server
+     */
+    SQLSERVER("SQL Server", "com.microsoft.sqlserver.jdbc.SQLServerDriver",
+            "jdbc:sqlserver://localhost:1433;databaseName=database;encrypt=false", SqlServerDialect.INSTANCE),
+
+    /**
+     * H2
+     */
+    H2("H2", "org.h2.Driver", "jdbc:h2:~/database", H2Dialect.INSTANCE),
+
+    /**
+     * SQLite
+     */
+    SQLITE("SQLite", "org.sqlite.JDBC", "jdbc:sqlite:/path/to/database.db", SqliteDialect.INSTANCE),
+
+    /**
+     * 其他数据库,需要自行填写驱动类名,没有数据库方言
+     */
+    OTHER("其他JDBC", null, "jdbc:", null);
+
+    /**
+     * 显示名称
+     */
+    private final String displayName;
+
+    /**
+     * 默认驱动类名,为null时需要自行填写或通过驱动jar中的服务声明查找
+     */
+    private final String driverClassName;
+
+    /**
+     * 连接URL示例
+     */
+    private final String urlTemplate;
+
+    /**
+     * 数据库方言,为null时不支持分页读取和对比时的计算下推
+     */
+    private final JdbcDialect dialect;
+
+    JdbcDatabase(String displayName, String driverClassName, String urlTemplate, JdbcDialect dialect) {
+        this.displayName = displayName;
+        this.driverClassName = driverClassName;
+        this.urlTemplate = urlTemplate;
+        this.dialect = dialect;
+    }
+
+    /**
+     * 获取显示名称
+     *
+     * @return 显示名称
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * 获取默认驱动类名
+     *
+     * @return 驱动类名,没有默认值时返回null
+     */
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    /**
+     * 获取连接URL示例
+     *
+     * @return 连接URL示例
+     */
+    public String getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    /**
+     * 获取数据库方言
+     *
+     * @return 数据库方言,没有时返回null
+     */
+    public JdbcDialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+
+/**
+ * PostgreSQL数据库方言
+ * 使用MD5计算哈希:先对每个值的文本单独计算MD5,NULL记为N,再对拼接后的文本计算MD5,
+ * 取结果的前8位十六进制转换为整数
+ */
+public class PostgresDialect implements JdbcDialect {
+
+    /**
+     * 方言实例,无状态,可共享
+     */
+    public static final PostgresDialect INSTANCE = new PostgresDialect();
+
+    /**
+     * 使用双引号引用标识符,查询结果的列名按原样(通常为小写)引用
+     *
+     * @param identifier 标识符
+     * @return 引用后的标识符
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * 构建MD5组合哈希表达式
+     *
+     * @param expressions 参与哈希的表达式
+     * @return 哈希表达式,取值为0到2^32-1
+     */
+    @Override
+    public String hashExpression(List<String> expressions) {
+        return expressions.stream()
+                .map(expression -> "COALESCE(MD5(CAST(" + expression + " AS TEXT)), 'N')")
+                .collect(Collectors.joining(", ", "CAST(CAST('x' || SUBSTR(MD5(CONCAT_WS(',', ",
+                        ")), 1, 8) AS BIT(32)) AS BIGINT)"));
+    }
+
+    /**
+     * 使用LIMIT限制返回行数
+     *
+     * @param query 查询语句
+     * @param rows  最大行数
+     * @return 限制行数后的查询语句
+     */
+    @Override
+    public String limitQuery(String query, int rows) {
+        return query + " LIMIT " + rows;
+    }
+}
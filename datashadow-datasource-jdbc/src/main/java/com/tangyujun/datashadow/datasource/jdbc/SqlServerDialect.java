@@ -0,0 +1,179 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+
+/**
+ * SQL Server数据库方言
+ * 使用HASHBYTES计算哈希:先对每个值的文本单独计算MD5,NULL记为N,再对拼接后的文本计算MD5,
+ * 取结果的前4个字节转换为整数,需要SQL Server 2017及以上版本(CONCAT_WS)
+ *
+ * 与其他数据库的差异:
+ * 1. 不支持行值表达式,多列主键的批量匹配使用 (k1 = ? AND k2 = ?) OR ... 的形式
+ * 2. 单条语句最多2100个参数,按主键批量查询时每批的主键行数按主键列数相应减少
+ * 3. 取模使用%运算符,限制行数使用OFFSET FETCH
+ * 4. 子查询中只有同时使用TOP、OFFSET或FOR XML时才允许ORDER BY,以ORDER BY结尾的查询作为子查询时补充OFFSET 0 ROWS
+ */
+public class SqlServerDialect implements JdbcDialect {
+
+    /**
+     * 方言实例,无状态,可共享
+     */
+    public static final SqlServerDialect INSTANCE = new SqlServerDialect();
+
+    /**
+     * 使用方括号引用标识符
+     *
+     * @param identifier 标识符
+     * @return 引用后的标识符
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "[" + identifier.replace("]", "]]") + "]";
+    }
+
+    /**
+     * 构建HASHBYTES组合哈希表达式
+     *
+     * @param expressions 参与哈希的表达式
+     * @return 哈希表达式,取值为0到2^32-1
+     */
+    @Override
+    public String hashExpression(List<String> expressions) {
+        return expressions.stream()
+                .map(expression -> "COALESCE(CONVERT(VARCHAR(32), HASHBYTES('MD5', CAST(" + expression
+                        + " AS NVARCHAR(MAX))), 2), 'N')")
+                .collect(Collectors.joining(", ", "CAST(CAST(HASHBYTES('MD5', CONCAT_WS(',', ",
+                        ")) AS BINARY(4)) AS BIGINT)"));
+    }
+
+    /**
+     * 使用%运算符分桶
+     *
+     * @param hashExpression 哈希表达式
+     * @param buckets        分桶数
+     * @return 分桶表达式
+     */
+    @Override
+    public String bucketExpression(String hashExpression, long buckets) {
+        return "(" + hashExpression + ") % " + buckets;
+    }
+
+    /**
+     * 单条语句的参数个数上限为2100,保留少量余量
+     */
+    private static final int MAX_PARAMETERS = 2000;
+
+    /**
+     * 按主键列数计算每批的主键行数,使参数个数不超过单条语句的上限
+     *
+     * @param keyColumns 主键列数
+     * @return 每批最大主键行数
+     */
+    @Override
+    public int maxKeyRows(int keyColumns) {
+        return Math.max(1, Math.min(maxInListSize(), MAX_PARAMETERS / Math.max(1, keyColumns)));
+    }
+
+    /**
+     * 构建按主键批量匹配的条件
+     * 多列主键不支持行值IN,展开为多个AND条件以OR连接
+     *
+     * @param keys 引用后的主键列
+     * @param rows 主键行数
+     * @return 匹配条件
+     */
+    @Override
+    public String keyInCondition(List<String> keys, int rows) {
+        if (keys.size() == 1) {
+            return JdbcDialect.super.keyInCondition(keys, rows);
+        }
+        String row = keys.stream().map(key -> key + " = ?").collect(Collectors.joining(" AND ", "(", ")"));
+        return "(" + String.join(" OR ", Collections.nCopies(rows, row)) + ")";
+    }
+
+    /**
+     * 以ORDER BY结尾的查询补充OFFSET 0 ROWS,使其可以作为子查询
+     * 只识别最外层的ORDER BY,括号、字符串、引用的标识符和注释中的内容不影响判断;
+     * 已使用TOP、OFFSET或FOR XML/JSON时原样返回
+     *
+     * @param query 原查询语句
+     * @return 可以作为子查询的查询语句
+     */
+    @Override
+    public String subquery(String query) {
+        boolean orderBy = false;
+        boolean allowed = false;
+        String previous = "";
+        int depth = 0;
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (c == '\'' || c == '"' || c == '[') {
+                char close = c == '[' ? ']' : c;
+                i++;
+                while (i < query.length()) {
+                    if (query.charAt(i) == close) {
+                        // 连续两个结束符表示转义
+                        if (i + 1 < query.length() && query.charAt(i + 1) == close) {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+            } else if (query.startsWith("--", i)) {
+                int end = query.indexOf('\n', i);
+                i = end < 0 ? query.length() : end + 1;
+            } else if (query.startsWith("/*", i)) {
+                int end = query.indexOf("*/", i + 2);
+                i = end < 0 ? query.length() : end + 2;
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < query.length() && (Character.isLetterOrDigit(query.charAt(i))
+                        || query.charAt(i) == '_' || query.charAt(i) == '@' || query.charAt(i) == '#'
+                        || query.charAt(i) == '$')) {
+                    i++;
+                }
+                if (depth == 0) {
+                    String word = query.substring(start, i).toUpperCase();
+                    if (word.equals("TOP") && (previous.equals("SELECT") || previous.equals("DISTINCT")
+                            || previous.equals("ALL"))) {
+                        allowed = true;
+                    } else if (word.equals("BY") && previous.equals("ORDER")) {
+                        orderBy = true;
+                    } else if (orderBy && (word.equals("OFFSET") || word.equals("FOR"))) {
+                        allowed = true;
+                    }
+                    previous = word;
+                }
+            } else {
+                i++;
+            }
+        }
+        return orderBy && !allowed ? query + " OFFSET 0 ROWS" : query;
+    }
+
+    /**
+     * 使用OFFSET FETCH限制返回行数,查询需要包含ORDER BY
+     *
+     * @param query 查询语句
+     * @param rows  最大行数
+     * @return 限制行数后的查询语句
+     */
+    @Override
+    public String limitQuery(String query, int rows) {
+        return query + " OFFSET 0 ROWS FETCH NEXT " + rows + " ROWS ONLY";
+    }
+}
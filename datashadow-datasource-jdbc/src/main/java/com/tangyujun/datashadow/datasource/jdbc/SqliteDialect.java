@@ -0,0 +1,63 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import java.util.List;
+
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+
+/**
+ * SQLite数据库方言
+ * SQLite没有内置的哈希函数,不支持哈希分区和对比时的哈希下推,
+ * 只提供标识符引用和限制行数,按主键查询、键集分页和增量对比仍然可用
+ */
+public class SqliteDialect implements JdbcDialect {
+
+    /**
+     * 方言实例,无状态,可共享
+     */
+    public static final SqliteDialect INSTANCE = new SqliteDialect();
+
+    /**
+     * 使用双引号引用标识符
+     *
+     * @param identifier 标识符
+     * @return 引用后的标识符
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * SQLite不支持哈希表达式
+     *
+     * @return false
+     */
+    @Override
+    public boolean supportsHash() {
+        return false;
+    }
+
+    /**
+     * SQLite不支持哈希表达式,调用前需要通过supportsHash判断
+     *
+     * @param expressions 参与哈希的表达式
+     * @return 不返回
+     * @throws UnsupportedOperationException 始终抛出
+     */
+    @Override
+    public String hashExpression(List<String> expressions) {
+        throw new UnsupportedOperationException("SQLite不支持哈希表达式");
+    }
+
+    /**
+     * 使用LIMIT限制返回行数
+     *
+     * @param query 查询语句
+     * @param rows  最大行数
+     * @return 限制行数后的查询语句
+     */
+    @Override
+    public String limitQuery(String query, int rows) {
+        return query + " LIMIT " + rows;
+    }
+}
@@ -0,0 +1,282 @@
+package com.tangyujun.datashadow.datasource.jdbc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datasource.db.ChecksumPushdown;
+import com.tangyujun.datashadow.datasource.db.ConnectionPoolRegistry;
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+import com.tangyujun.datashadow.datasource.db.KeyHashPushdown;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 通用JDBC数据源测试类
+ * 使用H2内存数据库离线测试连接、流式读取、分页读取和计算下推,其他数据库只测试方言生成的SQL
+ */
+class DataSourceJdbcTest {
+
+    /**
+     * 测试中创建的连接URL,测试结束后关闭对应的连接池
+     */
+    private final List<String> urls = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        urls.forEach(url -> ConnectionPoolRegistry.getInstance().evict(url, "sa"));
+    }
+
+    /**
+     * 创建H2内存数据库数据源并执行初始化语句
+     *
+     * @param name       数据库名称
+     * @param statements 初始化语句
+     * @return H2数据源
+     */
+    private DataSourceJdbc createH2(String name, String... statements) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        urls.add(url);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+        DataSourceJdbc source = new DataSourceJdbc(JdbcDatabase.H2);
+        source.setUrl(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        return source;
+    }
+
+    /**
+     * 测试H2数据源的连接验证和流式读取,驱动从类路径加载
+     */
+    @Test
+    void testH2Source() throws Exception {
+        DataSourceJdbc source = createH2("jdbc_read",
+                "CREATE TABLE ORDERS AS SELECT X AS ID, 'o' || X AS NAME, DATEADD(DAY, X, DATE '2024-01-01') AS CREATED"
+                        + " FROM SYSTEM_RANGE(1, 500)");
+        source.setSql("SELECT ID, NAME, CREATED FROM ORDERS ORDER BY ID;");
+        source.valid();
+        assertEquals(List.of("ID", "NAME", "CREATED"), source.getColumns());
+
+        long rows = 0;
+        try (RowCursor cursor = source.openCursor()) {
+            while (cursor.next()) {
+                rows++;
+                if (rows == 1) {
+                    assertEquals(1L, cursor.current().get("ID"));
+                    assertEquals("o1", cursor.current().get("NAME"));
+                    assertEquals(LocalDate.of(2024, 1, 2), cursor.current().get("CREATED"));
+                }
+            }
+        }
+        assertEquals(500, rows);
+
+        source.setPageColumns("id");
+        source.setPageSize(120);
+        rows = 0;
+        try (RowCursor cursor = source.openCursor()) {
+            while (cursor.next()) {
+                rows++;
+            }
+        }
+        assertEquals(500, rows);
+    }
+
+    /**
+     * 测试连接信息不完整和找不到驱动时验证失败
+     */
+    @Test
+    void testInvalidConfiguration() throws Exception {
+        DataSourceJdbc source = new DataSourceJdbc();
+        assertThrows(DataSourceValidException.class, source::valid);
+
+        Path emptyDir = Files.createTempDirectory("datashadow-jdbc");
+        source.setUrl("jdbc:unknown://localhost/database");
+        source.setDriverPath(emptyDir.toString());
+        assertThrows(DataSourceValidException.class, source::valid);
+        Files.delete(emptyDir);
+    }
+
+    /**
+     * 测试H2方言的校验和下推和主键哈希两阶段定位
+     */
+    @Test
+    void testH2Pushdown() throws Exception {
+        String create = "CREATE TABLE ITEMS AS SELECT X AS ID, 'i' || X AS NAME, X * 1.5 AS PRICE"
+                + " FROM SYSTEM_RANGE(1, 2000)";
+        DataSourceJdbc primary = createH2("jdbc_push_primary", create);
+        DataSourceJdbc shadow = createH2("jdbc_push_shadow", create,
+                "UPDATE ITEMS SET PRICE = 0 WHERE ID = 7",
+                "DELETE FROM ITEMS WHERE ID = 8");
+        for (DataSourceJdbc source : List.of(primary, shadow)) {
+            source.setSql("SELECT ID, NAME, PRICE FROM ITEMS");
+        }
+        List<String> keys = List.of("ID");
+        List<String> columns = List.of("ID", "NAME", "PRICE");
+
+        assertTrue(ChecksumPushdown.supports(primary, shadow));
+        ChecksumPushdown.Result checksum = new ChecksumPushdown(primary, keys, columns, shadow, keys, columns)
+                .locate();
+        assertEquals(2000, checksum.primaryRows());
+        assertEquals(1999, checksum.shadowRows());
+        Set<Object> fetched;
+        try (RowCursor cursor = primary.openCursor(checksum.primaryFilter())) {
+            fetched = new HashSet<>();
+            while (cursor.next()) {
+                fetched.add(cursor.current().get("ID"));
+            }
+        }
+        assertTrue(fetched.containsAll(Set.of(7L, 8L)));
+        assertTrue(fetched.size() < 2000);
+
+        KeyHashPushdown.Result keyHash = new KeyHashPushdown(primary, keys, columns, shadow, keys, columns).locate();
+        assertEquals(Set.of(7L, 8L), keyHash.primaryKeys().stream().map(key -> key[0]).collect(toSet()));
+        assertEquals(Set.of(7L), keyHash.shadowKeys().stream().map(key -> key[0]).collect(toSet()));
+    }
+
+    /**
+     * 测试以ORDER BY结尾的查询按SQL Server方言转换后作为子查询
+     * 使用H2执行转换后的列投影、分页和计算下推查询,方言只替换子查询的转换
+     */
+    @Test
+    void testOrderedSubquery() throws Exception {
+        String create = "CREATE TABLE ITEMS AS SELECT X AS ID, 'i' || X AS NAME FROM SYSTEM_RANGE(1, 100)";
+        JdbcDialect ordered = new JdbcDialect() {
+            @Override
+            public String quoteIdentifier(String identifier) {
+                return H2Dialect.INSTANCE.quoteIdentifier(identifier);
+            }
+
+            @Override
+            public String hashExpression(List<String> expressions) {
+                return H2Dialect.INSTANCE.hashExpression(expressions);
+            }
+
+            @Override
+            public String subquery(String query) {
+                return SqlServerDialect.INSTANCE.subquery(query);
+            }
+        };
+        List<DataSourceJdbc> sources = new ArrayList<>();
+        for (String name : List.of("jdbc_ordered_primary", "jdbc_ordered_shadow")) {
+            DataSourceJdbc h2 = createH2(name, create);
+            DataSourceJdbc source = new DataSourceJdbc(JdbcDatabase.H2) {
+                @Override
+                public JdbcDialect getDialect() {
+                    return ordered;
+                }
+            };
+            source.setUrl(h2.getUrl());
+            source.setUsername("sa");
+            source.setPassword("");
+            source.setSql("SELECT ID, NAME FROM ITEMS ORDER BY ID DESC;");
+            sources.add(source);
+        }
+        DataSourceJdbc primary = sources.get(0);
+        assertEquals(List.of("ID", "NAME"), primary.getColumns());
+        primary.setProjection(Set.of("NAME"));
+        assertEquals(100, primary.acquireValues().size());
+        primary.setPageColumns("ID");
+        primary.setPageSize(30);
+        assertEquals(100, primary.acquireValues().size());
+
+        List<String> keys = List.of("ID");
+        List<String> columns = List.of("ID", "NAME");
+        assertEquals(0, new ChecksumPushdown(primary, keys, columns, sources.get(1), keys, columns).locate()
+                .primaryFetched());
+        assertTrue(new KeyHashPushdown(primary, keys, columns, sources.get(1), keys, columns).locate()
+                .primaryKeys().isEmpty());
+    }
+
+    /**
+     * 测试各数据库方言生成的SQL片段
+     */
+    @Test
+    void testDialects() {
+        SqlServerDialect sqlServer = SqlServerDialect.INSTANCE;
+        assertEquals("[a]]b]", sqlServer.quoteIdentifier("a]b"));
+        assertEquals("[ID] IN (?, ?)", sqlServer.keyInCondition(List.of("[ID]"), 2));
+        assertEquals("(([A] = ? AND [B] = ?) OR ([A] = ? AND [B] = ?))",
+                sqlServer.keyInCondition(List.of("[A]", "[B]"), 2));
+        assertEquals("SELECT * FROM t ORDER BY [ID] OFFSET 0 ROWS FETCH NEXT 10 ROWS ONLY",
+                sqlServer.limitQuery("SELECT * FROM t ORDER BY [ID]", 10));
+        assertEquals("(h) % 16", sqlServer.bucketExpression("h", 16));
+        assertEquals(1000, sqlServer.maxKeyRows(1));
+        for (int keyColumns = 1; keyColumns <= 12; keyColumns++) {
+            assertTrue(sqlServer.maxKeyRows(keyColumns) * keyColumns <= 2100);
+        }
+        assertEquals(400, sqlServer.maxKeyRows(5));
+        assertEquals("SELECT * FROM t ORDER BY [ID] OFFSET 0 ROWS",
+                sqlServer.subquery("SELECT * FROM t ORDER BY [ID]"));
+        assertEquals("SELECT * FROM t UNION SELECT * FROM u order by 1 OFFSET 0 ROWS",
+                sqlServer.subquery("SELECT * FROM t UNION SELECT * FROM u order by 1"));
+        for (String query : List.of("SELECT * FROM t",
+                "SELECT TOP 10 * FROM t ORDER BY [ID]",
+                "SELECT DISTINCT TOP (5) [A] FROM t ORDER BY [A]",
+                "SELECT * FROM t ORDER BY [ID] OFFSET 10 ROWS",
+                "SELECT * FROM t ORDER BY [ID] FOR XML PATH",
+                "SELECT ROW_NUMBER() OVER (ORDER BY [ID]) AS [N] FROM t",
+                "SELECT * FROM (SELECT TOP 1 * FROM t ORDER BY [ID]) s",
+                "SELECT 'ORDER BY' AS [ORDER BY] FROM t -- ORDER BY [ID]")) {
+            assertEquals(query, sqlServer.subquery(query));
+        }
+        assertEquals("SELECT * FROM t ORDER BY id", PostgresDialect.INSTANCE.subquery("SELECT * FROM t ORDER BY id"));
+
+        assertEquals("SELECT * FROM t LIMIT 5", PostgresDialect.INSTANCE.limitQuery("SELECT * FROM t", 5));
+        assertTrue(PostgresDialect.INSTANCE.hashExpression(List.of("\"a\"")).startsWith("CAST(CAST('x'"));
+
+        DataSourceJdbc left = new DataSourceJdbc(JdbcDatabase.SQLITE);
+        DataSourceJdbc right = new DataSourceJdbc(JdbcDatabase.SQLITE);
+        assertFalse(SqliteDialect.INSTANCE.supportsHash());
+        assertFalse(ChecksumPushdown.supports(left, right));
+        assertFalse(KeyHashPushdown.supports(left, right));
+        assertThrows(UnsupportedOperationException.class, () -> SqliteDialect.INSTANCE.hashExpression(List.of("a")));
+        assertNull(new DataSourceJdbc().getDialect());
+    }
+
+    /**
+     * 测试配置的导出和导入
+     */
+    @Test
+    void testExportImport() {
+        DataSourceJdbc source = new DataSourceJdbc(JdbcDatabase.POSTGRESQL);
+        source.setUrl("jdbc:postgresql://localhost:5432/shop");
+        source.setDriverPath("/opt/drivers");
+        source.setUsername("postgres");
+        source.setPassword("secret");
+        source.setSql("SELECT * FROM orders");
+        source.setPageColumns("id");
+        source.setPageSize(5000);
+        source.setMappings(Map.of("orderId", "id"));
+
+        DataSourceJdbc imported = new DataSourceJdbc();
+        imported.importSource(source.exportSource());
+        assertEquals(JdbcDatabase.POSTGRESQL, imported.getDatabase());
+        assertEquals("jdbc:postgresql://localhost:5432/shop", imported.getUrl());
+        assertEquals("/opt/drivers", imported.getDriverPath());
+        assertEquals("postgres", imported.getUsername());
+        assertEquals("SELECT * FROM orders", imported.getSql());
+        assertEquals(5000, imported.getPageSize());
+        assertEquals("id", imported.getMappings().get("orderId"));
+        assertSame(PostgresDialect.INSTANCE, imported.getDialect());
+    }
+}
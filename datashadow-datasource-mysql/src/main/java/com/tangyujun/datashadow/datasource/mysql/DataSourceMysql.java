@@ -1,19 +1,15 @@
 package com.tangyujun.datashadow.datasource.mysql;
 
-import java.sql.DriverManager;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.TypeReference;
-import com.tangyujun.datashadow.datasource.DataSource;
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
 import com.tangyujun.datashadow.datasource.DataSourceGenerator;
 import com.tangyujun.datashadow.datasource.DataSourceRegistry;
-import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.datasource.db.DataSourceDb;
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
 import javafx.geometry.Insets;
@@ -33,7 +29,7 @@ import org.slf4j.LoggerFactory;
  * 用于连接MySQL数据库并读取数据
  * 继承自DataSourceDb抽象类
  */
-public class DataSourceMysql extends DataSource {
+public class DataSourceMysql extends DataSourceDb {
     private static final long serialVersionUID = 1L;
     private static final Logger logger = LoggerFactory.getLogger(DataSourceMysql.class);
 
@@ -52,21 +48,6 @@ public class DataSourceMysql extends DataSource {
      */
     protected String database;
 
-    /**
-     * 数据库用户名
-     */
-    protected String username;
-
-    /**
-     * 数据库密码
-     */
-    protected String password;
-
-    /**
-     * 查询SQL语句
-     */
-    protected String sql;
-
     /**
      * 获取数据库主机地址
      * 
@@ -122,68 +103,63 @@ public class DataSourceMysql extends DataSource {
     }
 
     /**
-     * 构建数据库连接URL
-     * 
-     * @return 数据库连接URL
-     */
-    protected String buildUrl() {
-        return String.format(
-                "jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=Asia/Shanghai",
-                host, port, database);
-    }
-
-    /**
-     * 获取数据库用户名
+     * 获取数据库类型名称
      * 
-     * @return 数据库用户名
+     * @return MySQL
      */
-    public String getUsername() {
-        return username;
-    }
-
-    /**
-     * 设置数据库用户名
-     * 
-     * @param username 数据库用户名
-     */
-    public void setUsername(String username) {
-        this.username = username;
+    @Override
+    protected String getDatabaseType() {
+        return "MySQL";
     }
 
     /**
-     * 获取数据库密码
+     * 获取MySQL数据库方言
      * 
-     * @return 数据库密码
+     * @return MysqlDialect
      */
-    public String getPassword() {
-        return password;
+    @Override
+    @JSONField(serialize = false)
+    public JdbcDialect getDialect() {
+        return MysqlDialect.INSTANCE;
     }
 
     /**
-     * 设置数据库密码
+     * 获取MySQL驱动类名
      * 
-     * @param password 数据库密码
+     * @return 驱动类名
      */
-    public void setPassword(String password) {
-        this.password = password;
+    @Override
+    protected String getDriverClassName() {
+        return "com.mysql.cj.jdbc.Driver";
     }
 
     /**
-     * 获取查询SQL语句
+     * 判断MySQL连接信息是否完整
      * 
-     * @return 查询SQL语句
+     * @return 连接信息完整时返回true
      */
-    public String getSql() {
-        return sql;
+    @Override
+    protected boolean isConnectionInfoComplete() {
+        return host != null && !host.isBlank()
+                && database != null && !database.isBlank()
+                && username != null && !username.isBlank()
+                && password != null;
     }
 
     /**
-     * 设置查询SQL语句
+     * 构建数据库连接URL
+     * 开启useCursorFetch,配合语句的fetchSize使用服务端游标分批读取结果,
+     * 否则驱动会在返回第一行之前把整个结果集读入客户端内存;
+     * 开启cachePrepStmts缓存预编译语句,按主键分批查询等重复执行的语句不必每批重新预编译
      * 
-     * @param sql 查询SQL语句
+     * @return 数据库连接URL
      */
-    public void setSql(String sql) {
-        this.sql = sql;
+    @Override
+    protected String buildUrl() {
+        return String.format(
+                "jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=Asia/Shanghai"
+                        + "&useCursorFetch=true&cachePrepStmts=true&prepStmtCacheSqlLimit=65536",
+                host, port, database);
     }
 
     /**
@@ -196,106 +172,6 @@ public class DataSourceMysql extends DataSource {
         return () -> new DataSourceMysql();
     }
 
-    /**
-     * 验证MySQL数据源连接是否有效
-     * 
-     * @return 如果连接成功返回true,否则返回false
-     */
-    @Override
-    public void valid() throws DataSourceValidException {
-        if (this.host == null || this.host.isBlank() ||
-                this.database == null || this.database.isBlank() ||
-                this.username == null || this.username.isBlank() ||
-                this.password == null) {
-            throw new DataSourceValidException("MySQL连接验证失败: 连接信息不完整", null);
-        }
-        try {
-            logger.info("正在验证MySQL连接...");
-            String url = buildUrl();
-            logger.info("URL: {}", url);
-            logger.info("用户名: {}", username);
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            try (var connection = DriverManager.getConnection(url, username, password)) {
-                logger.info("MySQL连接验证成功！");
-                logger.info("连接信息: {}, 用户名: {}", connection.getMetaData().getURL(),
-                        connection.getMetaData().getUserName());
-            }
-        } catch (ClassNotFoundException e) {
-            throw new DataSourceValidException("MySQL驱动加载失败: " + e.getMessage(), e);
-        } catch (SQLException e) {
-            throw new DataSourceValidException("MySQL连接验证失败: " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * 从MySQL数据库中获取数据
-     * 执行sql语句并将结果转换为List<Map<String, Object>>格式
-     * 
-     * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
-     * @throws SQLException 当SQL执行失败或数据库连接出错时抛出
-     */
-    @Override
-    public List<Map<String, Object>> acquireValues() throws DataAccessException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new DataAccessException("MySQL驱动加载失败", e);
-        }
-        String url = buildUrl();
-        try (var connection = DriverManager.getConnection(url, username, password);
-                var statement = connection.createStatement();
-                var resultSet = statement.executeQuery(sql)) {
-
-            var metaData = resultSet.getMetaData();
-            var columnCount = metaData.getColumnCount();
-            var result = new ArrayList<Map<String, Object>>();
-
-            while (resultSet.next()) {
-                var row = new HashMap<String, Object>();
-                for (int i = 1; i <= columnCount; i++) {
-                    var columnName = metaData.getColumnLabel(i);
-                    var value = resultSet.getObject(i);
-                    row.put(columnName, value);
-                }
-                result.add(row);
-            }
-            return result;
-        } catch (SQLException e) {
-            throw new DataAccessException("执行MySQL查询失败: " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * 获取MySQL数据源的列名
-     * 通过执行SQL语句并解析结果集的元数据来获取列名
-     * 
-     * @return 列名列表,包含查询结果中所有列的名称
-     */
-    @Override
-    public List<String> getColumns() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new DataAccessException("MySQL驱动加载失败", e);
-        }
-        String url = buildUrl();
-        try (var connection = DriverManager.getConnection(url, username, password);
-                var statement = connection.createStatement();
-                var resultSet = statement.executeQuery(sql)) {
-
-            var metaData = resultSet.getMetaData();
-            var columnCount = metaData.getColumnCount();
-            var columns = new ArrayList<String>();
-
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
-            }
-            return columns;
-        } catch (SQLException e) {
-            throw new DataAccessException("获取MySQL列名失败: " + e.getMessage(), e);
-        }
-    }
-
     /**
      * 获取数据源描述
      * 
@@ -373,7 +249,46 @@ public class DataSourceMysql extends DataSource {
         TextArea sqlArea = new TextArea(sql);
         sqlArea.setPromptText("SELECT * FROM table");
         sqlArea.setPrefRowCount(5);
-        sqlConfig.getChildren().addAll(sqlLabel, sqlArea);
+
+        // 每批读取行数,使用服务端游标分批读取,避免驱动缓存整个结果集
+        HBox fetchSizeBox = new HBox(10);
+        Label fetchSizeLabel = new Label("每批读取行数:");
+        TextField fetchSizeField = new TextField(String.valueOf(fetchSize));
+        fetchSizeField.setPromptText(String.valueOf(DEFAULT_FETCH_SIZE));
+        fetchSizeField.setPrefWidth(100);
+        fetchSizeBox.getChildren().addAll(fetchSizeLabel, fetchSizeField);
+
+        // 并行读取,按拆分列将查询拆分为多个分区同时读取
+        HBox parallelBox = new HBox(10);
+        Label splitColumnLabel = new Label("拆分列:");
+        TextField splitColumnField = new TextField(splitColumn);
+        splitColumnField.setPromptText("数值主键,留空不拆分");
+        Label parallelismLabel = new Label("并行度:");
+        TextField parallelismField = new TextField(String.valueOf(parallelism));
+        parallelismField.setPromptText("1-" + MAX_PARALLELISM);
+        parallelismField.setPrefWidth(100);
+        parallelBox.getChildren().addAll(splitColumnLabel, splitColumnField, parallelismLabel, parallelismField);
+        // 键集分页读取,每页为独立的短查询,避免长时间占用连接和事务
+        HBox pageBox = new HBox(10);
+        Label pageColumnsLabel = new Label("分页列:");
+        TextField pageColumnsField = new TextField(pageColumns);
+        pageColumnsField.setPromptText("唯一键,多个以逗号分隔,留空不分页");
+        Label pageSizeLabel = new Label("每页行数:");
+        TextField pageSizeField = new TextField(pageSize > 0 ? String.valueOf(pageSize) : "");
+        pageSizeField.setPromptText("如10000");
+        pageSizeField.setPrefWidth(100);
+        pageBox.getChildren().addAll(pageColumnsLabel, pageColumnsField, pageSizeLabel, pageSizeField);
+        // 增量对比,只对比水位列大于上次水位的数据行,清空上次水位后下次为全量对比
+        HBox watermarkBox = new HBox(10);
+        Label watermarkColumnLabel = new Label("水位列:");
+        TextField watermarkColumnField = new TextField(watermarkColumn);
+        watermarkColumnField.setPromptText("更新时间或版本号,留空不增量对比");
+        Label watermarkLabel = new Label("上次水位:");
+        TextField watermarkField = new TextField(watermark);
+        watermarkField.setPromptText("留空全量对比");
+        watermarkField.setPrefWidth(160);
+        watermarkBox.getChildren().addAll(watermarkColumnLabel, watermarkColumnField, watermarkLabel, watermarkField);
+        sqlConfig.getChildren().addAll(sqlLabel, sqlArea, fetchSizeBox, parallelBox, pageBox, watermarkBox);
 
         // 按钮区域
         HBox buttonBox = new HBox(10);
@@ -408,6 +323,7 @@ public class DataSourceMysql extends DataSource {
 
         // 确定按钮事件
         confirmButton.setOnAction(event -> {
+            String scope = watermarkScope();
             try {
                 setHost(hostField.getText());
                 setPort(Integer.parseInt(portField.getText()));
@@ -415,6 +331,16 @@ public class DataSourceMysql extends DataSource {
                 setUsername(usernameField.getText());
                 setPassword(passwordField.getText());
                 setSql(sqlArea.getText());
+                setFetchSize(fetchSizeField.getText().isBlank() ? DEFAULT_FETCH_SIZE
+                        : Integer.parseInt(fetchSizeField.getText().trim()));
+                setSplitColumn(splitColumnField.getText().trim());
+                setParallelism(parallelismField.getText().isBlank() ? 1
+                        : Integer.parseInt(parallelismField.getText().trim()));
+                setPageColumns(pageColumnsField.getText().trim());
+                setPageSize(pageSizeField.getText().isBlank() ? 0
+                        : Integer.parseInt(pageSizeField.getText().trim()));
+                setWatermarkColumn(watermarkColumnField.getText().trim());
+                applyWatermark(scope, watermarkField.getText());
 
                 if (callback != null) {
                     callback.onConfigureFinished();
@@ -424,7 +350,7 @@ public class DataSourceMysql extends DataSource {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
                 alert.setTitle("配置错误");
                 alert.setHeaderText(null);
-                alert.setContentText("端口号必须是数字");
+                alert.setContentText("端口号、每批读取行数、并行度和每页行数必须是数字");
                 alert.showAndWait();
             }
         });
@@ -443,6 +369,13 @@ public class DataSourceMysql extends DataSource {
         databaseLabel.setPrefWidth(100);
         usernameLabel.setPrefWidth(100);
         passwordLabel.setPrefWidth(100);
+        fetchSizeLabel.setPrefWidth(100);
+        splitColumnLabel.setPrefWidth(100);
+        parallelismLabel.setPrefWidth(80);
+        pageColumnsLabel.setPrefWidth(100);
+        pageSizeLabel.setPrefWidth(80);
+        watermarkColumnLabel.setPrefWidth(100);
+        watermarkLabel.setPrefWidth(80);
 
         Scene scene = new Scene(mainLayout);
         stage.setScene(scene);
@@ -481,6 +414,19 @@ public class DataSourceMysql extends DataSource {
             this.setUsername((String) map.get("username"));
             this.setPassword((String) map.get("password"));
             this.setSql((String) map.get("sql"));
+            if (map.get("fetchSize") instanceof Number number) {
+                this.setFetchSize(number.intValue());
+            }
+            this.setSplitColumn((String) map.get("splitColumn"));
+            if (map.get("parallelism") instanceof Number number) {
+                this.setParallelism(number.intValue());
+            }
+            this.setPageColumns((String) map.get("pageColumns"));
+            if (map.get("pageSize") instanceof Number number) {
+                this.setPageSize(number.intValue());
+            }
+            this.setWatermarkColumn((String) map.get("watermarkColumn"));
+            this.setWatermark((String) map.get("watermark"));
             this.setMappings((Map<String, String>) map.get("mappings"));
         } catch (Exception e) {
             logger.error("解析数据源配置时发生错误: " + e.getMessage());
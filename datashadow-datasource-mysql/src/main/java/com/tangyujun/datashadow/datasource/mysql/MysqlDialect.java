@@ -0,0 +1,55 @@
+package com.tangyujun.datashadow.datasource.mysql;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+
+/**
+ * MySQL数据库方言
+ * 使用CRC32计算哈希:先对每个值单独计算CRC32,NULL记为N,再对拼接后的结果计算CRC32,
+ * 避免值中包含分隔符时不同的数据行得到相同的拼接文本
+ */
+public class MysqlDialect implements JdbcDialect {
+
+    /**
+     * 方言实例,无状态,可共享
+     */
+    public static final MysqlDialect INSTANCE = new MysqlDialect();
+
+    /**
+     * 使用反引号引用标识符
+     *
+     * @param identifier 标识符
+     * @return 引用后的标识符
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    /**
+     * 构建CRC32组合哈希表达式
+     *
+     * @param expressions 参与哈希的表达式
+     * @return 哈希表达式,取值为0到2^32-1
+     */
+    @Override
+    public String hashExpression(List<String> expressions) {
+        return expressions.stream()
+                .map(expression -> "COALESCE(CRC32(" + expression + "), 'N')")
+                .collect(Collectors.joining(", ", "CRC32(CONCAT_WS(',', ", "))"));
+    }
+
+    /**
+     * 使用LIMIT限制返回行数
+     *
+     * @param query 查询语句
+     * @param rows  最大行数
+     * @return 限制行数后的查询语句
+     */
+    @Override
+    public String limitQuery(String query, int rows) {
+        return query + " LIMIT " + rows;
+    }
+}
@@ -1,10 +1,5 @@
 package com.tangyujun.datashadow.datasource.oracle;
 
-import java.sql.DriverManager;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -12,11 +7,12 @@ import org.slf4j.LoggerFactory;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.TypeReference;
-import com.tangyujun.datashadow.datasource.DataSource;
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
 import com.tangyujun.datashadow.datasource.DataSourceGenerator;
 import com.tangyujun.datashadow.datasource.DataSourceRegistry;
-import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.datasource.db.DataSourceDb;
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
 import javafx.geometry.Insets;
@@ -39,9 +35,9 @@ import javafx.stage.Window;
 /**
  * Oracle数据源
  * 用于连接Oracle数据库并读取数据
- * 继承自DataSource抽象类
+ * 继承自DataSourceDb抽象类
  */
-public class DataSourceOracle extends DataSource {
+public class DataSourceOracle extends DataSourceDb {
 
     private static final Logger logger = LoggerFactory.getLogger(DataSourceOracle.class);
 
@@ -75,11 +71,70 @@ public class DataSourceOracle extends DataSource {
      */
     protected boolean useSid = false;
 
+    /**
+     * 获取数据库类型名称
+     * 
+     * @return Oracle
+     */
+    @Override
+    protected String getDatabaseType() {
+        return "Oracle";
+    }
+
+    /**
+     * 获取Oracle数据库方言
+     * 
+     * @return OracleDialect
+     */
+    @Override
+    @JSONField(serialize = false)
+    public JdbcDialect getDialect() {
+        return OracleDialect.INSTANCE;
+    }
+
+    /**
+     * 获取Oracle驱动类名
+     * 
+     * @return 驱动类名
+     */
+    @Override
+    protected String getDriverClassName() {
+        return "oracle.jdbc.OracleDriver";
+    }
+
+    /**
+     * 判断Oracle连接信息是否完整
+     * 
+     * @return 连接信息完整时返回true
+     */
+    @Override
+    protected boolean isConnectionInfoComplete() {
+        return host != null && !host.isBlank()
+                && service != null && !service.isBlank()
+                && username != null && !username.isBlank()
+                && password != null;
+    }
+
+    /**
+     * 构建哈希分区条件
+     * 拆分列不是数值类型时,使用ORA_HASH将数据行均匀分配到各分区
+     * 
+     * @param column     拆分列
+     * @param partitions 分区数
+     * @param index      分区序号,从0开始
+     * @return 分区条件
+     */
+    @Override
+    protected String buildHashPartitionCondition(String column, int partitions, int index) {
+        return "ORA_HASH(" + column + ", " + (partitions - 1) + ") = " + index;
+    }
+
     /**
      * 构建数据库连接URL
      * 
      * @return 数据库连接URL
      */
+    @Override
     protected String buildUrl() {
         if (useSid) {
             return String.format("jdbc:oracle:thin:@%s:%d:%s", host, port, service);
@@ -160,172 +215,6 @@ public class DataSourceOracle extends DataSource {
         this.useSid = useSid;
     }
 
-    /**
-     * 数据库用户名
-     */
-    protected String username;
-
-    /**
-     * 数据库密码
-     */
-    protected String password;
-
-    /**
-     * 查询SQL语句
-     */
-    protected String sql;
-
-    /**
-     * 获取数据库用户名
-     * 
-     * @return 数据库用户名
-     */
-    public String getUsername() {
-        return username;
-    }
-
-    /**
-     * 设置数据库用户名
-     * 
-     * @param username 数据库用户名
-     */
-    public void setUsername(String username) {
-        this.username = username;
-    }
-
-    /**
-     * 获取数据库密码
-     * 
-     * @return 数据库密码
-     */
-    public String getPassword() {
-        return password;
-    }
-
-    /**
-     * 设置数据库密码
-     * 
-     * @param password 数据库密码
-     */
-    public void setPassword(String password) {
-        this.password = password;
-    }
-
-    /**
-     * 获取查询SQL语句
-     * 
-     * @return 查询SQL语句
-     */
-    public String getSql() {
-        return sql;
-    }
-
-    /**
-     * 设置查询SQL语句
-     * 
-     * @param sql 查询SQL语句
-     */
-    public void setSql(String sql) {
-        this.sql = sql;
-    }
-
-    /**
-     * 验证Oracle数据源连接是否有效
-     * 
-     * @return 如果连接成功返回true,否则返回false
-     */
-    @Override
-    public void valid() throws DataSourceValidException {
-        if (host == null || host.isBlank() ||
-                service == null || service.isBlank() ||
-                username == null || username.isBlank() ||
-                password == null) {
-            throw new DataSourceValidException("Oracle连接验证失败: 连接信息不完整", null);
-        }
-        try {
-            System.out.println("正在验证Oracle连接...");
-            String url = buildUrl();
-            System.out.println("URL: " + url);
-            System.out.println("用户名: " + username);
-            Class.forName("oracle.jdbc.OracleDriver");
-            try (var connection = DriverManager.getConnection(url, username, password)) {
-                System.out.println("Oracle连接验证成功！");
-                System.out.println("连接信息: " + connection.getMetaData().getURL() + ", 用户名: "
-                        + connection.getMetaData().getUserName());
-            }
-        } catch (ClassNotFoundException e) {
-            throw new DataSourceValidException("Oracle驱动加载失败: " + e.getMessage(), e);
-        } catch (SQLException e) {
-            throw new DataSourceValidException("Oracle连接验证失败: " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * 从Oracle数据库中获取数据
-     * 执行sql语句并将结果转换为List<Map<String, Object>>格式
-     * 
-     * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
-     * @throws DataAccessException 当SQL执行失败或数据库连接出错时抛出
-     */
-    @Override
-    public List<Map<String, Object>> acquireValues() throws DataAccessException {
-        try {
-            Class.forName("oracle.jdbc.OracleDriver");
-        } catch (ClassNotFoundException e) {
-            throw new DataAccessException("Oracle驱动加载失败", e);
-        }
-        try (var connection = DriverManager.getConnection(buildUrl(), username, password);
-                var statement = connection.createStatement();
-                var resultSet = statement.executeQuery(sql)) {
-
-            var metaData = resultSet.getMetaData();
-            var columnCount = metaData.getColumnCount();
-            var result = new ArrayList<Map<String, Object>>();
-
-            while (resultSet.next()) {
-                var row = new HashMap<String, Object>();
-                for (int i = 1; i <= columnCount; i++) {
-                    var columnName = metaData.getColumnLabel(i);
-                    var value = resultSet.getObject(i);
-                    row.put(columnName, value);
-                }
-                result.add(row);
-            }
-            return result;
-        } catch (SQLException e) {
-            throw new DataAccessException("执行Oracle查询失败: " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * 获取Oracle数据源的列名
-     * 
-     * @return 列名列表
-     */
-    @Override
-    public List<String> getColumns() {
-        try {
-            Class.forName("oracle.jdbc.OracleDriver");
-        } catch (ClassNotFoundException e) {
-            throw new DataAccessException("Oracle驱动加载失败", e);
-        }
-        try (var connection = DriverManager.getConnection(buildUrl(), username, password);
-                var statement = connection.createStatement();
-                var resultSet = statement.executeQuery(sql)) {
-
-            var metaData = resultSet.getMetaData();
-            var columnCount = metaData.getColumnCount();
-            var columns = new ArrayList<String>();
-
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
-            }
-            return columns;
-        } catch (SQLException e) {
-            throw new DataAccessException("获取Oracle列名失败: " + e.getMessage(), e);
-        }
-    }
-
     /**
      * 获取Oracle数据源的描述
      * 
@@ -422,7 +311,56 @@ public class DataSourceOracle extends DataSource {
         TextArea sqlArea = new TextArea(sql);
         sqlArea.setPromptText("SELECT * FROM table");
         VBox.setVgrow(sqlArea, Priority.ALWAYS);
-        sqlConfig.getChildren().addAll(sqlLabel, sqlArea);
+
+        // 每批读取行数,Oracle驱动默认每次只读取10行,数据量大时往返次数过多
+        HBox fetchSizeBox = new HBox(10);
+        Label fetchSizeLabel = new Label("每批读取行数:");
+        fetchSizeLabel.setPrefWidth(100);
+        TextField fetchSizeField = new TextField(String.valueOf(fetchSize));
+        fetchSizeField.setPrefWidth(100);
+        fetchSizeField.setPromptText(String.valueOf(DEFAULT_FETCH_SIZE));
+        fetchSizeBox.getChildren().addAll(fetchSizeLabel, fetchSizeField);
+
+        // 并行读取,按拆分列将查询拆分为多个分区同时读取
+        HBox parallelBox = new HBox(10);
+        Label splitColumnLabel = new Label("拆分列:");
+        splitColumnLabel.setPrefWidth(100);
+        TextField splitColumnField = new TextField(splitColumn);
+        splitColumnField.setPromptText("数值主键,留空不拆分");
+        HBox.setHgrow(splitColumnField, Priority.ALWAYS);
+        Label parallelismLabel = new Label("并行度:");
+        parallelismLabel.setPrefWidth(60);
+        TextField parallelismField = new TextField(String.valueOf(parallelism));
+        parallelismField.setPrefWidth(100);
+        parallelismField.setPromptText("1-" + MAX_PARALLELISM);
+        parallelBox.getChildren().addAll(splitColumnLabel, splitColumnField, parallelismLabel, parallelismField);
+        // 键集分页读取,每页为独立的短查询,避免长时间占用连接和事务
+        HBox pageBox = new HBox(10);
+        Label pageColumnsLabel = new Label("分页列:");
+        pageColumnsLabel.setPrefWidth(100);
+        TextField pageColumnsField = new TextField(pageColumns);
+        pageColumnsField.setPromptText("唯一键,多个以逗号分隔,留空不分页");
+        HBox.setHgrow(pageColumnsField, Priority.ALWAYS);
+        Label pageSizeLabel = new Label("每页行数:");
+        pageSizeLabel.setPrefWidth(60);
+        TextField pageSizeField = new TextField(pageSize > 0 ? String.valueOf(pageSize) : "");
+        pageSizeField.setPrefWidth(100);
+        pageSizeField.setPromptText("如10000");
+        pageBox.getChildren().addAll(pageColumnsLabel, pageColumnsField, pageSizeLabel, pageSizeField);
+        // 增量对比,只对比水位列大于上次水位的数据行,清空上次水位后下次为全量对比
+        HBox watermarkBox = new HBox(10);
+        Label watermarkColumnLabel = new Label("水位列:");
+        watermarkColumnLabel.setPrefWidth(100);
+        TextField watermarkColumnField = new TextField(watermarkColumn);
+        watermarkColumnField.setPromptText("更新时间或版本号,留空不增量对比");
+        HBox.setHgrow(watermarkColumnField, Priority.ALWAYS);
+        Label watermarkLabel = new Label("上次水位:");
+        watermarkLabel.setPrefWidth(60);
+        TextField watermarkField = new TextField(watermark);
+        watermarkField.setPrefWidth(160);
+        watermarkField.setPromptText("留空全量对比");
+        watermarkBox.getChildren().addAll(watermarkColumnLabel, watermarkColumnField, watermarkLabel, watermarkField);
+        sqlConfig.getChildren().addAll(sqlLabel, sqlArea, fetchSizeBox, parallelBox, pageBox, watermarkBox);
 
         // 按钮区域
         HBox buttonBox = new HBox(10);
@@ -467,6 +405,7 @@ public class DataSourceOracle extends DataSource {
         });
 
         confirmButton.setOnAction(event -> {
+            String scope = watermarkScope();
             try {
                 setHost(hostField.getText());
                 setPort(Integer.parseInt(portField.getText()));
@@ -475,6 +414,16 @@ public class DataSourceOracle extends DataSource {
                 setUsername(usernameField.getText());
                 setPassword(passwordField.getText());
                 setSql(sqlArea.getText());
+                setFetchSize(fetchSizeField.getText().isBlank() ? DEFAULT_FETCH_SIZE
+                        : Integer.parseInt(fetchSizeField.getText().trim()));
+                setSplitColumn(splitColumnField.getText().trim());
+                setParallelism(parallelismField.getText().isBlank() ? 1
+                        : Integer.parseInt(parallelismField.getText().trim()));
+                setPageColumns(pageColumnsField.getText().trim());
+                setPageSize(pageSizeField.getText().isBlank() ? 0
+                        : Integer.parseInt(pageSizeField.getText().trim()));
+                setWatermarkColumn(watermarkColumnField.getText().trim());
+                applyWatermark(scope, watermarkField.getText());
                 callback.onConfigureFinished();
                 stage.close();
             } catch (NumberFormatException e) {
@@ -482,7 +431,7 @@ public class DataSourceOracle extends DataSource {
                         javafx.scene.control.Alert.AlertType.ERROR);
                 alert.setTitle("配置错误");
                 alert.setHeaderText(null);
-                alert.setContentText("端口号必须是数字");
+                alert.setContentText("端口号、每批读取行数、并行度和每页行数必须是数字");
                 alert.showAndWait();
             }
         });
@@ -524,6 +473,19 @@ public class DataSourceOracle extends DataSource {
             this.setUsername((String) map.get("username"));
             this.setPassword((String) map.get("password"));
             this.setSql((String) map.get("sql"));
+            if (map.get("fetchSize") instanceof Number number) {
+                this.setFetchSize(number.intValue());
+            }
+            this.setSplitColumn((String) map.get("splitColumn"));
+            if (map.get("parallelism") instanceof Number number) {
+                this.setParallelism(number.intValue());
+            }
+            this.setPageColumns((String) map.get("pageColumns"));
+            if (map.get("pageSize") instanceof Number number) {
+                this.setPageSize(number.intValue());
+            }
+            this.setWatermarkColumn((String) map.get("watermarkColumn"));
+            this.setWatermark((String) map.get("watermark"));
             this.setUseSid((Boolean) map.get("useSid"));
             this.setMappings((Map<String, String>) map.get("mappings"));
         } catch (Exception e) {
@@ -0,0 +1,74 @@
+package com.tangyujun.datashadow.datasource.oracle;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tangyujun.datashadow.datasource.db.ColumnInfo;
+import com.tangyujun.datashadow.datasource.db.JdbcDialect;
+
+/**
+ * Oracle数据库方言
+ * 使用ORA_HASH计算哈希:先对每个值单独计算ORA_HASH,NULL记为N,再对拼接后的文本计算ORA_HASH,
+ * 拼接的是定长范围内的数字,列较多时也不会超出VARCHAR2的长度限制
+ *
+ * ORA_HASH不接受CLOB、NCLOB、BLOB、BFILE、LONG和LONG RAW类型(ORA-00932),包含这些列时不能计算哈希
+ */
+public class OracleDialect implements JdbcDialect {
+
+    /**
+     * 方言实例,无状态,可共享
+     */
+    public static final OracleDialect INSTANCE = new OracleDialect();
+
+    /**
+     * 使用双引号引用标识符,查询结果的列名按原样(通常为大写)引用
+     *
+     * @param identifier 标识符
+     * @return 引用后的标识符
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * 大字段和LONG类型的列不能参与ORA_HASH
+     *
+     * @param column 列信息
+     * @return 可以参与时返回true
+     */
+    @Override
+    public boolean supportsHash(ColumnInfo column) {
+        return switch (column.jdbcType()) {
+            case Types.CLOB, Types.NCLOB, Types.BLOB, Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.LONGVARBINARY ->
+                false;
+            default -> !"BFILE".equalsIgnoreCase(column.typeName());
+        };
+    }
+
+    /**
+     * 构建ORA_HASH组合哈希表达式
+     *
+     * @param expressions 参与哈希的表达式
+     * @return 哈希表达式,取值为0到2^32-1
+     */
+    @Override
+    public String hashExpression(List<String> expressions) {
+        return expressions.stream()
+                .map(expression -> "NVL2(" + expression + ", TO_CHAR(ORA_HASH(" + expression + ")), 'N')")
+                .collect(Collectors.joining(" || ',' || ", "ORA_HASH(", ")"));
+    }
+
+    /**
+     * 使用ROWNUM限制返回行数,兼容不支持FETCH FIRST的11g及以前版本
+     *
+     * @param query 查询语句
+     * @param rows  最大行数
+     * @return 限制行数后的查询语句
+     */
+    @Override
+    public String limitQuery(String query, int rows) {
+        return "SELECT * FROM (" + query + ") WHERE ROWNUM <= " + rows;
+    }
+}
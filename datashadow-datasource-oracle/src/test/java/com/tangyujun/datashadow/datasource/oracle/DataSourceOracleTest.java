@@ -3,11 +3,13 @@ package com.tangyujun.datashadow.datasource.oracle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.tangyujun.datashadow.datasource.db.ColumnInfo;
 import com.tangyujun.datashadow.exception.DataAccessException;
 import com.tangyujun.datashadow.exception.DataSourceValidException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.sql.Types;
 import java.util.List;
 
 /**
@@ -159,4 +161,19 @@ public class DataSourceOracleTest {
                 dataSource.buildUrl(),
                 "SID URL should be correct");
     }
+
+    /**
+     * 测试方言按列类型判断能否计算哈希,大字段和LONG类型不能参与ORA_HASH
+     */
+    @Test
+    void testDialectSupportsHash() {
+        OracleDialect dialect = OracleDialect.INSTANCE;
+        assertTrue(dialect.supportsHash(new ColumnInfo("NAME", Types.VARCHAR, "VARCHAR2")));
+        assertTrue(dialect.supportsHash(new ColumnInfo("ID", Types.NUMERIC, "NUMBER")));
+        assertFalse(dialect.supportsHash(new ColumnInfo("CONTENT", Types.CLOB, "CLOB")));
+        assertFalse(dialect.supportsHash(new ColumnInfo("CONTENT", Types.NCLOB, "NCLOB")));
+        assertFalse(dialect.supportsHash(new ColumnInfo("DATA", Types.BLOB, "BLOB")));
+        assertFalse(dialect.supportsHash(new ColumnInfo("TEXT", Types.LONGVARCHAR, "LONG")));
+        assertFalse(dialect.supportsHash(new ColumnInfo("FILE", -13, "BFILE")));
+    }
 }
@@ -0,0 +1,57 @@
+package com.tangyujun.datashadow.config;
+
+/**
+ * 对比策略枚举类
+ * 定义了对比引擎读取和对比两侧数据的方式
+ */
+public enum CompareStrategy {
+
+    /**
+     * 全量对比
+     * 读取两侧全部数据行逐行对比,适用于任意数据源
+     */
+    FULL("全量对比"),
+
+    /**
+     * 校验和下推
+     * 两侧为同一类型的数据库时,由数据库按主键分桶计算校验和,只读取校验和不一致分桶中的数据行,
+     * 其他数据源组合自动使用全量对比,一致分桶中的数据行不出现在对比结果中
+     */
+    CHECKSUM("校验和下推"),
+
+    /**
+     * 主键哈希两阶段
+     * 两侧为同一类型的数据库时,先读取两侧的主键和数据库计算的数据行哈希,
+     * 只按哈希不同或只在一侧存在的主键读取完整数据行,其他数据源组合自动使用全量对比
+     */
+    KEY_HASH("主键哈希两阶段"),
+
+    /**
+     * 按主键查询影子数据库
+     * 影子数据源为数据库时,逐行读取主数据源,按主键分批查询影子数据库并立即对比,
+     * 不读取影子数据库的全表,适用于主数据源远小于影子数据源的场景;
+     * 只在影子数据源中存在的数据行不会出现在对比结果中
+     */
+    LOOKUP("按主键查询影子数据库");
+
+    /** 显示名称 */
+    private final String displayName;
+
+    /**
+     * 构造函数
+     * 
+     * @param displayName 显示名称
+     */
+    CompareStrategy(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * 获取显示名称
+     * 
+     * @return 显示名称
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -111,11 +111,19 @@ public class ConfigFactory {
             this.configuration.setAiModel(configuration.getAiModel());
             this.configuration.setAiApiKey(configuration.getAiApiKey());
             this.configuration.setLicense(configuration.getLicense());
+            this.configuration.setMemoizeComparators(configuration.isMemoizeComparators());
+            this.configuration.setCompareStrategy(configuration.getCompareStrategy());
+            this.configuration.setLookupBatchSize(configuration.getLookupBatchSize());
+            this.configuration.setLookupConcurrency(configuration.getLookupConcurrency());
         } else {
             this.configuration.setPluginDir(null);
             this.configuration.setAiModel(null);
             this.configuration.setAiApiKey(null);
             this.configuration.setLicense(null);
+            this.configuration.setMemoizeComparators(true);
+            this.configuration.setCompareStrategy(CompareStrategy.FULL);
+            this.configuration.setLookupBatchSize(Configuration.DEFAULT_LOOKUP_BATCH_SIZE);
+            this.configuration.setLookupConcurrency(Configuration.DEFAULT_LOOKUP_CONCURRENCY);
         }
         if (notify) {
             notifyChangeListeners();
@@ -1,6 +1,7 @@
 package com.tangyujun.datashadow.config;
 
 import com.tangyujun.datashadow.ai.Models;
+import com.tangyujun.datashadow.datasource.db.DataSourceDb;
 
 /**
  * 配置数据结构类
@@ -9,9 +10,23 @@ import com.tangyujun.datashadow.ai.Models;
  * 包含的配置项:
  * - pluginDir: 插件目录路径
  * - license: 程序许可证
+ * - memoizeComparators: 对比时是否为比较器启用值缓存
+ * - compareStrategy: 对比策略
+ * - lookupBatchSize: 按主键查询时每批的主键数
+ * - lookupConcurrency: 按主键查询时同时执行的查询数
  */
 public class Configuration {
 
+    /**
+     * 按主键查询时默认每批的主键数
+     */
+    public static final int DEFAULT_LOOKUP_BATCH_SIZE = 500;
+
+    /**
+     * 按主键查询时默认同时执行的查询数
+     */
+    public static final int DEFAULT_LOOKUP_CONCURRENCY = 4;
+
     /**
      * 插件目录路径
      * 默认为用户目录下的 .datashadow/plugins 目录
@@ -41,6 +56,29 @@ public class Configuration {
      */
     private String license;
 
+    /**
+     * 对比时是否为比较器启用值缓存
+     * 启用后对比引擎为每个数据项的比较器包装按值缓存,
+     * 适用于状态、币种等低基数数据项,命中率过低时自动停用
+     */
+    private boolean memoizeComparators = true;
+
+    /**
+     * 对比策略
+     * 默认全量对比,两侧均为同类数据库时可选择校验和下推或主键哈希两阶段以减少传输的数据量
+     */
+    private CompareStrategy compareStrategy = CompareStrategy.FULL;
+
+    /**
+     * 按主键查询影子数据库时每批的主键数
+     */
+    private int lookupBatchSize = DEFAULT_LOOKUP_BATCH_SIZE;
+
+    /**
+     * 按主键查询影子数据库时同时执行的查询数
+     */
+    private int lookupConcurrency = DEFAULT_LOOKUP_CONCURRENCY;
+
     /**
      * 获取插件目录路径
      * 
@@ -112,4 +150,76 @@ public class Configuration {
     public void setAiApiKey(String aiApiKey) {
         this.aiApiKey = aiApiKey;
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取对比时是否为比较器启用值缓存
+     * 
+     * @return true表示启用值缓存
+     */
+    public boolean isMemoizeComparators() {
+        return memoizeComparators;
+    }
+
+    /**
+     * 设置对比时是否为比较器启用值缓存
+     * 
+     * @param memoizeComparators true表示启用值缓存
+     */
+    public void setMemoizeComparators(boolean memoizeComparators) {
+        this.memoizeComparators = memoizeComparators;
+    }
+
+    /**
+     * 获取对比策略
+     * 
+     * @return 对比策略
+     */
+    public CompareStrategy getCompareStrategy() {
+        return compareStrategy;
+    }
+
+    /**
+     * 设置对比策略
+     * 
+     * @param compareStrategy 对比策略,为null时使用全量对比
+     */
+    public void setCompareStrategy(CompareStrategy compareStrategy) {
+        this.compareStrategy = compareStrategy == null ? CompareStrategy.FULL : compareStrategy;
+    }
+
+    /**
+     * 获取按主键查询时每批的主键数
+     * 
+     * @return 每批的主键数
+     */
+    public int getLookupBatchSize() {
+        return lookupBatchSize;
+    }
+
+    /**
+     * 设置按主键查询时每批的主键数
+     * 
+     * @param lookupBatchSize 每批的主键数,小于等于0时使用默认值
+     */
+    public void setLookupBatchSize(int lookupBatchSize) {
+        this.lookupBatchSize = lookupBatchSize > 0 ? lookupBatchSize : DEFAULT_LOOKUP_BATCH_SIZE;
+    }
+
+    /**
+     * 获取按主键查询时同时执行的查询数
+     * 
+     * @return 同时执行的查询数
+     */
+    public int getLookupConcurrency() {
+        return lookupConcurrency;
+    }
+
+    /**
+     * 设置按主键查询时同时执行的查询数
+     * 
+     * @param lookupConcurrency 同时执行的查询数,取值范围1到DataSourceDb.MAX_PARALLELISM
+     */
+    public void setLookupConcurrency(int lookupConcurrency) {
+        this.lookupConcurrency = Math.max(1, Math.min(lookupConcurrency, DataSourceDb.MAX_PARALLELISM));
+    }
+}
@@ -0,0 +1,42 @@
+package com.tangyujun.datashadow.datacomparator;
+
+import java.util.Objects;
+
+/**
+ * 可规范化的数据项比较器
+ * 能够将数据项转换为规范形式(规范键),规范键相等当且仅当两个数据项相等
+ *
+ * 用途:
+ * 1. 对比引擎在所有主键数据项的比较器都可规范化时,使用规范键构建哈希索引匹配数据行,
+ * 避免逐行线性扫描
+ * 2. 规范键可以缓存,重复出现的值只需计算一次
+ *
+ * 实现要求:
+ * 1. 对任意o1、o2, equals(o1, o2) 与 Objects.equals(canonicalKey(o1), canonicalKey(o2)) 结果一致
+ * 2. 规范键需要正确实现equals和hashCode
+ * 3. 无法解析、与任何值都不相等的数据项,应返回一个新的对象作为规范键
+ *
+ * @author tangyujun
+ */
+public interface CanonicalDataComparator extends DataComparator {
+
+    /**
+     * 获取数据项的规范键
+     *
+     * @param value 数据项,可能为null
+     * @return 规范键,可以为null
+     */
+    Object canonicalKey(Object value);
+
+    /**
+     * 通过规范键比较两个数据项
+     *
+     * @param o1 数据项1
+     * @param o2 数据项2
+     * @return 是否相等
+     */
+    @Override
+    default boolean equals(Object o1, Object o2) {
+        return Objects.equals(canonicalKey(o1), canonicalKey(o2));
+    }
+}
@@ -42,4 +42,17 @@ public interface DataComparator {
      * @return 数据比较器的描述
      */
     String getDescription();
+
+    /**
+     * 描述两个数据项之间的差异
+     * 用于在对比结果中展示差异详情,如JSON文档中首个差异的路径
+     * 默认不提供差异详情
+     * 
+     * @param o1 数据项1
+     * @param o2 数据项2
+     * @return 差异描述,无法描述或两个数据项相等时返回null
+     */
+    default String describeDifference(Object o1, Object o2) {
+        return null;
+    }
 }
@@ -0,0 +1,380 @@
+package com.tangyujun.datashadow.datacomparator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javafx.stage.Window;
+
+/**
+ * 带缓存的数据项比较器包装类
+ * 为任意数据比较器(包括第三方插件提供的比较器)增加按值缓存,适用于状态、币种、国家等低基数数据项
+ *
+ * 缓存方式:
+ * 1. 被包装的比较器实现了CanonicalDataComparator时,缓存 值 → 规范键,比较时只需比较两个规范键
+ * 2. 否则缓存 (值1, 值2) → 比较结果
+ *
+ * 缓存控制:
+ * 1. 缓存条目数有上限,达到上限后不再新增条目,已有条目继续生效
+ * 2. 每完成一批查找后统计命中率,命中率过低时自动停用缓存并释放内存,之后直接调用被包装的比较器;
+ *    停用期间每绕过一定次数的查找后重新启用缓存并重新统计命中率,以适应数据分布的变化
+ * 3. 只缓存不可变的常见值类型(字符串、数值、布尔、字符、枚举、java.time类型),其他类型直接调用被包装的比较器
+ *
+ * 包装类仅用于一次对比过程,配置、导入导出等操作均委托给被包装的比较器
+ */
+public class MemoizingDataComparator implements DataComparator {
+
+    /**
+     * 默认缓存条目上限
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    /**
+     * 每批统计命中率的查找次数
+     */
+    private static final int SAMPLE_SIZE = 10_000;
+
+    /**
+     * 保持缓存启用的最低命中率
+     */
+    private static final double MIN_HIT_RATE = 0.5;
+
+    /**
+     * 缓存停用后,绕过缓存多少次查找后重新启用并重新统计命中率
+     * 远大于统计批次,命中率持续过低时重新统计的开销可以忽略
+     */
+    static final int RESAMPLE_INTERVAL = 50 * SAMPLE_SIZE;
+
+    /**
+     * 包装数据比较器
+     * 已经是包装类或为null时原样返回
+     *
+     * @param delegate 被包装的比较器
+     * @return 带缓存的比较器;被包装的比较器可规范化时返回的比较器同样可规范化
+     */
+    public static DataComparator wrap(DataComparator delegate) {
+        return wrap(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * 包装数据比较器
+     * 已经是包装类或为null时原样返回
+     *
+     * @param delegate 被包装的比较器
+     * @param maxSize  缓存条目上限
+     * @return 带缓存的比较器;被包装的比较器可规范化时返回的比较器同样可规范化
+     */
+    public static DataComparator wrap(DataComparator delegate, int maxSize) {
+        if (delegate == null || delegate instanceof MemoizingDataComparator) {
+            return delegate;
+        }
+        if (delegate instanceof CanonicalDataComparator canonical) {
+            return new Canonical(canonical, maxSize);
+        }
+        return new MemoizingDataComparator(delegate, maxSize);
+    }
+
+    /**
+     * 被包装的比较器
+     */
+    protected final DataComparator delegate;
+
+    /**
+     * 缓存条目上限
+     */
+    protected final int maxSize;
+
+    /**
+     * 缓存内容,键为值对或单个值
+     */
+    protected final Map<Object, Object> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存是否启用
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * 当前批次的查找次数
+     * 多个对比线程会同时累加,使用LongAdder避免丢失计数
+     */
+    private final LongAdder lookups = new LongAdder();
+
+    /**
+     * 当前批次的命中次数
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 缓存停用后绕过缓存的查找次数
+     */
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 被包装的比较器
+     * @param maxSize  缓存条目上限
+     */
+    protected MemoizingDataComparator(DataComparator delegate, int maxSize) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 比较两个数据项
+     * 两个值都是可缓存类型时先查缓存,未命中再调用被包装的比较器并写入缓存
+     *
+     * @param o1 数据项1
+     * @param o2 数据项2
+     * @return 是否相等
+     */
+    @Override
+    public boolean equals(Object o1, Object o2) {
+        if (!cacheable(o1) || !cacheable(o2) || !cacheActive()) {
+            return delegate.equals(o1, o2);
+        }
+        Pair pair = new Pair(o1, o2);
+        Object cached = cache.get(pair);
+        record(cached != null);
+        if (cached != null) {
+            return (Boolean) cached;
+        }
+        boolean result = delegate.equals(o1, o2);
+        put(pair, result);
+        return result;
+    }
+
+    /**
+     * 写入缓存,达到上限后不再新增条目
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     */
+    protected void put(Object key, Object value) {
+        if (enabled && cache.size() < maxSize) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * 记录一次查找并按批次评估命中率
+     * 命中率低于阈值时停用缓存;计数可以被多个线程同时累加,
+     * 批次结束时的评估和清零加锁执行,保证每个批次只评估一次
+     *
+     * @param hit 是否命中
+     */
+    protected void record(boolean hit) {
+        if (hit) {
+            hits.increment();
+        }
+        lookups.increment();
+        if (lookups.sum() < SAMPLE_SIZE) {
+            return;
+        }
+        synchronized (this) {
+            long sampled = lookups.sum();
+            if (sampled < SAMPLE_SIZE) {
+                return;
+            }
+            if (hits.sum() < sampled * MIN_HIT_RATE) {
+                enabled = false;
+                cache.clear();
+            }
+            lookups.reset();
+            hits.reset();
+        }
+    }
+
+    /**
+     * 判断本次查找是否使用缓存
+     * 缓存停用时累计绕过次数,达到重新统计间隔后重新启用缓存并清零命中率统计
+     *
+     * @return 使用缓存时返回true
+     */
+    protected boolean cacheActive() {
+        if (enabled) {
+            return true;
+        }
+        bypassed.increment();
+        if (bypassed.sum() < RESAMPLE_INTERVAL) {
+            return false;
+        }
+        synchronized (this) {
+            if (!enabled && bypassed.sum() >= RESAMPLE_INTERVAL) {
+                lookups.reset();
+                hits.reset();
+                bypassed.reset();
+                enabled = true;
+            }
+        }
+        return enabled;
+    }
+
+    /**
+     * 判断缓存是否仍然启用
+     *
+     * @return 缓存启用时返回true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取被包装的比较器
+     *
+     * @return 被包装的比较器
+     */
+    public DataComparator getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 判断值是否可以作为缓存键
+     * 只接受不可变且正确实现了equals和hashCode的常见值类型
+     *
+     * @param value 值
+     * @return 可缓存时返回true
+     */
+    protected static boolean cacheable(Object value) {
+        return value == null
+                || value instanceof String
+                || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float
+                || value instanceof BigDecimal || value instanceof BigInteger
+                || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?>
+                || (value instanceof TemporalAccessor && value.getClass().getName().startsWith("java.time."));
+    }
+
+    /**
+     * 配置数据比较器,委托给被包装的比较器
+     *
+     * @param primaryStage 主舞台
+     */
+    @Override
+    public void config(Window primaryStage) {
+        delegate.config(primaryStage);
+        cache.clear();
+    }
+
+    /**
+     * 导出数据比较器配置,委托给被包装的比较器
+     *
+     * @return 被包装比较器的配置
+     */
+    @Override
+    public String exportComparator() {
+        return delegate.exportComparator();
+    }
+
+    /**
+     * 导入数据比较器配置,委托给被包装的比较器
+     *
+     * @param exportValueString 被包装比较器的配置
+     */
+    @Override
+    public void importComparator(String exportValueString) {
+        delegate.importComparator(exportValueString);
+        cache.clear();
+    }
+
+    /**
+     * 描述两个数据项之间的差异,委托给被包装的比较器
+     *
+     * @param o1 数据项1
+     * @param o2 数据项2
+     * @return 被包装比较器给出的差异描述
+     */
+    @Override
+    public String describeDifference(Object o1, Object o2) {
+        return delegate.describeDifference(o1, o2);
+    }
+
+    /**
+     * 获取数据比较器的描述,委托给被包装的比较器
+     *
+     * @return 被包装比较器的描述
+     */
+    @Override
+    public String getDescription() {
+        return delegate.getDescription();
+    }
+
+    /**
+     * 值对缓存键
+     *
+     * @param left  数据项1
+     * @param right 数据项2
+     */
+    private record Pair(Object left, Object right) {
+    }
+
+    /**
+     * 可规范化比较器的缓存包装
+     * 缓存 值 → 规范键,每个不同的值只计算一次规范键
+     * 规范键的类型未重写equals(如无法解析的值返回的新对象)时不写入缓存
+     */
+    private static final class Canonical extends MemoizingDataComparator implements CanonicalDataComparator {
+
+        /**
+         * 规范键为null时的缓存占位对象
+         */
+        private static final Object NULL_KEY = new Object();
+
+        /**
+         * 规范键类型是否重写了equals,未重写时只与自身相等
+         */
+        private static final ClassValue<Boolean> VALUE_EQUALITY = new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                try {
+                    return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+                } catch (NoSuchMethodException e) {
+                    return false;
+                }
+            }
+        };
+
+        /**
+         * 构造函数
+         *
+         * @param delegate 被包装的可规范化比较器
+         * @param maxSize  缓存条目上限
+         */
+        Canonical(CanonicalDataComparator delegate, int maxSize) {
+            super(delegate, maxSize);
+        }
+
+        @Override
+        public Object canonicalKey(Object value) {
+            CanonicalDataComparator canonical = (CanonicalDataComparator) delegate;
+            if (value == null || !cacheable(value) || !cacheActive()) {
+                return canonical.canonicalKey(value);
+            }
+            Object cached = cache.get(value);
+            record(cached != null);
+            if (cached != null) {
+                return cached == NULL_KEY ? null : cached;
+            }
+            Object key = canonical.canonicalKey(value);
+            // 无法解析的值每次返回新对象作为规范键,这类值不能缓存,否则会与自身相等
+            if (key == null) {
+                put(value, NULL_KEY);
+            } else if (VALUE_EQUALITY.get(key.getClass())) {
+                put(value, key);
+            }
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o1, Object o2) {
+            return Objects.equals(canonicalKey(o1), canonicalKey(o2));
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.fastjson2.JSON;
+import com.tangyujun.datashadow.datacomparator.CanonicalDataComparator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorGenerator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorRegistry;
+
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Window;
+
+/**
+ * 语言排序规则字符串比较器
+ * 按指定语言环境的排序规则(Collation)比较字符串,与数据库的语言排序比较语义一致
+ * 支持配置:
+ * 1. 语言环境,如zh-CN、en-US
+ * 2. 比较强度:
+ * - PRIMARY: 只区分基本字符,忽略重音和大小写("e"、"é"、"E"视为相等)
+ * - SECONDARY: 区分重音,忽略大小写
+ * - TERTIARY: 区分重音和大小写
+ * - IDENTICAL: 完全一致
+ * 3. 是否忽略首尾空白
+ * 4. 是否将null和空字符串视为相等
+ *
+ * 性能说明:
+ * 1. 每个不同的值只计算一次排序键,缓存后比较只需比较字节数组
+ * 2. 排序键可作为规范键,对比引擎据此建立哈希索引匹配主键
+ * 3. 缓存超过上限时整体清空,避免占用过多内存
+ */
+public class CollationStringDataComparator implements CanonicalDataComparator {
+
+    /**
+     * 排序键缓存的最大条目数
+     */
+    private static final int MAX_CACHE_SIZE = 100_000;
+
+    /**
+     * 生成语言排序规则字符串比较器
+     * 注册为系统内置比较器,显示名称为"字符串(语言排序)"
+     * 默认配置:
+     * - 语言环境zh-CN
+     * - 比较强度PRIMARY(忽略重音和大小写)
+     *
+     * @return 语言排序规则字符串比较器生成器
+     */
+    @DataComparatorRegistry(friendlyName = "字符串(语言排序)", group = "内置")
+    public static DataComparatorGenerator generator() {
+        return CollationStringDataComparator::new;
+    }
+
+    /**
+     * 比较强度
+     */
+    public enum Strength {
+        /**
+         * 只区分基本字符
+         */
+        PRIMARY(Collator.PRIMARY),
+        /**
+         * 区分重音,忽略大小写
+         */
+        SECONDARY(Collator.SECONDARY),
+        /**
+         * 区分重音和大小写
+         */
+        TERTIARY(Collator.TERTIARY),
+        /**
+         * 完全一致
+         */
+        IDENTICAL(Collator.IDENTICAL);
+
+        /**
+         * 对应的Collator强度值
+         */
+        private final int value;
+
+        Strength(int value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * 语言环境标签,如zh-CN
+     */
+    private String locale = "zh-CN";
+
+    /**
+     * 比较强度
+     */
+    private Strength strength = Strength.PRIMARY;
+
+    /**
+     * 是否忽略首尾空白
+     */
+    private boolean trim = true;
+
+    /**
+     * 是否将null和空字符串视为相等
+     */
+    private boolean nullEqualsEmpty = true;
+
+    /**
+     * 排序规则,配置变更后重新创建
+     */
+    private transient Collator collator;
+
+    /**
+     * 字符串到排序键的缓存
+     */
+    private final transient Map<String, Key> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 默认构造函数
+     * 创建zh-CN语言环境、PRIMARY强度的比较器
+     */
+    public CollationStringDataComparator() {
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param locale   语言环境标签,如zh-CN
+     * @param strength 比较强度
+     */
+    public CollationStringDataComparator(String locale, Strength strength) {
+        this.locale = locale;
+        this.strength = strength;
+    }
+
+    /**
+     * 获取数据项的规范键
+     * 规范键为排序键的字节形式,按排序规则相等的字符串得到相同的规范键
+     *
+     * @param value 数据项
+     * @return 规范键;数据项为null且未配置nullEqualsEmpty时返回null
+     */
+    @Override
+    public Object canonicalKey(Object value) {
+        if (value == null) {
+            if (!nullEqualsEmpty) {
+                return null;
+            }
+            value = "";
+        }
+        String text = trim ? value.toString().trim() : value.toString();
+        Key key = cache.get(text);
+        if (key == null) {
+            key = computeKey(text);
+            if (cache.size() >= MAX_CACHE_SIZE) {
+                cache.clear();
+            }
+            cache.put(text, key);
+        }
+        return key;
+    }
+
+    /**
+     * 计算字符串的排序键
+     * Collator不是线程安全的,计算时需要同步
+     *
+     * @param text 字符串
+     * @return 排序键
+     */
+    private synchronized Key computeKey(String text) {
+        if (collator == null) {
+            collator = Collator.getInstance(Locale.forLanguageTag(locale == null ? "zh-CN" : locale));
+            collator.setStrength(strength == null ? Collator.PRIMARY : strength.value);
+            collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        }
+        CollationKey collationKey = collator.getCollationKey(text);
+        return new Key(collationKey.toByteArray());
+    }
+
+    /**
+     * 配置变更后清空排序规则和缓存
+     */
+    private synchronized void reset() {
+        collator = null;
+        cache.clear();
+    }
+
+    /**
+     * 排序键
+     * 仅保存排序键字节,不持有原始字符串,哈希值在创建时计算
+     */
+    private static final class Key {
+
+        /**
+         * 排序键字节
+         */
+        private final byte[] bytes;
+
+        /**
+         * 哈希值
+         */
+        private final int hash;
+
+        Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            return obj instanceof Key other && hash == other.hash && Arrays.equals(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 配置比较器
+     * 弹出对话框让用户配置语言环境、比较强度和空值处理
+     *
+     * @param primaryStage 父窗口
+     */
+    @Override
+    public void config(Window primaryStage) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("语言排序字符串比较器配置");
+        dialog.setHeaderText("请配置语言排序比较规则");
+        dialog.initOwner(primaryStage);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField localeField = new TextField(locale);
+        localeField.setPromptText("如zh-CN、en-US");
+        grid.add(new Label("语言环境:"), 0, 0);
+        grid.add(localeField, 1, 0);
+
+        ComboBox<Strength> strengthCombo = new ComboBox<>(FXCollections.observableArrayList(Strength.values()));
+        strengthCombo.setValue(strength);
+        grid.add(new Label("比较强度:"), 0, 1);
+        grid.add(strengthCombo, 1, 1);
+        grid.add(new Label("PRIMARY忽略重音和大小写,SECONDARY忽略大小写,TERTIARY区分重音和大小写"), 0, 2, 2, 1);
+
+        CheckBox trimCheckBox = new CheckBox("忽略首尾空白");
+        trimCheckBox.setSelected(trim);
+        grid.add(trimCheckBox, 0, 3, 2, 1);
+
+        CheckBox nullEqualsEmptyCheckBox = new CheckBox("将null和空字符串视为相等");
+        nullEqualsEmptyCheckBox.setSelected(nullEqualsEmpty);
+        grid.add(nullEqualsEmptyCheckBox, 0, 4, 2, 1);
+
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            String localeText = localeField.getText().trim();
+            locale = localeText.isEmpty() ? "zh-CN" : localeText;
+            if (strengthCombo.getValue() != null) {
+                strength = strengthCombo.getValue();
+            }
+            trim = trimCheckBox.isSelected();
+            nullEqualsEmpty = nullEqualsEmptyCheckBox.isSelected();
+            reset();
+        }
+    }
+
+    /**
+     * 导出数据比较器配置
+     * 将当前比较器的配置转换为JSON字符串
+     * 例如：{"locale":"zh-CN","nullEqualsEmpty":true,"strength":"PRIMARY","trim":true}
+     *
+     * @return 包含比较器配置的JSON字符串
+     */
+    @Override
+    public String exportComparator() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 导入数据比较器配置
+     * 从JSON字符串中恢复比较器的配置
+     * 输入为空或解析失败时保持当前配置
+     *
+     * @param exportValueString 包含比较器配置的JSON字符串
+     */
+    @Override
+    public void importComparator(String exportValueString) {
+        if (exportValueString == null || exportValueString.isBlank()) {
+            return;
+        }
+        try {
+            CollationStringDataComparator comparator = JSON.parseObject(exportValueString,
+                    CollationStringDataComparator.class);
+            if (comparator != null) {
+                this.locale = comparator.locale == null ? "zh-CN" : comparator.locale;
+                this.strength = comparator.strength == null ? Strength.PRIMARY : comparator.strength;
+                this.trim = comparator.trim;
+                this.nullEqualsEmpty = comparator.nullEqualsEmpty;
+                reset();
+            }
+        } catch (Exception e) {
+            // 保持当前配置
+        }
+    }
+
+    /**
+     * 获取比较器的描述信息
+     *
+     * @return 比较器描述,包含语言环境和比较强度
+     */
+    @Override
+    public String getDescription() {
+        return "语言排序字符串比较器，" + locale + "(" + strength + ")";
+    }
+
+    /**
+     * 获取语言环境标签
+     *
+     * @return 语言环境标签
+     */
+    public String getLocale() {
+        return locale;
+    }
+
+    /**
+     * 设置语言环境标签
+     *
+     * @param locale 语言环境标签,如zh-CN
+     */
+    public void setLocale(String locale) {
+        this.locale = locale;
+        reset();
+    }
+
+    /**
+     * 获取比较强度
+     *
+     * @return 比较强度
+     */
+    public Strength getStrength() {
+        return strength;
+    }
+
+    /**
+     * 设置比较强度
+     *
+     * @param strength 比较强度
+     */
+    public void setStrength(Strength strength) {
+        this.strength = strength;
+        reset();
+    }
+
+    /**
+     * 获取是否忽略首尾空白的配置
+     *
+     * @return true表示忽略首尾空白
+     */
+    public boolean isTrim() {
+        return trim;
+    }
+
+    /**
+     * 设置是否忽略首尾空白
+     *
+     * @param trim true表示忽略首尾空白
+     */
+    public void setTrim(boolean trim) {
+        this.trim = trim;
+        reset();
+    }
+
+    /**
+     * 获取是否将null和空字符串视为相等的配置
+     *
+     * @return true表示将null和空字符串视为相等
+     */
+    public boolean isNullEqualsEmpty() {
+        return nullEqualsEmpty;
+    }
+
+    /**
+     * 设置是否将null和空字符串视为相等
+     *
+     * @param nullEqualsEmpty true表示将null和空字符串视为相等
+     */
+    public void setNullEqualsEmpty(boolean nullEqualsEmpty) {
+        this.nullEqualsEmpty = nullEqualsEmpty;
+    }
+}
@@ -0,0 +1,614 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+import com.alibaba.fastjson2.JSON;
+import com.tangyujun.datashadow.datacomparator.CanonicalDataComparator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorGenerator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorRegistry;
+
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Window;
+
+/**
+ * 精确小数数据比较器
+ * 用于比较金额等需要精确比较的十进制数值
+ * 支持配置:
+ * 1. 小数位数 - 比较前按指定位数进行舍入,负数表示按数值精确比较
+ * 2. 舍入模式 - 舍入时采用的规则,默认为四舍五入
+ *
+ * 实现说明:
+ * 1. 与浮点数比较器不同,不会将数值转换为double,不存在精度丢失
+ * 2. 对于未缩放值不超过18位有效数字的数值,直接在long上完成解析、缩放和舍入,不产生任何中间对象
+ * 3. 超出long表示范围、科学计数法等情况回退到BigDecimal进行比较
+ *
+ * 使用场景:
+ * 1. Oracle中的NUMBER字段(BigDecimal)与CSV/JSON中的字符串金额比较
+ * 2. 需要按指定小数位数舍入后比较的财务数据
+ */
+public class DecimalDataComparator implements CanonicalDataComparator {
+
+    /**
+     * long快速路径允许的最大有效数字位数
+     * 18位十进制数字始终小于Long.MAX_VALUE,可以保证乘以10时不会溢出
+     */
+    private static final int MAX_FAST_DIGITS = 18;
+
+    /**
+     * 快速路径无法处理时返回的标记值
+     * 由于快速路径的结果绝对值始终小于10^18,该值不会与正常结果冲突
+     */
+    private static final long NOT_FAST = Long.MIN_VALUE;
+
+    /**
+     * 10的幂次表,下标为指数
+     */
+    private static final long[] POW10 = new long[MAX_FAST_DIGITS + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    /**
+     * 小数位数
+     * 例如:
+     * - 小数位数为2时,1.234和1.2349视为相等(都舍入为1.23)
+     * - 小于0时按照数值精确比较,1.50和1.5视为相等,1.50和1.51视为不相等
+     */
+    private int scale = -1;
+
+    /**
+     * 舍入模式,仅在小数位数不小于0时生效
+     */
+    private RoundingMode roundingMode = RoundingMode.HALF_UP;
+
+    /**
+     * 生成精确小数数据比较器
+     * 注册为系统内置比较器,显示名称为"精确小数"
+     *
+     * @return 精确小数数据比较器生成器
+     */
+    @DataComparatorRegistry(friendlyName = "精确小数", group = "内置")
+    public static DataComparatorGenerator generator() {
+        return () -> new DecimalDataComparator();
+    }
+
+    /**
+     * 默认构造函数
+     * 创建一个按数值精确比较的比较器
+     */
+    public DecimalDataComparator() {
+    }
+
+    /**
+     * 构造函数
+     * 创建指定小数位数和舍入模式的比较器
+     *
+     * @param scale        小数位数,负数表示按数值精确比较
+     * @param roundingMode 舍入模式,为null时使用四舍五入
+     */
+    public DecimalDataComparator(int scale, RoundingMode roundingMode) {
+        this.scale = scale;
+        this.roundingMode = roundingMode == null ? RoundingMode.HALF_UP : roundingMode;
+    }
+
+    /**
+     * 判断两个数值是否相等
+     * 处理逻辑:
+     * 1. 如果两个值都为null,返回true
+     * 2. 如果只有一个值为null,返回false
+     * 3. 优先尝试long快速路径:
+     * - 精确比较时,先统计两个值去除末尾0后的小数位数,取较大值作为公共小数位数
+     * - 按公共小数位数(或配置的小数位数)将两个值解析为缩放后的long进行比较
+     * 4. 快速路径无法处理时,回退为BigDecimal比较
+     * 5. 无法解析为数值时返回false
+     *
+     * @param o1 要比较的第一个值,可以是Number类型或可解析为数值的字符串
+     * @param o2 要比较的第二个值,可以是Number类型或可解析为数值的字符串
+     * @return 两个值是否相等
+     */
+    @Override
+    public boolean equals(Object o1, Object o2) {
+        if (o1 == null && o2 == null) {
+            return true;
+        }
+        if (o1 == null || o2 == null) {
+            return false;
+        }
+        int targetScale = scale;
+        if (targetScale < 0) {
+            int f1 = fractionDigits(o1);
+            int f2 = fractionDigits(o2);
+            targetScale = f1 < 0 || f2 < 0 ? -1 : Math.max(f1, f2);
+        }
+        if (targetScale >= 0 && targetScale <= MAX_FAST_DIGITS) {
+            long l1 = toScaledLong(o1, targetScale);
+            if (l1 != NOT_FAST) {
+                long l2 = toScaledLong(o2, targetScale);
+                if (l2 != NOT_FAST) {
+                    return l1 == l2;
+                }
+            }
+        }
+        return equalsSlow(o1, o2);
+    }
+
+    /**
+     * 使用BigDecimal比较两个数值
+     * 作为快速路径无法处理时的回退方案
+     *
+     * @param o1 要比较的第一个值
+     * @param o2 要比较的第二个值
+     * @return 两个值是否相等,无法解析时返回false
+     */
+    private boolean equalsSlow(Object o1, Object o2) {
+        try {
+            BigDecimal d1 = toBigDecimal(o1);
+            BigDecimal d2 = toBigDecimal(o2);
+            if (scale >= 0) {
+                d1 = d1.setScale(scale, roundingMode);
+                d2 = d2.setScale(scale, roundingMode);
+            }
+            return d1.compareTo(d2) == 0;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取数据项的规范键
+     * 规范键为按配置舍入并去除末尾0后的BigDecimal,与equals的比较规则保持一致
+     * 无法解析的值返回一个新对象,与任何值都不相等
+     *
+     * @param value 数据项
+     * @return 规范键
+     */
+    @Override
+    public Object canonicalKey(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            BigDecimal decimal = toBigDecimal(value);
+            if (scale >= 0) {
+                decimal = decimal.setScale(scale, roundingMode);
+            }
+            return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return new Object();
+        }
+    }
+
+    /**
+     * 将对象转换为BigDecimal
+     *
+     * @param value 要转换的值
+     * @return 转换后的BigDecimal
+     * @throws NumberFormatException 当值无法解析为数值时抛出
+     */
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                throw new NumberFormatException("非有限数值: " + d);
+            }
+            return BigDecimal.valueOf(d);
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    /**
+     * 统计数值去除末尾0后的小数位数
+     * 仅用于快速路径,无法在快速路径中处理的值返回-1
+     *
+     * @param value 要统计的值
+     * @return 小数位数,无法处理时返回-1
+     */
+    private static int fractionDigits(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return 0;
+        }
+        if (value instanceof BigDecimal decimal) {
+            if (decimal.precision() > MAX_FAST_DIGITS) {
+                return -1;
+            }
+            if (decimal.scale() <= 0) {
+                return decimal.precision() - decimal.scale() > MAX_FAST_DIGITS ? -1 : 0;
+            }
+            long unscaled = decimal.unscaledValue().longValue();
+            int digits = decimal.scale();
+            while (digits > 0 && unscaled % 10 == 0) {
+                unscaled /= 10;
+                digits--;
+            }
+            return digits;
+        }
+        if (value instanceof CharSequence text) {
+            int start = 0;
+            int end = text.length();
+            while (start < end && Character.isWhitespace(text.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+                end--;
+            }
+            int dot = -1;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (c == '.') {
+                    if (dot >= 0) {
+                        return -1;
+                    }
+                    dot = i;
+                } else if ((c < '0' || c > '9') && !(i == start && (c == '+' || c == '-'))) {
+                    return -1;
+                }
+            }
+            if (dot < 0) {
+                return 0;
+            }
+            int last = end - 1;
+            while (last > dot && text.charAt(last) == '0') {
+                last--;
+            }
+            return last - dot;
+        }
+        return -1;
+    }
+
+    /**
+     * 将数值按目标小数位数转换为缩放后的long
+     * 例如目标小数位数为2时,"12.345"按四舍五入转换为1235
+     *
+     * @param value       要转换的值
+     * @param targetScale 目标小数位数,取值范围[0, 18]
+     * @return 缩放后的long,快速路径无法处理时返回NOT_FAST
+     */
+    private long toScaledLong(Object value, int targetScale) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            long v = ((Number) value).longValue();
+            long limit = POW10[MAX_FAST_DIGITS - targetScale];
+            if (v >= limit || v <= -limit) {
+                return NOT_FAST;
+            }
+            return v * POW10[targetScale];
+        }
+        if (value instanceof BigDecimal decimal) {
+            if (decimal.precision() > MAX_FAST_DIGITS || decimal.scale() < -MAX_FAST_DIGITS) {
+                return NOT_FAST;
+            }
+            long unscaled = decimal.unscaledValue().longValue();
+            return rescale(unscaled, decimal.scale(), targetScale);
+        }
+        if (value instanceof CharSequence text) {
+            return parseScaledLong(text, targetScale);
+        }
+        return NOT_FAST;
+    }
+
+    /**
+     * 将字符串按目标小数位数解析为缩放后的long
+     * 解析过程不创建任何中间对象,舍入规则与BigDecimal.setScale保持一致
+     *
+     * @param text        要解析的字符串
+     * @param targetScale 目标小数位数
+     * @return 缩放后的long,格式不支持或超出有效位数时返回NOT_FAST
+     */
+    private long parseScaledLong(CharSequence text, int targetScale) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return NOT_FAST;
+        }
+        boolean negative = false;
+        char first = text.charAt(start);
+        if (first == '+' || first == '-') {
+            negative = first == '-';
+            start++;
+        }
+        long unscaled = 0;
+        int significantDigits = 0;
+        int keptFractionDigits = 0;
+        int droppedDigits = 0;
+        int firstDropped = 0;
+        boolean sticky = false;
+        boolean seenDot = false;
+        boolean seenDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (seenDot) {
+                    return NOT_FAST;
+                }
+                seenDot = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return NOT_FAST;
+            }
+            seenDigit = true;
+            int digit = c - '0';
+            if (seenDot && keptFractionDigits == targetScale) {
+                // 超出目标小数位数的部分只记录舍入所需的信息
+                if (droppedDigits++ == 0) {
+                    firstDropped = digit;
+                } else {
+                    sticky |= digit != 0;
+                }
+                continue;
+            }
+            if (unscaled != 0 || digit != 0) {
+                if (++significantDigits > MAX_FAST_DIGITS) {
+                    return NOT_FAST;
+                }
+            }
+            unscaled = unscaled * 10 + digit;
+            if (seenDot) {
+                keptFractionDigits++;
+            }
+        }
+        if (!seenDigit) {
+            return NOT_FAST;
+        }
+        int missing = targetScale - keptFractionDigits;
+        if (missing > 0) {
+            if (significantDigits > 0 && significantDigits + missing > MAX_FAST_DIGITS) {
+                return NOT_FAST;
+            }
+            unscaled *= POW10[missing];
+        }
+        if (firstDropped != 0 || sticky) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                // 需要舍入时交由BigDecimal处理,与setScale的行为保持一致
+                return NOT_FAST;
+            }
+            if (roundUp(negative, unscaled, firstDropped, sticky)) {
+                unscaled++;
+                if (unscaled >= POW10[MAX_FAST_DIGITS]) {
+                    return NOT_FAST;
+                }
+            }
+        }
+        return negative ? -unscaled : unscaled;
+    }
+
+    /**
+     * 将未缩放值从原小数位数调整到目标小数位数
+     * 需要舍弃小数位时按配置的舍入模式进行舍入
+     *
+     * @param unscaled    未缩放值,绝对值小于10^18
+     * @param fromScale   原小数位数
+     * @param targetScale 目标小数位数
+     * @return 调整后的未缩放值,超出快速路径范围时返回NOT_FAST
+     */
+    private long rescale(long unscaled, int fromScale, int targetScale) {
+        if (fromScale <= targetScale) {
+            int shift = targetScale - fromScale;
+            if (shift > MAX_FAST_DIGITS) {
+                return unscaled == 0 ? 0 : NOT_FAST;
+            }
+            long limit = POW10[MAX_FAST_DIGITS - shift];
+            if (unscaled >= limit || unscaled <= -limit) {
+                return NOT_FAST;
+            }
+            return unscaled * POW10[shift];
+        }
+        int drop = fromScale - targetScale;
+        if (drop > MAX_FAST_DIGITS) {
+            return NOT_FAST;
+        }
+        boolean negative = unscaled < 0;
+        long abs = Math.abs(unscaled);
+        long kept = abs / POW10[drop];
+        long remainder = abs % POW10[drop];
+        if (remainder != 0) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                return NOT_FAST;
+            }
+            int firstDropped = (int) (remainder / POW10[drop - 1]);
+            boolean sticky = remainder % POW10[drop - 1] != 0;
+            if (roundUp(negative, kept, firstDropped, sticky)) {
+                kept++;
+            }
+        }
+        return negative ? -kept : kept;
+    }
+
+    /**
+     * 根据舍入模式判断是否需要进位
+     *
+     * @param negative 数值是否为负数
+     * @param kept     保留部分的绝对值
+     * @param dropped  第一个被舍弃的数字
+     * @param sticky   第一个被舍弃的数字之后是否还有非0数字
+     * @return 是否需要在保留部分的绝对值上加1
+     */
+    private boolean roundUp(boolean negative, long kept, int dropped, boolean sticky) {
+        return switch (roundingMode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> !negative;
+            case FLOOR -> negative;
+            case HALF_UP -> dropped >= 5;
+            case HALF_DOWN -> dropped > 5 || (dropped == 5 && sticky);
+            case HALF_EVEN -> dropped > 5 || (dropped == 5 && (sticky || (kept & 1) == 1));
+            case UNNECESSARY -> false;
+        };
+    }
+
+    /**
+     * 配置精确小数比较器
+     * 弹出对话框让用户配置:
+     * 1. 小数位数(负数表示按数值精确比较)
+     * 2. 舍入模式
+     *
+     * @param primaryStage 父窗口
+     */
+    @Override
+    public void config(Window primaryStage) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("精确小数比较器配置");
+        dialog.setHeaderText("请配置精确小数比较规则");
+        dialog.initOwner(primaryStage);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField scaleField = new TextField(String.valueOf(scale));
+        grid.add(new Label("小数位数(负数表示精确比较):"), 0, 0);
+        grid.add(scaleField, 1, 0);
+
+        ComboBox<RoundingMode> roundingModeCombo = new ComboBox<>(FXCollections.observableArrayList(
+                RoundingMode.HALF_UP, RoundingMode.HALF_EVEN, RoundingMode.HALF_DOWN,
+                RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR));
+        roundingModeCombo.setValue(roundingMode);
+        grid.add(new Label("舍入模式:"), 0, 1);
+        grid.add(roundingModeCombo, 1, 1);
+
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        // 小数位数不是整数时提示并保持对话框打开,不修改原有配置
+        dialog.getDialogPane().lookupButton(ButtonType.OK)
+                .addEventFilter(ActionEvent.ACTION, event -> {
+                    String input = scaleField.getText().trim();
+                    try {
+                        Integer.valueOf(input);
+                    } catch (NumberFormatException e) {
+                        event.consume();
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("输入错误");
+                        alert.setHeaderText("请输入有效的整数");
+                        alert.setContentText("您输入的 \"" + input + "\" 不是有效的整数值");
+                        alert.initOwner(primaryStage);
+                        alert.showAndWait();
+                    }
+                });
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            scale = Integer.parseInt(scaleField.getText().trim());
+            if (roundingModeCombo.getValue() != null) {
+                roundingMode = roundingModeCombo.getValue();
+            }
+        }
+    }
+
+    /**
+     * 导出数据比较器配置
+     * 将当前比较器的配置转换为JSON字符串
+     * 例如：{"roundingMode":"HALF_UP","scale":2}
+     *
+     * @return 包含比较器配置的JSON字符串
+     */
+    @Override
+    public String exportComparator() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 导入数据比较器配置
+     * 从JSON字符串中恢复比较器的配置
+     * 输入为空或解析失败时恢复为默认配置
+     *
+     * @param exportValueString 包含比较器配置的JSON字符串
+     */
+    @Override
+    public void importComparator(String exportValueString) {
+        scale = -1;
+        roundingMode = RoundingMode.HALF_UP;
+        if (exportValueString == null || exportValueString.isBlank()) {
+            return;
+        }
+        try {
+            DecimalDataComparator comparator = JSON.parseObject(exportValueString, DecimalDataComparator.class);
+            if (comparator != null) {
+                scale = comparator.scale;
+                roundingMode = comparator.roundingMode == null ? RoundingMode.HALF_UP : comparator.roundingMode;
+            }
+        } catch (Exception e) {
+            // 保持默认配置
+        }
+    }
+
+    /**
+     * 获取小数位数
+     *
+     * @return 小数位数,负数表示按数值精确比较
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * 设置小数位数
+     *
+     * @param scale 小数位数,负数表示按数值精确比较
+     */
+    public void setScale(int scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * 获取舍入模式
+     *
+     * @return 舍入模式
+     */
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * 设置舍入模式
+     *
+     * @param roundingMode 舍入模式
+     */
+    public void setRoundingMode(RoundingMode roundingMode) {
+        this.roundingMode = roundingMode;
+    }
+
+    /**
+     * 获取比较器的描述信息
+     * 描述格式:
+     * - 基础描述: "精确小数比较器"
+     * - 如果设置了非负小数位数,追加: "，保留X位(舍入模式)"
+     *
+     * @return 描述字符串
+     */
+    @Override
+    public String getDescription() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("精确小数比较器");
+        if (scale >= 0) {
+            stringBuilder.append("，保留").append(scale).append("位(").append(roundingMode).append(")");
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,448 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import com.alibaba.fastjson2.JSON;
+import com.tangyujun.datashadow.datacomparator.DataComparator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorGenerator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorRegistry;
+import com.tangyujun.datashadow.utils.EditDistance;
+
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Window;
+
+/**
+ * 模糊字符串数据比较器
+ * 按编辑距离判断两个字符串是否近似相等
+ * 支持配置:
+ * 1. 最大编辑距离,或最小相似度(1 - 编辑距离 / 较长字符串长度)
+ * 2. 是否忽略大小写
+ * 3. 是否规范化空白(去除首尾空白并将连续空白视为一个空格)
+ * 4. 是否将全角字符视为对应的半角字符
+ * 5. 是否将null和空字符串视为相等
+ *
+ * 使用场景:
+ * 1. 人工录入的名称、地址等存在少量错别字
+ * 2. 不同系统间存在全半角、空白差异的文本
+ *
+ * 编辑距离计算使用位并行算法,超过阈值后立即结束,详见{@link EditDistance}
+ */
+public class FuzzyStringDataComparator implements DataComparator {
+
+    /**
+     * 生成模糊字符串数据比较器
+     * 注册为系统内置比较器,显示名称为"模糊字符串"
+     * 默认配置:
+     * - 最大编辑距离为1
+     * - 不忽略大小写
+     * - 规范化空白
+     * - 不处理全半角
+     * - 将null和空字符串视为相等
+     *
+     * @return 模糊字符串数据比较器生成器
+     */
+    @DataComparatorRegistry(friendlyName = "模糊字符串", group = "内置")
+    public static DataComparatorGenerator generator() {
+        return FuzzyStringDataComparator::new;
+    }
+
+    /**
+     * 最大编辑距离
+     * 当minSimilarity未启用时生效
+     */
+    private int maxDistance = 1;
+
+    /**
+     * 最小相似度,取值范围(0, 1]
+     * 大于0时启用,按较长字符串的长度换算为允许的最大编辑距离
+     * 小于等于0时使用maxDistance
+     */
+    private double minSimilarity = 0;
+
+    /**
+     * 是否忽略大小写进行比较
+     */
+    private boolean ignoreCase = false;
+
+    /**
+     * 是否规范化空白
+     * true: 去除首尾空白,连续空白视为一个空格
+     */
+    private boolean normalizeWhitespace = true;
+
+    /**
+     * 是否将全角字符视为对应的半角字符
+     * 如"ＡＢＣ１２３"与"ABC123"视为相同
+     */
+    private boolean normalizeWidth = false;
+
+    /**
+     * 是否将null和空字符串视为相等
+     */
+    private boolean nullEqualsEmpty = true;
+
+    /**
+     * 默认构造函数
+     * 创建最大编辑距离为1的模糊字符串比较器
+     */
+    public FuzzyStringDataComparator() {
+    }
+
+    /**
+     * 构造函数
+     * 创建指定最大编辑距离的模糊字符串比较器
+     *
+     * @param maxDistance 最大编辑距离
+     */
+    public FuzzyStringDataComparator(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * 比较两个对象是否近似相等
+     * 比较规则:
+     * 1. 如果两个对象都为null,返回true
+     * 2. 如果只有一个对象为null,配置了nullEqualsEmpty时检查另一个对象是否为空字符串
+     * 3. 将两个对象转换为字符串并按配置规范化
+     * 4. 规范化后相同直接返回true
+     * 5. 否则计算编辑距离,不超过允许的最大编辑距离时返回true
+     *
+     * @param o1 要比较的第一个对象
+     * @param o2 要比较的第二个对象
+     * @return 两个对象是否近似相等
+     */
+    @Override
+    public boolean equals(Object o1, Object o2) {
+        if (o1 == null && o2 == null) {
+            return true;
+        }
+        if (o1 == null || o2 == null) {
+            if (nullEqualsEmpty) {
+                String s1 = o1 == null ? "" : normalize(o1.toString());
+                String s2 = o2 == null ? "" : normalize(o2.toString());
+                return s1.isEmpty() && s2.isEmpty();
+            }
+            return false;
+        }
+        String s1 = normalize(o1.toString());
+        String s2 = normalize(o2.toString());
+        if (s1.equals(s2)) {
+            return true;
+        }
+        int allowed = allowedDistance(Math.max(s1.length(), s2.length()));
+        if (allowed <= 0) {
+            return false;
+        }
+        return EditDistance.bounded(s1, s2, allowed) <= allowed;
+    }
+
+    /**
+     * 计算允许的最大编辑距离
+     *
+     * @param maxLength 两个字符串中较长者的长度
+     * @return 允许的最大编辑距离
+     */
+    private int allowedDistance(int maxLength) {
+        if (minSimilarity > 0) {
+            // 加上极小值避免0.9 * 10这类浮点误差导致少算1
+            return (int) Math.floor((1 - Math.min(minSimilarity, 1)) * maxLength + 1e-9);
+        }
+        return maxDistance;
+    }
+
+    /**
+     * 按配置规范化字符串
+     * 在一次遍历中完成全半角转换、空白规范化和大小写转换
+     *
+     * @param value 原始字符串
+     * @return 规范化后的字符串
+     */
+    String normalize(String value) {
+        if (!normalizeWhitespace && !normalizeWidth) {
+            return ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (normalizeWidth) {
+                if (c == '　') {
+                    c = ' ';
+                } else if (c >= '！' && c <= '～') {
+                    c = (char) (c - 0xFEE0);
+                }
+            }
+            if (normalizeWhitespace && Character.isWhitespace(c)) {
+                pendingSpace = builder.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                builder.append(' ');
+                pendingSpace = false;
+            }
+            builder.append(c);
+        }
+        String result = builder.toString();
+        return ignoreCase ? result.toLowerCase(Locale.ROOT) : result;
+    }
+
+    /**
+     * 配置比较器
+     * 弹出对话框让用户配置阈值和规范化选项
+     *
+     * @param primaryStage 父窗口
+     */
+    @Override
+    public void config(Window primaryStage) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("模糊字符串比较器配置");
+        dialog.setHeaderText("请配置模糊字符串比较规则");
+        dialog.initOwner(primaryStage);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField maxDistanceField = new TextField(String.valueOf(maxDistance));
+        grid.add(new Label("最大编辑距离:"), 0, 0);
+        grid.add(maxDistanceField, 1, 0);
+
+        TextField minSimilarityField = new TextField(minSimilarity > 0 ? String.valueOf(minSimilarity) : "");
+        minSimilarityField.setPromptText("如0.9,留空表示使用最大编辑距离");
+        grid.add(new Label("最小相似度:"), 0, 1);
+        grid.add(minSimilarityField, 1, 1);
+
+        CheckBox ignoreCaseCheckBox = new CheckBox("忽略大小写");
+        ignoreCaseCheckBox.setSelected(ignoreCase);
+        grid.add(ignoreCaseCheckBox, 0, 2, 2, 1);
+
+        CheckBox normalizeWhitespaceCheckBox = new CheckBox("规范化空白(去除首尾空白,连续空白视为一个)");
+        normalizeWhitespaceCheckBox.setSelected(normalizeWhitespace);
+        grid.add(normalizeWhitespaceCheckBox, 0, 3, 2, 1);
+
+        CheckBox normalizeWidthCheckBox = new CheckBox("全角字符视为半角字符");
+        normalizeWidthCheckBox.setSelected(normalizeWidth);
+        grid.add(normalizeWidthCheckBox, 0, 4, 2, 1);
+
+        CheckBox nullEqualsEmptyCheckBox = new CheckBox("将null和空字符串视为相等");
+        nullEqualsEmptyCheckBox.setSelected(nullEqualsEmpty);
+        grid.add(nullEqualsEmptyCheckBox, 0, 5, 2, 1);
+
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        // 最大编辑距离不是非负整数或最小相似度不在0到1之间时提示并保持对话框打开,不修改原有配置
+        dialog.getDialogPane().lookupButton(ButtonType.OK)
+                .addEventFilter(ActionEvent.ACTION, event -> {
+                    String distance = maxDistanceField.getText().trim();
+                    String similarity = minSimilarityField.getText().trim();
+                    String error = null;
+                    try {
+                        if (Integer.parseInt(distance) < 0) {
+                            error = "最大编辑距离不能为负数";
+                        }
+                    } catch (NumberFormatException e) {
+                        error = "您输入的最大编辑距离 \"" + distance + "\" 不是有效的整数值";
+                    }
+                    if (error == null && !similarity.isEmpty()) {
+                        try {
+                            double value = Double.parseDouble(similarity);
+                            if (!(value >= 0 && value <= 1)) {
+                                error = "最小相似度需要在0到1之间";
+                            }
+                        } catch (NumberFormatException e) {
+                            error = "您输入的最小相似度 \"" + similarity + "\" 不是有效的数值";
+                        }
+                    }
+                    if (error != null) {
+                        event.consume();
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("输入错误");
+                        alert.setHeaderText("请输入有效的阈值");
+                        alert.setContentText(error);
+                        alert.initOwner(primaryStage);
+                        alert.showAndWait();
+                    }
+                });
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            maxDistance = Integer.parseInt(maxDistanceField.getText().trim());
+            String similarity = minSimilarityField.getText().trim();
+            minSimilarity = similarity.isEmpty() ? 0 : Double.parseDouble(similarity);
+            ignoreCase = ignoreCaseCheckBox.isSelected();
+            normalizeWhitespace = normalizeWhitespaceCheckBox.isSelected();
+            normalizeWidth = normalizeWidthCheckBox.isSelected();
+            nullEqualsEmpty = nullEqualsEmptyCheckBox.isSelected();
+        }
+    }
+
+    /**
+     * 导出数据比较器配置
+     * 将当前比较器的配置转换为JSON字符串
+     *
+     * @return 包含比较器配置的JSON字符串
+     */
+    @Override
+    public String exportComparator() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 导入数据比较器配置
+     * 从JSON字符串中恢复比较器的配置
+     * 输入为空或解析失败时保持当前配置
+     *
+     * @param exportValueString 包含比较器配置的JSON字符串
+     */
+    @Override
+    public void importComparator(String exportValueString) {
+        if (exportValueString == null || exportValueString.isBlank()) {
+            return;
+        }
+        try {
+            FuzzyStringDataComparator comparator = JSON.parseObject(exportValueString,
+                    FuzzyStringDataComparator.class);
+            if (comparator != null) {
+                this.maxDistance = comparator.maxDistance;
+                this.minSimilarity = comparator.minSimilarity;
+                this.ignoreCase = comparator.ignoreCase;
+                this.normalizeWhitespace = comparator.normalizeWhitespace;
+                this.normalizeWidth = comparator.normalizeWidth;
+                this.nullEqualsEmpty = comparator.nullEqualsEmpty;
+            }
+        } catch (Exception e) {
+            // 保持当前配置
+        }
+    }
+
+    /**
+     * 获取比较器的描述信息
+     *
+     * @return 比较器描述,包含阈值信息
+     */
+    @Override
+    public String getDescription() {
+        if (minSimilarity > 0) {
+            return "模糊字符串比较器，相似度不低于" + minSimilarity;
+        }
+        return "模糊字符串比较器，编辑距离不超过" + maxDistance;
+    }
+
+    /**
+     * 获取最大编辑距离
+     *
+     * @return 最大编辑距离
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * 设置最大编辑距离
+     *
+     * @param maxDistance 最大编辑距离
+     */
+    public void setMaxDistance(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * 获取最小相似度
+     *
+     * @return 最小相似度,小于等于0表示未启用
+     */
+    public double getMinSimilarity() {
+        return minSimilarity;
+    }
+
+    /**
+     * 设置最小相似度
+     *
+     * @param minSimilarity 最小相似度,小于等于0表示使用最大编辑距离
+     */
+    public void setMinSimilarity(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * 获取是否忽略大小写的配置
+     *
+     * @return true表示忽略大小写
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * 设置是否忽略大小写
+     *
+     * @param ignoreCase true表示忽略大小写
+     */
+    public void setIgnoreCase(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * 获取是否规范化空白的配置
+     *
+     * @return true表示规范化空白
+     */
+    public boolean isNormalizeWhitespace() {
+        return normalizeWhitespace;
+    }
+
+    /**
+     * 设置是否规范化空白
+     *
+     * @param normalizeWhitespace true表示规范化空白
+     */
+    public void setNormalizeWhitespace(boolean normalizeWhitespace) {
+        this.normalizeWhitespace = normalizeWhitespace;
+    }
+
+    /**
+     * 获取是否将全角字符视为半角字符的配置
+     *
+     * @return true表示全角字符视为半角字符
+     */
+    public boolean isNormalizeWidth() {
+        return normalizeWidth;
+    }
+
+    /**
+     * 设置是否将全角字符视为半角字符
+     *
+     * @param normalizeWidth true表示全角字符视为半角字符
+     */
+    public void setNormalizeWidth(boolean normalizeWidth) {
+        this.normalizeWidth = normalizeWidth;
+    }
+
+    /**
+     * 获取是否将null和空字符串视为相等的配置
+     *
+     * @return true表示将null和空字符串视为相等
+     */
+    public boolean isNullEqualsEmpty() {
+        return nullEqualsEmpty;
+    }
+
+    /**
+     * 设置是否将null和空字符串视为相等
+     *
+     * @param nullEqualsEmpty true表示将null和空字符串视为相等
+     */
+    public void setNullEqualsEmpty(boolean nullEqualsEmpty) {
+        this.nullEqualsEmpty = nullEqualsEmpty;
+    }
+}
@@ -1,6 +1,6 @@
 package com.tangyujun.datashadow.datacomparator.defaults;
 
-import com.tangyujun.datashadow.datacomparator.DataComparator;
+import com.tangyujun.datashadow.datacomparator.CanonicalDataComparator;
 import com.tangyujun.datashadow.datacomparator.DataComparatorGenerator;
 import com.tangyujun.datashadow.datacomparator.DataComparatorRegistry;
 
@@ -20,7 +20,7 @@ import javafx.stage.Window;
  * 2. 处理字符串形式的整数比较
  * 3. 处理不同数值类型(如Long、Integer等)的比较
  */
-public class IntegerDataComparator implements DataComparator {
+public class IntegerDataComparator implements CanonicalDataComparator {
 
     /**
      * 生成整数数据比较器
@@ -76,6 +76,29 @@ public class IntegerDataComparator implements DataComparator {
         }
     }
 
+    /**
+     * 获取数据项的规范键
+     * 与equals的比较规则保持一致,规范键为转换后的整数
+     * 无法解析的值返回一个新对象,与任何值都不相等
+     * 
+     * @param value 数据项
+     * @return 规范键
+     */
+    @Override
+    public Object canonicalKey(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return Integer.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return new Object();
+        }
+    }
+
     /**
      * 导出数据比较器配置
      * 由于整数比较器不需要配置,返回空字符串
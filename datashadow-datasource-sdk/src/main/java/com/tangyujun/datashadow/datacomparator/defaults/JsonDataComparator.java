@@ -0,0 +1,582 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONReader;
+import com.tangyujun.datashadow.datacomparator.DataComparator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorGenerator;
+import com.tangyujun.datashadow.datacomparator.DataComparatorRegistry;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Window;
+
+/**
+ * JSON文档比较器
+ * 按结构比较两个JSON文档,忽略字段顺序和空白差异
+ * 支持配置:
+ * 1. 是否忽略数组元素顺序
+ * 2. 数值容差,两个数值之差的绝对值不超过容差时视为相等
+ * 3. 是否将null和空字符串视为相等
+ *
+ * 比较方式:
+ * 1. 使用fastjson2的JSONReader同步流式读取两个文档,不构建完整的文档树
+ * 2. 对象字段顺序一致时逐字段流式比较;出现顺序不一致的字段时,仅将该对象剩余部分读入Map后比较
+ * 3. 忽略数组顺序时,仅将该数组读入内存后按元素匹配
+ * 4. 发现第一个差异后立即结束,并记录差异所在的JSON路径,如$.items[2].price
+ * 5. 无法解析为JSON的值按去除首尾空白后的字符串比较
+ */
+public class JsonDataComparator implements DataComparator {
+
+    /**
+     * 生成JSON文档比较器
+     * 注册为系统内置比较器,显示名称为"JSON文档"
+     * 默认配置:
+     * - 不忽略数组顺序
+     * - 数值精确比较
+     * - 将null和空字符串视为相等
+     *
+     * @return JSON文档比较器生成器
+     */
+    @DataComparatorRegistry(friendlyName = "JSON文档", group = "内置")
+    public static DataComparatorGenerator generator() {
+        return JsonDataComparator::new;
+    }
+
+    /**
+     * 是否忽略数组元素顺序
+     */
+    private boolean ignoreArrayOrder = false;
+
+    /**
+     * 数值容差,0表示精确比较
+     */
+    private double numericTolerance = 0;
+
+    /**
+     * 是否将null和空字符串视为相等
+     */
+    private boolean nullEqualsEmpty = true;
+
+    /**
+     * 默认构造函数
+     */
+    public JsonDataComparator() {
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param ignoreArrayOrder 是否忽略数组元素顺序
+     * @param numericTolerance 数值容差
+     */
+    public JsonDataComparator(boolean ignoreArrayOrder, double numericTolerance) {
+        this.ignoreArrayOrder = ignoreArrayOrder;
+        this.numericTolerance = numericTolerance;
+    }
+
+    /**
+     * 比较两个JSON文档是否结构相等
+     *
+     * @param o1 JSON文档1,可以是JSON字符串或可序列化为JSON的对象
+     * @param o2 JSON文档2,可以是JSON字符串或可序列化为JSON的对象
+     * @return 两个文档是否结构相等
+     */
+    @Override
+    public boolean equals(Object o1, Object o2) {
+        return firstDifference(o1, o2) == null;
+    }
+
+    /**
+     * 描述两个JSON文档之间的差异
+     *
+     * @param o1 JSON文档1
+     * @param o2 JSON文档2
+     * @return 首个差异的JSON路径描述,相等时返回null
+     */
+    @Override
+    public String describeDifference(Object o1, Object o2) {
+        String path = firstDifference(o1, o2);
+        return path == null ? null : "首个差异: " + path;
+    }
+
+    /**
+     * 查找两个JSON文档之间的首个差异
+     *
+     * @param o1 JSON文档1
+     * @param o2 JSON文档2
+     * @return 首个差异的JSON路径,如$.items[2].price;两个文档相等时返回null
+     */
+    public String firstDifference(Object o1, Object o2) {
+        String s1 = toJsonText(o1);
+        String s2 = toJsonText(o2);
+        if (s1 == null || s2 == null) {
+            return Objects.equals(s1, s2) ? null : "$";
+        }
+        if (s1.equals(s2)) {
+            return null;
+        }
+        StringBuilder path = new StringBuilder("$");
+        try (JSONReader r1 = JSONReader.of(s1); JSONReader r2 = JSONReader.of(s2)) {
+            if (!compareStream(r1, r2, path)) {
+                return path.toString();
+            }
+            if (!r1.isEnd() || !r2.isEnd()) {
+                // 值之后还有其他内容(如"12 apples"),整体不是合法的JSON,按字符串比较
+                return s1.trim().equals(s2.trim()) ? null : "$";
+            }
+            return null;
+        } catch (JSONException e) {
+            // 不是合法的JSON,按字符串比较
+            return s1.trim().equals(s2.trim()) ? null : "$";
+        }
+    }
+
+    /**
+     * 将值转换为JSON文本
+     *
+     * @param value 值
+     * @return JSON文本;值为null(或配置了nullEqualsEmpty时为空白字符串)时返回null
+     */
+    private String toJsonText(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value instanceof CharSequence ? value.toString() : JSON.toJSONString(value);
+        if (nullEqualsEmpty && text.isBlank()) {
+            return null;
+        }
+        return text;
+    }
+
+    /**
+     * 流式比较两个读取器当前位置的值
+     * 比较结束后读取器位于该值之后;发现差异时path为差异所在路径,读取器位置不再有意义
+     *
+     * @param r1   读取器1
+     * @param r2   读取器2
+     * @param path 当前JSON路径
+     * @return 是否相等
+     */
+    private boolean compareStream(JSONReader r1, JSONReader r2, StringBuilder path) {
+        if (r1.isObject() && r2.isObject()) {
+            return compareObjectStream(r1, r2, path);
+        }
+        if (r1.isArray() && r2.isArray()) {
+            if (ignoreArrayOrder) {
+                return compareValue(r1.readArray(), r2.readArray(), path);
+            }
+            return compareArrayStream(r1, r2, path);
+        }
+        if (r1.isObject() || r1.isArray() || r2.isObject() || r2.isArray()) {
+            return false;
+        }
+        return compareValue(r1.readAny(), r2.readAny(), path);
+    }
+
+    /**
+     * 流式比较两个JSON对象
+     * 字段顺序一致时逐字段比较,出现不一致时将两个对象的剩余字段读入Map后比较
+     *
+     * @param r1   读取器1,位于对象起始位置
+     * @param r2   读取器2,位于对象起始位置
+     * @param path 当前JSON路径
+     * @return 是否相等
+     */
+    private boolean compareObjectStream(JSONReader r1, JSONReader r2, StringBuilder path) {
+        r1.nextIfObjectStart();
+        r2.nextIfObjectStart();
+        while (true) {
+            boolean end1 = r1.nextIfObjectEnd();
+            boolean end2 = r2.nextIfObjectEnd();
+            if (end1 && end2) {
+                return true;
+            }
+            if (end1 || end2) {
+                appendField(path, (end1 ? r2 : r1).readFieldName());
+                return false;
+            }
+            String name1 = r1.readFieldName();
+            String name2 = r2.readFieldName();
+            if (name1.equals(name2)) {
+                int length = path.length();
+                appendField(path, name1);
+                if (!compareStream(r1, r2, path)) {
+                    return false;
+                }
+                path.setLength(length);
+                continue;
+            }
+            Map<String, Object> rest1 = new LinkedHashMap<>();
+            rest1.put(name1, r1.readAny());
+            readRemainingFields(r1, rest1);
+            Map<String, Object> rest2 = new LinkedHashMap<>();
+            rest2.put(name2, r2.readAny());
+            readRemainingFields(r2, rest2);
+            return compareValue(rest1, rest2, path);
+        }
+    }
+
+    /**
+     * 读取对象的剩余字段
+     *
+     * @param reader 读取器,位于字段名之前或对象结束位置
+     * @param fields 用于存放字段的Map
+     */
+    private static void readRemainingFields(JSONReader reader, Map<String, Object> fields) {
+        while (!reader.nextIfObjectEnd()) {
+            String name = reader.readFieldName();
+            fields.put(name, reader.readAny());
+        }
+    }
+
+    /**
+     * 流式按顺序比较两个JSON数组
+     *
+     * @param r1   读取器1,位于数组起始位置
+     * @param r2   读取器2,位于数组起始位置
+     * @param path 当前JSON路径
+     * @return 是否相等
+     */
+    private boolean compareArrayStream(JSONReader r1, JSONReader r2, StringBuilder path) {
+        r1.nextIfArrayStart();
+        r2.nextIfArrayStart();
+        for (int i = 0;; i++) {
+            boolean end1 = r1.nextIfArrayEnd();
+            boolean end2 = r2.nextIfArrayEnd();
+            if (end1 && end2) {
+                return true;
+            }
+            int length = path.length();
+            path.append('[').append(i).append(']');
+            if (end1 || end2) {
+                return false;
+            }
+            if (!compareStream(r1, r2, path)) {
+                return false;
+            }
+            path.setLength(length);
+        }
+    }
+
+    /**
+     * 比较两个已读入内存的JSON值
+     *
+     * @param v1   值1
+     * @param v2   值2
+     * @param path 当前JSON路径
+     * @return 是否相等
+     */
+    private boolean compareValue(Object v1, Object v2, StringBuilder path) {
+        if (v1 instanceof Map<?, ?> m1 && v2 instanceof Map<?, ?> m2) {
+            return compareMap(m1, m2, path);
+        }
+        if (v1 instanceof List<?> l1 && v2 instanceof List<?> l2) {
+            return ignoreArrayOrder ? compareListIgnoreOrder(l1, l2, path) : compareList(l1, l2, path);
+        }
+        if (v1 instanceof Number n1 && v2 instanceof Number n2) {
+            return compareNumber(n1, n2);
+        }
+        return Objects.equals(v1, v2);
+    }
+
+    /**
+     * 比较两个JSON对象,忽略字段顺序
+     *
+     * @param m1   对象1
+     * @param m2   对象2
+     * @param path 当前JSON路径
+     * @return 是否相等
+     */
+    private boolean compareMap(Map<?, ?> m1, Map<?, ?> m2, StringBuilder path) {
+        int length = path.length();
+        for (Map.Entry<?, ?> entry : m1.entrySet()) {
+            appendField(path, String.valueOf(entry.getKey()));
+            if (!m2.containsKey(entry.getKey()) || !compareValue(entry.getValue(), m2.get(entry.getKey()), path)) {
+                return false;
+            }
+            path.setLength(length);
+        }
+        for (Object key : m2.keySet()) {
+            if (!m1.containsKey(key)) {
+                appendField(path, String.valueOf(key));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按顺序比较两个JSON数组
+     *
+     * @param l1   数组1
+     * @param l2   数组2
+     * @param path 当前JSON路径
+     * @return 是否相等
+     */
+    private boolean compareList(List<?> l1, List<?> l2, StringBuilder path) {
+        int length = path.length();
+        for (int i = 0; i < Math.max(l1.size(), l2.size()); i++) {
+            path.append('[').append(i).append(']');
+            if (i >= l1.size() || i >= l2.size() || !compareValue(l1.get(i), l2.get(i), path)) {
+                return false;
+            }
+            path.setLength(length);
+        }
+        return true;
+    }
+
+    /**
+     * 忽略顺序比较两个JSON数组
+     * 为数组1的每个元素在数组2中查找一个尚未匹配的相等元素
+     * 差异路径指向数组1中第一个无法匹配的元素
+     *
+     * @param l1   数组1
+     * @param l2   数组2
+     * @param path 当前JSON路径
+     * @return 是否相等
+     */
+    private boolean compareListIgnoreOrder(List<?> l1, List<?> l2, StringBuilder path) {
+        if (l1.size() != l2.size()) {
+            return false;
+        }
+        int length = path.length();
+        List<Object> remaining = new ArrayList<>(l2);
+        for (int i = 0; i < l1.size(); i++) {
+            boolean matched = false;
+            for (int j = 0; j < remaining.size(); j++) {
+                if (compareValue(l1.get(i), remaining.get(j), path)) {
+                    remaining.remove(j);
+                    matched = true;
+                    break;
+                }
+                path.setLength(length);
+            }
+            if (!matched) {
+                path.append('[').append(i).append(']');
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 比较两个数值
+     *
+     * @param n1 数值1
+     * @param n2 数值2
+     * @return 数值之差的绝对值不超过容差时返回true
+     */
+    private boolean compareNumber(Number n1, Number n2) {
+        BigDecimal d1 = toBigDecimal(n1);
+        BigDecimal d2 = toBigDecimal(n2);
+        if (d1 == null || d2 == null) {
+            return n1.equals(n2);
+        }
+        if (numericTolerance <= 0) {
+            return d1.compareTo(d2) == 0;
+        }
+        return d1.subtract(d2).abs().compareTo(BigDecimal.valueOf(numericTolerance)) <= 0;
+    }
+
+    /**
+     * 将数值转换为BigDecimal
+     *
+     * @param number 数值
+     * @return 转换后的BigDecimal,NaN或无穷大时返回null
+     */
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            return Double.isFinite(d) ? BigDecimal.valueOf(d) : null;
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    /**
+     * 在路径后追加字段名
+     * 普通字段名使用点号形式,包含特殊字符的字段名使用['name']形式
+     *
+     * @param path 当前JSON路径
+     * @param name 字段名
+     */
+    private static void appendField(StringBuilder path, String name) {
+        boolean plain = !name.isEmpty();
+        for (int i = 0; i < name.length() && plain; i++) {
+            char c = name.charAt(i);
+            plain = Character.isLetterOrDigit(c) || c == '_' || c == '$';
+        }
+        if (plain) {
+            path.append('.').append(name);
+        } else {
+            path.append("['").append(name.replace("'", "\\'")).append("']");
+        }
+    }
+
+    /**
+     * 配置比较器
+     * 弹出对话框让用户配置数组顺序、数值容差和空值处理
+     *
+     * @param primaryStage 父窗口
+     */
+    @Override
+    public void config(Window primaryStage) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("JSON文档比较器配置");
+        dialog.setHeaderText("请配置JSON文档比较规则");
+        dialog.initOwner(primaryStage);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField toleranceField = new TextField(String.valueOf(numericTolerance));
+        grid.add(new Label("数值容差(0表示精确比较):"), 0, 0);
+        grid.add(toleranceField, 1, 0);
+
+        CheckBox ignoreArrayOrderCheckBox = new CheckBox("忽略数组元素顺序");
+        ignoreArrayOrderCheckBox.setSelected(ignoreArrayOrder);
+        grid.add(ignoreArrayOrderCheckBox, 0, 1, 2, 1);
+
+        CheckBox nullEqualsEmptyCheckBox = new CheckBox("将null和空字符串视为相等");
+        nullEqualsEmptyCheckBox.setSelected(nullEqualsEmpty);
+        grid.add(nullEqualsEmptyCheckBox, 0, 2, 2, 1);
+
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            try {
+                numericTolerance = Math.max(0, Double.parseDouble(toleranceField.getText().trim()));
+            } catch (NumberFormatException e) {
+                numericTolerance = 0;
+            }
+            ignoreArrayOrder = ignoreArrayOrderCheckBox.isSelected();
+            nullEqualsEmpty = nullEqualsEmptyCheckBox.isSelected();
+        }
+    }
+
+    /**
+     * 导出数据比较器配置
+     * 将当前比较器的配置转换为JSON字符串
+     *
+     * @return 包含比较器配置的JSON字符串
+     */
+    @Override
+    public String exportComparator() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * 导入数据比较器配置
+     * 从JSON字符串中恢复比较器的配置
+     * 输入为空或解析失败时保持当前配置
+     *
+     * @param exportValueString 包含比较器配置的JSON字符串
+     */
+    @Override
+    public void importComparator(String exportValueString) {
+        if (exportValueString == null || exportValueString.isBlank()) {
+            return;
+        }
+        try {
+            JsonDataComparator comparator = JSON.parseObject(exportValueString, JsonDataComparator.class);
+            if (comparator != null) {
+                this.ignoreArrayOrder = comparator.ignoreArrayOrder;
+                this.numericTolerance = comparator.numericTolerance;
+                this.nullEqualsEmpty = comparator.nullEqualsEmpty;
+            }
+        } catch (Exception e) {
+            // 保持当前配置
+        }
+    }
+
+    /**
+     * 获取比较器的描述信息
+     *
+     * @return 比较器描述
+     */
+    @Override
+    public String getDescription() {
+        StringBuilder description = new StringBuilder("JSON文档比较器");
+        if (ignoreArrayOrder) {
+            description.append("，忽略数组顺序");
+        }
+        if (numericTolerance > 0) {
+            description.append("，数值容差").append(numericTolerance);
+        }
+        return description.toString();
+    }
+
+    /**
+     * 获取是否忽略数组元素顺序的配置
+     *
+     * @return true表示忽略数组元素顺序
+     */
+    public boolean isIgnoreArrayOrder() {
+        return ignoreArrayOrder;
+    }
+
+    /**
+     * 设置是否忽略数组元素顺序
+     *
+     * @param ignoreArrayOrder true表示忽略数组元素顺序
+     */
+    public void setIgnoreArrayOrder(boolean ignoreArrayOrder) {
+        this.ignoreArrayOrder = ignoreArrayOrder;
+    }
+
+    /**
+     * 获取数值容差
+     *
+     * @return 数值容差,0表示精确比较
+     */
+    public double getNumericTolerance() {
+        return numericTolerance;
+    }
+
+    /**
+     * 设置数值容差
+     *
+     * @param numericTolerance 数值容差,0表示精确比较
+     */
+    public void setNumericTolerance(double numericTolerance) {
+        this.numericTolerance = numericTolerance;
+    }
+
+    /**
+     * 获取是否将null和空字符串视为相等的配置
+     *
+     * @return true表示将null和空字符串视为相等
+     */
+    public boolean isNullEqualsEmpty() {
+        return nullEqualsEmpty;
+    }
+
+    /**
+     * 设置是否将null和空字符串视为相等
+     *
+     * @param nullEqualsEmpty true表示将null和空字符串视为相等
+     */
+    public void setNullEqualsEmpty(boolean nullEqualsEmpty) {
+        this.nullEqualsEmpty = nullEqualsEmpty;
+    }
+}
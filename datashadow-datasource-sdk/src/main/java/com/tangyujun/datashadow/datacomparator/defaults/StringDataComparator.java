@@ -1,11 +1,13 @@
 package com.tangyujun.datashadow.datacomparator.defaults;
 
+import java.util.Objects;
 import java.util.Optional;
 
 import com.alibaba.fastjson2.JSON;
-import com.tangyujun.datashadow.datacomparator.DataComparator;
+import com.tangyujun.datashadow.datacomparator.CanonicalDataComparator;
 import com.tangyujun.datashadow.datacomparator.DataComparatorGenerator;
 import com.tangyujun.datashadow.datacomparator.DataComparatorRegistry;
+import com.tangyujun.datashadow.datasource.db.LobDigest;
 
 import javafx.geometry.Insets;
 import javafx.scene.control.ButtonType;
@@ -25,8 +27,12 @@ import javafx.stage.Window;
  * 1. 需要比较字符串是否相等
  * 2. 需要忽略大小写比较字符串
  * 3. 需要特殊处理null和空字符串的场景
+ *
+ * 大字段:
+ * 数据库大字段读取为摘要(LobDigest)时按摘要比较,另一侧为超过LobDigest.INLINE_LENGTH个字符的普通文本时
+ * 先按相同方式计算摘要,忽略大小写时使用忽略大小写后的摘要
  */
-public class StringDataComparator implements DataComparator {
+public class StringDataComparator implements CanonicalDataComparator {
 
     /**
      * 生成字符串数据比较器
@@ -85,7 +91,8 @@ public class StringDataComparator implements DataComparator {
      * 2. 如果只有一个对象为null:
      * - 如果配置了nullEqualsEmpty,则检查另一个对象是否为空字符串
      * - 否则返回false
-     * 3. 将两个对象转换为字符串后比较:
+     * 3. 任一对象为大字段摘要时按摘要比较,详见lobKey
+     * 4. 将两个对象转换为字符串后比较:
      * - 如果配置了ignoreCase,使用equalsIgnoreCase比较
      * - 否则使用equals比较
      * 
@@ -106,11 +113,79 @@ public class StringDataComparator implements DataComparator {
             }
             return false;
         }
+        if (o1 instanceof LobDigest || o2 instanceof LobDigest) {
+            return Objects.equals(lobKey(o1), lobKey(o2));
+        }
         String s1 = o1.toString();
         String s2 = o2.toString();
         return ignoreCase ? s1.equalsIgnoreCase(s2) : s1.equals(s2);
     }
 
+    /**
+     * 获取按摘要比较时使用的键
+     * 大字段摘要和超过LobDigest.INLINE_LENGTH个字符的文本转换为摘要键,配置了ignoreCase时取忽略大小写后的摘要;
+     * 较短的文本不可能与大字段相等,原样返回
+     *
+     * @param value 非null的数据项
+     * @return 摘要键或文本
+     */
+    private Object lobKey(Object value) {
+        LobDigest lob;
+        if (value instanceof LobDigest digest) {
+            lob = digest;
+        } else {
+            String s = value.toString();
+            if (s.length() <= LobDigest.INLINE_LENGTH) {
+                return s;
+            }
+            lob = LobDigest.ofText(s);
+        }
+        return new LobKey(lob.isBinary(), lob.getLength(),
+                ignoreCase && !lob.isBinary() ? lob.getFoldedDigest() : lob.getDigest());
+    }
+
+    /**
+     * 大字段的摘要键
+     *
+     * @param binary 是否为二进制大字段
+     * @param length 内容长度
+     * @param digest 摘要
+     */
+    private record LobKey(boolean binary, long length, String digest) {
+    }
+
+    /**
+     * 获取数据项的规范键
+     * 与equals的比较规则保持一致:
+     * 1. 配置了nullEqualsEmpty时null的规范键为空字符串,否则为null
+     * 2. 配置了ignoreCase时逐字符先转大写再转小写,与equalsIgnoreCase的规则一致
+     * 3. 大字段摘要和超过LobDigest.INLINE_LENGTH个字符的文本为摘要键,与按摘要比较的规则一致
+     * 
+     * @param value 数据项
+     * @return 规范键
+     */
+    @Override
+    public Object canonicalKey(Object value) {
+        if (value == null) {
+            return nullEqualsEmpty ? "" : null;
+        }
+        if (value instanceof LobDigest) {
+            return lobKey(value);
+        }
+        String s = value.toString();
+        if (s.length() > LobDigest.INLINE_LENGTH) {
+            return lobKey(s);
+        }
+        if (!ignoreCase) {
+            return s;
+        }
+        char[] chars = new char[s.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+        }
+        return new String(chars);
+    }
+
     /**
      * 导出数据比较器配置
      * 将当前比较器的配置转换为JSON字符串
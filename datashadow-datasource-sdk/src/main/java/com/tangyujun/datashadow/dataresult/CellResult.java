@@ -9,6 +9,7 @@ import com.tangyujun.datashadow.dataitem.DataItem;
  * 1. 主数据源的值
  * 2. 影子数据源的值
  * 3. 是否存在差异的标志
+ * 4. 差异详情(由比较器提供,可能为空)
  */
 public class CellResult {
     /**
@@ -26,6 +27,12 @@ public class CellResult {
      */
     private boolean isDifferent;
 
+    /**
+     * 差异详情
+     * 由比较器的describeDifference提供,如JSON文档中首个差异的路径
+     */
+    private String differenceDetail;
+
     /**
      * 获取主数据源的值
      * 
@@ -80,6 +87,24 @@ public class CellResult {
         isDifferent = different;
     }
 
+    /**
+     * 获取差异详情
+     * 
+     * @return 差异详情,没有差异或比较器未提供时返回null
+     */
+    public String getDifferenceDetail() {
+        return differenceDetail;
+    }
+
+    /**
+     * 设置差异详情
+     * 
+     * @param differenceDetail 差异详情
+     */
+    public void setDifferenceDetail(String differenceDetail) {
+        this.differenceDetail = differenceDetail;
+    }
+
     /**
      * 创建单元格结果
      * 
@@ -104,6 +129,9 @@ public class CellResult {
                     !item.getComparator().equals(primaryValue, shadowValue));
         } else if (item.getComparator() != null) {
             cellResult.setDifferent(!item.getComparator().equals(primaryValue, shadowValue));
+            if (cellResult.isDifferent()) {
+                cellResult.setDifferenceDetail(item.getComparator().describeDifference(primaryValue, shadowValue));
+            }
         } else {
             cellResult.setDifferent(false);
         }
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.alibaba.fastjson2.annotation.JSONField;
 import com.tangyujun.datashadow.exception.DataAccessException;
@@ -39,6 +40,16 @@ public abstract class DataSource implements Serializable {
      */
     private Map<String, String> mappings;
 
+    /**
+     * 列投影,即本次读取实际需要的数据源字段
+     * 由对比引擎在读取前按映射关系设置,读取完成后清除,不随数据源配置保存
+     * 为null时读取全部字段
+     *
+     * 数据源可以据此只读取需要的字段,例如数据库只查询需要的列、文件解析时跳过不需要的字段,
+     * 不支持投影的数据源忽略该设置,照常返回全部字段
+     */
+    private transient Set<String> projection;
+
     /**
      * 验证数据源是否有效
      * 子类需要实现具体的验证逻辑
@@ -68,6 +79,20 @@ public abstract class DataSource implements Serializable {
     @JSONField(serialize = false)
     public abstract List<Map<String, Object>> acquireValues() throws DataAccessException;
 
+    /**
+     * 打开数据行游标,逐行读取数据集
+     * 默认实现先通过acquireValues()读取全部数据再逐行返回
+     *
+     * 支持流式读取的数据源(如数据库)应重写此方法,
+     * 使调用方可以边读边处理,不必在内存中同时保留全部原始数据
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当数据访问出错时抛出此异常
+     */
+    public RowCursor openCursor() throws DataAccessException {
+        return RowCursor.of(acquireValues());
+    }
+
     /**
      * 获取数据集的列名
      * 
@@ -182,6 +207,36 @@ public abstract class DataSource implements Serializable {
         this.mappings = mappings;
     }
 
+    /**
+     * 获取列投影
+     *
+     * @return 本次读取需要的数据源字段,为null时读取全部字段
+     */
+    @JSONField(serialize = false)
+    public Set<String> getProjection() {
+        return projection;
+    }
+
+    /**
+     * 设置列投影
+     * 读取结果中至少包含投影中存在的字段,是否省略其他字段由数据源决定
+     *
+     * @param projection 本次读取需要的数据源字段,为null时读取全部字段
+     */
+    public void setProjection(Set<String> projection) {
+        this.projection = projection == null ? null : Set.copyOf(projection);
+    }
+
+    /**
+     * 判断字段是否需要读取
+     *
+     * @param field 数据源字段名
+     * @return 未设置列投影或字段在投影中时返回true
+     */
+    protected boolean isProjected(String field) {
+        return projection == null || projection.contains(field);
+    }
+
     /**
      * 判断两个数据源对象是否相等
      * 
@@ -0,0 +1,138 @@
+package com.tangyujun.datashadow.datasource;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 按位置存储的数据行
+ * 以Map形式对外提供数据,内部只保存值数组,列名和位置由共享的RowSchema提供
+ * 相比每行一个HashMap,不需要为每个单元格创建哈希节点,适合数据库等列结构固定的大结果集
+ *
+ * 说明:
+ * 1. 可以修改已有列的值,不能新增或删除列
+ * 2. equals和hashCode遵循Map约定,可以与其他Map实现比较
+ * 3. 列名重复时只保留最后一列,与HashMap的行为一致
+ */
+public class IndexedRow extends AbstractMap<String, Object> {
+
+    /**
+     * 数据行结构
+     */
+    private final RowSchema schema;
+
+    /**
+     * 各列的值,按列顺序
+     */
+    private final Object[] values;
+
+    /**
+     * 构造数据行
+     *
+     * @param schema 数据行结构
+     * @param values 各列的值,长度需与列数一致
+     */
+    public IndexedRow(RowSchema schema, Object[] values) {
+        if (values.length != schema.size()) {
+            throw new IllegalArgumentException("值数量" + values.length + "与列数" + schema.size() + "不一致");
+        }
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * 获取指定位置的值
+     *
+     * @param position 列位置,从0开始
+     * @return 列值
+     */
+    public Object get(int position) {
+        return values[position];
+    }
+
+    /**
+     * 获取数据行结构
+     *
+     * @return 数据行结构
+     */
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int position = schema.indexOf(key);
+        return position < 0 ? null : values[position];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return schema.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int position = schema.indexOf(key);
+        if (position < 0) {
+            throw new UnsupportedOperationException("数据行不包含列: " + key);
+        }
+        Object old = values[position];
+        values[position] = value;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return schema.keyCount();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        int position = from;
+                        while (position < values.length && !schema.isKeyPosition(position)) {
+                            position++;
+                        }
+                        return position;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int position = next;
+                        next = advance(position + 1);
+                        return new SimpleEntry<>(schema.getColumn(position), values[position]) {
+                            @Override
+                            public Object setValue(Object value) {
+                                values[position] = value;
+                                return super.setValue(value);
+                            }
+                        };
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return IndexedRow.this.size();
+            }
+        };
+    }
+}
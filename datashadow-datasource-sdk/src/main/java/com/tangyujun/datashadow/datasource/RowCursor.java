@@ -0,0 +1,93 @@
+package com.tangyujun.datashadow.datasource;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 数据行游标
+ * 按顺序逐行读取数据源中的数据,读取过的数据行不再由游标持有
+ * 数据库等数据源可以基于游标边读边处理,内存占用只与单批读取的行数有关,而不是整个结果集
+ *
+ * 使用方式:
+ * <pre>
+ * try (RowCursor cursor = dataSource.openCursor()) {
+ *     while (cursor.next()) {
+ *         Map&lt;String, Object&gt; row = cursor.current();
+ *     }
+ * }
+ * </pre>
+ */
+public interface RowCursor extends AutoCloseable {
+
+    /**
+     * 移动到下一行
+     *
+     * @return 存在下一行时返回true,读取完毕时返回false
+     * @throws DataAccessException 读取数据出错时抛出
+     */
+    boolean next() throws DataAccessException;
+
+    /**
+     * 获取当前行
+     * 每次调用next()后返回新的Map,调用方可以直接持有
+     *
+     * @return 当前行数据,key为字段名,value为字段值
+     */
+    Map<String, Object> current();
+
+    /**
+     * 获取列名
+     *
+     * @return 列名列表
+     */
+    List<String> getColumns();
+
+    /**
+     * 关闭游标,释放底层资源
+     *
+     * @throws DataAccessException 关闭资源出错时抛出
+     */
+    @Override
+    void close() throws DataAccessException;
+
+    /**
+     * 基于已读取的数据列表创建游标
+     * 用于未实现流式读取的数据源,列名取自第一行数据
+     *
+     * @param rows 数据列表
+     * @return 数据行游标
+     */
+    static RowCursor of(List<Map<String, Object>> rows) {
+        Iterator<Map<String, Object>> iterator = rows.iterator();
+        List<String> columns = rows.isEmpty() ? List.of() : new ArrayList<>(rows.get(0).keySet());
+        return new RowCursor() {
+
+            private Map<String, Object> current;
+
+            @Override
+            public boolean next() {
+                current = iterator.hasNext() ? iterator.next() : null;
+                return current != null;
+            }
+
+            @Override
+            public Map<String, Object> current() {
+                return current;
+            }
+
+            @Override
+            public List<String> getColumns() {
+                return columns;
+            }
+
+            @Override
+            public void close() {
+                current = null;
+            }
+        };
+    }
+}
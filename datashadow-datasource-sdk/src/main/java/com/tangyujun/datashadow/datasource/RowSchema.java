@@ -0,0 +1,96 @@
+package com.tangyujun.datashadow.datasource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据行结构
+ * 记录列名及其位置,同一结果集的所有IndexedRow共享一个实例,
+ * 按列名取值时通过此处的索引定位,每行不再单独保存列名
+ */
+public final class RowSchema {
+
+    /**
+     * 列名,按列顺序
+     */
+    private final String[] columns;
+
+    /**
+     * 列名到位置的索引
+     */
+    private final Map<String, Integer> index;
+
+    /**
+     * 构造数据行结构
+     * 列名重复时按最后一次出现的位置取值,与逐列写入HashMap的行为一致
+     *
+     * @param columns 列名,按列顺序
+     */
+    public RowSchema(String[] columns) {
+        this.columns = columns.clone();
+        this.index = HashMap.newHashMap(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            index.put(columns[i], i);
+        }
+    }
+
+    /**
+     * 判断指定位置的列是否为该列名实际取值的位置
+     * 列名重复时只有最后一次出现的位置返回true
+     *
+     * @param position 列位置,从0开始
+     * @return 是取值位置时返回true
+     */
+    public boolean isKeyPosition(int position) {
+        return index.get(columns[position]) == position;
+    }
+
+    /**
+     * 获取不重复的列名数量
+     *
+     * @return 不重复的列名数量
+     */
+    public int keyCount() {
+        return index.size();
+    }
+
+    /**
+     * 获取列所在位置
+     *
+     * @param column 列名
+     * @return 列位置,从0开始;列不存在时返回-1
+     */
+    public int indexOf(Object column) {
+        Integer position = index.get(column);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * 获取指定位置的列名
+     *
+     * @param position 列位置,从0开始
+     * @return 列名
+     */
+    public String getColumn(int position) {
+        return columns[position];
+    }
+
+    /**
+     * 获取列数
+     *
+     * @return 列数
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * 获取列名列表
+     *
+     * @return 列名列表
+     */
+    public List<String> getColumns() {
+        return List.of(columns);
+    }
+}
@@ -0,0 +1,94 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 串联数据行游标
+ * 依次执行多个查询,前一个查询读取完毕后再打开下一个,调用方按单个游标逐行读取
+ * 同一时刻只占用一个连接,用于按主键分批查询等场景
+ */
+class ChainedRowCursor implements RowCursor {
+
+    /**
+     * 待执行的查询
+     */
+    private final Iterator<PartitionQuery> queries;
+
+    /**
+     * 列名列表
+     */
+    private final List<String> columns;
+
+    /**
+     * 查询游标的打开方法
+     */
+    private final Function<PartitionQuery, RowCursor> opener;
+
+    /**
+     * 正在读取的游标
+     */
+    private RowCursor cursor;
+
+    /**
+     * 当前行
+     */
+    private Map<String, Object> current;
+
+    /**
+     * 构造串联游标,查询在读取时才依次执行
+     *
+     * @param queries 查询列表
+     * @param columns 列名列表
+     * @param opener  查询游标的打开方法
+     */
+    ChainedRowCursor(List<PartitionQuery> queries, List<String> columns,
+            Function<PartitionQuery, RowCursor> opener) {
+        this.queries = queries.iterator();
+        this.columns = columns;
+        this.opener = opener;
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        while (true) {
+            if (cursor != null && cursor.next()) {
+                current = cursor.current();
+                return true;
+            }
+            if (cursor != null) {
+                cursor.close();
+                cursor = null;
+            }
+            if (!queries.hasNext()) {
+                current = null;
+                return false;
+            }
+            cursor = opener.apply(queries.next());
+        }
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void close() {
+        if (cursor != null) {
+            cursor.close();
+            cursor = null;
+        }
+        current = null;
+    }
+}
@@ -0,0 +1,283 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tangyujun.datashadow.datasource.DataSource;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 校验和下推定位
+ * 主数据源和影子数据源都是同一方言的数据库时,由两侧数据库按主键哈希分桶计算每个分桶的行数和校验和,
+ * 客户端只比较分桶汇总结果,定位出内容不一致的分桶,之后只需读取这些分桶中的数据行做逐行对比
+ *
+ * 定位过程:
+ * 1. 按主键哈希将数据行分为INITIAL_BUCKETS个分桶,两侧分别计算每个分桶的行数和数据行哈希之和
+ * 2. 行数或校验和不同的分桶为不一致分桶
+ * 3. 不一致分桶中的数据行仍然较多时,只在这些分桶内将分桶数扩大REFINE_FACTOR倍重新汇总,逐级缩小范围
+ * 4. 不一致分桶中的数据行足够少、不一致分桶占比过高或分桶数达到上限时停止,返回读取不一致分桶的过滤条件
+ *
+ * 校验和相同的分桶视为一致,其中的数据行不再传输到客户端,
+ * 数据行哈希由方言按文本计算,数据库类型或字符集不同造成的文本差异只会增加需要读取的分桶,不会漏掉差异
+ */
+public final class ChecksumPushdown {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChecksumPushdown.class);
+
+    /**
+     * 初始分桶数
+     */
+    public static final int INITIAL_BUCKETS = 1024;
+
+    /**
+     * 每次细分时分桶数扩大的倍数
+     */
+    public static final int REFINE_FACTOR = 16;
+
+    /**
+     * 不一致分桶中的数据行不超过该数量时停止细分
+     */
+    public static final long LEAF_ROWS = 10_000;
+
+    /**
+     * 分桶数上限
+     */
+    public static final long MAX_BUCKETS = 1L << 28;
+
+    /**
+     * 参与细分的不一致分桶数上限,超过时细分条件过长,直接读取这些分桶
+     */
+    public static final int MAX_REFINE_BUCKETS = 10_000;
+
+    /**
+     * 主数据源一侧
+     */
+    private final Side primary;
+
+    /**
+     * 影子数据源一侧
+     */
+    private final Side shadow;
+
+    /**
+     * 判断两个数据源是否支持校验和下推
+     * 两侧都是数据库数据源,提供相同的数据库方言且方言支持哈希表达式时支持
+     *
+     * @param primary 主数据源
+     * @param shadow  影子数据源
+     * @return 支持时返回true
+     */
+    public static boolean supports(DataSource primary, DataSource shadow) {
+        return DataSourceDb.isSameDialect(primary, shadow) && ((DataSourceDb) primary).getDialect().supportsHash();
+    }
+
+    /**
+     * 构造校验和下推定位
+     * 两侧的主键列和数据列需要按数据项一一对应,顺序相同
+     *
+     * @param primary        主数据源
+     * @param primaryKeys    主数据源的主键列
+     * @param primaryColumns 主数据源参与对比的列
+     * @param shadow         影子数据源
+     * @param shadowKeys     影子数据源的主键列
+     * @param shadowColumns  影子数据源参与对比的列
+     */
+    public ChecksumPushdown(DataSourceDb primary, List<String> primaryKeys, List<String> primaryColumns,
+            DataSourceDb shadow, List<String> shadowKeys, List<String> shadowColumns) {
+        if (!supports(primary, shadow)) {
+            throw new IllegalArgumentException("两个数据源的数据库方言不同,不支持校验和下推");
+        }
+        if (primaryKeys.isEmpty() || primaryKeys.size() != shadowKeys.size()
+                || primaryColumns.size() != shadowColumns.size()) {
+            throw new IllegalArgumentException("两个数据源的主键列和对比列必须一一对应");
+        }
+        this.primary = new Side(primary, primaryKeys, primaryColumns);
+        this.shadow = new Side(shadow, shadowKeys, shadowColumns);
+    }
+
+    /**
+     * 定位两侧内容不一致的分桶
+     *
+     * @return 定位结果,包含两侧读取不一致分桶的过滤条件
+     * @throws DataAccessException 执行汇总查询失败时抛出
+     */
+    public Result locate() throws DataAccessException {
+        long buckets = INITIAL_BUCKETS;
+        Map<Long, Chunk> primaryChunks = aggregate(primary, buckets, null, 0);
+        Map<Long, Chunk> shadowChunks = aggregate(shadow, buckets, null, 0);
+        long primaryRows = countRows(primaryChunks.values());
+        long shadowRows = countRows(shadowChunks.values());
+        int level = 1;
+        while (true) {
+            List<Long> mismatched = mismatched(primaryChunks, shadowChunks);
+            long rows = countRows(mismatched, primaryChunks) + countRows(mismatched, shadowChunks);
+            logger.info("校验和下推第{}级: 分桶数{}, 不一致分桶{}个, 涉及{}行", level, buckets, mismatched.size(), rows);
+            if (mismatched.isEmpty()) {
+                return new Result(QueryFilter.NONE, QueryFilter.NONE, primaryRows, shadowRows, 0, 0);
+            }
+            boolean stop = rows <= LEAF_ROWS
+                    || mismatched.size() > MAX_REFINE_BUCKETS
+                    || buckets * REFINE_FACTOR > MAX_BUCKETS
+                    // 差异分布在大部分分桶中时,细分无法明显减少需要读取的数据行
+                    || mismatched.size() * 2L > primaryChunks.size() + shadowChunks.size();
+            if (stop) {
+                return new Result(
+                        bucketFilter(primary, buckets, mismatched),
+                        bucketFilter(shadow, buckets, mismatched),
+                        primaryRows,
+                        shadowRows,
+                        countRows(mismatched, primaryChunks),
+                        countRows(mismatched, shadowChunks));
+            }
+            long refined = buckets * REFINE_FACTOR;
+            primaryChunks = aggregate(primary, refined, mismatched, buckets);
+            shadowChunks = aggregate(shadow, refined, mismatched, buckets);
+            buckets = refined;
+            level++;
+        }
+    }
+
+    /**
+     * 在数据库中按分桶汇总行数和校验和
+     *
+     * @param side         数据源一侧
+     * @param buckets      分桶数
+     * @param scope        只汇总上一级中的这些分桶,为null时汇总全部数据行
+     * @param scopeBuckets 上一级的分桶数
+     * @return 分桶序号到汇总结果的映射
+     */
+    private Map<Long, Chunk> aggregate(Side side, long buckets, List<Long> scope, long scopeBuckets) {
+        JdbcDialect dialect = side.source().getDialect();
+        String bucket = dialect.bucketExpression(side.keyHash(), buckets);
+        // 别名需要引用,否则PostgreSQL等数据库会将未引用的别名转换为小写,按原样读取时取不到值
+        String select = bucket + " AS " + dialect.quoteIdentifier("CHUNK_NO")
+                + ", COUNT(*) AS " + dialect.quoteIdentifier("CHUNK_ROWS") + ", "
+                + dialect.checksumExpression(side.rowHash()) + " AS " + dialect.quoteIdentifier("CHUNK_SUM");
+        QueryFilter filter = scope == null ? null : bucketFilter(side, scopeBuckets, scope);
+        Map<Long, Chunk> chunks = new HashMap<>();
+        try (RowCursor cursor = side.source().openDerivedCursor(select, filter, "GROUP BY " + bucket)) {
+            while (cursor.next()) {
+                Map<String, Object> row = cursor.current();
+                chunks.put(((Number) row.get("CHUNK_NO")).longValue(), new Chunk(
+                        ((Number) row.get("CHUNK_ROWS")).longValue(),
+                        row.get("CHUNK_SUM") == null ? null : new BigDecimal(row.get("CHUNK_SUM").toString())));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 构建只读取指定分桶的过滤条件
+     * 分桶序号为整数,直接写入条件而不绑定参数,避免超过数据库单条语句的参数个数上限;
+     * 分桶较多时按方言的IN列表上限拆分为多个IN列表,以OR连接
+     *
+     * @param side    数据源一侧
+     * @param buckets 分桶数
+     * @param numbers 分桶序号
+     * @return 过滤条件
+     */
+    private static QueryFilter bucketFilter(Side side, long buckets, List<Long> numbers) {
+        JdbcDialect dialect = side.source().getDialect();
+        String bucket = dialect.bucketExpression(side.keyHash(), buckets);
+        int maxInList = Math.max(1, dialect.maxInListSize());
+        StringBuilder condition = new StringBuilder("(");
+        for (int start = 0; start < numbers.size(); start += maxInList) {
+            int end = Math.min(start + maxInList, numbers.size());
+            if (start > 0) {
+                condition.append(" OR ");
+            }
+            condition.append(bucket).append(" IN (")
+                    .append(numbers.subList(start, end).stream().map(String::valueOf)
+                            .collect(Collectors.joining(", ")))
+                    .append(')');
+        }
+        condition.append(')');
+        return new QueryFilter(condition.toString(), List.of());
+    }
+
+    /**
+     * 找出两侧行数或校验和不同的分桶
+     *
+     * @param primaryChunks 主数据源的分桶汇总
+     * @param shadowChunks  影子数据源的分桶汇总
+     * @return 不一致的分桶序号,按序号排序
+     */
+    private static List<Long> mismatched(Map<Long, Chunk> primaryChunks, Map<Long, Chunk> shadowChunks) {
+        TreeSet<Long> numbers = new TreeSet<>(primaryChunks.keySet());
+        numbers.addAll(shadowChunks.keySet());
+        numbers.removeIf(number -> Objects.equals(primaryChunks.get(number), shadowChunks.get(number)));
+        return new ArrayList<>(numbers);
+    }
+
+    private static long countRows(Iterable<Chunk> chunks) {
+        long rows = 0;
+        for (Chunk chunk : chunks) {
+            rows += chunk.rows();
+        }
+        return rows;
+    }
+
+    private static long countRows(List<Long> numbers, Map<Long, Chunk> chunks) {
+        long rows = 0;
+        for (Long number : numbers) {
+            Chunk chunk = chunks.get(number);
+            rows += chunk == null ? 0 : chunk.rows();
+        }
+        return rows;
+    }
+
+    /**
+     * 参与校验和下推的一侧数据源
+     *
+     * @param source  数据库数据源
+     * @param keyHash 主键哈希表达式
+     * @param rowHash 数据行哈希表达式
+     */
+    private record Side(DataSourceDb source, String keyHash, String rowHash) {
+
+        Side(DataSourceDb source, List<String> keys, List<String> columns) {
+            this(source, hash(source.getDialect(), keys), hash(source.getDialect(), columns));
+        }
+
+        private static String hash(JdbcDialect dialect, List<String> columns) {
+            return dialect.hashExpression(columns.stream().map(dialect::quoteIdentifier).toList());
+        }
+    }
+
+    /**
+     * 分桶汇总结果
+     *
+     * @param rows     行数
+     * @param checksum 校验和,BigDecimal按数值比较,统一去掉末尾的0
+     */
+    private record Chunk(long rows, BigDecimal checksum) {
+
+        Chunk {
+            checksum = checksum == null ? null : checksum.stripTrailingZeros();
+        }
+    }
+
+    /**
+     * 定位结果
+     *
+     * @param primaryFilter  主数据源读取不一致分桶的过滤条件
+     * @param shadowFilter   影子数据源读取不一致分桶的过滤条件
+     * @param primaryRows    主数据源总行数
+     * @param shadowRows     影子数据源总行数
+     * @param primaryFetched 主数据源不一致分桶中的行数,即需要读取的行数
+     * @param shadowFetched  影子数据源不一致分桶中的行数,即需要读取的行数
+     */
+    public record Result(QueryFilter primaryFilter, QueryFilter shadowFilter, long primaryRows, long shadowRows,
+            long primaryFetched, long shadowFetched) {
+    }
+}
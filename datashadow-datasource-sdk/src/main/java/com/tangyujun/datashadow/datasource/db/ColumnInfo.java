@@ -0,0 +1,14 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.io.Serializable;
+
+/**
+ * 数据库查询结果列信息
+ * 由结果集元数据得到,用于字段映射和按类型读取数据
+ *
+ * @param name     列名(列标签,即查询中的别名)
+ * @param jdbcType JDBC类型,取值见java.sql.Types
+ * @param typeName 数据库中的类型名称,如VARCHAR、NUMBER
+ */
+public record ColumnInfo(String name, int jdbcType, String typeName) implements Serializable {
+}
@@ -0,0 +1,382 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.slf4j.LoggerFactory;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool.PoolInitializationException;
+
+/**
+ * 数据库连接池注册中心
+ * 为所有数据库数据源提供共享的连接池,按 连接URL + 用户名 区分
+ * 采用单例模式确保全局唯一实例
+ *
+ * 主要功能:
+ * 1. 同一数据库的校验、获取列名、读取数据等操作复用已建立的连接,避免重复的认证握手
+ * 2. 密码变化时重新创建连接池,旧连接池在借出的连接全部归还后关闭,不影响正在读取的游标
+ * 3. 长时间未使用的连接池自动关闭,释放数据库连接
+ * 4. 应用退出时统一关闭所有连接池
+ *
+ * 驱动加载:
+ * 调用方传入已实例化的JDBC驱动,连接池直接通过驱动创建连接,
+ * 不依赖DriverManager和线程上下文类加载器,插件目录中的驱动同样可用
+ */
+public class ConnectionPoolRegistry {
+
+    /**
+     * 日志记录器
+     */
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ConnectionPoolRegistry.class);
+
+    /**
+     * 单例实例
+     */
+    private static final ConnectionPoolRegistry INSTANCE = new ConnectionPoolRegistry();
+
+    /**
+     * 每个连接池的默认最大连接数
+     */
+    public static final int DEFAULT_MAX_POOL_SIZE = 8;
+
+    /**
+     * 获取连接超时时间(毫秒)
+     */
+    private static final long CONNECTION_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+    /**
+     * 空闲连接的保留时间(毫秒),超过后关闭物理连接
+     */
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * 连接池未被使用的最长时间(毫秒),超过后关闭整个连接池
+     */
+    private static final long POOL_EVICT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * 获取连接池注册中心单例实例
+     *
+     * @return 连接池注册中心实例
+     */
+    public static ConnectionPoolRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 连接池,键为 连接URL + 用户名
+     */
+    private final Map<String, PoolEntry> pools = new ConcurrentHashMap<>();
+
+    /**
+     * 密码变化后被替换的连接池,借出的连接可能仍在使用,全部归还后关闭
+     */
+    private final Set<HikariDataSource> retired = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 连接池编号,用于生成连接池名称
+     */
+    private final AtomicInteger poolCounter = new AtomicInteger();
+
+    /**
+     * 空闲连接池清理任务调度器
+     */
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * 私有构造方法
+     * 启动空闲连接池清理任务
+     */
+    private ConnectionPoolRegistry() {
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datashadow-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdlePools, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 从连接池获取数据库连接
+     * 连接池不存在或密码发生变化时创建新的连接池,创建时会立即尝试建立一个连接,连接失败时抛出异常;
+     * 密码变化时旧连接池不再借出连接,已借出的连接仍然可用,全部归还后关闭旧连接池
+     * 使用完毕后调用Connection.close()将连接归还连接池
+     *
+     * @param driver   JDBC驱动实例
+     * @param url      连接URL
+     * @param username 用户名
+     * @param password 密码
+     * @return 数据库连接
+     * @throws SQLException 创建连接池或获取连接失败时抛出
+     */
+    public Connection getConnection(Driver driver, String url, String username, String password)
+            throws SQLException {
+        closeDrainedPools();
+        String key = url + '\u0000' + (username == null ? "" : username);
+        PoolEntry entry;
+        try {
+            entry = pools.compute(key, (k, existing) -> {
+                if (existing != null && !existing.dataSource.isClosed()
+                        && Objects.equals(existing.password, password)) {
+                    return existing;
+                }
+                // 新连接池创建成功后才替换,密码错误时原连接池继续使用
+                PoolEntry created = createPool(driver, url, username, password);
+                if (existing != null) {
+                    retire(existing.dataSource);
+                }
+                return created;
+            });
+        } catch (PoolInitializationException e) {
+            throw e.getCause() instanceof SQLException sqlException ? sqlException
+                    : new SQLException(e.getMessage(), e);
+        }
+        entry.lastUsed = System.currentTimeMillis();
+        return entry.dataSource.getConnection();
+    }
+
+    /**
+     * 创建连接池
+     *
+     * @param driver   JDBC驱动实例
+     * @param url      连接URL
+     * @param username 用户名
+     * @param password 密码
+     * @return 连接池条目
+     */
+    private PoolEntry createPool(Driver driver, String url, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("datashadow-pool-" + poolCounter.incrementAndGet());
+        config.setDataSource(new DriverConnectionSource(driver, url, username, password));
+        config.setMinimumIdle(0);
+        config.setMaximumPoolSize(DEFAULT_MAX_POOL_SIZE);
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MILLIS);
+        config.setIdleTimeout(IDLE_TIMEOUT_MILLIS);
+        // 创建时立即尝试建立连接,连接信息错误时快速失败
+        config.setInitializationFailTimeout(1);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        log.info("创建连接池{}: {}", config.getPoolName(), url);
+        return new PoolEntry(dataSource, password);
+    }
+
+    /**
+     * 停止使用被替换的连接池
+     * 空闲连接立即关闭,借出的连接归还时关闭,借出的连接全部归还后关闭连接池,见closeDrainedPools
+     *
+     * @param dataSource 被替换的连接池
+     */
+    private void retire(HikariDataSource dataSource) {
+        if (dataSource.isClosed()) {
+            return;
+        }
+        if (dataSource.getHikariPoolMXBean() != null) {
+            dataSource.getHikariPoolMXBean().softEvictConnections();
+        }
+        retired.add(dataSource);
+        closeDrainedPools();
+    }
+
+    /**
+     * 关闭借出的连接已全部归还的被替换连接池
+     */
+    private void closeDrainedPools() {
+        retired.removeIf(dataSource -> {
+            boolean drained = dataSource.getHikariPoolMXBean() == null
+                    || dataSource.getHikariPoolMXBean().getActiveConnections() == 0;
+            if (drained) {
+                log.info("关闭被替换的连接池{}", dataSource.getPoolName());
+                dataSource.close();
+            }
+            return drained;
+        });
+    }
+
+    /**
+     * 关闭指定数据库的连接池
+     *
+     * @param url      连接URL
+     * @param username 用户名
+     */
+    public void evict(String url, String username) {
+        PoolEntry entry = pools.remove(url + '\u0000' + (username == null ? "" : username));
+        if (entry != null) {
+            entry.dataSource.close();
+        }
+    }
+
+    /**
+     * 关闭长时间未使用且没有活动连接的连接池
+     */
+    private void evictIdlePools() {
+        closeDrainedPools();
+        long now = System.currentTimeMillis();
+        pools.entrySet().removeIf(e -> {
+            PoolEntry entry = e.getValue();
+            boolean idle = now - entry.lastUsed > POOL_EVICT_MILLIS
+                    && (entry.dataSource.getHikariPoolMXBean() == null
+                            || entry.dataSource.getHikariPoolMXBean().getActiveConnections() == 0);
+            if (idle) {
+                log.info("关闭长时间未使用的连接池{}", entry.dataSource.getPoolName());
+                entry.dataSource.close();
+            }
+            return idle;
+        });
+    }
+
+    /**
+     * 关闭所有连接池
+     * 在应用退出时调用
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+        pools.values().forEach(entry -> entry.dataSource.close());
+        pools.clear();
+        retired.forEach(HikariDataSource::close);
+        retired.clear();
+    }
+
+    /**
+     * 获取当前连接池数量
+     *
+     * @return 连接池数量
+     */
+    public int size() {
+        return pools.size();
+    }
+
+    /**
+     * 获取等待借出的连接归还后关闭的连接池数量
+     *
+     * @return 被替换但尚未关闭的连接池数量
+     */
+    int retiredSize() {
+        return retired.size();
+    }
+
+    /**
+     * 连接池条目
+     */
+    private static final class PoolEntry {
+
+        /**
+         * 连接池
+         */
+        private final HikariDataSource dataSource;
+
+        /**
+         * 创建连接池时使用的密码,用于检测密码变化
+         */
+        private final String password;
+
+        /**
+         * 最后一次使用时间
+         */
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PoolEntry(HikariDataSource dataSource, String password) {
+            this.dataSource = dataSource;
+            this.password = password;
+        }
+    }
+
+    /**
+     * 基于驱动实例的连接源
+     * 供连接池创建物理连接
+     */
+    private static final class DriverConnectionSource implements javax.sql.DataSource {
+
+        /**
+         * JDBC驱动实例
+         */
+        private final Driver driver;
+
+        /**
+         * 连接URL
+         */
+        private final String url;
+
+        /**
+         * 连接属性,包含用户名和密码
+         */
+        private final Properties properties = new Properties();
+
+        /**
+         * 登录超时时间(秒)
+         */
+        private int loginTimeout;
+
+        DriverConnectionSource(Driver driver, String url, String username, String password) {
+            this.driver = driver;
+            this.url = url;
+            if (username != null) {
+                properties.setProperty("user", username);
+            }
+            if (password != null) {
+                properties.setProperty("password", password);
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = driver.connect(url, properties);
+            if (connection == null) {
+                throw new SQLException("驱动" + driver.getClass().getName() + "不支持连接URL: " + url);
+            }
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+            this.loginTimeout = seconds;
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return loginTimeout;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("不支持unwrap: " + iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+    }
+}
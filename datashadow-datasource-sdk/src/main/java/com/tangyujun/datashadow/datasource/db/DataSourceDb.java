@@ -0,0 +1,1342 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.alibaba.fastjson2.annotation.JSONField;
+import com.tangyujun.datashadow.datasource.DataSource;
+import com.tangyujun.datashadow.datasource.IndexedRow;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datasource.RowSchema;
+import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+/**
+ * 数据库数据源抽象类
+ * 封装通过JDBC执行查询语句读取数据的通用逻辑,具体数据库只需提供驱动类名、连接URL和配置界面
+ *
+ * 连接管理:
+ * 1. 连接从ConnectionPoolRegistry中按 连接URL + 用户名 共享的连接池获取,用完归还
+ * 2. 驱动通过数据源所在的类加载器加载并缓存,插件目录中的驱动同样可用
+ *
+ * 数据读取:
+ * 1. 查询结果通过游标流式读取,每批读取fetchSize行,子类通过configureStatement设置数据库特有的读取参数
+ * 2. 配置拆分列和并行度后,按拆分列的值域拆分为多个分区查询,使用多个连接并行读取
+ * 3. 配置分页列和每页行数后,按分页列进行键集分页读取,每页为独立的短查询,并预读下一页
+ * 4. 提供数据库方言(getDialect)的数据源支持在原查询外层附加过滤、聚合等派生查询,用于对比时的计算下推
+ * 5. 配置水位列后,对比时记录水位列的最大值,下次对比只读取水位之后变化的数据行,详见WatermarkIncrement
+ * 6. 设置列投影且提供数据库方言时,以原查询作为子查询只查询投影中的列,详见resolveProjection
+ */
+public abstract class DataSourceDb extends DataSource {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceDb.class);
+
+    /**
+     * 默认每批读取行数
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * 最大并行度,不超过单个连接池的最大连接数
+     */
+    public static final int MAX_PARALLELISM = ConnectionPoolRegistry.DEFAULT_MAX_POOL_SIZE;
+
+    /**
+     * 数据库用户名
+     */
+    protected String username;
+
+    /**
+     * 数据库密码
+     */
+    protected String password;
+
+    /**
+     * 查询SQL语句
+     */
+    protected String sql;
+
+    /**
+     * 每批从数据库读取的行数
+     */
+    protected int fetchSize = DEFAULT_FETCH_SIZE;
+
+    /**
+     * 并行读取时的拆分列,通常为数值主键,为空时不拆分
+     */
+    protected String splitColumn;
+
+    /**
+     * 并行读取的并行度,即同时执行的分区查询数
+     */
+    protected int parallelism = 1;
+
+    /**
+     * 键集分页列,通常为唯一键,多个列以逗号分隔,为空时不分页
+     */
+    protected String pageColumns;
+
+    /**
+     * 键集分页的每页行数,小于等于0时不分页
+     */
+    protected int pageSize;
+
+    /**
+     * 增量对比的水位列,如更新时间或版本号,数据行变化时该列的值递增,为空时不做增量对比
+     */
+    protected String watermarkColumn;
+
+    /**
+     * 上次对比时水位列的最大值,以文本保存,随数据源配置一起保存到方案中,为空时下次对比为全量对比
+     */
+    protected String watermark;
+
+    /**
+     * 列信息缓存
+     */
+    private transient volatile ColumnCache columnCache;
+
+    /**
+     * 已加载的JDBC驱动
+     */
+    private transient Driver driver;
+
+    /**
+     * 获取数据库类型名称,用于提示信息,如MySQL、Oracle
+     *
+     * @return 数据库类型名称
+     */
+    protected abstract String getDatabaseType();
+
+    /**
+     * 获取JDBC驱动类名
+     *
+     * @return JDBC驱动类名
+     */
+    protected abstract String getDriverClassName();
+
+    /**
+     * 构建数据库连接URL
+     *
+     * @return 数据库连接URL
+     */
+    protected abstract String buildUrl();
+
+    /**
+     * 判断连接信息是否完整
+     *
+     * @return 连接信息完整时返回true
+     */
+    protected abstract boolean isConnectionInfoComplete();
+
+    /**
+     * 判断两个数据源是否为提供相同数据库方言的数据库数据源
+     * 相同方言的两侧数据库计算出的哈希值可以直接比较,是对比时计算下推的前提
+     *
+     * @param primary 主数据源
+     * @param shadow  影子数据源
+     * @return 方言相同时返回true
+     */
+    public static boolean isSameDialect(DataSource primary, DataSource shadow) {
+        return primary instanceof DataSourceDb primaryDb
+                && shadow instanceof DataSourceDb shadowDb
+                && primaryDb.getDialect() != null
+                && shadowDb.getDialect() != null
+                && primaryDb.getDialect().getClass() == shadowDb.getDialect().getClass();
+    }
+
+    /**
+     * 获取数据库方言
+     * 默认不提供方言,此时不支持哈希分区和对比时的计算下推,子类按数据库重写
+     *
+     * @return 数据库方言,不支持时返回null
+     */
+    @JSONField(serialize = false)
+    public JdbcDialect getDialect() {
+        return null;
+    }
+
+    /**
+     * 加载JDBC驱动
+     * 首次调用时通过数据源所在的类加载器实例化驱动,之后复用
+     *
+     * @return JDBC驱动实例
+     * @throws ReflectiveOperationException 驱动类不存在或无法实例化时抛出
+     */
+    protected Driver loadDriver() throws ReflectiveOperationException {
+        if (driver == null) {
+            Class<?> driverClass = Class.forName(getDriverClassName(), true, getClass().getClassLoader());
+            driver = (Driver) driverClass.getDeclaredConstructor().newInstance();
+        }
+        return driver;
+    }
+
+    /**
+     * 从连接池获取数据库连接
+     * 使用完毕后需要关闭连接,连接将归还连接池
+     *
+     * @return 数据库连接
+     * @throws SQLException 驱动加载失败或获取连接失败时抛出
+     */
+    protected Connection openConnection() throws SQLException {
+        Driver jdbcDriver;
+        try {
+            jdbcDriver = loadDriver();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new SQLException(getDatabaseType() + "驱动加载失败: " + e.getMessage(), e);
+        }
+        return ConnectionPoolRegistry.getInstance().getConnection(jdbcDriver, buildUrl(), username, password);
+    }
+
+    /**
+     * 判断两个数据库数据源是否共用同一个连接池
+     * 连接池按 连接URL + 用户名 区分,详见ConnectionPoolRegistry
+     *
+     * @param other 另一个数据源
+     * @return 共用连接池时返回true
+     */
+    public boolean sharesPoolWith(DataSource other) {
+        return other instanceof DataSourceDb otherDb
+                && buildUrl() != null
+                && buildUrl().equals(otherDb.buildUrl())
+                && Objects.equals(username == null ? "" : username,
+                        otherDb.username == null ? "" : otherDb.username);
+    }
+
+    /**
+     * 获取通过openCursor()读取期间最多同时占用的连接数
+     * 并行读取时每个分区占用一个连接,键集分页和普通查询同一时间只占用一个连接
+     *
+     * @return 最多同时占用的连接数
+     */
+    public int maxCursorConnections() {
+        if (pageSize > 0 && pageColumns != null && !pageColumns.isBlank()) {
+            return 1;
+        }
+        if (parallelism <= 1 || splitColumn == null || splitColumn.isBlank()) {
+            return 1;
+        }
+        return Math.min(parallelism, MAX_PARALLELISM);
+    }
+
+    /**
+     * 获取另一个数据源通过游标读取期间,本数据源最多可以同时使用的连接数
+     * 共用连接池时扣除另一个数据源游标占用的连接,否则为连接池的最大连接数
+     *
+     * @param other 正在读取的另一个数据源
+     * @return 可以同时使用的连接数,为0时表示连接池已被另一个数据源占满
+     */
+    public int availableConnectionsBeside(DataSource other) {
+        if (!sharesPoolWith(other)) {
+            return ConnectionPoolRegistry.DEFAULT_MAX_POOL_SIZE;
+        }
+        int occupied = ((DataSourceDb) other).maxCursorConnections();
+        return Math.max(0, ConnectionPoolRegistry.DEFAULT_MAX_POOL_SIZE - occupied);
+    }
+
+    /**
+     * 获取水位的适用范围
+     * 水位只对记录它时的连接、查询语句和水位列有效,三者任一变化后上次的水位不再适用
+     *
+     * @return 由连接URL、用户名、查询语句和水位列组成的字符串
+     */
+    protected String watermarkScope() {
+        return buildUrl() + '\u0000' + username + '\u0000' + sql + '\u0000' + watermarkColumn;
+    }
+
+    /**
+     * 应用配置界面中填写的上次水位
+     * 修改了连接、查询语句或水位列而没有修改上次水位时,清除上次水位,下次对比为全量对比
+     *
+     * @param previousScope 修改配置前的水位适用范围,见watermarkScope
+     * @param value         配置界面中填写的上次水位,空白时清除
+     */
+    protected void applyWatermark(String previousScope, String value) {
+        String edited = value == null || value.isBlank() ? null : value.trim();
+        if (!previousScope.equals(watermarkScope()) && Objects.equals(edited, watermark)) {
+            if (edited != null) {
+                logger.info("{}数据源的连接、查询语句或水位列已修改,清除上次水位{}", getDatabaseType(), edited);
+            }
+            edited = null;
+        }
+        setWatermark(edited);
+    }
+
+    /**
+     * 验证数据库连接是否有效
+     *
+     * @throws DataSourceValidException 连接信息不完整或连接失败时抛出
+     */
+    @Override
+    public void valid() throws DataSourceValidException {
+        if (!isConnectionInfoComplete()) {
+            throw new DataSourceValidException(getDatabaseType() + "连接验证失败: 连接信息不完整", null);
+        }
+        logger.info("正在验证{}连接, URL: {}, 用户名: {}", getDatabaseType(), buildUrl(), username);
+        try (Connection connection = openConnection()) {
+            if (!connection.isValid(5)) {
+                throw new DataSourceValidException(getDatabaseType() + "连接验证失败: 连接不可用", null);
+            }
+            logger.info("{}连接验证成功, 连接信息: {}, 用户名: {}", getDatabaseType(),
+                    connection.getMetaData().getURL(), connection.getMetaData().getUserName());
+        } catch (SQLException e) {
+            throw new DataSourceValidException(getDatabaseType() + "连接验证失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从数据库中获取数据
+     * 通过游标逐行读取,并将结果转换为List<Map<String, Object>>格式
+     *
+     * @return 查询结果列表,每行数据以Map形式存储,key为列名,value为列值
+     * @throws DataAccessException 当SQL执行失败或数据库连接出错时抛出
+     */
+    @Override
+    public List<Map<String, Object>> acquireValues() throws DataAccessException {
+        try (RowCursor cursor = openCursor()) {
+            var result = new ArrayList<Map<String, Object>>();
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 打开数据行游标,流式读取查询结果
+     * 语句以只进、只读方式执行,驱动每次从数据库读取fetchSize行,
+     * 客户端内存中只保留当前批次,不再缓存整个结果集
+     *
+     * 配置了分页列和每页行数时,按键集分页读取,详见openPagedCursor;
+     * 否则配置了拆分列且并行度大于1时,按拆分列将查询拆分为多个分区,使用多个连接并行读取,详见planPartitions
+     *
+     * @return 数据行游标,使用完毕后需要关闭以归还连接
+     * @throws DataAccessException 当SQL执行失败或数据库连接出错时抛出
+     */
+    @Override
+    public RowCursor openCursor() throws DataAccessException {
+        if (pageSize > 0 && pageColumns != null && !pageColumns.isBlank()) {
+            return openPagedCursor();
+        }
+        List<String> projected = resolveProjection(List.of());
+        if (parallelism <= 1 || splitColumn == null || splitColumn.isBlank()) {
+            return projected == null ? executeCursor(sql, List.of())
+                    : executeCursor(buildDerivedQuery(selectList(projected), null, null), List.of());
+        }
+        if (!isSplittable()) {
+            logger.info("{}的拆分列{}不能计算哈希,不拆分查询", getDatabaseType(), splitColumn);
+            return projected == null ? executeCursor(sql, List.of())
+                    : executeCursor(buildDerivedQuery(selectList(projected), null, null), List.of());
+        }
+        List<PartitionQuery> partitions;
+        try (Connection connection = openConnection()) {
+            partitions = planPartitions(connection, projected);
+        } catch (SQLException e) {
+            throw new DataAccessException("拆分" + getDatabaseType() + "查询失败: " + e.getMessage(), e);
+        }
+        if (partitions.size() == 1) {
+            return executeCursor(partitions.get(0).sql(), partitions.get(0).parameters());
+        }
+        logger.info("{}查询按{}拆分为{}个分区并行读取", getDatabaseType(), splitColumn, partitions.size());
+        return new ParallelRowCursor(partitions, projected == null ? getColumns() : projected,
+                partition -> executeCursor(partition.sql(), partition.parameters()),
+                Math.max(fetchSize, DEFAULT_FETCH_SIZE) * 2);
+    }
+
+    /**
+     * 判断拆分列能否用于拆分查询
+     * 非数值的拆分列按哈希分区,方言的哈希函数不接受拆分列的类型(如Oracle的大字段)时不能拆分
+     *
+     * @return 可以拆分时返回true,未提供方言或拆分列不存在时由拆分查询自行处理,返回true
+     * @throws DataAccessException 获取元数据失败时抛出
+     */
+    private boolean isSplittable() throws DataAccessException {
+        JdbcDialect dialect = getDialect();
+        if (dialect == null) {
+            return true;
+        }
+        String name = splitColumn.trim().replaceAll("^[\"`]|[\"`]$", "");
+        ColumnInfo column = findColumn(name);
+        return column == null || dialect.supportsHash(column);
+    }
+
+    /**
+     * 打开键集分页游标
+     * 按分页列排序,每页查询 分页列 > 上一页最后一行的键 的前pageSize行:
+     * 1. 每页是独立的短查询,读取完即归还连接,不会长时间持有事务,网络中断只影响当前页
+     * 2. 读取当前页时预读下一页,预读使用连接池中的另一个连接
+     * 3. 某一页读取失败时从最后一个已读取页的末尾键重试
+     * 4. 分页列为null的数据行在所有分页读取完毕后单独读取
+     *
+     * 多个分页列按字典序比较,展开为 k1 > ? OR (k1 = ? AND k2 > ?) 的形式,不依赖行值比较语法
+     *
+     * @return 数据行游标,使用完毕后需要关闭
+     * @throws DataAccessException 当未提供数据库方言、分页列不存在或SQL执行失败时抛出
+     */
+    private RowCursor openPagedCursor() throws DataAccessException {
+        JdbcDialect dialect = getDialect();
+        if (dialect == null) {
+            throw new DataAccessException(getDatabaseType() + "数据源未提供数据库方言,不支持分页读取", null);
+        }
+        List<String> keys = resolvePageColumns();
+        List<String> projected = resolveProjection(keys);
+        String select = projected == null ? "*" : selectList(projected);
+        List<String> quoted = keys.stream().map(dialect::quoteIdentifier).toList();
+        String notNull = quoted.stream().map(column -> column + " IS NOT NULL").collect(Collectors.joining(" AND "));
+        String anyNull = quoted.stream().map(column -> column + " IS NULL").collect(Collectors.joining(" OR "));
+        String orderBy = "ORDER BY " + String.join(", ", quoted);
+        List<String> keyset = new ArrayList<>();
+        for (int i = 0; i < quoted.size(); i++) {
+            StringBuilder condition = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                condition.append(quoted.get(j)).append(" = ? AND ");
+            }
+            keyset.add(condition.append(quoted.get(i)).append(" > ?)").toString());
+        }
+        String firstPage = dialect.limitQuery(buildDerivedQuery(select, notNull, orderBy), pageSize);
+        String nextPage = dialect.limitQuery(
+                buildDerivedQuery(select, notNull + " AND (" + String.join(" OR ", keyset) + ")", orderBy), pageSize);
+        logger.info("{}查询按{}分页读取,每页{}行", getDatabaseType(), keys, pageSize);
+        return new PagedRowCursor(projected == null ? getColumns() : projected, after -> {
+            if (after == null) {
+                return readAll(firstPage, List.of());
+            }
+            List<Object> parameters = new ArrayList<>();
+            for (int i = 0; i < after.length; i++) {
+                parameters.addAll(Arrays.asList(after).subList(0, i + 1));
+            }
+            return readAll(nextPage, parameters);
+        }, row -> keys.stream().map(row::get).toArray(), pageSize,
+                () -> executeCursor(buildDerivedQuery(select, anyNull, null), List.of()));
+    }
+
+    /**
+     * 按列投影确定需要查询的列
+     * 设置了列投影且提供数据库方言时,只查询投影中存在的列和必须查询的列,列名不区分大小写;
+     * 未设置列投影、没有方言、投影中的列都不存在或已包含全部列时返回null,表示查询全部列
+     *
+     * 只改变外层查询的查询列表,原查询的过滤、排序和拆分、分页条件仍然作用在原查询的全部列上
+     *
+     * @param required 必须查询的列,如分页列、主键列,为查询结果中的列名
+     * @return 需要查询的列,按原查询的列顺序,查询全部列时返回null
+     * @throws DataAccessException 获取元数据失败时抛出
+     */
+    private List<String> resolveProjection(List<String> required) throws DataAccessException {
+        Set<String> projection = getProjection();
+        if (projection == null || getDialect() == null) {
+            return null;
+        }
+        List<ColumnInfo> columns = describeColumns();
+        List<String> projected = new ArrayList<>();
+        for (ColumnInfo column : columns) {
+            if (required.contains(column.name())
+                    || projection.stream().anyMatch(field -> column.name().equalsIgnoreCase(field))) {
+                projected.add(column.name());
+            }
+        }
+        if (projected.isEmpty() || projected.size() == columns.size()) {
+            return null;
+        }
+        return List.copyOf(projected);
+    }
+
+    /**
+     * 构建引用后的查询列表
+     *
+     * @param columns 查询结果中的列名
+     * @return 以逗号分隔的查询列表
+     */
+    private String selectList(List<String> columns) {
+        JdbcDialect dialect = getDialect();
+        return columns.stream().map(dialect::quoteIdentifier).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * 将配置的分页列解析为查询结果中的列名
+     * 列名不区分大小写,返回查询结果中的实际写法
+     *
+     * @return 分页列列表
+     * @throws DataAccessException 分页列不存在时抛出
+     */
+    private List<String> resolvePageColumns() throws DataAccessException {
+        List<String> keys = new ArrayList<>();
+        for (String name : pageColumns.split(",")) {
+            String key = name.trim();
+            if (key.isEmpty()) {
+                continue;
+            }
+            ColumnInfo column = findColumn(key);
+            if (column == null) {
+                throw new DataAccessException("分页列不存在: " + key, null);
+            }
+            keys.add(column.name());
+        }
+        return keys;
+    }
+
+    /**
+     * 按列名查找查询结果中的列,列名不区分大小写
+     *
+     * @param name 列名
+     * @return 列信息,不存在时返回null
+     * @throws DataAccessException 获取元数据失败时抛出
+     */
+    ColumnInfo findColumn(String name) throws DataAccessException {
+        return describeColumns().stream().filter(column -> column.name().equalsIgnoreCase(name)).findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 判断列是否都可以参与方言的哈希表达式
+     * 按查询结果的列类型判断,如Oracle的大字段不能参与ORA_HASH,
+     * 不存在的列不在这里判断,由执行查询时报错
+     *
+     * @param columns 列名,为查询结果中的列名
+     * @return 都可以参与时返回true,未提供方言或方言不支持哈希时返回false
+     * @throws DataAccessException 获取元数据失败时抛出
+     */
+    public boolean supportsHash(List<String> columns) throws DataAccessException {
+        JdbcDialect dialect = getDialect();
+        if (dialect == null || !dialect.supportsHash()) {
+            return false;
+        }
+        for (String name : columns) {
+            ColumnInfo column = findColumn(name);
+            if (column != null && !dialect.supportsHash(column)) {
+                logger.info("{}列{}的类型{}不能计算哈希", getDatabaseType(), column.name(), column.typeName());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 执行查询并读取全部结果
+     *
+     * @param query      查询语句
+     * @param parameters 查询参数
+     * @return 数据行列表
+     * @throws DataAccessException 当SQL执行失败或数据库连接出错时抛出
+     */
+    private List<Map<String, Object>> readAll(String query, List<Object> parameters) throws DataAccessException {
+        try (RowCursor cursor = executeCursor(query, parameters)) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            while (cursor.next()) {
+                rows.add(cursor.current());
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * 打开只读取满足过滤条件的数据行的游标
+     *
+     * @param filter 过滤条件
+     * @return 数据行游标,使用完毕后需要关闭以归还连接
+     * @throws DataAccessException 当SQL执行失败或数据库连接出错时抛出
+     */
+    public RowCursor openCursor(QueryFilter filter) throws DataAccessException {
+        List<String> projected = resolveProjection(List.of());
+        return openDerivedCursor(projected == null ? "*" : selectList(projected), filter, null);
+    }
+
+    /**
+     * 打开派生查询的游标
+     * 派生查询以原查询作为子查询(别名t),形如 SELECT select FROM (sql) t WHERE condition suffix,
+     * 用于在数据库中完成过滤、分组聚合等计算,只返回需要的结果
+     *
+     * @param select 查询列表,如 * 或聚合表达式
+     * @param filter 过滤条件,为null时不过滤
+     * @param suffix 附加在WHERE条件之后的子句,如GROUP BY、ORDER BY,为null时不附加
+     * @return 数据行游标,使用完毕后需要关闭以归还连接
+     * @throws DataAccessException 当SQL执行失败或数据库连接出错时抛出
+     */
+    public RowCursor openDerivedCursor(String select, QueryFilter filter, String suffix)
+            throws DataAccessException {
+        return executeCursor(buildDerivedQuery(select, filter == null ? null : filter.condition(), suffix),
+                filter == null ? List.of() : filter.parameters());
+    }
+
+    /**
+     * 按主键分批读取数据行
+     * 每批最多包含方言允许的IN列表元素个数,按批依次查询,同一时刻只占用一个连接
+     * 未匹配到的主键不返回数据行,数据行的顺序不保证与主键顺序一致
+     *
+     * IN条件无法匹配NULL,主键列中有NULL值的主键按NULL所在的列分组,
+     * 每组只对非NULL的主键列使用IN条件,NULL的主键列使用IS NULL条件
+     *
+     * @param keyColumns 主键列,为查询结果中的列名
+     * @param keys       主键值,每个数组按主键列顺序
+     * @return 数据行游标,使用完毕后需要关闭以归还连接
+     * @throws DataAccessException 当未提供数据库方言、SQL执行失败或数据库连接出错时抛出
+     */
+    public RowCursor openCursorByKeys(List<String> keyColumns, List<Object[]> keys) throws DataAccessException {
+        JdbcDialect dialect = getDialect();
+        if (dialect == null) {
+            throw new DataAccessException(getDatabaseType() + "数据源未提供数据库方言,不支持按主键查询", null);
+        }
+        List<String> projected = resolveProjection(keyColumns);
+        String select = projected == null ? "*" : selectList(projected);
+        List<String> quoted = keyColumns.stream().map(dialect::quoteIdentifier).toList();
+        Map<List<Integer>, List<Object[]>> groups = new LinkedHashMap<>();
+        for (Object[] key : keys) {
+            List<Integer> nulls = new ArrayList<>();
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] == null) {
+                    nulls.add(i);
+                }
+            }
+            groups.computeIfAbsent(nulls, n -> new ArrayList<>()).add(key);
+        }
+        List<PartitionQuery> batches = new ArrayList<>();
+        groups.forEach((nulls, group) -> addKeyBatches(dialect, select, quoted, nulls, group, batches));
+        return new ChainedRowCursor(batches, projected == null ? getColumns() : projected,
+                batch -> executeCursor(batch.sql(), batch.parameters()));
+    }
+
+    /**
+     * 将NULL所在列相同的一组主键按批生成查询
+     *
+     * @param dialect 数据库方言
+     * @param select  查询列表
+     * @param quoted  引用后的主键列
+     * @param nulls   值为NULL的主键列序号
+     * @param keys    主键值
+     * @param batches 生成的查询
+     */
+    private void addKeyBatches(JdbcDialect dialect, String select, List<String> quoted, List<Integer> nulls,
+            List<Object[]> keys, List<PartitionQuery> batches) {
+        List<String> matched = new ArrayList<>();
+        for (int i = 0; i < quoted.size(); i++) {
+            if (!nulls.contains(i)) {
+                matched.add(quoted.get(i));
+            }
+        }
+        if (matched.isEmpty()) {
+            // 主键列全部为NULL时这组主键都相同,只需查询一次
+            batches.add(new PartitionQuery(buildDerivedQuery(select, keyCondition(dialect, quoted, nulls, 0), null),
+                    List.of()));
+            return;
+        }
+        int batchSize = Math.max(1, dialect.maxKeyRows(matched.size()));
+        String fullBatch = null;
+        for (int start = 0; start < keys.size(); start += batchSize) {
+            List<Object[]> batch = keys.subList(start, Math.min(start + batchSize, keys.size()));
+            String query;
+            if (batch.size() == batchSize) {
+                if (fullBatch == null) {
+                    fullBatch = buildDerivedQuery(select, keyCondition(dialect, quoted, nulls, batchSize), null);
+                }
+                query = fullBatch;
+            } else {
+                query = buildDerivedQuery(select, keyCondition(dialect, quoted, nulls, batch.size()), null);
+            }
+            List<Object> parameters = new ArrayList<>(batch.size() * matched.size());
+            for (Object[] key : batch) {
+                for (Object value : key) {
+                    if (value != null) {
+                        parameters.add(value);
+                    }
+                }
+            }
+            batches.add(new PartitionQuery(query, parameters));
+        }
+    }
+
+    /**
+     * 构建按主键匹配的条件
+     * 非NULL的主键列使用方言的批量匹配条件,NULL的主键列使用IS NULL条件
+     *
+     * @param dialect 数据库方言
+     * @param quoted  引用后的主键列
+     * @param nulls   值为NULL的主键列序号
+     * @param rows    主键行数
+     * @return 匹配条件,参数按行依次绑定非NULL主键列的值
+     */
+    private static String keyCondition(JdbcDialect dialect, List<String> quoted, List<Integer> nulls, int rows) {
+        List<String> matched = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < quoted.size(); i++) {
+            if (nulls.contains(i)) {
+                conditions.add(quoted.get(i) + " IS NULL");
+            } else {
+                matched.add(quoted.get(i));
+            }
+        }
+        if (!matched.isEmpty()) {
+            conditions.add(0, dialect.keyInCondition(matched, rows));
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    /**
+     * 按主键读取大字段的完整内容
+     * 读取数据行时大字段只保留摘要(见LobDigest),需要查看完整内容时按主键单独查询该列
+     *
+     * @param column     大字段列名,为查询结果中的列名
+     * @param keyColumns 主键列,为查询结果中的列名
+     * @param key        主键值,按主键列顺序
+     * @return 文本大字段返回String,二进制大字段返回byte[],未匹配到数据行或值为NULL时返回null
+     * @throws DataAccessException 当未提供数据库方言、SQL执行失败或数据库连接出错时抛出
+     */
+    public Object readLob(String column, List<String> keyColumns, Object[] key) throws DataAccessException {
+        JdbcDialect dialect = getDialect();
+        if (dialect == null) {
+            throw new DataAccessException(getDatabaseType() + "数据源未提供数据库方言,不支持按主键查询", null);
+        }
+        List<Integer> nulls = new ArrayList<>();
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] == null) {
+                nulls.add(i);
+            }
+        }
+        String query = buildDerivedQuery(dialect.quoteIdentifier(column),
+                keyCondition(dialect, keyColumns.stream().map(dialect::quoteIdentifier).toList(), nulls, 1), null);
+        try (Connection connection = openConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            int index = 1;
+            for (Object value : key) {
+                if (value != null) {
+                    statement.setObject(index++, value);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                return switch (resultSet.getMetaData().getColumnType(1)) {
+                    case Types.BLOB, Types.LONGVARBINARY, Types.VARBINARY, Types.BINARY -> resultSet.getBytes(1);
+                    default -> resultSet.getString(1);
+                };
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("读取" + getDatabaseType() + "大字段失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 构建派生查询语句
+     *
+     * @param select    查询列表
+     * @param condition 过滤条件,为null时不过滤
+     * @param suffix    附加子句,为null时不附加
+     * @return 派生查询语句
+     */
+    private String buildDerivedQuery(String select, String condition, String suffix) {
+        StringBuilder query = new StringBuilder("SELECT ").append(select)
+                .append(" FROM (").append(trimSql()).append(") t");
+        if (condition != null) {
+            query.append(" WHERE ").append(condition);
+        }
+        if (suffix != null && !suffix.isBlank()) {
+            query.append(' ').append(suffix);
+        }
+        return query.toString();
+    }
+
+    /**
+     * 执行查询并返回数据行游标
+     *
+     * @param query      查询语句
+     * @param parameters 查询参数
+     * @return 数据行游标
+     * @throws DataAccessException 当SQL执行失败或数据库连接出错时抛出
+     */
+    private RowCursor executeCursor(String query, List<Object> parameters) throws DataAccessException {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = openConnection();
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            configureStatement(statement);
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.setFetchSize(statement.getFetchSize());
+            return new JdbcRowCursor(connection, statement, resultSet);
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            closeQuietly(connection);
+            throw new DataAccessException("执行" + getDatabaseType() + "查询失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按拆分列规划分区查询
+     * 1. 查询拆分列的最小值和最大值,数值类型时按值域等分为多个范围,拆分列为null的行归入第一个分区
+     * 2. 拆分列不是数值类型时,使用数据库的哈希分区条件(见buildHashPartitionCondition),数据库不支持时报错
+     * 3. 查询结果为空或值域过小时不拆分
+     *
+     * @param connection 数据库连接
+     * @param projected  需要查询的列,为null时查询全部列
+     * @return 分区查询列表
+     * @throws SQLException 查询拆分列值域失败时抛出
+     */
+    private List<PartitionQuery> planPartitions(Connection connection, List<String> projected)
+            throws SQLException {
+        String column = splitColumn.trim();
+        if (!column.matches("[\\p{L}_][\\p{L}\\p{N}_$#]*|\"[^\"]+\"|`[^`]+`")) {
+            throw new DataAccessException("拆分列名称无效: " + column, null);
+        }
+        String query = trimSql();
+        int partitions = Math.min(parallelism, MAX_PARALLELISM);
+        Object min;
+        Object max;
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(
+                        "SELECT MIN(" + column + "), MAX(" + column + ") FROM (" + query + ") t")) {
+            resultSet.next();
+            min = resultSet.getObject(1);
+            max = resultSet.getObject(2);
+        }
+        String select = projected == null ? "*" : selectList(projected);
+        String whole = projected == null ? sql : buildDerivedQuery(select, null, null);
+        String base = "SELECT " + select + " FROM (" + query + ") t WHERE ";
+        if (min == null || max == null) {
+            return List.of(new PartitionQuery(whole, List.of()));
+        }
+        if (min instanceof Number && max instanceof Number) {
+            return rangePartitions(base, whole, column, toBigDecimal(min), toBigDecimal(max), partitions);
+        }
+        if (buildHashPartitionCondition(column, partitions, 0) == null) {
+            throw new DataAccessException("拆分列" + column + "不是数值类型,无法按范围拆分查询", null);
+        }
+        List<PartitionQuery> result = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            result.add(new PartitionQuery(base + buildHashPartitionCondition(column, partitions, i), List.of()));
+        }
+        return result;
+    }
+
+    /**
+     * 按数值范围等分查询
+     *
+     * @param base       分区查询前缀,以WHERE结尾
+     * @param whole      不拆分时的完整查询
+     * @param column     拆分列
+     * @param min        最小值
+     * @param max        最大值
+     * @param partitions 期望的分区数
+     * @return 分区查询列表
+     */
+    private List<PartitionQuery> rangePartitions(String base, String whole, String column, BigDecimal min,
+            BigDecimal max, int partitions) {
+        BigDecimal span = max.subtract(min);
+        boolean integral = min.stripTrailingZeros().scale() <= 0 && max.stripTrailingZeros().scale() <= 0;
+        List<BigDecimal> bounds = new ArrayList<>();
+        for (int i = 1; i < partitions; i++) {
+            BigDecimal bound = min.add(span.multiply(BigDecimal.valueOf(i))
+                    .divide(BigDecimal.valueOf(partitions), MathContext.DECIMAL64));
+            if (integral) {
+                bound = bound.setScale(0, RoundingMode.FLOOR);
+            }
+            // 值域过小时相邻边界可能相同,跳过空分区
+            if (bound.compareTo(min) > 0 && (bounds.isEmpty() || bound.compareTo(bounds.get(bounds.size() - 1)) > 0)) {
+                bounds.add(bound);
+            }
+        }
+        if (bounds.isEmpty()) {
+            return List.of(new PartitionQuery(whole, List.of()));
+        }
+        List<PartitionQuery> result = new ArrayList<>(bounds.size() + 1);
+        result.add(new PartitionQuery(base + column + " < ? OR " + column + " IS NULL", List.of(bounds.get(0))));
+        for (int i = 1; i < bounds.size(); i++) {
+            result.add(new PartitionQuery(base + column + " >= ? AND " + column + " < ?",
+                    List.of(bounds.get(i - 1), bounds.get(i))));
+        }
+        result.add(new PartitionQuery(base + column + " >= ?", List.of(bounds.get(bounds.size() - 1))));
+        return result;
+    }
+
+    /**
+     * 将数值转换为BigDecimal
+     *
+     * @param number 数值
+     * @return BigDecimal
+     */
+    private static BigDecimal toBigDecimal(Object number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (number instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(((Number) number).doubleValue());
+        }
+        return BigDecimal.valueOf(((Number) number).longValue());
+    }
+
+    /**
+     * 构建哈希分区条件
+     * 拆分列不是数值类型时使用,默认按数据库方言的哈希表达式分桶,没有方言或方言不支持哈希时不支持,
+     * 子类可以按数据库提供的哈希函数重写
+     *
+     * @param column     拆分列
+     * @param partitions 分区数
+     * @param index      分区序号,从0开始
+     * @return 分区条件,不支持时返回null
+     */
+    protected String buildHashPartitionCondition(String column, int partitions, int index) {
+        JdbcDialect dialect = getDialect();
+        if (dialect == null || !dialect.supportsHash()) {
+            return null;
+        }
+        return dialect.bucketExpression(dialect.hashExpression(List.of(column)), partitions) + " = " + index;
+    }
+
+    /**
+     * 配置查询语句
+     * 默认设置每批读取行数,子类可以重写以设置数据库特有的读取参数
+     *
+     * @param statement 查询语句
+     * @throws SQLException 设置参数失败时抛出
+     */
+    protected void configureStatement(Statement statement) throws SQLException {
+        statement.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * 关闭资源并忽略异常
+     *
+     * @param closeable 需要关闭的资源
+     */
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.warn("关闭数据库资源失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 基于JDBC结果集的数据行游标
+     * 打开时根据列类型为每列选择一次读取器(见JdbcColumnReader),数据行以IndexedRow返回
+     * 关闭时依次关闭结果集、语句和连接,连接归还连接池
+     */
+    private class JdbcRowCursor implements RowCursor {
+
+        private final Connection connection;
+
+        private final Statement statement;
+
+        private final ResultSet resultSet;
+
+        /**
+         * 数据行结构,所有数据行共享
+         */
+        private final RowSchema schema;
+
+        /**
+         * 各列的读取器,按结果集列顺序
+         */
+        private final JdbcColumnReader[] readers;
+
+        /**
+         * 当前行
+         */
+        private Map<String, Object> current;
+
+        JdbcRowCursor(Connection connection, Statement statement, ResultSet resultSet) throws SQLException {
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            var metaData = resultSet.getMetaData();
+            String[] columnNames = new String[metaData.getColumnCount()];
+            this.readers = new JdbcColumnReader[columnNames.length];
+            for (int i = 0; i < columnNames.length; i++) {
+                columnNames[i] = metaData.getColumnLabel(i + 1);
+                readers[i] = JdbcColumnReader.forColumn(metaData, i + 1);
+            }
+            this.schema = new RowSchema(columnNames);
+        }
+
+        @Override
+        public boolean next() throws DataAccessException {
+            try {
+                if (!resultSet.next()) {
+                    current = null;
+                    return false;
+                }
+                Object[] values = new Object[readers.length];
+                for (int i = 0; i < readers.length; i++) {
+                    values[i] = readers[i].read(resultSet, i + 1);
+                }
+                current = new IndexedRow(schema, values);
+                return true;
+            } catch (SQLException e) {
+                throw new DataAccessException("读取" + getDatabaseType() + "查询结果失败: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Map<String, Object> current() {
+            return current;
+        }
+
+        @Override
+        public List<String> getColumns() {
+            return schema.getColumns();
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * 获取数据源的列名
+     * 只读取查询的元数据,不读取数据行,详见describeColumns()
+     *
+     * @return 列名列表,包含查询结果中所有列的名称
+     */
+    @Override
+    public List<String> getColumns() {
+        return describeColumns().stream().map(ColumnInfo::name).toList();
+    }
+
+    /**
+     * 获取查询结果的列信息
+     * 不执行完整查询,依次尝试以下方式获取元数据:
+     * 1. 预编译语句的元数据,数据库只解析SQL不执行
+     * 2. 驱动不支持时,执行包装后不返回任何行的查询
+     * 3. 仍然失败时,限制最多返回1行并立即关闭结果集
+     *
+     * 结果按 连接URL + 用户名 + SQL 缓存,配置不变时重复调用不再访问数据库
+     *
+     * @return 列信息列表
+     * @throws DataAccessException 获取元数据失败时抛出
+     */
+    public List<ColumnInfo> describeColumns() throws DataAccessException {
+        String key = buildUrl() + '\u0000' + username + '\u0000' + sql;
+        ColumnCache cached = columnCache;
+        if (cached != null && cached.key().equals(key)) {
+            return cached.columns();
+        }
+        try (Connection connection = openConnection()) {
+            List<ColumnInfo> columns = describePrepared(connection);
+            if (columns == null) {
+                columns = describeEmptyQuery(connection);
+            }
+            if (columns == null) {
+                columns = describeFirstRow(connection);
+            }
+            columnCache = new ColumnCache(key, columns);
+            return columns;
+        } catch (SQLException e) {
+            throw new DataAccessException("获取" + getDatabaseType() + "列名失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 通过预编译语句的元数据获取列信息
+     *
+     * @param connection 数据库连接
+     * @return 列信息列表,驱动不支持时返回null
+     */
+    private List<ColumnInfo> describePrepared(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            ResultSetMetaData metaData = statement.getMetaData();
+            return metaData == null ? null : toColumnInfos(metaData);
+        } catch (SQLException e) {
+            logger.debug("预编译语句元数据不可用: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 通过不返回任何行的包装查询获取列信息
+     *
+     * @param connection 数据库连接
+     * @return 列信息列表,包装查询执行失败时返回null
+     */
+    private List<ColumnInfo> describeEmptyQuery(Connection connection) {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(buildEmptyQuery(trimSql()))) {
+            return toColumnInfos(resultSet.getMetaData());
+        } catch (SQLException e) {
+            logger.debug("包装查询获取元数据失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 限制最多返回1行执行原查询获取列信息,不读取数据行
+     *
+     * @param connection 数据库连接
+     * @return 列信息列表
+     * @throws SQLException 查询执行失败时抛出
+     */
+    private List<ColumnInfo> describeFirstRow(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setMaxRows(1);
+            statement.setFetchSize(1);
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                return toColumnInfos(resultSet.getMetaData());
+            }
+        }
+    }
+
+    /**
+     * 列信息缓存条目
+     *
+     * @param key     连接URL + 用户名 + SQL
+     * @param columns 列信息列表
+     */
+    private record ColumnCache(String key, List<ColumnInfo> columns) {
+    }
+
+    /**
+     * 构建不返回任何行的包装查询
+     * 子类可以按数据库语法重写
+     *
+     * @param query 原查询语句
+     * @return 包装后的查询语句
+     */
+    protected String buildEmptyQuery(String query) {
+        return "SELECT * FROM (" + query + ") t WHERE 1 = 0";
+    }
+
+    /**
+     * 去掉查询语句首尾空白和末尾的分号,并按方言转换为可以作为子查询的形式,便于嵌入子查询
+     *
+     * @return 处理后的查询语句
+     */
+    private String trimSql() {
+        String query = sql == null ? "" : sql.strip();
+        while (query.endsWith(";")) {
+            query = query.substring(0, query.length() - 1).stripTrailing();
+        }
+        JdbcDialect dialect = getDialect();
+        return dialect == null ? query : dialect.subquery(query);
+    }
+
+    /**
+     * 将结果集元数据转换为列信息列表
+     *
+     * @param metaData 结果集元数据
+     * @return 列信息列表
+     * @throws SQLException 读取元数据失败时抛出
+     */
+    private static List<ColumnInfo> toColumnInfos(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<ColumnInfo> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(new ColumnInfo(metaData.getColumnLabel(i), metaData.getColumnType(i),
+                    metaData.getColumnTypeName(i)));
+        }
+        return List.copyOf(columns);
+    }
+
+    /**
+     * 获取数据库用户名
+     *
+     * @return 数据库用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置数据库用户名
+     *
+     * @param username 数据库用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取数据库密码
+     *
+     * @return 数据库密码
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * 设置数据库密码
+     *
+     * @param password 数据库密码
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * 获取查询SQL语句
+     *
+     * @return 查询SQL语句
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 设置查询SQL语句
+     *
+     * @param sql 查询SQL语句
+     */
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * 获取每批读取行数
+     *
+     * @return 每批读取行数
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * 设置每批读取行数
+     * 数值越大往返次数越少,但单批占用的内存越多
+     *
+     * @param fetchSize 每批读取行数,小于等于0时使用默认值
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * 获取并行读取的拆分列
+     *
+     * @return 拆分列
+     */
+    public String getSplitColumn() {
+        return splitColumn;
+    }
+
+    /**
+     * 设置并行读取的拆分列
+     *
+     * @param splitColumn 拆分列,为空时不拆分
+     */
+    public void setSplitColumn(String splitColumn) {
+        this.splitColumn = splitColumn;
+    }
+
+    /**
+     * 获取并行读取的并行度
+     *
+     * @return 并行度
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 设置并行读取的并行度
+     *
+     * @param parallelism 并行度,取值范围1到MAX_PARALLELISM
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, Math.min(parallelism, MAX_PARALLELISM));
+    }
+
+    /**
+     * 获取键集分页列
+     *
+     * @return 分页列,多个列以逗号分隔
+     */
+    public String getPageColumns() {
+        return pageColumns;
+    }
+
+    /**
+     * 设置键集分页列
+     *
+     * @param pageColumns 分页列,通常为唯一键,多个列以逗号分隔,为空时不分页
+     */
+    public void setPageColumns(String pageColumns) {
+        this.pageColumns = pageColumns;
+    }
+
+    /**
+     * 获取键集分页的每页行数
+     *
+     * @return 每页行数,0表示不分页
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 设置键集分页的每页行数
+     *
+     * @param pageSize 每页行数,小于等于0时不分页
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = Math.max(0, pageSize);
+    }
+
+    /**
+     * 获取增量对比的水位列
+     *
+     * @return 水位列
+     */
+    public String getWatermarkColumn() {
+        return watermarkColumn;
+    }
+
+    /**
+     * 设置增量对比的水位列
+     *
+     * @param watermarkColumn 水位列,如更新时间或版本号,为空时不做增量对比
+     */
+    public void setWatermarkColumn(String watermarkColumn) {
+        this.watermarkColumn = watermarkColumn;
+    }
+
+    /**
+     * 获取上次对比时水位列的最大值
+     *
+     * @return 水位值文本,为空时表示尚未对比过
+     */
+    public String getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * 设置上次对比时水位列的最大值
+     * 清空后下次对比为全量对比,并重新记录水位
+     *
+     * @param watermark 水位值文本
+     */
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+}
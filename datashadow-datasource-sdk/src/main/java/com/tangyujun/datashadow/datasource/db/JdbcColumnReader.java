@@ -0,0 +1,126 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * JDBC列读取器
+ * 根据结果集元数据为每一列选择一次读取方式,读取数据行时直接调用对应类型的getter,
+ * 避免getObject逐个单元格判断类型,并将值转换为比较器直接使用的类型
+ *
+ * 类型对应:
+ * - TINYINT/SMALLINT/INTEGER: Integer(无符号INTEGER为Long)
+ * - BIGINT: Long(无符号BIGINT保持驱动默认类型)
+ * - DECIMAL/NUMERIC: BigDecimal
+ * - DOUBLE/FLOAT: Double, REAL: Float
+ * - BOOLEAN: Boolean
+ * - CHAR/VARCHAR等字符类型: String
+ * - DATE: LocalDate, TIME: LocalTime, TIMESTAMP: LocalDateTime
+ * - CLOB/NCLOB/LONGVARCHAR/LONGNVARCHAR: 流式读取,较短时为String,否则为LobDigest
+ * - BLOB/LONGVARBINARY: 流式读取为LobDigest
+ * - 其他类型: 驱动getObject的结果
+ */
+@FunctionalInterface
+interface JdbcColumnReader {
+
+    /**
+     * 读取当前行指定列的值
+     *
+     * @param resultSet 结果集
+     * @param column    列序号,从1开始
+     * @return 列值,数据库中为NULL时返回null
+     * @throws SQLException 读取失败时抛出
+     */
+    Object read(ResultSet resultSet, int column) throws SQLException;
+
+    /**
+     * 根据列类型选择读取器
+     *
+     * @param metaData 结果集元数据
+     * @param column   列序号,从1开始
+     * @return 列读取器
+     * @throws SQLException 读取元数据失败时抛出
+     */
+    static JdbcColumnReader forColumn(ResultSetMetaData metaData, int column) throws SQLException {
+        return switch (metaData.getColumnType(column)) {
+            case Types.TINYINT, Types.SMALLINT -> JdbcColumnReader::readInt;
+            case Types.INTEGER -> metaData.isSigned(column) ? JdbcColumnReader::readInt : JdbcColumnReader::readLong;
+            case Types.BIGINT -> metaData.isSigned(column) ? JdbcColumnReader::readLong : ResultSet::getObject;
+            case Types.DECIMAL, Types.NUMERIC -> ResultSet::getBigDecimal;
+            case Types.DOUBLE, Types.FLOAT -> JdbcColumnReader::readDouble;
+            case Types.REAL -> JdbcColumnReader::readFloat;
+            case Types.BOOLEAN -> JdbcColumnReader::readBoolean;
+            case Types.CHAR, Types.VARCHAR, Types.NCHAR, Types.NVARCHAR -> ResultSet::getString;
+            case Types.CLOB, Types.NCLOB, Types.LONGVARCHAR, Types.LONGNVARCHAR -> JdbcColumnReader::readCharacterLob;
+            case Types.BLOB, Types.LONGVARBINARY -> JdbcColumnReader::readBinaryLob;
+            case Types.DATE -> JdbcColumnReader::readDate;
+            case Types.TIME -> JdbcColumnReader::readTime;
+            case Types.TIMESTAMP -> JdbcColumnReader::readTimestamp;
+            default -> ResultSet::getObject;
+        };
+    }
+
+    private static Object readInt(ResultSet resultSet, int column) throws SQLException {
+        int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Object readLong(ResultSet resultSet, int column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Object readDouble(ResultSet resultSet, int column) throws SQLException {
+        double value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Object readFloat(ResultSet resultSet, int column) throws SQLException {
+        float value = resultSet.getFloat(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Object readBoolean(ResultSet resultSet, int column) throws SQLException {
+        boolean value = resultSet.getBoolean(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Object readDate(ResultSet resultSet, int column) throws SQLException {
+        Date value = resultSet.getDate(column);
+        return value == null ? null : value.toLocalDate();
+    }
+
+    private static Object readTime(ResultSet resultSet, int column) throws SQLException {
+        Time value = resultSet.getTime(column);
+        return value == null ? null : value.toLocalTime();
+    }
+
+    private static Object readCharacterLob(ResultSet resultSet, int column) throws SQLException {
+        try (Reader reader = resultSet.getCharacterStream(column)) {
+            return reader == null ? null : LobDigest.readCharacters(reader);
+        } catch (IOException e) {
+            throw new SQLException("读取文本大字段失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static Object readBinaryLob(ResultSet resultSet, int column) throws SQLException {
+        try (InputStream input = resultSet.getBinaryStream(column)) {
+            return input == null ? null : LobDigest.readBytes(input);
+        } catch (IOException e) {
+            throw new SQLException("读取二进制大字段失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static Object readTimestamp(ResultSet resultSet, int column) throws SQLException {
+        Timestamp value = resultSet.getTimestamp(column);
+        return value == null ? null : value.toLocalDateTime();
+    }
+}
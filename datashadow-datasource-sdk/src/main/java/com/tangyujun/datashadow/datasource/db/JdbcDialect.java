@@ -0,0 +1,137 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 数据库方言
+ * 提供生成下推到数据库执行的SQL片段所需的数据库特有语法,如标识符引用、哈希函数等
+ *
+ * 同一方言生成的哈希表达式对相同的值必须得到相同的结果,
+ * 两个数据源方言相同时,才能直接比较两侧数据库计算出的哈希值和校验和
+ */
+public interface JdbcDialect {
+
+    /**
+     * 引用标识符,使列名中的特殊字符和大小写原样生效
+     *
+     * @param identifier 标识符,如查询结果的列名
+     * @return 引用后的标识符
+     */
+    String quoteIdentifier(String identifier);
+
+    /**
+     * 是否支持哈希表达式
+     * 数据库没有可用的哈希函数时返回false,此时不支持哈希分区和对比时的哈希下推,
+     * 按主键查询、分页读取等不依赖哈希的功能仍然可用
+     *
+     * @return 支持时返回true
+     */
+    default boolean supportsHash() {
+        return true;
+    }
+
+    /**
+     * 判断列是否可以参与哈希表达式
+     * 哈希函数不接受某些类型(如Oracle的ORA_HASH不接受CLOB、BLOB)时返回false,
+     * 此时包含该列的校验和下推和主键哈希定位不可用,需要改为全量对比
+     *
+     * @param column 列信息
+     * @return 可以参与时返回true,默认与supportsHash()相同
+     */
+    default boolean supportsHash(ColumnInfo column) {
+        return supportsHash();
+    }
+
+    /**
+     * 构建多个表达式组合后的哈希表达式
+     * 表达式的值按文本拼接后计算哈希,NULL与空字符串需要区分,结果为非负整数
+     *
+     * @param expressions 参与哈希的表达式,通常为引用后的列名
+     * @return 哈希表达式
+     */
+    String hashExpression(List<String> expressions);
+
+    /**
+     * 构建哈希值的校验和聚合表达式
+     * 默认按哈希值求和,与异或相比,重复出现偶数次的数据行不会相互抵消
+     *
+     * @param hashExpression 哈希表达式
+     * @return 聚合表达式
+     */
+    default String checksumExpression(String hashExpression) {
+        return "SUM(" + hashExpression + ")";
+    }
+
+    /**
+     * 构建将哈希值分配到指定数量分桶的表达式
+     *
+     * @param hashExpression 哈希表达式
+     * @param buckets        分桶数
+     * @return 分桶表达式,取值为0到buckets-1
+     */
+    default String bucketExpression(String hashExpression, long buckets) {
+        return "MOD(" + hashExpression + ", " + buckets + ")";
+    }
+
+    /**
+     * 单个IN列表允许的最大元素个数
+     * 默认为Oracle的上限1000
+     *
+     * @return 最大元素个数
+     */
+    default int maxInListSize() {
+        return 1000;
+    }
+
+    /**
+     * 按主键批量匹配时每批允许的最大主键行数
+     * 默认与maxInListSize相同,单条语句的参数个数有上限的数据库按主键列数相应减少
+     *
+     * @param keyColumns 主键列数
+     * @return 每批最大主键行数
+     */
+    default int maxKeyRows(int keyColumns) {
+        return maxInListSize();
+    }
+
+    /**
+     * 构建按主键批量匹配的条件
+     * 单列主键为 k IN (?, ?),多列主键默认使用行值表达式 (k1, k2) IN ((?, ?), (?, ?)),
+     * 参数按行依次绑定各主键列的值
+     *
+     * @param keys 引用后的主键列
+     * @param rows 主键行数
+     * @return 匹配条件
+     */
+    default String keyInCondition(List<String> keys, int rows) {
+        String placeholders = keys.size() == 1 ? "?"
+                : "(" + String.join(", ", Collections.nCopies(keys.size(), "?")) + ")";
+        String columns = keys.size() == 1 ? keys.get(0) : "(" + String.join(", ", keys) + ")";
+        return columns + " IN (" + String.join(", ", Collections.nCopies(rows, placeholders)) + ")";
+    }
+
+    /**
+     * 将配置的查询语句转换为可以作为子查询的形式
+     * 列投影、分页、拆分和计算下推都将原查询作为子查询,形如 SELECT ... FROM (query) t,
+     * 默认原样返回,子查询中不允许某些子句(如SQL Server的ORDER BY)的数据库需要重写
+     *
+     * @param query 原查询语句,已去掉末尾的分号
+     * @return 可以作为子查询的查询语句
+     */
+    default String subquery(String query) {
+        return query;
+    }
+
+    /**
+     * 限制查询最多返回指定行数
+     * 默认使用SQL标准的FETCH FIRST子句
+     *
+     * @param query 查询语句,可以包含ORDER BY
+     * @param rows  最大行数
+     * @return 限制行数后的查询语句
+     */
+    default String limitQuery(String query, int rows) {
+        return query + " FETCH FIRST " + rows + " ROWS ONLY";
+    }
+}
@@ -0,0 +1,213 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tangyujun.datashadow.datasource.DataSource;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 主键哈希两阶段定位
+ * 主数据源和影子数据源都是同一方言的数据库时,先只读取两侧的主键列和数据库计算的数据行哈希,
+ * 在本地按主键匹配并比较哈希,找出哈希不同或只在一侧存在的主键,之后只需按这些主键读取完整数据行
+ *
+ * 与校验和下推相比,两侧的每一行都会传输主键和哈希,但不需要多轮汇总查询,
+ * 适用于差异分散、校验和下推难以缩小范围的场景
+ *
+ * 说明:
+ * 1. 主数据源的主键和哈希驻留内存,内存占用与主数据源行数成正比
+ * 2. 主键按文本匹配,数值统一去掉末尾的0;类型不同造成的文本差异只会增加需要读取的数据行,不会漏掉差异
+ */
+public final class KeyHashPushdown {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyHashPushdown.class);
+
+    /**
+     * 数据行哈希的列名
+     */
+    private static final String ROW_HASH = "ROW_HASH";
+
+    /**
+     * 主数据源一侧
+     */
+    private final Side primary;
+
+    /**
+     * 影子数据源一侧
+     */
+    private final Side shadow;
+
+    /**
+     * 判断两个数据源是否支持主键哈希两阶段定位
+     * 两侧都是数据库数据源,提供相同的数据库方言且方言支持哈希表达式时支持
+     *
+     * @param primary 主数据源
+     * @param shadow  影子数据源
+     * @return 支持时返回true
+     */
+    public static boolean supports(DataSource primary, DataSource shadow) {
+        return DataSourceDb.isSameDialect(primary, shadow) && ((DataSourceDb) primary).getDialect().supportsHash();
+    }
+
+    /**
+     * 构造主键哈希两阶段定位
+     * 两侧的主键列和数据列需要按数据项一一对应,顺序相同
+     *
+     * @param primary        主数据源
+     * @param primaryKeys    主数据源的主键列
+     * @param primaryColumns 主数据源参与对比的列
+     * @param shadow         影子数据源
+     * @param shadowKeys     影子数据源的主键列
+     * @param shadowColumns  影子数据源参与对比的列
+     */
+    public KeyHashPushdown(DataSourceDb primary, List<String> primaryKeys, List<String> primaryColumns,
+            DataSourceDb shadow, List<String> shadowKeys, List<String> shadowColumns) {
+        if (!supports(primary, shadow)) {
+            throw new IllegalArgumentException("两个数据源的数据库方言不同,不支持主键哈希定位");
+        }
+        if (primaryKeys.isEmpty() || primaryKeys.size() != shadowKeys.size()
+                || primaryColumns.size() != shadowColumns.size()) {
+            throw new IllegalArgumentException("两个数据源的主键列和对比列必须一一对应");
+        }
+        this.primary = new Side(primary, primaryKeys, primaryColumns);
+        this.shadow = new Side(shadow, shadowKeys, shadowColumns);
+    }
+
+    /**
+     * 读取两侧的主键和数据行哈希,定位需要读取完整数据行的主键
+     *
+     * @return 定位结果,包含两侧需要读取的主键值
+     * @throws DataAccessException 执行查询失败时抛出
+     */
+    public Result locate() throws DataAccessException {
+        Map<Object, KeyHash> primaryHashes = new HashMap<>();
+        long primaryRows = 0;
+        try (RowCursor cursor = primary.open()) {
+            while (cursor.next()) {
+                KeyHash keyHash = primary.read(cursor.current());
+                primaryHashes.put(normalizeKey(keyHash.values()), keyHash);
+                primaryRows++;
+            }
+        }
+
+        List<Object[]> primaryKeys = new ArrayList<>();
+        List<Object[]> shadowKeys = new ArrayList<>();
+        long shadowRows = 0;
+        try (RowCursor cursor = shadow.open()) {
+            while (cursor.next()) {
+                KeyHash keyHash = shadow.read(cursor.current());
+                shadowRows++;
+                KeyHash matched = primaryHashes.remove(normalizeKey(keyHash.values()));
+                if (matched == null) {
+                    shadowKeys.add(keyHash.values());
+                } else if (matched.hash() != keyHash.hash()) {
+                    primaryKeys.add(matched.values());
+                    shadowKeys.add(keyHash.values());
+                }
+            }
+        }
+        for (KeyHash remaining : primaryHashes.values()) {
+            primaryKeys.add(remaining.values());
+        }
+        logger.info("主键哈希定位完成: 主数据源{}行中{}行需要读取, 影子数据源{}行中{}行需要读取",
+                primaryRows, primaryKeys.size(), shadowRows, shadowKeys.size());
+        return new Result(primary.keys(), primaryKeys, shadow.keys(), shadowKeys, primaryRows, shadowRows);
+    }
+
+    /**
+     * 将主键值转换为用于匹配的文本
+     * 数值统一去掉末尾的0,其他值使用文本形式,同一主键从不同数据源读取时得到相同的结果
+     *
+     * @param values 主键值
+     * @return 单列主键时为文本,多列主键时为文本列表
+     */
+    public static Object normalizeKey(Object[] values) {
+        if (values.length == 1) {
+            return normalize(values[0]);
+        }
+        Object[] normalized = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            normalized[i] = normalize(values[i]);
+        }
+        return Arrays.asList(normalized);
+    }
+
+    private static String normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros().toPlainString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * 主键值和数据行哈希
+     *
+     * @param values 主键值,按主键列顺序
+     * @param hash   数据行哈希
+     */
+    private record KeyHash(Object[] values, long hash) {
+    }
+
+    /**
+     * 参与定位的一侧数据源
+     *
+     * @param source  数据库数据源
+     * @param keys    主键列
+     * @param select  查询列表,依次为各主键列和数据行哈希
+     */
+    private record Side(DataSourceDb source, List<String> keys, String select) {
+
+        Side(DataSourceDb source, List<String> keys, List<String> columns) {
+            this(source, keys, buildSelect(source.getDialect(), keys, columns));
+        }
+
+        private static String buildSelect(JdbcDialect dialect, List<String> keys, List<String> columns) {
+            StringBuilder select = new StringBuilder();
+            for (int i = 0; i < keys.size(); i++) {
+                select.append(dialect.quoteIdentifier(keys.get(i))).append(" AS ")
+                        .append(dialect.quoteIdentifier("K" + (i + 1))).append(", ");
+            }
+            // 别名需要引用,否则PostgreSQL等数据库会将未引用的别名转换为小写,按原样读取时取不到值
+            select.append(dialect.hashExpression(columns.stream().map(dialect::quoteIdentifier).toList()))
+                    .append(" AS ").append(dialect.quoteIdentifier(ROW_HASH));
+            return select.toString();
+        }
+
+        RowCursor open() {
+            return source.openDerivedCursor(select, null, null);
+        }
+
+        KeyHash read(Map<String, Object> row) {
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = row.get("K" + (i + 1));
+            }
+            return new KeyHash(values, ((Number) row.get(ROW_HASH)).longValue());
+        }
+    }
+
+    /**
+     * 定位结果
+     *
+     * @param primaryKeyColumns 主数据源的主键列
+     * @param primaryKeys       主数据源需要读取完整数据行的主键值
+     * @param shadowKeyColumns  影子数据源的主键列
+     * @param shadowKeys        影子数据源需要读取完整数据行的主键值
+     * @param primaryRows       主数据源总行数
+     * @param shadowRows        影子数据源总行数
+     */
+    public record Result(List<String> primaryKeyColumns, List<Object[]> primaryKeys,
+            List<String> shadowKeyColumns, List<Object[]> shadowKeys, long primaryRows, long shadowRows) {
+    }
+}
@@ -0,0 +1,272 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * 大字段摘要
+ * 读取CLOB、BLOB等大字段时以流的方式边读边计算SHA-256摘要,只保留长度、摘要和用于显示的开头部分,
+ * 不在内存中保留完整内容,对比时按摘要比较
+ *
+ * 说明:
+ * 1. 文本大字段按UTF-16编码计算摘要,不超过INLINE_LENGTH个字符时直接返回完整文本,短文本的比较方式不变
+ * 2. 文本大字段同时计算逐字符忽略大小写后的摘要,供忽略大小写的比较使用
+ * 3. 二进制大字段始终返回摘要
+ * 4. 另一侧为普通文本(如文件数据源或较长的VARCHAR)时,通过ofText按相同方式计算摘要后比较
+ * 5. toString包含开头部分、长度和摘要前16位,按文本比较的比较器同样能区分内容不同的大字段
+ * 6. 完整内容可以通过DataSourceDb.readLob按主键重新读取
+ *
+ * 限制:
+ * 字符串比较器(StringDataComparator)按摘要比较并支持忽略大小写和null等于空字符串;
+ * 其他比较器(如模糊匹配、排序规则、JSON比较器)比较的是toString的文本,
+ * 超过INLINE_LENGTH个字符的大字段只有内容完全相同时才相等
+ */
+public final class LobDigest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 直接返回完整文本的最大字符数
+     */
+    public static final int INLINE_LENGTH = 4000;
+
+    /**
+     * 保留用于显示的开头部分长度,文本为字符数,二进制为字节数
+     */
+    public static final int PREFIX_LENGTH = 64;
+
+    /**
+     * 每次从流中读取的长度
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * 是否为二进制大字段
+     */
+    private final boolean binary;
+
+    /**
+     * 内容长度,文本为字符数,二进制为字节数
+     */
+    private final long length;
+
+    /**
+     * SHA-256摘要的十六进制文本
+     */
+    private final String digest;
+
+    /**
+     * 逐字符忽略大小写后的SHA-256摘要,二进制大字段为null
+     */
+    private final String foldedDigest;
+
+    /**
+     * 开头部分,二进制为十六进制文本
+     */
+    private final String prefix;
+
+    private LobDigest(boolean binary, long length, String digest, String foldedDigest, String prefix) {
+        this.binary = binary;
+        this.length = length;
+        this.digest = digest;
+        this.foldedDigest = foldedDigest;
+        this.prefix = prefix;
+    }
+
+    /**
+     * 读取文本大字段
+     *
+     * @param reader 字符流,由调用方关闭
+     * @return 不超过INLINE_LENGTH个字符时返回完整文本,否则返回摘要
+     * @throws IOException 读取失败时抛出
+     */
+    public static Object readCharacters(Reader reader) throws IOException {
+        TextDigester digester = new TextDigester();
+        StringBuilder head = new StringBuilder();
+        char[] chars = new char[BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(chars)) != -1) {
+            if (head.length() <= INLINE_LENGTH) {
+                head.append(chars, 0, Math.min(read, INLINE_LENGTH + 1 - head.length()));
+            }
+            digester.update(chars, read);
+        }
+        if (digester.length <= INLINE_LENGTH) {
+            return head.toString();
+        }
+        return digester.finish(head.substring(0, PREFIX_LENGTH));
+    }
+
+    /**
+     * 按与readCharacters相同的方式计算文本的摘要
+     * 用于将另一侧的普通文本与大字段摘要比较,不论文本长短都返回摘要
+     *
+     * @param text 文本
+     * @return 摘要
+     */
+    public static LobDigest ofText(CharSequence text) {
+        TextDigester digester = new TextDigester();
+        char[] chars = new char[BUFFER_SIZE];
+        for (int start = 0; start < text.length(); start += BUFFER_SIZE) {
+            int end = Math.min(start + BUFFER_SIZE, text.length());
+            for (int i = start; i < end; i++) {
+                chars[i - start] = text.charAt(i);
+            }
+            digester.update(chars, end - start);
+        }
+        return digester.finish(text.subSequence(0, Math.min(PREFIX_LENGTH, text.length())).toString());
+    }
+
+    /**
+     * 读取二进制大字段
+     *
+     * @param input 字节流,由调用方关闭
+     * @return 摘要
+     * @throws IOException 读取失败时抛出
+     */
+    public static LobDigest readBytes(InputStream input) throws IOException {
+        MessageDigest messageDigest = newDigest();
+        byte[] head = new byte[PREFIX_LENGTH];
+        int headLength = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long length = 0;
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (headLength < PREFIX_LENGTH) {
+                int copied = Math.min(read, PREFIX_LENGTH - headLength);
+                System.arraycopy(buffer, 0, head, headLength, copied);
+                headLength += copied;
+            }
+            messageDigest.update(buffer, 0, read);
+            length += read;
+        }
+        return new LobDigest(true, length, HEX.formatHex(messageDigest.digest()), null,
+                HEX.formatHex(Arrays.copyOf(head, headLength)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前运行环境不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 是否为二进制大字段
+     *
+     * @return 二进制时返回true
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * 获取内容长度
+     *
+     * @return 文本为字符数,二进制为字节数
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * 获取SHA-256摘要
+     *
+     * @return 摘要的十六进制文本
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * 获取逐字符忽略大小写后的SHA-256摘要
+     * 每个字符先转大写再转小写后计算,与String.equalsIgnoreCase的规则一致
+     *
+     * @return 摘要的十六进制文本,二进制大字段为null
+     */
+    public String getFoldedDigest() {
+        return foldedDigest;
+    }
+
+    /**
+     * 获取开头部分
+     *
+     * @return 文本的开头部分,二进制为开头部分的十六进制文本
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LobDigest that)) {
+            return false;
+        }
+        return binary == that.binary && length == that.length && digest.equals(that.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return digest.hashCode();
+    }
+
+    /**
+     * 显示文本
+     * 例如: 合同正文…(12000字符, SHA-256:1f3a5c7e9b2d4f60)
+     *
+     * @return 开头部分、长度和摘要前16位
+     */
+    @Override
+    public String toString() {
+        return (binary ? "0x" : "") + prefix + "…(" + length + (binary ? "字节" : "字符") + ", SHA-256:"
+                + digest.substring(0, 16) + ")";
+    }
+
+    /**
+     * 文本摘要计算器
+     * 同时计算原文和逐字符忽略大小写后的摘要,字符按UTF-16BE展开,摘要与每次读取的长度无关
+     */
+    private static final class TextDigester {
+
+        private final MessageDigest digest = newDigest();
+
+        private final MessageDigest folded = newDigest();
+
+        private final byte[] bytes = new byte[BUFFER_SIZE * 2];
+
+        private final byte[] foldedBytes = new byte[BUFFER_SIZE * 2];
+
+        private long length;
+
+        void update(char[] chars, int count) {
+            for (int i = 0; i < count; i++) {
+                char c = chars[i];
+                char f = Character.toLowerCase(Character.toUpperCase(c));
+                bytes[i * 2] = (byte) (c >> 8);
+                bytes[i * 2 + 1] = (byte) c;
+                foldedBytes[i * 2] = (byte) (f >> 8);
+                foldedBytes[i * 2 + 1] = (byte) f;
+            }
+            digest.update(bytes, 0, count * 2);
+            folded.update(foldedBytes, 0, count * 2);
+            length += count;
+        }
+
+        LobDigest finish(String prefix) {
+            return new LobDigest(false, length, HEX.formatHex(digest.digest()), HEX.formatHex(folded.digest()),
+                    prefix);
+        }
+    }
+}
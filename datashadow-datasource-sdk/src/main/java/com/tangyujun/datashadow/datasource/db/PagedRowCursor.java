@@ -0,0 +1,221 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 键集分页数据行游标
+ * 按分页列有序读取,每页通过 分页列 > 上一页最后一行的键 的条件查询,每页使用独立的短查询,
+ * 读取完即归还连接,不会长时间占用一个连接和事务
+ *
+ * 说明:
+ * 1. 调用方读取当前页时,后台线程已从连接池取另一个连接预读下一页
+ * 2. 读取某一页失败时,从最后一个已完整读取的页的末尾键重试,重试次数用完后抛出异常
+ * 3. 分页列为null的数据行无法参与键集比较,在所有分页读取完毕后通过trailing游标读取
+ */
+class PagedRowCursor implements RowCursor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PagedRowCursor.class);
+
+    /**
+     * 单页读取失败时的最大重试次数
+     */
+    static final int MAX_RETRIES = 3;
+
+    /**
+     * 预读线程编号
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * 列名列表
+     */
+    private final List<String> columns;
+
+    /**
+     * 读取一页数据,参数为上一页最后一行的键,读取第一页时为null
+     */
+    private final Function<Object[], List<Map<String, Object>>> pageReader;
+
+    /**
+     * 从数据行中取出分页列的值
+     */
+    private final Function<Map<String, Object>, Object[]> keyOf;
+
+    /**
+     * 每页行数
+     */
+    private final int pageSize;
+
+    /**
+     * 分页读取完毕后读取的剩余数据行,为null时没有
+     */
+    private Supplier<RowCursor> trailing;
+
+    /**
+     * 预读线程
+     */
+    private final ExecutorService prefetcher;
+
+    /**
+     * 正在预读的下一页,没有下一页时为null
+     */
+    private Future<List<Map<String, Object>>> nextPage;
+
+    /**
+     * 当前页
+     */
+    private Iterator<Map<String, Object>> page = Collections.emptyIterator();
+
+    /**
+     * 正在读取的剩余数据行游标
+     */
+    private RowCursor trailingCursor;
+
+    /**
+     * 当前行
+     */
+    private Map<String, Object> current;
+
+    /**
+     * 构造键集分页游标并立即开始读取第一页
+     *
+     * @param columns    列名列表
+     * @param pageReader 读取一页数据的方法
+     * @param keyOf      从数据行中取出分页列的值
+     * @param pageSize   每页行数
+     * @param trailing   分页读取完毕后读取的剩余数据行,为null时没有
+     */
+    PagedRowCursor(List<String> columns, Function<Object[], List<Map<String, Object>>> pageReader,
+            Function<Map<String, Object>, Object[]> keyOf, int pageSize, Supplier<RowCursor> trailing) {
+        this.columns = columns;
+        this.pageReader = pageReader;
+        this.keyOf = keyOf;
+        this.pageSize = pageSize;
+        this.trailing = trailing;
+        this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datashadow-page-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.nextPage = prefetcher.submit(() -> readPage(null));
+    }
+
+    /**
+     * 读取一页数据,失败时重试
+     *
+     * @param after 上一页最后一行的键,读取第一页时为null
+     * @return 数据行列表
+     */
+    private List<Map<String, Object>> readPage(Object[] after) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return pageReader.apply(after);
+            } catch (DataAccessException e) {
+                if (attempt > MAX_RETRIES || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.warn("分页读取失败,第{}次重试: {}", attempt, e.getMessage());
+                try {
+                    Thread.sleep(1000L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        while (true) {
+            if (page.hasNext()) {
+                current = page.next();
+                return true;
+            }
+            if (nextPage != null) {
+                List<Map<String, Object>> rows = await(nextPage);
+                nextPage = null;
+                if (rows.size() >= pageSize) {
+                    Object[] after = keyOf.apply(rows.get(rows.size() - 1));
+                    nextPage = prefetcher.submit(() -> readPage(after));
+                }
+                page = rows.iterator();
+                continue;
+            }
+            if (trailing != null) {
+                trailingCursor = trailing.get();
+                trailing = null;
+            }
+            if (trailingCursor != null && trailingCursor.next()) {
+                current = trailingCursor.current();
+                return true;
+            }
+            current = null;
+            return false;
+        }
+    }
+
+    /**
+     * 等待预读的页
+     *
+     * @param future 预读任务
+     * @return 数据行列表
+     */
+    private List<Map<String, Object>> await(Future<List<Map<String, Object>>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new DataAccessException("分页读取被中断", e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof DataAccessException dataAccessException) {
+                throw dataAccessException;
+            }
+            throw new DataAccessException("分页读取失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+        prefetcher.shutdownNow();
+        if (trailingCursor != null) {
+            trailingCursor.close();
+            trailingCursor = null;
+        }
+        trailing = null;
+        page = Collections.emptyIterator();
+        current = null;
+    }
+}
@@ -0,0 +1,183 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 并行数据行游标
+ * 每个分区查询由独立的线程和连接执行,读取到的数据行汇入同一个有界队列,调用方按单个游标逐行读取
+ *
+ * 说明:
+ * 1. 数据行的先后顺序取决于各分区的读取进度,不保证与原查询一致
+ * 2. 队列有界,调用方处理较慢时读取线程会等待,内存占用不会随结果集增长
+ * 3. 任一分区读取失败时,异常在调用方下一次读取时抛出,并停止其他分区
+ */
+class ParallelRowCursor implements RowCursor {
+
+    /**
+     * 分区读取完毕的标记
+     */
+    private static final Object END_OF_PARTITION = new Object();
+
+    /**
+     * 读取线程编号
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * 分区读取失败
+     *
+     * @param exception 读取异常
+     */
+    private record Failure(RuntimeException exception) {
+    }
+
+    /**
+     * 数据行队列
+     */
+    private final BlockingQueue<Object> queue;
+
+    /**
+     * 读取线程池
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 列名列表
+     */
+    private final List<String> columns;
+
+    /**
+     * 分区游标的打开方法
+     */
+    private final Function<PartitionQuery, RowCursor> opener;
+
+    /**
+     * 尚未读取完毕的分区数
+     */
+    private int remaining;
+
+    /**
+     * 当前行
+     */
+    private Map<String, Object> current;
+
+    /**
+     * 游标是否已关闭
+     */
+    private volatile boolean closed;
+
+    /**
+     * 构造并行游标并立即开始读取所有分区
+     *
+     * @param partitions   分区查询列表
+     * @param columns      列名列表
+     * @param opener       分区游标的打开方法
+     * @param queueCapacity 队列容量
+     */
+    ParallelRowCursor(List<PartitionQuery> partitions, List<String> columns,
+            Function<PartitionQuery, RowCursor> opener, int queueCapacity) {
+        this.columns = columns;
+        this.opener = opener;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.remaining = partitions.size();
+        this.executor = Executors.newFixedThreadPool(partitions.size(), runnable -> {
+            Thread thread = new Thread(runnable, "datashadow-extract-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (PartitionQuery partition : partitions) {
+            executor.execute(() -> extract(partition));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * 读取单个分区
+     *
+     * @param partition 分区查询
+     */
+    private void extract(PartitionQuery partition) {
+        try (RowCursor cursor = opener.apply(partition)) {
+            while (!closed && cursor.next()) {
+                put(cursor.current());
+            }
+            put(END_OF_PARTITION);
+        } catch (RuntimeException e) {
+            put(new Failure(e));
+        }
+    }
+
+    /**
+     * 放入队列,队列已满时等待,游标关闭后放弃
+     *
+     * @param item 数据行或标记
+     */
+    private void put(Object item) {
+        try {
+            while (!closed) {
+                if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean next() throws DataAccessException {
+        while (remaining > 0 && !closed) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new DataAccessException("并行读取被中断", e);
+            }
+            if (item == END_OF_PARTITION) {
+                remaining--;
+            } else if (item instanceof Failure failure) {
+                close();
+                throw failure.exception();
+            } else {
+                current = (Map<String, Object>) item;
+                return true;
+            }
+        }
+        current = null;
+        return false;
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 关闭游标
+     * 读取线程在完成当前批次后停止,各自关闭结果集并归还连接
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.util.List;
+
+/**
+ * 拆分后的分区查询
+ * 并行读取时每个分区由一个连接独立执行
+ *
+ * @param sql        分区查询语句
+ * @param parameters 查询参数,按占位符顺序
+ */
+record PartitionQuery(String sql, List<Object> parameters) {
+}
@@ -0,0 +1,18 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.util.List;
+
+/**
+ * 查询过滤条件
+ * 作为WHERE条件附加在包装原查询的外层查询上,条件中引用的是原查询结果的列
+ *
+ * @param condition  过滤条件,使用?作为参数占位符
+ * @param parameters 条件参数,按占位符顺序
+ */
+public record QueryFilter(String condition, List<Object> parameters) {
+
+    /**
+     * 不匹配任何数据行的过滤条件
+     */
+    public static final QueryFilter NONE = new QueryFilter("1 = 0", List.of());
+}
@@ -0,0 +1,287 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tangyujun.datashadow.datasource.DataSource;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 基于水位列的增量对比定位
+ * 两侧数据库都配置了水位列(如更新时间、版本号)时,每次对比记录两侧水位列的最大值,
+ * 下次对比只读取水位列大于上次水位的数据行的主键,合并两侧的主键后按主键读取完整数据行,
+ * 对比结果合并到上次的对比结果中,不再读取全表
+ *
+ * 对比流程:
+ * 1. 对比开始前查询两侧水位列的当前最大值,作为本次的高水位
+ * 2. 两侧都有上次水位时,读取 上次水位 < 水位列 <= 本次高水位 的数据行的主键,两侧取并集
+ * 3. 按主键读取两侧的完整数据行进行对比,替换上次对比结果中这些主键的结果
+ * 4. 对比成功后将本次高水位保存到数据源配置中,随方案一起保存
+ *
+ * 说明:
+ * 1. 以本次高水位作为上界,对比过程中新变化的数据行留到下次对比,不会遗漏
+ * 2. 物理删除的数据行不会改变水位列,无法被增量对比发现,需要定期清空水位做一次全量对比
+ * 3. 水位以文本保存,按水位列的JDBC类型转换后作为参数绑定
+ */
+public final class WatermarkIncrement {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatermarkIncrement.class);
+
+    /**
+     * 本次高水位的列名
+     */
+    private static final String HIGH_WATERMARK = "HIGH_WATERMARK";
+
+    /**
+     * 主数据源一侧
+     */
+    private final Side primary;
+
+    /**
+     * 影子数据源一侧
+     */
+    private final Side shadow;
+
+    /**
+     * 判断两个数据源是否支持增量对比
+     * 两侧都是提供相同数据库方言的数据库数据源,并且都配置了水位列时支持
+     *
+     * @param primary 主数据源
+     * @param shadow  影子数据源
+     * @return 支持时返回true
+     */
+    public static boolean supports(DataSource primary, DataSource shadow) {
+        return DataSourceDb.isSameDialect(primary, shadow)
+                && hasWatermarkColumn((DataSourceDb) primary)
+                && hasWatermarkColumn((DataSourceDb) shadow);
+    }
+
+    private static boolean hasWatermarkColumn(DataSourceDb source) {
+        return source.getWatermarkColumn() != null && !source.getWatermarkColumn().isBlank();
+    }
+
+    /**
+     * 构造增量对比定位
+     * 两侧的主键列需要按数据项一一对应,顺序相同
+     *
+     * @param primary     主数据源
+     * @param primaryKeys 主数据源的主键列
+     * @param shadow      影子数据源
+     * @param shadowKeys  影子数据源的主键列
+     */
+    public WatermarkIncrement(DataSourceDb primary, List<String> primaryKeys, DataSourceDb shadow,
+            List<String> shadowKeys) {
+        if (!supports(primary, shadow)) {
+            throw new IllegalArgumentException("两个数据源的数据库方言不同或未配置水位列,不支持增量对比");
+        }
+        if (primaryKeys.isEmpty() || primaryKeys.size() != shadowKeys.size()) {
+            throw new IllegalArgumentException("两个数据源的主键列必须一一对应");
+        }
+        this.primary = new Side(primary, primaryKeys);
+        this.shadow = new Side(shadow, shadowKeys);
+    }
+
+    /**
+     * 判断是否可以增量对比
+     * 两侧都保存了上次对比的水位时可以增量对比,否则需要全量对比
+     *
+     * @return 可以增量对比时返回true
+     */
+    public boolean isIncremental() {
+        return hasWatermark(primary.source()) && hasWatermark(shadow.source());
+    }
+
+    private static boolean hasWatermark(DataSourceDb source) {
+        return source.getWatermark() != null && !source.getWatermark().isBlank();
+    }
+
+    /**
+     * 查询两侧水位列的当前最大值,作为本次对比的高水位
+     * 需要在读取数据行之前调用
+     *
+     * @return 两侧的高水位
+     * @throws DataAccessException 水位列不存在或查询失败时抛出
+     */
+    public Watermarks captureHighWatermarks() throws DataAccessException {
+        return new Watermarks(primary.queryHighWatermark(), shadow.queryHighWatermark());
+    }
+
+    /**
+     * 读取两侧水位之后变化的数据行的主键,合并为两侧都需要重新对比的主键
+     *
+     * @param high 本次对比的高水位
+     * @return 需要重新对比的主键
+     * @throws DataAccessException 未保存上次水位、水位格式不正确或查询失败时抛出
+     */
+    public Changes locateChanges(Watermarks high) throws DataAccessException {
+        if (!isIncremental()) {
+            throw new DataAccessException("数据源未保存上次对比的水位,不能增量对比", null);
+        }
+        Map<Object, Object[]> keys = new LinkedHashMap<>();
+        long primaryChanged = primary.readChangedKeys(high.primary(), keys);
+        long shadowChanged = shadow.readChangedKeys(high.shadow(), keys);
+        logger.info("增量对比定位完成: 主数据源{}行变化, 影子数据源{}行变化, 合并后{}个主键需要重新对比",
+                primaryChanged, shadowChanged, keys.size());
+        return new Changes(primary.keys(), shadow.keys(), new ArrayList<>(keys.values()), keys.keySet());
+    }
+
+    /**
+     * 对比成功后保存本次的高水位
+     * 一侧没有数据行时保留该侧的上次水位
+     *
+     * @param high 本次对比的高水位
+     */
+    public void commit(Watermarks high) {
+        if (high.primary() != null) {
+            primary.source().setWatermark(high.primary());
+        }
+        if (high.shadow() != null) {
+            shadow.source().setWatermark(high.shadow());
+        }
+    }
+
+    /**
+     * 将水位列的值转换为保存的文本
+     *
+     * @param value 水位列的值
+     * @return 水位值文本
+     */
+    private static String formatWatermark(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * 按水位列的JDBC类型将保存的文本转换为绑定参数
+     *
+     * @param column 水位列
+     * @param text   水位值文本
+     * @return 绑定参数
+     * @throws DataAccessException 水位值格式不正确时抛出
+     */
+    private static Object parseWatermark(ColumnInfo column, String text) throws DataAccessException {
+        String value = text.strip();
+        try {
+            return switch (column.jdbcType()) {
+                case Types.DATE -> LocalDate.parse(value);
+                case Types.TIME -> LocalTime.parse(value);
+                case Types.TIMESTAMP -> LocalDateTime.parse(value);
+                case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.DECIMAL, Types.NUMERIC,
+                        Types.DOUBLE, Types.FLOAT, Types.REAL -> new BigDecimal(value);
+                default -> value;
+            };
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new DataAccessException("水位列" + column.name() + "的水位值格式不正确: " + value, e);
+        }
+    }
+
+    /**
+     * 参与增量对比的一侧数据源
+     *
+     * @param source 数据库数据源
+     * @param keys   主键列
+     */
+    private record Side(DataSourceDb source, List<String> keys) {
+
+        /**
+         * 获取水位列
+         *
+         * @return 水位列信息
+         * @throws DataAccessException 水位列不存在时抛出
+         */
+        ColumnInfo watermarkColumn() throws DataAccessException {
+            ColumnInfo column = source.findColumn(source.getWatermarkColumn().trim());
+            if (column == null) {
+                throw new DataAccessException("水位列不存在: " + source.getWatermarkColumn(), null);
+            }
+            return column;
+        }
+
+        String queryHighWatermark() throws DataAccessException {
+            JdbcDialect dialect = source.getDialect();
+            String column = dialect.quoteIdentifier(watermarkColumn().name());
+            // 别名需要引用,否则PostgreSQL等数据库会将未引用的别名转换为小写,按原样读取时取不到值
+            try (RowCursor cursor = source.openDerivedCursor(
+                    "MAX(" + column + ") AS " + dialect.quoteIdentifier(HIGH_WATERMARK), null, null)) {
+                return cursor.next() ? formatWatermark(cursor.current().get(HIGH_WATERMARK)) : null;
+            }
+        }
+
+        /**
+         * 读取水位之后变化的数据行的主键,按规范化后的主键去重放入keys
+         *
+         * @param high 本次高水位,为null时该侧没有数据行
+         * @param keys 规范化主键到主键值的映射
+         * @return 该侧变化的数据行数
+         */
+        long readChangedKeys(String high, Map<Object, Object[]> keys) throws DataAccessException {
+            if (high == null) {
+                return 0;
+            }
+            JdbcDialect dialect = source.getDialect();
+            ColumnInfo column = watermarkColumn();
+            String quoted = dialect.quoteIdentifier(column.name());
+            StringBuilder select = new StringBuilder();
+            for (int i = 0; i < keys().size(); i++) {
+                if (i > 0) {
+                    select.append(", ");
+                }
+                select.append(dialect.quoteIdentifier(keys().get(i))).append(" AS ")
+                        .append(dialect.quoteIdentifier("K" + (i + 1)));
+            }
+            QueryFilter filter = new QueryFilter(quoted + " > ? AND " + quoted + " <= ?",
+                    List.of(parseWatermark(column, source.getWatermark()), parseWatermark(column, high)));
+            long rows = 0;
+            try (RowCursor cursor = source.openDerivedCursor(select.toString(), filter, null)) {
+                while (cursor.next()) {
+                    Object[] values = new Object[keys().size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = cursor.current().get("K" + (i + 1));
+                    }
+                    keys.putIfAbsent(KeyHashPushdown.normalizeKey(values), values);
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * 两侧的高水位
+     *
+     * @param primary 主数据源水位列的最大值文本,没有数据行时为null
+     * @param shadow  影子数据源水位列的最大值文本,没有数据行时为null
+     */
+    public record Watermarks(String primary, String shadow) {
+    }
+
+    /**
+     * 需要重新对比的主键
+     *
+     * @param primaryKeyColumns 主数据源的主键列
+     * @param shadowKeyColumns  影子数据源的主键列
+     * @param keys              两侧变化的数据行主键的并集,按主键列顺序
+     * @param normalizedKeys    规范化后的主键,用于在上次对比结果中找出需要替换的结果,见KeyHashPushdown.normalizeKey
+     */
+    public record Changes(List<String> primaryKeyColumns, List<String> shadowKeyColumns, List<Object[]> keys,
+            Set<Object> normalizedKeys) {
+    }
+}
@@ -46,23 +46,20 @@ public class XmlData extends ShadowData {
 
     /**
      * 从输入流解析XML数据
-     * 使用DOM解析器将XML输入流解析为Document对象
-     * 然后调用Document解析方法获取数据
+     * 使用StAX逐个读取根元素下的子元素作为数据行,不构建DOM
      * 
      * @param stream XML格式的输入流
      * @return 解析后的数据列表,每个元素为一个Map表示一行数据
      * @throws DataAccessException 当XML解析出错时抛出此异常
      */
     public static List<Map<String, Object>> getValues(InputStream stream) {
-        Document document = null;
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            document = builder.parse(stream);
-        } catch (IOException | ParserConfigurationException | SAXException e) {
-            throw new DataAccessException("XML解析错误: " + e.getMessage(), e);
+        List<Map<String, Object>> result = new ArrayList<>();
+        try (XmlRecordCursor cursor = new XmlRecordCursor(stream, null, null)) {
+            while (cursor.next()) {
+                result.add(cursor.current());
+            }
         }
-        return getValues(document);
+        return result;
     }
 
     /**
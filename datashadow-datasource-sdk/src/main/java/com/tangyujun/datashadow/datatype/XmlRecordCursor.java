@@ -0,0 +1,285 @@
+package com.tangyujun.datashadow.datatype;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * XML记录游标
+ * 基于StAX逐个读取XML中的记录元素,每读到一个记录元素返回一行数据,不构建整个文档的DOM
+ *
+ * 说明:
+ * 1. 记录路径为从根元素开始、以斜杠分隔的元素名称,例如export/orders/order,其中某一级为*时匹配任意名称;
+ *    未指定时为根元素下的每个子元素,与DOM解析时的行为一致
+ * 2. 记录元素的每个子元素为一个字段,元素名称为列名,包括所有下级元素在内的文本为值,属性忽略
+ * 3. 设置了列投影时投影以外的字段直接跳过,不拼接其文本
+ * 4. 不在记录路径上的元素连同其下级元素一起跳过;没有子元素的记录不返回
+ * 5. 不解析外部实体
+ */
+public final class XmlRecordCursor implements RowCursor {
+
+    /**
+     * 默认的记录路径,根元素下的每个子元素
+     */
+    public static final String DEFAULT_RECORD_PATH = "*/*";
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final InputStream input;
+
+    private final XMLStreamReader reader;
+
+    /**
+     * 记录路径的各级元素名称
+     */
+    private final String[] steps;
+
+    /**
+     * 需要读取的列,为null时读取全部列
+     */
+    private final Set<String> projection;
+
+    /**
+     * 当前元素到根元素的路径
+     */
+    private final List<String> stack = new ArrayList<>();
+
+    private final List<String> columns = new ArrayList<>();
+
+    private Map<String, Object> current;
+
+    /**
+     * 创建XML记录游标
+     *
+     * @param input      XML输入流,关闭游标时一起关闭
+     * @param recordPath 记录路径,为空时使用DEFAULT_RECORD_PATH
+     * @param projection 需要读取的列,为null时读取全部列
+     * @throws DataAccessException 记录路径格式错误或XML无法解析时抛出
+     */
+    public XmlRecordCursor(InputStream input, String recordPath, Set<String> projection) throws DataAccessException {
+        this.input = input;
+        this.projection = projection;
+        try {
+            this.steps = parsePath(recordPath);
+            this.reader = FACTORY.createXMLStreamReader(input);
+        } catch (IllegalArgumentException | XMLStreamException e) {
+            closeInput();
+            throw new DataAccessException("XML解析错误: " + e.getMessage(), e);
+        }
+        if (projection != null) {
+            columns.addAll(projection);
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    /**
+     * 解析记录路径
+     *
+     * @param recordPath 记录路径,开头和结尾的斜杠忽略,为空时使用DEFAULT_RECORD_PATH
+     * @return 各级元素名称
+     * @throws IllegalArgumentException 路径中有空的元素名称时抛出
+     */
+    public static String[] parsePath(String recordPath) {
+        String path = recordPath == null || recordPath.isBlank() ? DEFAULT_RECORD_PATH : recordPath.strip();
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        String[] result = path.split("/", -1);
+        for (String step : result) {
+            if (step.isBlank()) {
+                throw new IllegalArgumentException("记录路径格式错误: " + recordPath);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 判断当前元素路径是否为记录路径的前缀
+     *
+     * @return 当前路径在记录路径上时返回true
+     */
+    private boolean onPath() {
+        int depth = stack.size() - 1;
+        if (depth >= steps.length) {
+            return false;
+        }
+        return "*".equals(steps[depth]) || steps[depth].equals(stack.get(depth));
+    }
+
+    /**
+     * 获取当前元素的名称,带命名空间前缀时为"前缀:名称"
+     *
+     * @return 元素名称
+     */
+    private String elementName() {
+        String prefix = reader.getPrefix();
+        return prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+    }
+
+    /**
+     * 读取当前记录元素的字段,读取完毕时位于记录元素的结束位置
+     *
+     * @return 字段名称和值,记录没有子元素时返回null
+     */
+    private Map<String, Object> readRecord() throws XMLStreamException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        boolean hasField = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            hasField = true;
+            String name = elementName();
+            if (projection == null || projection.contains(name)) {
+                row.put(name, readText());
+            } else {
+                skipElement();
+            }
+        }
+        return hasField ? row : null;
+    }
+
+    /**
+     * 读取当前元素及其下级元素的全部文本
+     *
+     * @return 文本内容
+     */
+    private String readText() throws XMLStreamException {
+        String single = null;
+        StringBuilder text = null;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    // 只有一段文本时直接使用,不创建StringBuilder
+                    if (single == null && text == null) {
+                        single = reader.getText();
+                    } else {
+                        if (text == null) {
+                            text = new StringBuilder(single);
+                        }
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return text != null ? text.toString() : single != null ? single : "";
+    }
+
+    /**
+     * 跳过当前元素及其下级元素
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    @Override
+    public boolean next() throws DataAccessException {
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    stack.remove(stack.size() - 1);
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                stack.add(elementName());
+                if (!onPath()) {
+                    skipElement();
+                    stack.remove(stack.size() - 1);
+                } else if (stack.size() == steps.length) {
+                    Map<String, Object> row = readRecord();
+                    stack.remove(stack.size() - 1);
+                    if (row != null) {
+                        current = row;
+                        if (columns.isEmpty()) {
+                            columns.addAll(row.keySet());
+                        }
+                        return true;
+                    }
+                }
+            }
+            current = null;
+            return false;
+        } catch (XMLStreamException e) {
+            throw new DataAccessException("XML解析错误: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> current() {
+        return current;
+    }
+
+    /**
+     * 获取列名
+     * 设置了列投影时为投影中的列,否则为第一条记录的字段名
+     *
+     * @return 列名列表
+     */
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 关闭游标和输入流
+     */
+    @Override
+    public void close() {
+        current = null;
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // 只读解析器关闭失败不影响结果
+        }
+        closeInput();
+    }
+
+    private void closeInput() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            // 只读流关闭失败不影响结果
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.tangyujun.datashadow.utils;
+
+import java.util.Arrays;
+
+/**
+ * 编辑距离工具类
+ * 提供带上限的Levenshtein编辑距离计算
+ *
+ * 算法说明:
+ * 1. 使用Myers/Hyyrö位并行算法,以较短的字符串作为模式串,每个文本字符只需常数次64位运算
+ * 2. 模式串超过64个字符时按64位分块计算,块间传递水平差值
+ * 3. 计算过程中实时维护距离下界,一旦超过上限立即结束
+ * 4. 字符掩码表按线程复用,计算过程不产生额外对象
+ *
+ * 注意:按UTF-16字符单元计算距离,代理对字符按两个字符计算
+ */
+public class EditDistance {
+
+    /**
+     * 每个线程复用的计算缓冲区
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * 私有构造函数,防止实例化
+     */
+    private EditDistance() {
+    }
+
+    /**
+     * 计算两个字符串之间带上限的编辑距离
+     * 编辑操作包括插入、删除和替换,每次操作代价为1
+     *
+     * @param s1          第一个字符串
+     * @param s2          第二个字符串
+     * @param maxDistance 距离上限,必须不小于0
+     * @return 编辑距离;当距离超过上限时返回maxDistance + 1
+     */
+    public static int bounded(CharSequence s1, CharSequence s2, int maxDistance) {
+        CharSequence pattern = s1.length() <= s2.length() ? s1 : s2;
+        CharSequence text = pattern == s1 ? s2 : s1;
+        int m = pattern.length();
+        int n = text.length();
+        if (n - m > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (m == 0) {
+            return n;
+        }
+        Scratch scratch = SCRATCH.get();
+        int words = (m + 63) >>> 6;
+        scratch.prepare(pattern, words);
+        try {
+            return words == 1
+                    ? singleWord(scratch, text, m, maxDistance)
+                    : multiWord(scratch, text, m, words, maxDistance);
+        } finally {
+            scratch.clear(pattern);
+        }
+    }
+
+    /**
+     * 模式串不超过64个字符时的单字计算
+     *
+     * @param scratch     计算缓冲区
+     * @param text        文本串
+     * @param m           模式串长度
+     * @param maxDistance 距离上限
+     * @return 编辑距离,超过上限时返回maxDistance + 1
+     */
+    private static int singleWord(Scratch scratch, CharSequence text, int m, int maxDistance) {
+        long last = 1L << (m - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = m;
+        int n = text.length();
+        for (int j = 0; j < n; j++) {
+            long eq = scratch.mask(text.charAt(j), 0);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+            // 第0行D[0][j]=j,因此每列顶部的水平差值恒为+1
+            ph = (ph << 1) | 1L;
+            mh = mh << 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            // 剩余每个文本字符最多使距离减少1
+            if (score - (n - j - 1) > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return score > maxDistance ? maxDistance + 1 : score;
+    }
+
+    /**
+     * 模式串超过64个字符时的分块计算
+     *
+     * @param scratch     计算缓冲区
+     * @param text        文本串
+     * @param m           模式串长度
+     * @param words       分块数
+     * @param maxDistance 距离上限
+     * @return 编辑距离,超过上限时返回maxDistance + 1
+     */
+    private static int multiWord(Scratch scratch, CharSequence text, int m, int words, int maxDistance) {
+        long[] pv = scratch.pv;
+        long[] mv = scratch.mv;
+        Arrays.fill(pv, 0, words, -1L);
+        Arrays.fill(mv, 0, words, 0L);
+        long lastHigh = 1L << ((m - 1) & 63);
+        int score = m;
+        int n = text.length();
+        for (int j = 0; j < n; j++) {
+            char c = text.charAt(j);
+            int hin = 1;
+            for (int w = 0; w < words; w++) {
+                long eq = scratch.mask(c, w);
+                long p = pv[w];
+                long mm = mv[w];
+                long xv = eq | mm;
+                if (hin < 0) {
+                    eq |= 1L;
+                }
+                long xh = (((eq & p) + p) ^ p) | eq;
+                long ph = mm | ~(xh | p);
+                long mh = p & xh;
+                long high = w == words - 1 ? lastHigh : Long.MIN_VALUE;
+                int hout = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+                ph <<= 1;
+                mh <<= 1;
+                if (hin < 0) {
+                    mh |= 1L;
+                } else if (hin > 0) {
+                    ph |= 1L;
+                }
+                pv[w] = mh | ~(xv | ph);
+                mv[w] = ph & xv;
+                hin = hout;
+            }
+            score += hin;
+            if (score - (n - j - 1) > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return score > maxDistance ? maxDistance + 1 : score;
+    }
+
+    /**
+     * 线程内复用的计算缓冲区
+     * 保存模式串中每个字符在各分块中出现位置的位掩码
+     * 0-255的字符直接按下标查表,其余字符使用开放寻址哈希表
+     */
+    private static final class Scratch {
+
+        /**
+         * 0-255字符的位掩码表,下标为 字符 * words + 分块
+         */
+        private long[] latin = new long[256];
+
+        /**
+         * 其他字符的哈希表键,0表示空槽
+         */
+        private char[] keys = new char[64];
+
+        /**
+         * 其他字符的位掩码表,下标为 槽位 * words + 分块
+         */
+        private long[] masks = new long[64];
+
+        /**
+         * 分块计算时的纵向正差值
+         */
+        private long[] pv = new long[1];
+
+        /**
+         * 分块计算时的纵向负差值
+         */
+        private long[] mv = new long[1];
+
+        /**
+         * 当前模式串的分块数
+         */
+        private int words;
+
+        /**
+         * 哈希表掩码,槽位数减1
+         */
+        private int slotMask;
+
+        /**
+         * 根据模式串构建位掩码表
+         *
+         * @param pattern 模式串
+         * @param words   分块数
+         */
+        void prepare(CharSequence pattern, int words) {
+            this.words = words;
+            if (latin.length < 256 * words) {
+                latin = new long[256 * words];
+            }
+            int slots = Integer.highestOneBit(Math.max(16, pattern.length() * 2) - 1) << 1;
+            if (keys.length < slots) {
+                keys = new char[slots];
+            }
+            if (masks.length < slots * words) {
+                masks = new long[slots * words];
+            }
+            slotMask = slots - 1;
+            if (pv.length < words) {
+                pv = new long[words];
+                mv = new long[words];
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                long bit = 1L << (i & 63);
+                int w = i >>> 6;
+                if (c < 256) {
+                    latin[c * words + w] |= bit;
+                } else {
+                    masks[slot(c, true) * words + w] |= bit;
+                }
+            }
+        }
+
+        /**
+         * 获取字符在指定分块中的位掩码
+         *
+         * @param c 字符
+         * @param w 分块下标
+         * @return 位掩码,字符不在模式串中时为0
+         */
+        long mask(char c, int w) {
+            if (c < 256) {
+                return latin[c * words + w];
+            }
+            int slot = slot(c, false);
+            return slot < 0 ? 0L : masks[slot * words + w];
+        }
+
+        /**
+         * 查找字符在哈希表中的槽位
+         *
+         * @param c      字符
+         * @param insert 字符不存在时是否插入
+         * @return 槽位下标,不存在且不插入时返回-1
+         */
+        private int slot(char c, boolean insert) {
+            int i = (c * 0x9E37) & slotMask;
+            while (true) {
+                char key = keys[i];
+                if (key == c) {
+                    return i;
+                }
+                if (key == 0) {
+                    if (!insert) {
+                        return -1;
+                    }
+                    keys[i] = c;
+                    return i;
+                }
+                i = (i + 1) & slotMask;
+            }
+        }
+
+        /**
+         * 清除模式串写入的位掩码,供下一次计算复用
+         *
+         * @param pattern 模式串
+         */
+        void clear(CharSequence pattern) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < 256) {
+                    Arrays.fill(latin, c * words, c * words + words, 0L);
+                } else {
+                    int slot = slot(c, false);
+                    if (slot >= 0) {
+                        Arrays.fill(masks, slot * words, slot * words + words, 0L);
+                    }
+                }
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= 256) {
+                    Arrays.fill(keys, 0, slotMask + 1, (char) 0);
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.tangyujun.datashadow.datacomparator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tangyujun.datashadow.datacomparator.defaults.IntegerDataComparator;
+import com.tangyujun.datashadow.datacomparator.defaults.StringDataComparator;
+
+import javafx.stage.Window;
+
+/**
+ * 带缓存的比较器包装类测试类
+ * 用于测试MemoizingDataComparator的各项功能
+ *
+ * 主要测试以下功能:
+ * 1. 低基数值只调用一次被包装的比较器
+ * 2. 可规范化比较器包装后仍可规范化,且与原比较器结果一致
+ * 3. 命中率过低时自动停用缓存
+ * 4. 多线程同时比较时命中率统计不丢失计数
+ * 5. 规范键每个值只计算一次,无法解析的值不写入缓存
+ * 6. 停用缓存后数据分布变化时重新启用缓存
+ */
+public class MemoizingDataComparatorTest {
+
+    /**
+     * 记录调用次数的比较器
+     */
+    private static class CountingComparator implements DataComparator {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public boolean equals(Object o1, Object o2) {
+            calls.incrementAndGet();
+            return String.valueOf(o1).trim().equalsIgnoreCase(String.valueOf(o2).trim());
+        }
+
+        @Override
+        public void config(Window primaryStage) {
+        }
+
+        @Override
+        public String exportComparator() {
+            return "";
+        }
+
+        @Override
+        public void importComparator(String exportValueString) {
+        }
+
+        @Override
+        public String getDescription() {
+            return "计数比较器";
+        }
+    }
+
+    /**
+     * 测试低基数值只调用一次被包装的比较器
+     */
+    @Test
+    public void testLowCardinality() {
+        CountingComparator counting = new CountingComparator();
+        DataComparator comparator = MemoizingDataComparator.wrap(counting);
+        String[] statuses = { "ACTIVE", "active ", "CLOSED", "PENDING" };
+        Set<List<String>> pairs = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            String s1 = statuses[i % statuses.length];
+            String s2 = statuses[(i / 3) % statuses.length];
+            pairs.add(List.of(s1, s2));
+            assertEquals(counting.equals(s1, s2), comparator.equals(s1, s2));
+        }
+        // 每个值对只在首次出现时调用一次,其余100000次调用来自上面断言中的直接调用
+        assertEquals(100_000 + pairs.size(), counting.calls.get());
+        assertTrue(((MemoizingDataComparator) comparator).isEnabled());
+        assertEquals("计数比较器", comparator.getDescription());
+        assertSame(comparator, MemoizingDataComparator.wrap(comparator), "不重复包装");
+    }
+
+    /**
+     * 测试可规范化比较器包装后仍可规范化
+     */
+    @Test
+    public void testCanonical() {
+        DataComparator comparator = MemoizingDataComparator.wrap(new IntegerDataComparator());
+        assertInstanceOf(CanonicalDataComparator.class, comparator);
+        assertTrue(comparator.equals("1", 1));
+        assertTrue(comparator.equals(" 1", 1L));
+        assertFalse(comparator.equals("abc", "abc"), "无法解析的值不应因缓存而相等");
+        assertFalse(comparator.equals("abc", "abc"));
+        assertTrue(comparator.equals(null, null));
+
+        DataComparator string = MemoizingDataComparator.wrap(new StringDataComparator(true, false));
+        assertTrue(string.equals("ABC", "abc"));
+        assertFalse(string.equals(null, ""));
+    }
+
+    /**
+     * 测试命中率过低时自动停用缓存
+     */
+    @Test
+    public void testAdaptiveDisable() {
+        CountingComparator counting = new CountingComparator();
+        MemoizingDataComparator comparator = (MemoizingDataComparator) MemoizingDataComparator.wrap(counting);
+        for (int i = 0; i < 20_000; i++) {
+            assertFalse(comparator.equals("a" + i, "b" + i));
+        }
+        assertFalse(comparator.isEnabled(), "全部为不同值时应停用缓存");
+        assertEquals(20_000, counting.calls.get());
+    }
+
+    /**
+     * 测试多线程同时比较时命中率统计仍然有效
+     * 全部为不同值时,并行比较同样应停用缓存,且每次比较的结果正确
+     */
+    @Test
+    public void testParallelAdaptiveDisable() {
+        CountingComparator counting = new CountingComparator();
+        MemoizingDataComparator comparator = (MemoizingDataComparator) MemoizingDataComparator.wrap(counting);
+        IntStream.range(0, 200_000).parallel()
+                .forEach(i -> assertFalse(comparator.equals("a" + i, "b" + i)));
+        assertFalse(comparator.isEnabled(), "并行比较全部为不同值时应停用缓存");
+        assertTrue(IntStream.range(0, 1000).parallel().allMatch(i -> comparator.equals("x" + i, " X" + i)));
+    }
+
+    /**
+     * 测试规范键每个值只计算一次,无法解析的值不写入缓存
+     */
+    @Test
+    public void testCanonicalKeyComputedOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        IntegerDataComparator integer = new IntegerDataComparator() {
+            @Override
+            public Object canonicalKey(Object value) {
+                calls.incrementAndGet();
+                return super.canonicalKey(value);
+            }
+        };
+        CanonicalDataComparator comparator = (CanonicalDataComparator) MemoizingDataComparator.wrap(integer);
+        assertEquals(comparator.canonicalKey("1"), comparator.canonicalKey(" 1"));
+        assertEquals(2, calls.get(), "每个未命中的值只计算一次规范键");
+        comparator.canonicalKey("1");
+        assertEquals(2, calls.get(), "命中时不再计算规范键");
+
+        assertNotEquals(comparator.canonicalKey("abc"), comparator.canonicalKey("abc"));
+        assertEquals(4, calls.get(), "无法解析的值不写入缓存");
+    }
+
+    /**
+     * 测试停用缓存后数据分布变化时重新启用缓存
+     */
+    @Test
+    public void testResample() {
+        CountingComparator counting = new CountingComparator();
+        MemoizingDataComparator comparator = (MemoizingDataComparator) MemoizingDataComparator.wrap(counting);
+        for (int i = 0; i < 20_000; i++) {
+            assertFalse(comparator.equals("a" + i, "b" + i));
+        }
+        assertFalse(comparator.isEnabled());
+        for (int i = 0; i < MemoizingDataComparator.RESAMPLE_INTERVAL + 20_000; i++) {
+            assertTrue(comparator.equals("ACTIVE", "active"));
+        }
+        assertTrue(comparator.isEnabled(), "低基数值重新出现后应重新启用缓存");
+        int calls = counting.calls.get();
+        assertTrue(comparator.equals("ACTIVE", "active"));
+        assertEquals(calls, counting.calls.get(), "重新启用后命中缓存");
+    }
+}
@@ -0,0 +1,98 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import java.math.RoundingMode;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tangyujun.datashadow.datacomparator.CanonicalDataComparator;
+
+/**
+ * 语言排序规则字符串比较器测试类
+ * 用于测试CollationStringDataComparator的各项功能
+ *
+ * 主要测试以下功能:
+ * 1. 不同比较强度下的比较结果
+ * 2. 规范键与equals结果一致
+ * 3. 配置导入导出
+ * 4. 内置比较器的规范键与equals结果一致
+ */
+public class CollationStringDataComparatorTest {
+
+    /**
+     * 测试不同比较强度下的比较结果
+     */
+    @Test
+    public void testStrength() {
+        CollationStringDataComparator comparator = new CollationStringDataComparator();
+        assertTrue(comparator.equals("Jose", "josé"), "PRIMARY忽略重音和大小写");
+        assertTrue(comparator.equals("é", "é"), "组合字符与预组合字符相等");
+        assertTrue(comparator.equals(" 张三 ", "张三"), "默认忽略首尾空白");
+        assertFalse(comparator.equals("张三", "张四"));
+        assertTrue(comparator.equals(null, ""));
+
+        comparator.setStrength(CollationStringDataComparator.Strength.SECONDARY);
+        assertTrue(comparator.equals("JOSÉ", "josé"), "SECONDARY忽略大小写");
+        assertFalse(comparator.equals("Jose", "josé"), "SECONDARY区分重音");
+
+        comparator.setStrength(CollationStringDataComparator.Strength.TERTIARY);
+        assertFalse(comparator.equals("JOSÉ", "josé"), "TERTIARY区分大小写");
+
+        comparator.setNullEqualsEmpty(false);
+        assertFalse(comparator.equals(null, ""));
+        assertTrue(comparator.equals(null, null));
+    }
+
+    /**
+     * 测试规范键可以作为哈希键使用
+     */
+    @Test
+    public void testCanonicalKey() {
+        CollationStringDataComparator comparator = new CollationStringDataComparator("en-US",
+                CollationStringDataComparator.Strength.PRIMARY);
+        Object k1 = comparator.canonicalKey("Müller");
+        Object k2 = comparator.canonicalKey("MULLER");
+        assertEquals(k1, k2);
+        assertEquals(k1.hashCode(), k2.hashCode());
+        assertNotEquals(k1, comparator.canonicalKey("Miller"));
+    }
+
+    /**
+     * 测试配置导入导出
+     */
+    @Test
+    public void testExportImport() {
+        CollationStringDataComparator comparator = new CollationStringDataComparator("en-US",
+                CollationStringDataComparator.Strength.TERTIARY);
+        comparator.setTrim(false);
+
+        CollationStringDataComparator imported = new CollationStringDataComparator();
+        imported.importComparator(comparator.exportComparator());
+        assertEquals("en-US", imported.getLocale());
+        assertEquals(CollationStringDataComparator.Strength.TERTIARY, imported.getStrength());
+        assertFalse(imported.isTrim());
+        assertFalse(imported.equals("a", "A"));
+    }
+
+    /**
+     * 测试内置比较器的规范键与equals结果一致
+     */
+    @Test
+    public void testBuiltinCanonicalKeysMatchEquals() {
+        Object[] values = { null, "", "1", " 1", "1.0", "1.50", "1.5", 1, 1L, 2, "abc", "ABC", "ǅ", "ǆ", "İ", "i" };
+        CanonicalDataComparator[] comparators = {
+                new StringDataComparator(), new StringDataComparator(true, false),
+                new IntegerDataComparator(), new DecimalDataComparator(),
+                new DecimalDataComparator(0, RoundingMode.HALF_UP), new CollationStringDataComparator() };
+        for (CanonicalDataComparator comparator : comparators) {
+            for (Object o1 : values) {
+                for (Object o2 : values) {
+                    boolean byKey = Objects.equals(comparator.canonicalKey(o1), comparator.canonicalKey(o2));
+                    assertEquals(comparator.equals(o1, o2), byKey,
+                            () -> comparator.getClass().getSimpleName() + ": " + o1 + " vs " + o2);
+                }
+            }
+        }
+    }
+}
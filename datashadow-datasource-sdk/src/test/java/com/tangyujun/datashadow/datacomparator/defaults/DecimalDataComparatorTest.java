@@ -0,0 +1,108 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 精确小数比较器测试类
+ * 用于测试DecimalDataComparator的各项功能
+ *
+ * 主要测试以下功能:
+ * 1. 精确比较(忽略末尾0)
+ * 2. 按小数位数和舍入模式比较
+ * 3. long快速路径与BigDecimal回退路径结果一致
+ */
+public class DecimalDataComparatorTest {
+
+    /**
+     * 测试精确比较
+     */
+    @Test
+    public void testExactEquals() {
+        DecimalDataComparator comparator = new DecimalDataComparator();
+
+        assertTrue(comparator.equals(null, null), "两个null应该相等");
+        assertFalse(comparator.equals(null, "1"), "null与非null不应相等");
+
+        assertTrue(comparator.equals("1.50", "1.5"), "末尾0不影响比较结果");
+        assertTrue(comparator.equals(new BigDecimal("1.500"), " 1.5 "), "BigDecimal与字符串应该可以比较");
+        assertTrue(comparator.equals(15L, "15.000"), "整数与字符串应该可以比较");
+        assertTrue(comparator.equals("-0", "0.00"), "负0与0应该相等");
+        assertFalse(comparator.equals("1.50", "1.51"), "不同数值不应相等");
+        assertFalse(comparator.equals("0.1", 0.10000000000000001d + 1e-17), "不应受浮点误差影响");
+        assertTrue(comparator.equals(0.1d, "0.1"), "double按十进制表示比较");
+
+        // 超出long范围时回退到BigDecimal
+        assertTrue(comparator.equals("123456789012345678901234.5", new BigDecimal("123456789012345678901234.50")));
+        assertFalse(comparator.equals("123456789012345678901234.5", "123456789012345678901234.6"));
+        assertTrue(comparator.equals("1e3", "1000"), "科学计数法回退到BigDecimal处理");
+
+        assertFalse(comparator.equals("abc", "abc"), "无法解析的值不应相等");
+    }
+
+    /**
+     * 测试按小数位数舍入后比较
+     */
+    @Test
+    public void testScaledEquals() {
+        DecimalDataComparator comparator = new DecimalDataComparator(2, RoundingMode.HALF_UP);
+        assertTrue(comparator.equals("1.234", "1.2349"));
+        assertTrue(comparator.equals("1.235", new BigDecimal("1.24")));
+        assertFalse(comparator.equals("1.234", "1.235"));
+        assertTrue(comparator.equals("-1.235", "-1.24"));
+
+        comparator.setRoundingMode(RoundingMode.HALF_EVEN);
+        assertTrue(comparator.equals("1.225", "1.22"));
+        assertTrue(comparator.equals("1.2251", "1.23"));
+
+        comparator.setRoundingMode(RoundingMode.FLOOR);
+        assertTrue(comparator.equals("-1.231", "-1.24"));
+
+        comparator.setRoundingMode(RoundingMode.UNNECESSARY);
+        assertTrue(comparator.equals("1.20", "1.2"));
+        assertFalse(comparator.equals("1.201", "1.20"), "需要舍入时不应视为相等");
+    }
+
+    /**
+     * 测试快速路径与BigDecimal参考实现结果一致
+     */
+    @Test
+    public void testFastPathMatchesBigDecimal() {
+        Random random = new Random(20241019L);
+        RoundingMode[] modes = { RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN };
+        for (int i = 0; i < 20000; i++) {
+            BigDecimal d1 = randomDecimal(random);
+            BigDecimal d2 = random.nextInt(4) == 0 ? d1 : d1.add(BigDecimal.valueOf(random.nextInt(3) - 1, 3));
+            int scale = random.nextInt(6) - 1;
+            RoundingMode mode = modes[random.nextInt(modes.length)];
+
+            boolean expected;
+            if (scale < 0) {
+                expected = d1.compareTo(d2) == 0;
+            } else {
+                expected = d1.setScale(scale, mode).compareTo(d2.setScale(scale, mode)) == 0;
+            }
+            DecimalDataComparator comparator = new DecimalDataComparator(scale, mode);
+            assertEquals(expected, comparator.equals(d1.toPlainString(), d2.toPlainString()),
+                    () -> d1 + " vs " + d2 + " scale=" + scale + " mode=" + mode);
+            assertEquals(expected, comparator.equals(d1, d2.toPlainString()),
+                    () -> "BigDecimal " + d1 + " vs " + d2 + " scale=" + scale + " mode=" + mode);
+        }
+    }
+
+    /**
+     * 生成随机小数
+     *
+     * @param random 随机数生成器
+     * @return 随机小数
+     */
+    private static BigDecimal randomDecimal(Random random) {
+        long unscaled = random.nextLong() % 10_000_000_000L;
+        return BigDecimal.valueOf(unscaled, random.nextInt(7));
+    }
+}
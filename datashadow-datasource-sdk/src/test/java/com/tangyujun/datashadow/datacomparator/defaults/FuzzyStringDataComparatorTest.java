@@ -0,0 +1,83 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 模糊字符串比较器测试类
+ * 用于测试FuzzyStringDataComparator的各项功能
+ *
+ * 主要测试以下功能:
+ * 1. 按最大编辑距离比较
+ * 2. 按最小相似度比较
+ * 3. 规范化选项
+ * 4. 配置导入导出
+ */
+public class FuzzyStringDataComparatorTest {
+
+    /**
+     * 测试按最大编辑距离比较
+     */
+    @Test
+    public void testMaxDistance() {
+        FuzzyStringDataComparator comparator = new FuzzyStringDataComparator(1);
+        assertTrue(comparator.equals(null, null));
+        assertTrue(comparator.equals(null, ""), "默认将null和空字符串视为相等");
+        assertTrue(comparator.equals("张三丰", "张三风"));
+        assertFalse(comparator.equals("张三丰", "李三风"));
+        assertTrue(comparator.equals(12345, "1234"), "非字符串按toString比较");
+
+        comparator.setMaxDistance(0);
+        assertFalse(comparator.equals("abc", "abd"));
+        assertTrue(comparator.equals("abc", "abc"));
+    }
+
+    /**
+     * 测试按最小相似度比较
+     */
+    @Test
+    public void testMinSimilarity() {
+        FuzzyStringDataComparator comparator = new FuzzyStringDataComparator();
+        comparator.setMinSimilarity(0.9);
+        assertTrue(comparator.equals("0123456789", "0123456780"), "10个字符允许1处差异");
+        assertFalse(comparator.equals("0123456789", "0123456700"));
+        assertFalse(comparator.equals("abc", "abd"), "短字符串不允许差异");
+    }
+
+    /**
+     * 测试规范化选项
+     */
+    @Test
+    public void testNormalize() {
+        FuzzyStringDataComparator comparator = new FuzzyStringDataComparator(0);
+        assertTrue(comparator.equals("  北京  朝阳 ", "北京 朝阳"), "默认规范化空白");
+        assertFalse(comparator.equals("ABC", "abc"));
+        assertFalse(comparator.equals("ＡＢＣ１２３", "ABC123"));
+
+        comparator.setIgnoreCase(true);
+        comparator.setNormalizeWidth(true);
+        assertTrue(comparator.equals("ＡＢＣ１２３", "abc123"));
+        assertTrue(comparator.equals("北京　朝阳", "北京 朝阳"), "全角空格视为空白");
+    }
+
+    /**
+     * 测试配置导入导出
+     */
+    @Test
+    public void testExportImport() {
+        FuzzyStringDataComparator comparator = new FuzzyStringDataComparator(3);
+        comparator.setMinSimilarity(0.8);
+        comparator.setIgnoreCase(true);
+        comparator.setNormalizeWidth(true);
+        comparator.setNullEqualsEmpty(false);
+
+        FuzzyStringDataComparator imported = new FuzzyStringDataComparator();
+        imported.importComparator(comparator.exportComparator());
+        assertEquals(3, imported.getMaxDistance());
+        assertEquals(0.8, imported.getMinSimilarity());
+        assertTrue(imported.isIgnoreCase());
+        assertTrue(imported.isNormalizeWhitespace());
+        assertTrue(imported.isNormalizeWidth());
+        assertFalse(imported.isNullEqualsEmpty());
+    }
+}
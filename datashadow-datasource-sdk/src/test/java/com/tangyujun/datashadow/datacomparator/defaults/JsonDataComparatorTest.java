@@ -0,0 +1,103 @@
+package com.tangyujun.datashadow.datacomparator.defaults;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON文档比较器测试类
+ * 用于测试JsonDataComparator的各项功能
+ *
+ * 主要测试以下功能:
+ * 1. 忽略字段顺序和空白差异
+ * 2. 首个差异的路径
+ * 3. 忽略数组顺序和数值容差
+ * 4. 非JSON值和空值处理
+ */
+public class JsonDataComparatorTest {
+
+    /**
+     * 测试忽略字段顺序和空白差异
+     */
+    @Test
+    public void testStructuralEquals() {
+        JsonDataComparator comparator = new JsonDataComparator();
+        assertTrue(comparator.equals("{\"a\":1,\"b\":[1,2,{\"c\":\"x\"}]}",
+                "{ \"b\" : [1, 2, {\"c\": \"x\"}],\n  \"a\" : 1 }"));
+        assertTrue(comparator.equals("{\"a\":{\"x\":1,\"y\":2},\"b\":2}", "{\"a\":{\"y\":2,\"x\":1},\"b\":2}"));
+        assertTrue(comparator.equals("{\"price\":1.50}", "{\"price\":1.5}"), "数值按值比较");
+        assertTrue(comparator.equals(Map.of("a", List.of(1, 2)), "{\"a\":[1,2]}"), "对象按JSON序列化后比较");
+        assertFalse(comparator.equals("{\"a\":1}", "{\"a\":\"1\"}"), "数值与字符串不相等");
+        assertFalse(comparator.equals("[1,2]", "[2,1]"), "默认区分数组顺序");
+    }
+
+    /**
+     * 测试首个差异的路径
+     */
+    @Test
+    public void testFirstDifference() {
+        JsonDataComparator comparator = new JsonDataComparator();
+        assertNull(comparator.firstDifference("{\"a\":1}", "{\"a\":1}"));
+        assertEquals("$.items[1].price",
+                comparator.firstDifference("{\"id\":1,\"items\":[{\"price\":1},{\"price\":2}]}",
+                        "{\"id\":1,\"items\":[{\"price\":1},{\"price\":3}]}"));
+        assertEquals("$.b", comparator.firstDifference("{\"a\":1,\"b\":2}", "{\"a\":1}"), "缺少字段");
+        assertEquals("$.b", comparator.firstDifference("{\"a\":1}", "{\"a\":1,\"b\":2}"), "多出字段");
+        assertEquals("$.c.d", comparator.firstDifference("{\"a\":1,\"c\":{\"d\":1},\"b\":2}",
+                "{\"b\":2,\"a\":1,\"c\":{\"d\":2}}"), "字段顺序不同时仍能定位差异");
+        assertEquals("$.list[2]", comparator.firstDifference("{\"list\":[1,2,3]}", "{\"list\":[1,2]}"));
+        assertEquals("$['a.b']", comparator.firstDifference("{\"a.b\":1}", "{\"a.b\":2}"));
+        assertEquals("$", comparator.firstDifference("{\"a\":1}", "[1]"));
+        assertEquals("首个差异: $.a", comparator.describeDifference("{\"a\":1}", "{\"a\":2}"));
+    }
+
+    /**
+     * 测试忽略数组顺序和数值容差
+     */
+    @Test
+    public void testOptions() {
+        JsonDataComparator comparator = new JsonDataComparator(true, 0.01);
+        assertTrue(comparator.equals("{\"tags\":[\"a\",\"b\",{\"c\":1}]}", "{\"tags\":[{\"c\":1},\"b\",\"a\"]}"));
+        assertFalse(comparator.equals("[1,1,2]", "[1,2,2]"), "重复元素按次数匹配");
+        assertTrue(comparator.equals("{\"amount\":10.001}", "{\"amount\":10.0}"));
+        assertFalse(comparator.equals("{\"amount\":10.02}", "{\"amount\":10.0}"));
+        assertEquals("$.tags[1]", comparator.firstDifference("{\"tags\":[\"a\",\"x\"]}", "{\"tags\":[\"b\",\"a\"]}"));
+
+        JsonDataComparator imported = new JsonDataComparator();
+        imported.importComparator(comparator.exportComparator());
+        assertTrue(imported.isIgnoreArrayOrder());
+        assertEquals(0.01, imported.getNumericTolerance());
+    }
+
+    /**
+     * 测试非JSON值和空值处理
+     */
+    @Test
+    public void testNonJsonAndNull() {
+        JsonDataComparator comparator = new JsonDataComparator();
+        assertTrue(comparator.equals(null, ""));
+        assertTrue(comparator.equals(null, null));
+        assertFalse(comparator.equals(null, "{}"));
+        assertTrue(comparator.equals("not json", " not json "));
+        assertFalse(comparator.equals("not json", "{}"));
+
+        comparator.setNullEqualsEmpty(false);
+        assertFalse(comparator.equals(null, ""));
+    }
+    /**
+     * 测试值之后还有其他内容时按字符串比较
+     * 只有开头的值相同不能认为相等
+     */
+    @Test
+    public void testTrailingContent() {
+        JsonDataComparator comparator = new JsonDataComparator();
+        assertFalse(comparator.equals("12 apples", "12 oranges"));
+        assertFalse(comparator.equals("{\"a\":1} {\"a\":2}", "{\"a\":1} {\"a\":3}"));
+        assertFalse(comparator.equals("{\"a\":1}", "{\"a\":1} junk"));
+        assertEquals("$", comparator.firstDifference("[1,2] x", "[1,2] y"));
+        assertTrue(comparator.equals("12 apples", " 12 apples "));
+        assertTrue(comparator.equals("{\"a\":1}", " {\"a\": 1}\n"));
+    }
+}
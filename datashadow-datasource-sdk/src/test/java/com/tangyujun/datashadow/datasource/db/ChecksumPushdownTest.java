@@ -0,0 +1,199 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+
+/**
+ * 校验和下推测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 只定位内容不一致的分桶,一致的数据行不需要读取
+ * 2. 有方言时非数值拆分列按哈希分区
+ * 3. 分桶序号直接写入过滤条件,并按方言的IN列表上限拆分
+ * 4. 数据库将未引用的别名转换为小写时仍能读取汇总结果
+ */
+public class ChecksumPushdownTest {
+
+    /**
+     * 测试校验和下推只定位内容不一致的分桶,一致的数据行不需要读取
+     */
+    @Test
+    void testChecksumPushdown() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:pool_checksum_primary;DB_CLOSE_DELAY=-1";
+        String shadowUrl = "jdbc:h2:mem:pool_checksum_shadow;DB_CLOSE_DELAY=-1";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE ACCOUNTS AS SELECT X AS ID, 'a' || X AS NAME,"
+                        + " CAST(X * 1.5 AS DECIMAL(12,2)) AS BALANCE FROM SYSTEM_RANGE(1, 20000)");
+                statement.execute("UPDATE ACCOUNTS SET NAME = NULL WHERE ID = 7");
+            }
+            source.setSql("SELECT ID, NAME, BALANCE FROM ACCOUNTS");
+        }
+        assertFalse(ChecksumPushdown.supports(primary, shadow));
+        primary.dialect = H2DataSource.ORA_HASH_DIALECT;
+        shadow.dialect = H2DataSource.ORA_HASH_DIALECT;
+        assertTrue(ChecksumPushdown.supports(primary, shadow));
+
+        List<String> keys = List.of("ID");
+        List<String> columns = List.of("ID", "NAME", "BALANCE");
+        ChecksumPushdown.Result same = new ChecksumPushdown(primary, keys, columns, shadow, keys, columns).locate();
+        assertEquals(20000, same.primaryRows());
+        assertEquals(0, same.primaryFetched());
+        assertEquals(QueryFilter.NONE, same.primaryFilter());
+
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE ACCOUNTS SET BALANCE = BALANCE + 1 WHERE ID IN (10, 5000)");
+            statement.execute("UPDATE ACCOUNTS SET NAME = '' WHERE ID = 7");
+            statement.execute("DELETE FROM ACCOUNTS WHERE ID = 12345");
+            statement.execute("INSERT INTO ACCOUNTS VALUES (30000, 'new', 0)");
+        }
+        ChecksumPushdown.Result located = new ChecksumPushdown(primary, keys, columns, shadow, keys, columns)
+                .locate();
+        assertEquals(20000, located.primaryRows());
+        assertEquals(20000, located.shadowRows());
+        assertTrue(located.primaryFetched() > 0 && located.primaryFetched() < 1000);
+
+        Set<Object> primaryIds = new HashSet<>();
+        try (RowCursor cursor = primary.openCursor(located.primaryFilter())) {
+            while (cursor.next()) {
+                primaryIds.add(cursor.current().get("ID"));
+            }
+        }
+        Set<Object> shadowIds = new HashSet<>();
+        try (RowCursor cursor = shadow.openCursor(located.shadowFilter())) {
+            while (cursor.next()) {
+                shadowIds.add(cursor.current().get("ID"));
+            }
+        }
+        assertEquals(located.primaryFetched(), primaryIds.size());
+        assertTrue(primaryIds.containsAll(List.of(7L, 10L, 5000L, 12345L)));
+        assertTrue(shadowIds.containsAll(List.of(7L, 10L, 5000L, 30000L)));
+
+        // 有方言时非数值拆分列按哈希分区,拆分列为null的行同样读取一次
+        primary.setSplitColumn("NAME");
+        primary.setParallelism(3);
+        long count = 0;
+        try (RowCursor cursor = primary.openCursor()) {
+            while (cursor.next()) {
+                count++;
+            }
+        }
+        assertEquals(20000, count);
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+
+    /**
+     * 测试不一致的分桶较多时的过滤条件
+     * 分桶序号不绑定参数,IN列表按方言的上限拆分,拆分后仍能读取到所有不一致的数据行
+     */
+    @Test
+    void testBucketFilter() throws Exception {
+        JdbcDialect smallInList = new JdbcDialect() {
+            @Override
+            public String quoteIdentifier(String identifier) {
+                return H2DataSource.ORA_HASH_DIALECT.quoteIdentifier(identifier);
+            }
+
+            @Override
+            public String hashExpression(List<String> expressions) {
+                return H2DataSource.ORA_HASH_DIALECT.hashExpression(expressions);
+            }
+
+            @Override
+            public int maxInListSize() {
+                return 7;
+            }
+        };
+        String primaryUrl = "jdbc:h2:mem:pool_bucket_primary;DB_CLOSE_DELAY=-1";
+        String shadowUrl = "jdbc:h2:mem:pool_bucket_shadow;DB_CLOSE_DELAY=-1";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = smallInList;
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE ACCOUNTS AS SELECT X AS ID, 'a' || X AS NAME"
+                        + " FROM SYSTEM_RANGE(1, 20000)");
+            }
+            source.setSql("SELECT ID, NAME FROM ACCOUNTS");
+        }
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE ACCOUNTS SET NAME = 'changed' WHERE MOD(ID, 500) = 0");
+        }
+
+        List<String> keys = List.of("ID");
+        List<String> columns = List.of("ID", "NAME");
+        ChecksumPushdown.Result located = new ChecksumPushdown(primary, keys, columns, shadow, keys, columns)
+                .locate();
+        assertTrue(located.shadowFilter().parameters().isEmpty());
+        assertTrue(located.shadowFilter().condition().contains(" OR "));
+
+        Set<Object> shadowIds = new HashSet<>();
+        try (RowCursor cursor = shadow.openCursor(located.shadowFilter())) {
+            while (cursor.next()) {
+                shadowIds.add(cursor.current().get("ID"));
+            }
+        }
+        for (long id = 500; id <= 20000; id += 500) {
+            assertTrue(shadowIds.contains(id), "缺少不一致的数据行" + id);
+        }
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+
+    /**
+     * 测试数据库将未引用的别名转换为小写时的校验和下推
+     * H2的DATABASE_TO_LOWER模式与PostgreSQL相同,未引用的标识符转换为小写
+     */
+    @Test
+    void testLowerCaseAliases() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:pool_checksum_lower_primary;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        String shadowUrl = "jdbc:h2:mem:pool_checksum_lower_shadow;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = H2DataSource.ORA_HASH_DIALECT;
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE accounts AS SELECT \"X\" AS id, 'a' || \"X\" AS name"
+                        + " FROM SYSTEM_RANGE(1, 100)");
+            }
+            source.setSql("SELECT id, name FROM accounts");
+        }
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE accounts SET name = 'changed' WHERE id = 42");
+        }
+
+        List<String> keys = List.of("id");
+        List<String> columns = List.of("id", "name");
+        ChecksumPushdown.Result located = new ChecksumPushdown(primary, keys, columns, shadow, keys, columns)
+                .locate();
+        assertEquals(100, located.primaryRows());
+        assertEquals(100, located.shadowRows());
+        assertTrue(located.shadowFetched() > 0);
+        Set<Object> shadowIds = new HashSet<>();
+        try (RowCursor cursor = shadow.openCursor(located.shadowFilter())) {
+            while (cursor.next()) {
+                shadowIds.add(cursor.current().get("id"));
+            }
+        }
+        assertTrue(shadowIds.contains(42L));
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+}
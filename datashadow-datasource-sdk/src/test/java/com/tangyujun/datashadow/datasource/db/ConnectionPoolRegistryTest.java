@@ -0,0 +1,107 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.h2.Driver;
+
+/**
+ * 数据库连接池注册中心测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 同一URL和用户名复用同一个连接池及物理连接
+ * 2. 密码变化时重新创建连接池,借出的连接在归还之前仍然可用
+ * 3. 连接失败时快速抛出SQLException
+ */
+public class ConnectionPoolRegistryTest {
+
+    /**
+     * 测试连接归还后再次获取时复用同一物理连接
+     */
+    @Test
+    void testReusesPhysicalConnection() throws SQLException {
+        ConnectionPoolRegistry registry = ConnectionPoolRegistry.getInstance();
+        String url = "jdbc:h2:mem:pool_reuse;DB_CLOSE_DELAY=-1";
+        Driver driver = new Driver();
+        int first;
+        try (Connection connection = registry.getConnection(driver, url, "sa", "")) {
+            first = H2DataSource.sessionId(connection);
+        }
+        try (Connection connection = registry.getConnection(driver, url, "sa", "")) {
+            assertEquals(first, H2DataSource.sessionId(connection));
+        }
+        registry.evict(url, "sa");
+    }
+
+    /**
+     * 测试密码变化时重新创建连接池
+     */
+    @Test
+    void testPasswordChangeRecreatesPool() throws SQLException {
+        ConnectionPoolRegistry registry = ConnectionPoolRegistry.getInstance();
+        String url = "jdbc:h2:mem:pool_password;DB_CLOSE_DELAY=-1";
+        Driver driver = new Driver();
+        try (Connection connection = registry.getConnection(driver, url, "sa", "")) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("ALTER USER SA SET PASSWORD 'secret'");
+            }
+        }
+        int size = registry.size();
+        try (Connection connection = registry.getConnection(driver, url, "sa", "secret")) {
+            assertTrue(connection.isValid(1));
+        }
+        assertEquals(size, registry.size());
+        assertThrows(SQLException.class, () -> registry.getConnection(driver, url, "sa", "wrong"));
+        registry.evict(url, "sa");
+    }
+
+    /**
+     * 测试密码变化时借出的连接仍然可用
+     * 旧连接池在借出的连接归还之前不能关闭,否则共用连接池的其他游标读取中断
+     */
+    @Test
+    void testPasswordChangeKeepsBorrowedConnections() throws SQLException {
+        ConnectionPoolRegistry registry = ConnectionPoolRegistry.getInstance();
+        String url = "jdbc:h2:mem:pool_password_borrowed;DB_CLOSE_DELAY=-1";
+        Driver driver = new Driver();
+        try (Connection borrowed = registry.getConnection(driver, url, "sa", "");
+                var statement = borrowed.createStatement()) {
+            statement.execute("ALTER USER SA SET PASSWORD 'secret'");
+            try (var resultSet = statement.executeQuery("SELECT X FROM SYSTEM_RANGE(1, 10)")) {
+                assertTrue(resultSet.next());
+                assertThrows(SQLException.class, () -> registry.getConnection(driver, url, "sa", "wrong"));
+                assertEquals(0, registry.retiredSize(), "密码错误时原连接池继续使用");
+                try (Connection connection = registry.getConnection(driver, url, "sa", "secret")) {
+                    assertTrue(connection.isValid(1));
+                }
+                assertEquals(1, registry.retiredSize());
+                int rows = 1;
+                while (resultSet.next()) {
+                    rows++;
+                }
+                assertEquals(10, rows);
+            }
+        }
+        try (Connection connection = registry.getConnection(driver, url, "sa", "secret")) {
+            assertTrue(connection.isValid(1));
+        }
+        assertEquals(0, registry.retiredSize());
+        registry.evict(url, "sa");
+    }
+
+    /**
+     * 测试连接URL无效时抛出SQLException
+     */
+    @Test
+    void testInvalidUrlFailsFast() {
+        ConnectionPoolRegistry registry = ConnectionPoolRegistry.getInstance();
+        String url = "jdbc:h2:mem:pool_invalid;IFEXISTS=TRUE";
+        long start = System.currentTimeMillis();
+        assertThrows(SQLException.class, () -> registry.getConnection(new Driver(), url, "sa", ""));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+}
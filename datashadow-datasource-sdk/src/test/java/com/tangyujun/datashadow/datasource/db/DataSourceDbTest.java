@@ -0,0 +1,323 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+import com.tangyujun.datashadow.exception.DataSourceValidException;
+
+/**
+ * 数据库数据源测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 通过连接池校验、获取列名和读取数据
+ * 2. 通过游标流式读取数据
+ * 3. 只通过元数据获取列信息
+ * 4. 按列投影只查询需要的列
+ * 5. 两侧共用连接池时,按主数据源游标占用的连接计算可用连接数
+ * 6. 修改连接、查询语句或水位列后清除上次水位
+ * 7. 按列类型判断能否计算哈希
+ */
+public class DataSourceDbTest {
+
+    /**
+     * 测试数据库数据源通过连接池读取数据
+     */
+    @Test
+    void testDataSourceDb() throws Exception {
+        String url = "jdbc:h2:mem:pool_source;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        source.valid();
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ORDERS(ID INT PRIMARY KEY, AMOUNT DECIMAL(10,2))");
+            statement.execute("INSERT INTO ORDERS VALUES (1, 10.50), (2, 20.00)");
+        }
+        source.setSql("SELECT ID, AMOUNT FROM ORDERS ORDER BY ID");
+        assertEquals(List.of("ID", "AMOUNT"), source.getColumns());
+        List<Map<String, Object>> values = source.acquireValues();
+        assertEquals(2, values.size());
+        assertEquals(1, values.get(0).get("ID"));
+        assertEquals(0, new BigDecimal("20.00").compareTo((BigDecimal) values.get(1).get("AMOUNT")));
+
+        H2DataSource incomplete = new H2DataSource(url);
+        assertThrows(DataSourceValidException.class, incomplete::valid);
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+
+    /**
+     * 测试通过游标流式读取数据,关闭游标后连接归还连接池
+     */
+    @Test
+    void testOpenCursor() throws Exception {
+        String url = "jdbc:h2:mem:pool_cursor;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        source.setFetchSize(100);
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ITEMS AS SELECT X AS ID, 'item' || X AS NAME FROM SYSTEM_RANGE(1, 2500)");
+        }
+        source.setSql("SELECT ID, NAME FROM ITEMS ORDER BY ID");
+        int first;
+        try (Connection connection = source.openConnection()) {
+            first = H2DataSource.sessionId(connection);
+        }
+        long count = 0;
+        try (RowCursor cursor = source.openCursor()) {
+            assertEquals(List.of("ID", "NAME"), cursor.getColumns());
+            while (cursor.next()) {
+                count++;
+                assertEquals("item" + count, cursor.current().get("NAME"));
+            }
+            assertFalse(cursor.next());
+        }
+        assertEquals(2500, count);
+        try (Connection connection = source.openConnection()) {
+            assertEquals(first, H2DataSource.sessionId(connection));
+        }
+
+        source.setSql("SELECT * FROM MISSING_TABLE");
+        assertThrows(DataAccessException.class, source::openCursor);
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+
+    /**
+     * 测试只通过元数据获取列信息,并按配置缓存
+     */
+    @Test
+    void testDescribeColumns() throws Exception {
+        String url = "jdbc:h2:mem:pool_describe;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PRODUCTS(ID BIGINT, NAME VARCHAR(20), PRICE DECIMAL(10,2))");
+            statement.execute("INSERT INTO PRODUCTS VALUES (1, 'a', 1.00)");
+        }
+        // 查询执行时会因除零报错,只读取元数据时不会执行
+        source.setSql("SELECT ID AS PRODUCT_ID, NAME, PRICE / 0 AS RATIO FROM PRODUCTS;");
+        List<ColumnInfo> columns = source.describeColumns();
+        assertEquals(List.of("PRODUCT_ID", "NAME", "RATIO"), columns.stream().map(ColumnInfo::name).toList());
+        assertEquals(Types.BIGINT, columns.get(0).jdbcType());
+        assertEquals(Types.VARCHAR, columns.get(1).jdbcType());
+        assertSame(columns, source.describeColumns());
+        assertEquals(List.of("PRODUCT_ID", "NAME", "RATIO"), source.getColumns());
+
+        source.setSql("SELECT NAME FROM PRODUCTS");
+        assertEquals(List.of("NAME"), source.getColumns());
+
+        source.setSql("SELECT * FROM MISSING_TABLE");
+        assertThrows(DataAccessException.class, source::getColumns);
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+
+    /**
+     * 测试列投影,流式、分页、过滤和按主键读取都只查询投影中的列,分页列始终查询
+     */
+    @Test
+    void testProjection() throws Exception {
+        String url = "jdbc:h2:mem:pool_projection;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PRODUCTS AS SELECT X AS ID, 'p' || X AS NAME, REPEAT('x', 200) AS REMARK"
+                    + " FROM SYSTEM_RANGE(1, 50)");
+        }
+        source.setSql("SELECT ID, NAME, REMARK FROM PRODUCTS");
+        source.setProjection(Set.of("name", "MISSING"));
+
+        // 没有方言时忽略列投影
+        try (RowCursor cursor = source.openCursor()) {
+            assertEquals(List.of("ID", "NAME", "REMARK"), cursor.getColumns());
+        }
+
+        source.dialect = H2DataSource.ORA_HASH_DIALECT;
+        try (RowCursor cursor = source.openCursor()) {
+            assertTrue(cursor.next());
+            assertEquals(List.of("NAME"), cursor.getColumns());
+            assertEquals(Set.of("NAME"), cursor.current().keySet());
+        }
+        try (RowCursor cursor = source.openCursor(new QueryFilter("ID = ?", List.of(3)))) {
+            assertTrue(cursor.next());
+            assertEquals(Map.of("NAME", "p3"), new HashMap<>(cursor.current()));
+        }
+        try (RowCursor cursor = source.openCursorByKeys(List.of("ID"), List.<Object[]>of(new Object[] { 4 }))) {
+            assertTrue(cursor.next());
+            assertEquals(Map.of("ID", 4L, "NAME", "p4"), new HashMap<>(cursor.current()));
+        }
+
+        source.setPageColumns("id");
+        source.setPageSize(20);
+        long rows = 0;
+        try (RowCursor cursor = source.openCursor()) {
+            assertEquals(List.of("ID", "NAME"), cursor.getColumns());
+            while (cursor.next()) {
+                assertNull(cursor.current().get("REMARK"));
+                rows++;
+            }
+        }
+        assertEquals(50, rows);
+
+        source.setProjection(null);
+        try (RowCursor cursor = source.openCursor()) {
+            assertEquals(List.of("ID", "NAME", "REMARK"), cursor.getColumns());
+        }
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+
+    /**
+     * 测试两侧共用连接池时的可用连接数
+     * 主数据源并行读取期间,影子数据源按可用连接数同时打开按主键查询的游标不会等待连接超时
+     */
+    @Test
+    void testSharedPoolConnections() throws Exception {
+        String url = "jdbc:h2:mem:pool_shared;DB_CLOSE_DELAY=-1";
+        H2DataSource primary = new H2DataSource(url);
+        H2DataSource shadow = new H2DataSource(url);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = H2DataSource.ORA_HASH_DIALECT;
+        }
+        try (Connection connection = primary.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ORDERS AS SELECT X AS ID, 'o' || X AS NAME FROM SYSTEM_RANGE(1, 30000)");
+        }
+        primary.setSql("SELECT ID, NAME FROM ORDERS");
+        shadow.setSql("SELECT ID, NAME FROM ORDERS");
+        primary.setSplitColumn("ID");
+        primary.setParallelism(3);
+
+        assertTrue(shadow.sharesPoolWith(primary));
+        assertEquals(3, primary.maxCursorConnections());
+        assertEquals(ConnectionPoolRegistry.DEFAULT_MAX_POOL_SIZE - 3, shadow.availableConnectionsBeside(primary));
+
+        List<RowCursor> lookups = new ArrayList<>();
+        try (RowCursor cursor = primary.openCursor()) {
+            assertTrue(cursor.next());
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < shadow.availableConnectionsBeside(primary); i++) {
+                RowCursor lookup = shadow.openCursorByKeys(List.of("ID"), List.<Object[]>of(new Object[] { i + 1 }));
+                lookups.add(lookup);
+                assertTrue(lookup.next());
+            }
+            assertTrue(System.currentTimeMillis() - start < 5000, "共用连接池时不应等待连接");
+        } finally {
+            for (RowCursor lookup : lookups) {
+                lookup.close();
+            }
+        }
+
+        primary.setParallelism(DataSourceDb.MAX_PARALLELISM);
+        assertEquals(0, shadow.availableConnectionsBeside(primary));
+        primary.setPageColumns("ID");
+        primary.setPageSize(100);
+        assertEquals(ConnectionPoolRegistry.DEFAULT_MAX_POOL_SIZE - 1, shadow.availableConnectionsBeside(primary));
+
+        H2DataSource other = new H2DataSource(url);
+        other.setUsername("other");
+        assertFalse(other.sharesPoolWith(primary));
+        assertEquals(ConnectionPoolRegistry.DEFAULT_MAX_POOL_SIZE, other.availableConnectionsBeside(primary));
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+
+    /**
+     * 测试应用配置界面填写的上次水位
+     * 修改连接、查询语句或水位列而没有修改上次水位时清除上次水位,明确填写的水位保留
+     */
+    @Test
+    void testApplyWatermark() {
+        H2DataSource source = new H2DataSource("jdbc:h2:mem:pool_apply_watermark");
+        source.setUsername("sa");
+        source.setSql("SELECT ID, UPDATED_AT FROM ACCOUNTS");
+        source.setWatermarkColumn("UPDATED_AT");
+        source.setWatermark("2024-02-01T00:00");
+
+        String scope = source.watermarkScope();
+        source.applyWatermark(scope, " 2024-02-01T00:00 ");
+        assertEquals("2024-02-01T00:00", source.getWatermark());
+
+        source.setSql("SELECT ID, UPDATED_AT FROM ACCOUNTS WHERE ID > 100");
+        source.applyWatermark(scope, "2024-02-01T00:00");
+        assertNull(source.getWatermark(), "查询语句修改后上次水位不再适用");
+
+        source.setWatermark("2024-02-01T00:00");
+        scope = source.watermarkScope();
+        source.setUsername("other");
+        source.applyWatermark(scope, "2024-03-01T00:00");
+        assertEquals("2024-03-01T00:00", source.getWatermark(), "明确填写的水位保留");
+
+        scope = source.watermarkScope();
+        source.setWatermarkColumn("VERSION");
+        source.applyWatermark(scope, "2024-03-01T00:00");
+        assertNull(source.getWatermark());
+        source.applyWatermark(source.watermarkScope(), " ");
+        assertNull(source.getWatermark());
+    }
+
+    /**
+     * 测试按列类型判断能否计算哈希
+     * 方言不接受的列类型(如Oracle的大字段)不能参与哈希下推,作为拆分列时不拆分查询
+     */
+    @Test
+    void testSupportsHash() throws Exception {
+        String url = "jdbc:h2:mem:pool_supports_hash;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE NOTES AS SELECT X AS ID, 'n' || X AS NAME,"
+                    + " CAST('note' || X AS CLOB) AS CONTENT FROM SYSTEM_RANGE(1, 50)");
+        }
+        source.setSql("SELECT ID, NAME, CONTENT FROM NOTES");
+        assertFalse(source.supportsHash(List.of("ID")), "未提供方言时不能计算哈希");
+
+        source.dialect = new JdbcDialect() {
+            @Override
+            public String quoteIdentifier(String identifier) {
+                return H2DataSource.ORA_HASH_DIALECT.quoteIdentifier(identifier);
+            }
+
+            @Override
+            public boolean supportsHash(ColumnInfo column) {
+                return column.jdbcType() != Types.CLOB;
+            }
+
+            @Override
+            public String hashExpression(List<String> expressions) {
+                return H2DataSource.ORA_HASH_DIALECT.hashExpression(expressions);
+            }
+        };
+        assertTrue(source.supportsHash(List.of("ID", "name", "MISSING")));
+        assertFalse(source.supportsHash(List.of("ID", "CONTENT")));
+
+        source.setSplitColumn("\"CONTENT\"");
+        source.setParallelism(3);
+        long rows = 0;
+        try (RowCursor cursor = source.openCursor()) {
+            assertFalse(cursor instanceof ParallelRowCursor);
+            while (cursor.next()) {
+                rows++;
+            }
+        }
+        assertEquals(50, rows);
+        source.setSplitColumn("NAME");
+        try (RowCursor cursor = source.openCursor()) {
+            assertTrue(cursor instanceof ParallelRowCursor);
+        }
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+}
@@ -0,0 +1,101 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import com.tangyujun.datashadow.datasource.DataSourceConfigurationCallback;
+
+import javafx.stage.Window;
+
+/**
+ * 基于H2内存数据库的测试数据源
+ * 供数据库相关的测试类共用
+ */
+class H2DataSource extends DataSourceDb {
+
+    /**
+     * 测试用方言,与Oracle方言的组合方式相同,H2的ORA_HASH只接受字符和二进制,先转换为文本
+     */
+    static final JdbcDialect ORA_HASH_DIALECT = new JdbcDialect() {
+        @Override
+        public String quoteIdentifier(String identifier) {
+            return "\"" + identifier + "\"";
+        }
+
+        @Override
+        public String hashExpression(List<String> expressions) {
+            return "ORA_HASH(" + String.join(" || ',' || ",
+                    expressions.stream().map(e -> "NVL2(" + e + ", TO_CHAR(ORA_HASH(CAST(" + e + " AS VARCHAR))), 'N')").toList())
+                    + ")";
+        }
+    };
+
+    /**
+     * 获取当前连接在H2中的会话编号
+     */
+    static int sessionId(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement();
+                var resultSet = statement.executeQuery("SELECT SESSION_ID()")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    /**
+     * 连接URL
+     */
+    private final String url;
+
+    /**
+     * 测试使用的方言,为null时不使用方言
+     */
+    JdbcDialect dialect;
+
+    H2DataSource(String url) {
+        this.url = url;
+    }
+
+    @Override
+    public JdbcDialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    protected String getDatabaseType() {
+        return "H2";
+    }
+
+    @Override
+    protected String getDriverClassName() {
+        return "org.h2.Driver";
+    }
+
+    @Override
+    protected String buildUrl() {
+        return url;
+    }
+
+    @Override
+    protected boolean isConnectionInfoComplete() {
+        return username != null && password != null;
+    }
+
+    @Override
+    public String getDescription() {
+        return url;
+    }
+
+    @Override
+    public void configure(Window primaryStage, DataSourceConfigurationCallback callback) {
+    }
+
+    @Override
+    public String exportSource() {
+        return "";
+    }
+
+    @Override
+    public void importSource(String exportValueString) {
+    }
+}
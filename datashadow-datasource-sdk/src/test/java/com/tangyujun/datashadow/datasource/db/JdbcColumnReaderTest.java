@@ -0,0 +1,65 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JDBC列读取测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 按列类型读取数据
+ * 2. 空值读取为null且数据行与普通Map相等
+ */
+public class JdbcColumnReaderTest {
+
+    /**
+     * 测试按列类型读取数据,数值和日期时间列直接得到比较器使用的类型
+     */
+    @Test
+    void testTypedDecoding() throws Exception {
+        String url = "jdbc:h2:mem:pool_typed;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE TYPED(I INT, L BIGINT, D DECIMAL(10,2), F DOUBLE, B BOOLEAN,"
+                    + " S VARCHAR(10), DT DATE, TM TIME, TS TIMESTAMP)");
+            statement.execute("INSERT INTO TYPED VALUES (1, 2, 3.50, 4.5, TRUE, 'x', DATE '2024-01-02',"
+                    + " TIME '10:11:12', TIMESTAMP '2024-01-02 10:11:12')");
+            statement.execute("INSERT INTO TYPED VALUES (NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL)");
+        }
+        source.setSql("SELECT * FROM TYPED");
+        List<Map<String, Object>> rows = source.acquireValues();
+        Map<String, Object> row = rows.get(0);
+        assertEquals(Integer.valueOf(1), row.get("I"));
+        assertEquals(Long.valueOf(2), row.get("L"));
+        assertEquals(new BigDecimal("3.50"), row.get("D"));
+        assertEquals(Double.valueOf(4.5), row.get("F"));
+        assertEquals(Boolean.TRUE, row.get("B"));
+        assertEquals("x", row.get("S"));
+        assertEquals(LocalDate.of(2024, 1, 2), row.get("DT"));
+        assertEquals(LocalTime.of(10, 11, 12), row.get("TM"));
+        assertEquals(LocalDateTime.of(2024, 1, 2, 10, 11, 12), row.get("TS"));
+        assertEquals(9, row.size());
+        assertTrue(row.containsKey("TS"));
+        assertNull(row.get("MISSING"));
+
+        Map<String, Object> nulls = rows.get(1);
+        assertTrue(nulls.containsKey("I"));
+        assertTrue(nulls.values().stream().allMatch(Objects::isNull));
+        Map<String, Object> copy = new HashMap<>(nulls);
+        assertEquals(copy, nulls);
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+}
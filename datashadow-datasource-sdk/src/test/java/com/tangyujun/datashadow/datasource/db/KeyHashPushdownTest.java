@@ -0,0 +1,164 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static java.util.stream.Collectors.toSet;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+
+/**
+ * 主键哈希两阶段定位测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 只按哈希不同或只在一侧存在的主键读取完整数据行
+ * 2. 超过单批上限时按主键分批读取
+ * 3. 数据库将未引用的别名转换为小写时仍能读取主键和哈希
+ * 4. 主键列中有NULL值时仍能按主键读取数据行
+ */
+public class KeyHashPushdownTest {
+
+    /**
+     * 测试主键哈希两阶段定位,只按哈希不同或只在一侧存在的主键读取完整数据行
+     */
+    @Test
+    void testKeyHashPushdown() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:pool_keyhash_primary;DB_CLOSE_DELAY=-1";
+        String shadowUrl = "jdbc:h2:mem:pool_keyhash_shadow;DB_CLOSE_DELAY=-1";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = H2DataSource.ORA_HASH_DIALECT;
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE LINES AS SELECT X AS ORDER_ID, MOD(X, 3) AS LINE_NO,"
+                        + " 'p' || X AS PRODUCT FROM SYSTEM_RANGE(1, 3000)");
+            }
+            source.setSql("SELECT ORDER_ID, LINE_NO, PRODUCT FROM LINES");
+        }
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE LINES SET PRODUCT = 'changed' WHERE ORDER_ID = 42");
+            statement.execute("DELETE FROM LINES WHERE ORDER_ID = 99");
+            statement.execute("INSERT INTO LINES VALUES (5000, 1, 'extra')");
+        }
+
+        List<String> keys = List.of("ORDER_ID", "LINE_NO");
+        List<String> columns = List.of("ORDER_ID", "LINE_NO", "PRODUCT");
+        KeyHashPushdown.Result located = new KeyHashPushdown(primary, keys, columns, shadow, keys, columns).locate();
+        assertEquals(3000, located.primaryRows());
+        assertEquals(3000, located.shadowRows());
+        assertEquals(Set.of(42L, 99L), located.primaryKeys().stream().map(key -> key[0]).collect(toSet()));
+        assertEquals(Set.of(42L, 5000L), located.shadowKeys().stream().map(key -> key[0]).collect(toSet()));
+
+        Map<Object, Object> products = new HashMap<>();
+        try (RowCursor cursor = shadow.openCursorByKeys(located.shadowKeyColumns(), located.shadowKeys())) {
+            assertEquals(List.of("ORDER_ID", "LINE_NO", "PRODUCT"), cursor.getColumns());
+            while (cursor.next()) {
+                products.put(cursor.current().get("ORDER_ID"), cursor.current().get("PRODUCT"));
+            }
+        }
+        assertEquals(Map.of(42L, "changed", 5000L, "extra"), products);
+
+        // 超过单批上限时分批查询
+        List<Object[]> allKeys = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            allKeys.add(new Object[] { id });
+        }
+        long count = 0;
+        try (RowCursor cursor = primary.openCursorByKeys(List.of("ORDER_ID"), allKeys)) {
+            while (cursor.next()) {
+                count++;
+            }
+        }
+        assertEquals(2500, count);
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+
+    /**
+     * 测试数据库将未引用的别名转换为小写时的主键哈希定位
+     * H2的DATABASE_TO_LOWER模式与PostgreSQL相同,未引用的标识符转换为小写
+     */
+    @Test
+    void testLowerCaseAliases() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:pool_keyhash_lower_primary;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        String shadowUrl = "jdbc:h2:mem:pool_keyhash_lower_shadow;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = H2DataSource.ORA_HASH_DIALECT;
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE lines AS SELECT \"X\" AS order_id, 'p' || \"X\" AS product"
+                        + " FROM SYSTEM_RANGE(1, 100)");
+            }
+            source.setSql("SELECT order_id, product FROM lines");
+        }
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE lines SET product = 'changed' WHERE order_id = 42");
+        }
+
+        List<String> keys = List.of("order_id");
+        List<String> columns = List.of("order_id", "product");
+        KeyHashPushdown.Result located = new KeyHashPushdown(primary, keys, columns, shadow, keys, columns).locate();
+        assertEquals(Set.of(42L), located.primaryKeys().stream().map(key -> key[0]).collect(toSet()));
+        assertEquals(Set.of(42L), located.shadowKeys().stream().map(key -> key[0]).collect(toSet()));
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+
+    /**
+     * 测试主键列中有NULL值时的定位和按主键读取
+     * IN条件无法匹配NULL,主键列为NULL的数据行也需要读取到,不能被当作只在一侧存在
+     */
+    @Test
+    void testNullableKeys() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:pool_keyhash_null_primary;DB_CLOSE_DELAY=-1";
+        String shadowUrl = "jdbc:h2:mem:pool_keyhash_null_shadow;DB_CLOSE_DELAY=-1";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = H2DataSource.ORA_HASH_DIALECT;
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE LINES AS SELECT X AS ORDER_ID, CASEWHEN(MOD(X, 10) = 0, NULL, 1)"
+                        + " AS LINE_NO, 'p' || X AS PRODUCT FROM SYSTEM_RANGE(1, 100)");
+                statement.execute("INSERT INTO LINES VALUES (NULL, NULL, 'none')");
+            }
+            source.setSql("SELECT ORDER_ID, LINE_NO, PRODUCT FROM LINES");
+        }
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE LINES SET PRODUCT = 'changed' WHERE ORDER_ID IN (20, 21) OR ORDER_ID IS NULL");
+        }
+
+        List<String> keys = List.of("ORDER_ID", "LINE_NO");
+        List<String> columns = List.of("ORDER_ID", "LINE_NO", "PRODUCT");
+        KeyHashPushdown.Result located = new KeyHashPushdown(primary, keys, columns, shadow, keys, columns).locate();
+        assertEquals(3, located.primaryKeys().size());
+        assertEquals(3, located.shadowKeys().size());
+
+        Map<Object, Object> products = new HashMap<>();
+        try (RowCursor cursor = shadow.openCursorByKeys(located.shadowKeyColumns(), located.shadowKeys())) {
+            while (cursor.next()) {
+                products.put(cursor.current().get("ORDER_ID"), cursor.current().get("PRODUCT"));
+            }
+        }
+        Map<Object, Object> expected = new HashMap<>(Map.of(20L, "changed", 21L, "changed"));
+        expected.put(null, "changed");
+        assertEquals(expected, products);
+        assertEquals("p10", primary.readLob("PRODUCT", keys, new Object[] { 10L, null }));
+        assertEquals("none", primary.readLob("PRODUCT", keys, new Object[] { null, null }));
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+}
@@ -0,0 +1,107 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tangyujun.datashadow.datacomparator.defaults.StringDataComparator;
+import com.tangyujun.datashadow.datasource.RowCursor;
+
+/**
+ * 大字段摘要测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 短文本保持为字符串,长文本和二进制读取为摘要
+ * 2. 完整内容按主键单独读取
+ * 3. 大字段摘要与另一侧普通文本的比较,以及忽略大小写的比较
+ */
+public class LobDigestTest {
+
+    /**
+     * 测试大字段读取,短文本保持为字符串,长文本和二进制读取为摘要,完整内容按主键单独读取
+     */
+    @Test
+    void testLobDigest() throws Exception {
+        String url = "jdbc:h2:mem:pool_lob;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        source.dialect = H2DataSource.ORA_HASH_DIALECT;
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE DOCS (ID INT PRIMARY KEY, BODY CLOB, DATA BLOB)");
+            statement.execute("INSERT INTO DOCS VALUES (1, 'short', X'CAFE')");
+            statement.execute("INSERT INTO DOCS VALUES (2, REPEAT('a', 9000) || 'x', X'0102')");
+            statement.execute("INSERT INTO DOCS VALUES (3, REPEAT('a', 9000) || 'y', X'0102')");
+            statement.execute("INSERT INTO DOCS VALUES (4, REPEAT('a', 9000) || 'x', NULL)");
+        }
+        source.setSql("SELECT ID, BODY, DATA FROM DOCS ORDER BY ID");
+
+        Map<Integer, Map<String, Object>> rows = new HashMap<>();
+        try (RowCursor cursor = source.openCursor()) {
+            while (cursor.next()) {
+                rows.put((Integer) cursor.current().get("ID"), new HashMap<>(cursor.current()));
+            }
+        }
+        assertEquals("short", rows.get(1).get("BODY"));
+        LobDigest body = (LobDigest) rows.get(2).get("BODY");
+        assertFalse(body.isBinary());
+        assertEquals(9001, body.getLength());
+        assertEquals("a".repeat(LobDigest.PREFIX_LENGTH), body.getPrefix());
+        assertEquals(body, rows.get(4).get("BODY"));
+        assertNotEquals(body, rows.get(3).get("BODY"));
+        assertNotEquals(body.toString(), rows.get(3).get("BODY").toString());
+
+        LobDigest data = (LobDigest) rows.get(1).get("DATA");
+        assertTrue(data.isBinary());
+        assertEquals("cafe", data.getPrefix());
+        assertEquals(rows.get(2).get("DATA"), rows.get(3).get("DATA"));
+        assertNull(rows.get(4).get("DATA"));
+
+        assertEquals("a".repeat(9000) + "y", source.readLob("BODY", List.of("ID"), new Object[] { 3 }));
+        assertArrayEquals(new byte[] { 1, 2 }, (byte[]) source.readLob("DATA", List.of("ID"), new Object[] { 2 }));
+        assertNull(source.readLob("BODY", List.of("ID"), new Object[] { 99 }));
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+
+    /**
+     * 测试大字段摘要与普通文本的比较
+     * 另一侧为相同内容的普通文本时相等,字符串比较器忽略大小写的配置对大字段同样生效
+     */
+    @Test
+    void testMixedComparison() throws Exception {
+        String text = "Contract " + "a".repeat(LobDigest.INLINE_LENGTH) + " End";
+        LobDigest lob = (LobDigest) LobDigest.readCharacters(new StringReader(text));
+        assertEquals(lob, LobDigest.ofText(text));
+        assertEquals(lob.getPrefix(), LobDigest.ofText(text).getPrefix());
+        assertEquals("short", LobDigest.readCharacters(new StringReader("short")));
+
+        StringDataComparator exact = new StringDataComparator(false, true);
+        assertTrue(exact.equals(lob, text));
+        assertTrue(exact.equals(text, lob));
+        assertFalse(exact.equals(lob, text + "!"));
+        assertFalse(exact.equals(lob, text.toUpperCase()));
+        assertFalse(exact.equals(lob, "short"));
+        assertFalse(exact.equals(lob, null));
+        assertEquals(exact.canonicalKey(lob), exact.canonicalKey(text));
+
+        StringDataComparator ignoreCase = new StringDataComparator(true, true);
+        LobDigest upper = (LobDigest) LobDigest.readCharacters(new StringReader(text.toUpperCase()));
+        assertNotEquals(lob, upper);
+        assertTrue(ignoreCase.equals(lob, upper));
+        assertTrue(ignoreCase.equals(upper, text));
+        assertFalse(ignoreCase.equals(lob, text.replace("End", "Fin")));
+        assertEquals(ignoreCase.canonicalKey(lob), ignoreCase.canonicalKey(text.toUpperCase()));
+
+        LobDigest binary = LobDigest.readBytes(new ByteArrayInputStream(new byte[] { 1, 2 }));
+        assertNull(binary.getFoldedDigest());
+        assertTrue(ignoreCase.equals(binary, LobDigest.readBytes(new ByteArrayInputStream(new byte[] { 1, 2 }))));
+        assertFalse(ignoreCase.equals(binary, lob));
+    }
+}
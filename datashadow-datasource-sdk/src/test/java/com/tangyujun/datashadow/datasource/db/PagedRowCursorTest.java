@@ -0,0 +1,74 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 键集分页游标测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 多列分页键按字典序翻页
+ * 2. 分页列为null的数据行最后读取
+ * 3. 提前关闭游标不会阻塞
+ */
+public class PagedRowCursorTest {
+
+    /**
+     * 测试键集分页读取,多列分页键按字典序翻页,分页列为null的数据行最后读取
+     */
+    @Test
+    void testPagedCursor() throws Exception {
+        String url = "jdbc:h2:mem:pool_paged;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        source.dialect = H2DataSource.ORA_HASH_DIALECT;
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE VISITS AS SELECT MOD(X, 7) AS SHOP, X AS SEQ, 'v' || X AS NAME"
+                    + " FROM SYSTEM_RANGE(1, 2500)");
+            statement.execute("INSERT INTO VISITS VALUES (NULL, 9999, 'no-shop')");
+        }
+        source.setSql("SELECT SHOP, SEQ, NAME FROM VISITS");
+        source.setPageColumns("shop, seq");
+        source.setPageSize(300);
+
+        List<Object> names = new ArrayList<>();
+        long[] previous = null;
+        try (RowCursor cursor = source.openCursor()) {
+            assertEquals(List.of("SHOP", "SEQ", "NAME"), cursor.getColumns());
+            while (cursor.next()) {
+                Map<String, Object> row = cursor.current();
+                names.add(row.get("NAME"));
+                if (row.get("SHOP") != null) {
+                    long[] key = { ((Number) row.get("SHOP")).longValue(), ((Number) row.get("SEQ")).longValue() };
+                    if (previous != null) {
+                        assertTrue(previous[0] < key[0] || previous[0] == key[0] && previous[1] < key[1]);
+                    }
+                    previous = key;
+                }
+            }
+        }
+        assertEquals(2501, names.size());
+        assertEquals(2501, new HashSet<>(names).size());
+        assertEquals("no-shop", names.get(names.size() - 1));
+
+        // 提前关闭游标不会阻塞
+        try (RowCursor cursor = source.openCursor()) {
+            assertTrue(cursor.next());
+        }
+
+        source.setPageColumns("MISSING");
+        assertThrows(DataAccessException.class, source::openCursor);
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+}
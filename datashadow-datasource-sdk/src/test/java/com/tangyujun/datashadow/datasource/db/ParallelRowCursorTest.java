@@ -0,0 +1,64 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 并行数据行游标测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 按拆分列并行读取,所有数据行恰好读取一次
+ * 2. 提前关闭游标不会阻塞
+ */
+public class ParallelRowCursorTest {
+
+    /**
+     * 测试按拆分列并行读取,所有数据行(包括拆分列为null的行)恰好读取一次
+     */
+    @Test
+    void testParallelCursor() throws Exception {
+        String url = "jdbc:h2:mem:pool_parallel;DB_CLOSE_DELAY=-1";
+        H2DataSource source = new H2DataSource(url);
+        source.setUsername("sa");
+        source.setPassword("");
+        try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE EVENTS AS SELECT X AS ID, 'e' || X AS NAME FROM SYSTEM_RANGE(1, 5000)");
+            statement.execute("INSERT INTO EVENTS VALUES (NULL, 'no-id')");
+        }
+        source.setSql("SELECT ID, NAME FROM EVENTS");
+        source.setSplitColumn("ID");
+        source.setParallelism(4);
+        source.setFetchSize(50);
+
+        Set<Object> names = new HashSet<>();
+        long count = 0;
+        try (RowCursor cursor = source.openCursor()) {
+            assertEquals(List.of("ID", "NAME"), cursor.getColumns());
+            while (cursor.next()) {
+                count++;
+                names.add(cursor.current().get("NAME"));
+            }
+        }
+        assertEquals(5001, count);
+        assertEquals(5001, names.size());
+        assertTrue(names.contains("no-id"));
+
+        // 提前关闭游标不会阻塞
+        try (RowCursor cursor = source.openCursor()) {
+            assertTrue(cursor.next());
+        }
+
+        source.setSplitColumn("NAME");
+        assertThrows(DataAccessException.class, source::openCursor);
+        ConnectionPoolRegistry.getInstance().evict(url, "sa");
+    }
+}
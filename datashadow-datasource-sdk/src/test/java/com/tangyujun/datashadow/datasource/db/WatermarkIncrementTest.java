@@ -0,0 +1,120 @@
+package com.tangyujun.datashadow.datasource.db;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static java.util.stream.Collectors.toSet;
+
+import com.tangyujun.datashadow.exception.DataAccessException;
+
+/**
+ * 基于水位列的增量对比测试类
+ * 使用H2内存数据库测试,测试数据源见H2DataSource
+ *
+ * 主要测试以下功能:
+ * 1. 只读取两侧上次水位到本次高水位之间变化的数据行的主键
+ * 2. 本次高水位之后的变化留到下次对比
+ * 3. 数据库将未引用的别名转换为小写时仍能读取高水位和主键
+ */
+public class WatermarkIncrementTest {
+
+    /**
+     * 测试增量对比定位,只读取两侧上次水位到本次高水位之间变化的数据行的主键
+     */
+    @Test
+    void testWatermarkIncrement() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:pool_watermark_primary;DB_CLOSE_DELAY=-1";
+        String shadowUrl = "jdbc:h2:mem:pool_watermark_shadow;DB_CLOSE_DELAY=-1";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = H2DataSource.ORA_HASH_DIALECT;
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE ACCOUNTS AS SELECT X AS ID, 'a' || X AS NAME,"
+                        + " TIMESTAMP '2024-01-01 00:00:00' + X * INTERVAL '1' MINUTE AS UPDATED_AT"
+                        + " FROM SYSTEM_RANGE(1, 100)");
+            }
+            source.setSql("SELECT ID, NAME, UPDATED_AT FROM ACCOUNTS");
+            source.setWatermarkColumn("updated_at");
+        }
+        assertTrue(WatermarkIncrement.supports(primary, shadow));
+
+        WatermarkIncrement increment = new WatermarkIncrement(primary, List.of("ID"), shadow, List.of("ID"));
+        assertFalse(increment.isIncremental());
+        WatermarkIncrement.Watermarks baseline = increment.captureHighWatermarks();
+        assertEquals(LocalDateTime.of(2024, 1, 1, 1, 40).toString(), baseline.primary());
+        increment.commit(baseline);
+        assertTrue(increment.isIncremental());
+
+        try (Connection connection = primary.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE ACCOUNTS SET NAME = 'changed', UPDATED_AT = TIMESTAMP '2024-02-01 00:00:00'"
+                    + " WHERE ID = 5");
+        }
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE ACCOUNTS SET UPDATED_AT = TIMESTAMP '2024-02-01 00:00:00' WHERE ID = 5");
+            statement.execute("INSERT INTO ACCOUNTS VALUES (200, 'extra', TIMESTAMP '2024-02-02 00:00:00')");
+        }
+        WatermarkIncrement.Watermarks high = increment.captureHighWatermarks();
+        // 本次高水位之后的变化留到下次对比
+        try (Connection connection = primary.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE ACCOUNTS SET UPDATED_AT = TIMESTAMP '2024-03-01 00:00:00' WHERE ID = 7");
+        }
+
+        WatermarkIncrement.Changes changes = increment.locateChanges(high);
+        assertEquals(List.of("ID"), changes.primaryKeyColumns());
+        assertEquals(Set.of(5L, 200L), changes.keys().stream().map(key -> key[0]).collect(toSet()));
+        assertEquals(Set.of("5", "200"), changes.normalizedKeys());
+
+        increment.commit(high);
+        assertEquals("2024-02-01T00:00", primary.getWatermark());
+        assertEquals("2024-02-02T00:00", shadow.getWatermark());
+        assertEquals(Set.of(7L), increment.locateChanges(increment.captureHighWatermarks()).keys().stream()
+                .map(key -> key[0]).collect(toSet()));
+
+        shadow.setWatermark("not-a-time");
+        assertThrows(DataAccessException.class, () -> increment.locateChanges(high));
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+
+    /**
+     * 测试数据库将未引用的别名转换为小写时的增量对比定位
+     * H2的DATABASE_TO_LOWER模式与PostgreSQL相同,未引用的标识符转换为小写
+     */
+    @Test
+    void testLowerCaseAliases() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:pool_watermark_lower_primary;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        String shadowUrl = "jdbc:h2:mem:pool_watermark_lower_shadow;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        H2DataSource primary = new H2DataSource(primaryUrl);
+        H2DataSource shadow = new H2DataSource(shadowUrl);
+        for (H2DataSource source : List.of(primary, shadow)) {
+            source.setUsername("sa");
+            source.setPassword("");
+            source.dialect = H2DataSource.ORA_HASH_DIALECT;
+            try (Connection connection = source.openConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE accounts AS SELECT \"X\" AS id, \"X\" AS version"
+                        + " FROM SYSTEM_RANGE(1, 10)");
+            }
+            source.setSql("SELECT id, version FROM accounts");
+            source.setWatermarkColumn("version");
+        }
+
+        WatermarkIncrement increment = new WatermarkIncrement(primary, List.of("id"), shadow, List.of("id"));
+        WatermarkIncrement.Watermarks baseline = increment.captureHighWatermarks();
+        assertEquals("10", baseline.primary());
+        increment.commit(baseline);
+        try (Connection connection = shadow.openConnection(); var statement = connection.createStatement()) {
+            statement.execute("UPDATE accounts SET version = 11 WHERE id = 3");
+        }
+        WatermarkIncrement.Changes changes = increment.locateChanges(increment.captureHighWatermarks());
+        assertEquals(Set.of(3L), changes.keys().stream().map(key -> key[0]).collect(toSet()));
+        ConnectionPoolRegistry.getInstance().evict(primaryUrl, "sa");
+        ConnectionPoolRegistry.getInstance().evict(shadowUrl, "sa");
+    }
+}
@@ -0,0 +1,119 @@
+package com.tangyujun.datashadow.utils;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 编辑距离工具类测试类
+ * 用于测试EditDistance的各项功能
+ *
+ * 主要测试以下功能:
+ * 1. 常见字符串的编辑距离
+ * 2. 超过上限时提前结束
+ * 3. 位并行算法与动态规划参考实现结果一致(含超过64字符的分块计算和非拉丁字符)
+ */
+public class EditDistanceTest {
+
+    /**
+     * 测试常见字符串的编辑距离
+     */
+    @Test
+    public void testBounded() {
+        assertEquals(0, EditDistance.bounded("", "", 3));
+        assertEquals(3, EditDistance.bounded("", "abc", 3));
+        assertEquals(3, EditDistance.bounded("kitten", "sitting", 5));
+        assertEquals(3, EditDistance.bounded("sitting", "kitten", 5));
+        assertEquals(1, EditDistance.bounded("张三丰", "张三风", 2));
+        assertEquals(2, EditDistance.bounded("北京市朝阳区", "北京朝阳区域", 2));
+    }
+
+    /**
+     * 测试超过上限时返回上限加1
+     */
+    @Test
+    public void testExceedLimit() {
+        assertEquals(3, EditDistance.bounded("kitten", "sitting", 2));
+        assertEquals(1, EditDistance.bounded("abc", "xyz", 0));
+        assertEquals(2, EditDistance.bounded("a", "abcdef", 1), "长度差超过上限时直接返回");
+    }
+
+    /**
+     * 测试与动态规划参考实现结果一致
+     */
+    @Test
+    public void testMatchesDynamicProgramming() {
+        Random random = new Random(20241019L);
+        char[] alphabet = { 'a', 'b', 'c', 'd', '张', '三', 'Ａ', ' ' };
+        for (int i = 0; i < 3000; i++) {
+            int maxLength = i % 10 == 0 ? 200 : 20;
+            String s1 = randomString(random, alphabet, random.nextInt(maxLength));
+            String s2 = random.nextBoolean() ? mutate(random, alphabet, s1)
+                    : randomString(random, alphabet, random.nextInt(maxLength));
+            int expected = naive(s1, s2);
+            int limit = random.nextInt(expected + 3);
+            int actual = EditDistance.bounded(s1, s2, limit);
+            assertEquals(expected > limit ? limit + 1 : expected, actual,
+                    () -> "\"" + s1 + "\" vs \"" + s2 + "\" limit=" + limit);
+        }
+    }
+
+    /**
+     * 生成随机字符串
+     */
+    private static String randomString(Random random, char[] alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 对字符串做少量随机插入、删除和替换
+     */
+    private static String mutate(Random random, char[] alphabet, String value) {
+        StringBuilder builder = new StringBuilder(value);
+        int edits = random.nextInt(5);
+        for (int i = 0; i < edits; i++) {
+            int pos = builder.length() == 0 ? 0 : random.nextInt(builder.length());
+            switch (random.nextInt(3)) {
+                case 0 -> builder.insert(pos, alphabet[random.nextInt(alphabet.length)]);
+                case 1 -> {
+                    if (builder.length() > 0) {
+                        builder.deleteCharAt(pos);
+                    }
+                }
+                default -> {
+                    if (builder.length() > 0) {
+                        builder.setCharAt(pos, alphabet[random.nextInt(alphabet.length)]);
+                    }
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 动态规划参考实现
+     */
+    private static int naive(String s1, String s2) {
+        int[] prev = new int[s2.length() + 1];
+        int[] curr = new int[s2.length() + 1];
+        for (int j = 0; j <= s2.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= s1.length(); i++) {
+            curr[0] = i;
+            for (int j = 1; j <= s2.length(); j++) {
+                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[s2.length()];
+    }
+}
@@ -11,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.tangyujun.datashadow.configuration.ConfigurationLoader;
+import com.tangyujun.datashadow.datasource.db.ConnectionPoolRegistry;
 import com.tangyujun.datashadow.module.ModuleLoader;
 import com.tangyujun.datashadow.module.listener.DataComparatorListener;
 import com.tangyujun.datashadow.module.listener.DataSourceListener;
@@ -96,6 +97,15 @@ public class DataShadowLauncher extends Application {
         primaryStage.show();
     }
 
+    /**
+     * JavaFX应用程序退出方法
+     * 关闭所有数据库连接池,释放数据库连接
+     */
+    @Override
+    public void stop() {
+        ConnectionPoolRegistry.getInstance().shutdown();
+    }
+
     /**
      * 应用程序入口方法
      * 负责加载插件模块并启动JavaFX应用程序
@@ -72,6 +72,10 @@ public class CompareSection extends VBox implements DataItemChangeListener {
     private final GroupComboBox<ResultExporter> exporterComboBox;
     /** 导出按钮 */
     private final Button exportButton;
+    /** 上次的对比结果 - 增量对比时在其基础上合并变化的数据行 */
+    private final ObservableList<CompareResult> compareResults = FXCollections.observableArrayList();
+    /** 上次对比的配置快照 - 数据项的主键和比较器配置以及两侧数据源的配置,任一变化后上次的对比结果不再用于增量合并 */
+    private String comparedSnapshot = "";
 
     /**
      * 构造函数
@@ -254,9 +258,9 @@ public class CompareSection extends VBox implements DataItemChangeListener {
      * 处理流程:
      * 1. 验证对比前置条件
      * 2. 禁用对比按钮防止重复操作
-     * 3. 执行数据对比
+     * 3. 执行数据对比,数据项和两侧数据源的配置都未变化时保留上次的对比结果供增量对比合并
      * 4. 根据过滤模式显示结果
-     * 5. 处理可能的异常情况
+     * 5. 处理可能的异常情况,失败后下次对比为全量对比
      * 6. 恢复对比按钮状态
      */
     private void startCompare() {
@@ -265,14 +269,19 @@ public class CompareSection extends VBox implements DataItemChangeListener {
         }
         compareButton.setDisable(true);
         try {
-            ObservableList<CompareResult> results = FXCollections.observableArrayList();
-            resultTable.setItems(results);
-
             DataSource primary = DataFactory.getInstance().getPrimaryDataSource();
             DataSource shadow = DataFactory.getInstance().getShadowDataSource();
             List<DataItem> dataItems = DataFactory.getInstance().getDataItems();
 
-            CompareEngine.compare(primary, shadow, dataItems, results);
+            if (!snapshot(primary, shadow, dataItems).equals(comparedSnapshot)) {
+                compareResults.clear();
+            }
+            comparedSnapshot = "";
+            resultTable.setItems(compareResults);
+
+            CompareEngine.compare(primary, shadow, dataItems, compareResults);
+            // 对比完成后记录快照,其中包含本次提交的水位
+            comparedSnapshot = snapshot(primary, shadow, dataItems);
             filterDiffItems();
 
         } catch (DataAccessException e) {
@@ -284,6 +293,27 @@ public class CompareSection extends VBox implements DataItemChangeListener {
 
     }
 
+    /**
+     * 生成对比配置的快照
+     * 由每个数据项的编码、是否主键和比较器配置以及两侧数据源导出的配置组成,
+     * 用于判断上次的对比结果是否仍可用于增量合并,修改主键或比较规则后上次的结果不再适用
+     *
+     * @param primary   主数据源
+     * @param shadow    影子数据源
+     * @param dataItems 数据项列表
+     * @return 配置快照
+     */
+    private static String snapshot(DataSource primary, DataSource shadow, List<DataItem> dataItems) {
+        StringBuilder snapshot = new StringBuilder();
+        for (DataItem item : dataItems) {
+            snapshot.append(item.getCode()).append('\t').append(item.isUnique()).append('\t')
+                    .append(item.getComparatorGroup()).append('\t').append(item.getComparatorName()).append('\t')
+                    .append(item.getComparator() == null ? null : item.getComparator().exportComparator())
+                    .append('\n');
+        }
+        return snapshot.append(primary.exportSource()).append('\n').append(shadow.exportSource()).toString();
+    }
+
     /**
      * 验证对比前置条件
      * 检查是否满足执行数据对比的必要条件
@@ -1,17 +1,44 @@
 package com.tangyujun.datashadow.ui.compare.helper;
 
+import com.tangyujun.datashadow.config.CompareStrategy;
+import com.tangyujun.datashadow.config.ConfigFactory;
+import com.tangyujun.datashadow.config.Configuration;
+import com.tangyujun.datashadow.datacomparator.CanonicalDataComparator;
+import com.tangyujun.datashadow.datacomparator.MemoizingDataComparator;
 import com.tangyujun.datashadow.dataitem.DataItem;
 import com.tangyujun.datashadow.dataresult.CellResult;
 import com.tangyujun.datashadow.dataresult.CompareResult;
 import com.tangyujun.datashadow.datasource.DataSource;
+import com.tangyujun.datashadow.datasource.RowCursor;
+import com.tangyujun.datashadow.datasource.db.ChecksumPushdown;
+import com.tangyujun.datashadow.datasource.db.DataSourceDb;
+import com.tangyujun.datashadow.datasource.db.KeyHashPushdown;
+import com.tangyujun.datashadow.datasource.db.WatermarkIncrement;
 import com.tangyujun.datashadow.exception.DataAccessException;
 
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * 数据对比引擎
@@ -26,12 +53,17 @@ import java.util.stream.Collectors;
  * 2. 支持多字段联合主键
  * 3. 处理数据源字段映射
  * 4. 生成详细的对比结果
+ * 5. 按配置为每个数据项的比较器启用值缓存
+ * 6. 按配置使用校验和下推或主键哈希两阶段读取,两侧为同类数据库时只读取不一致的数据行
+ * 7. 按配置按主键分批查询影子数据库,不读取影子数据库的全表
+ * 8. 两侧数据库都配置了水位列时,只对比上次对比后变化的数据行,并合并到上次的对比结果中
+ * 9. 读取前将数据项映射的字段作为列投影传给数据源,数据源只需读取参与对比的字段
  * 
  * 对比流程:
  * 1. 获取主键字段列表
- * 2. 从两个数据源获取数据和字段映射
- * 3. 构建影子数据源查找索引
- * 4. 遍历主数据源进行对比
+ * 2. 通过游标读取影子数据源,读取时完成字段映射
+ * 3. 构建影子数据源查找索引(主键比较器均可规范化时使用哈希索引,否则线性查找)
+ * 4. 通过游标逐行读取主数据源进行对比
  * 5. 处理仅在影子数据源存在的数据
  * 
  * 数据处理:
@@ -46,94 +78,485 @@ import java.util.stream.Collectors;
  */
 public class CompareEngine {
 
+    /** 日志记录器 */
+    private static final Logger log = LoggerFactory.getLogger(CompareEngine.class);
+
     /**
      * 执行数据对比
      * 对主数据源和影子数据源的数据进行全面对比
      *
+     * 两侧数据库都配置了水位列、保存了上次水位且results中保留了上次的对比结果时为增量对比,
+     * 只重新对比上次之后变化的数据行并替换results中对应主键的结果;否则清空results进行全量对比。
+     * 对比成功后记录本次的水位,失败时水位不变
+     *
+     * 对比期间两侧数据源的列投影为数据项映射的字段,对比结束后清除
+     *
      * @param primary   主数据源对象
      * @param shadow    影子数据源对象
      * @param dataItems 数据项定义列表
-     * @param results   存储对比结果的列表
+     * @param results   存储对比结果的列表,增量对比时为上次的对比结果
      * @throws DataAccessException 数据访问异常
      */
     public static void compare(DataSource primary, DataSource shadow, List<DataItem> dataItems,
             ObservableList<CompareResult> results) throws DataAccessException {
+        if (ConfigFactory.getInstance().getConfiguration().isMemoizeComparators()) {
+            dataItems = memoizeComparators(dataItems);
+        }
         List<DataItem> uniqueItems = getUniqueItems(dataItems);
-        CompareData compareData = getCompareData(primary, shadow);
 
-        List<Map<String, Object>> shadowList = buildShadowList(
-                compareData.shadowData(),
-                compareData.shadowMapping(),
-                dataItems);
-
-        processPrimaryData(
-                compareData.primaryData(),
-                compareData.primaryMapping(),
-                shadowList,
-                dataItems,
-                uniqueItems,
-                results);
+        primary.setProjection(getMappedFields(primary, dataItems));
+        shadow.setProjection(getMappedFields(shadow, dataItems));
+        try {
+            WatermarkIncrement increment = resolveWatermarkIncrement(primary, shadow, uniqueItems);
+            WatermarkIncrement.Watermarks high = increment == null ? null : increment.captureHighWatermarks();
+            if (increment != null && increment.isIncremental() && !results.isEmpty()) {
+                compareIncremental(increment, high, (DataSourceDb) primary, (DataSourceDb) shadow, dataItems,
+                        uniqueItems, results);
+            } else {
+                results.clear();
+                compareAll(primary, shadow, dataItems, uniqueItems, results);
+            }
+            if (increment != null) {
+                increment.commit(high);
+            }
+        } finally {
+            primary.setProjection(null);
+            shadow.setProjection(null);
+        }
+    }
+
+    /**
+     * 获取数据源中参与对比的字段,即数据项映射的字段
+     *
+     * @param source    数据源对象
+     * @param dataItems 数据项定义列表
+     * @return 映射的字段集合
+     */
+    private static Set<String> getMappedFields(DataSource source, List<DataItem> dataItems) {
+        Set<String> fields = new HashSet<>();
+        for (DataItem item : dataItems) {
+            String field = source.getMappedField(item.getCode());
+            if (field != null) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * 按配置的对比策略对比两侧的全部数据
+     *
+     * @param primary     主数据源对象
+     * @param shadow      影子数据源对象
+     * @param dataItems   数据项定义列表
+     * @param uniqueItems 主键数据项列表
+     * @param results     存储对比结果的列表
+     * @throws DataAccessException 数据访问异常
+     */
+    private static void compareAll(DataSource primary, DataSource shadow, List<DataItem> dataItems,
+            List<DataItem> uniqueItems, ObservableList<CompareResult> results) throws DataAccessException {
+        CompareStrategy strategy = ConfigFactory.getInstance().getConfiguration().getCompareStrategy();
+        if (strategy == CompareStrategy.LOOKUP && supportsLookup(primary, shadow, uniqueItems)) {
+            compareByLookup(primary, (DataSourceDb) shadow, dataItems, uniqueItems, results);
+            return;
+        }
+
+        Supplier<RowCursor> primaryRows = primary::openCursor;
+        Supplier<RowCursor> shadowRows = shadow::openCursor;
+        PushdownColumns columns = strategy == CompareStrategy.CHECKSUM || strategy == CompareStrategy.KEY_HASH
+                ? resolvePushdownColumns(primary, shadow, dataItems, uniqueItems)
+                : null;
+        if (columns != null) {
+            DataSourceDb primaryDb = (DataSourceDb) primary;
+            DataSourceDb shadowDb = (DataSourceDb) shadow;
+            if (strategy == CompareStrategy.CHECKSUM) {
+                ChecksumPushdown.Result located = new ChecksumPushdown(
+                        primaryDb, columns.primaryKeys(), columns.primaryColumns(),
+                        shadowDb, columns.shadowKeys(), columns.shadowColumns()).locate();
+                log.info("校验和下推完成: 主数据源{}行中读取{}行, 影子数据源{}行中读取{}行",
+                        located.primaryRows(), located.primaryFetched(),
+                        located.shadowRows(), located.shadowFetched());
+                primaryRows = () -> primaryDb.openCursor(located.primaryFilter());
+                shadowRows = () -> shadowDb.openCursor(located.shadowFilter());
+            } else if (strategy == CompareStrategy.KEY_HASH) {
+                KeyHashPushdown.Result located = new KeyHashPushdown(
+                        primaryDb, columns.primaryKeys(), columns.primaryColumns(),
+                        shadowDb, columns.shadowKeys(), columns.shadowColumns()).locate();
+                primaryRows = () -> primaryDb.openCursorByKeys(located.primaryKeyColumns(), located.primaryKeys());
+                shadowRows = () -> shadowDb.openCursorByKeys(located.shadowKeyColumns(), located.shadowKeys());
+            }
+        }
+
+        List<Map<String, Object>> shadowList = buildShadowList(shadowRows, shadow.getMappings(), dataItems);
+
+        try (RowCursor primaryCursor = primaryRows.get()) {
+            processPrimaryData(
+                    primaryCursor,
+                    primary.getMappings(),
+                    shadowList,
+                    dataItems,
+                    uniqueItems,
+                    results);
+        }
 
         processShadowOnlyData(shadowList, dataItems, results);
     }
 
     /**
-     * 获取主键数据项
-     * 从数据项列表中筛选出标记为唯一键的字段
+     * 创建增量对比定位
+     * 需要两侧为同一方言的数据库且都配置了水位列,存在主键且主键数据项在两侧都有映射
      *
-     * @param dataItems 数据项定义列表
-     * @return 主键数据项列表
+     * @param primary     主数据源对象
+     * @param shadow      影子数据源对象
+     * @param uniqueItems 主键数据项列表
+     * @return 增量对比定位,不满足条件时返回null
      */
-    private static List<DataItem> getUniqueItems(List<DataItem> dataItems) {
-        return dataItems.stream()
-                .filter(DataItem::isUnique)
-                .toList();
+    private static WatermarkIncrement resolveWatermarkIncrement(DataSource primary, DataSource shadow,
+            List<DataItem> uniqueItems) {
+        if (!WatermarkIncrement.supports(primary, shadow)) {
+            return null;
+        }
+        if (uniqueItems.isEmpty() || !uniqueItems.stream().allMatch(item -> primary.getMappedField(item.getCode())
+                != null && shadow.getMappedField(item.getCode()) != null)) {
+            log.info("存在未映射的主键数据项,不能增量对比");
+            return null;
+        }
+        return new WatermarkIncrement(
+                (DataSourceDb) primary,
+                uniqueItems.stream().map(item -> primary.getMappedField(item.getCode())).toList(),
+                (DataSourceDb) shadow,
+                uniqueItems.stream().map(item -> shadow.getMappedField(item.getCode())).toList());
     }
 
     /**
-     * 数据源数据和映射的封装类
-     * 用于封装数据源的原始数据和字段映射关系
+     * 增量对比
+     * 只按主键读取两侧上次水位之后变化的数据行进行对比,
+     * 全部读取完成后再从上次的对比结果中移除这些主键的结果并加入新的结果,读取失败时上次的结果保持不变
      *
-     * @param primaryData    主数据源数据
-     * @param primaryMapping 主数据源字段映射
-     * @param shadowData     影子数据源数据
-     * @param shadowMapping  影子数据源字段映射
+     * @param increment   增量对比定位
+     * @param high        本次对比的高水位
+     * @param primary     主数据库数据源
+     * @param shadow      影子数据库数据源
+     * @param dataItems   数据项定义列表
+     * @param uniqueItems 主键数据项列表
+     * @param results     上次的对比结果,合并后为本次的对比结果
+     * @throws DataAccessException 数据访问异常
      */
-    private record CompareData(
-            List<Map<String, Object>> primaryData,
-            Map<String, String> primaryMapping,
-            List<Map<String, Object>> shadowData,
-            Map<String, String> shadowMapping) {
+    private static void compareIncremental(WatermarkIncrement increment, WatermarkIncrement.Watermarks high,
+            DataSourceDb primary, DataSourceDb shadow, List<DataItem> dataItems, List<DataItem> uniqueItems,
+            ObservableList<CompareResult> results) throws DataAccessException {
+        WatermarkIncrement.Changes changes = increment.locateChanges(high);
+        if (changes.keys().isEmpty()) {
+            return;
+        }
+        ObservableList<CompareResult> changed = FXCollections.observableArrayList();
+        List<Map<String, Object>> shadowList = buildShadowList(
+                () -> shadow.openCursorByKeys(changes.shadowKeyColumns(), changes.keys()),
+                shadow.getMappings(), dataItems);
+        try (RowCursor primaryCursor = primary.openCursorByKeys(changes.primaryKeyColumns(), changes.keys())) {
+            processPrimaryData(primaryCursor, primary.getMappings(), shadowList, dataItems, uniqueItems, changed);
+        }
+        processShadowOnlyData(shadowList, dataItems, changed);
+
+        int previous = results.size();
+        results.removeIf(result -> changes.normalizedKeys().contains(resultKey(result, uniqueItems)));
+        log.info("增量对比完成: 移除{}条上次的对比结果, 加入{}条新的对比结果", previous - results.size(), changed.size());
+        results.addAll(changed);
     }
 
     /**
-     * 获取数据源数据和映射
-     * 从两个数据源获取数据和字段映射信息
+     * 计算对比结果的主键,与增量对比定位中规范化后的主键可以直接比较
+     * 每个主键数据项优先取主数据源的值,仅在影子数据源中存在时取影子数据源的值
      *
-     * @param primary 主数据源
-     * @param shadow  影子数据源
-     * @return 包含两个数据源数据和映射的封装对象
+     * @param result      对比结果
+     * @param uniqueItems 主键数据项列表
+     * @return 规范化后的主键
+     */
+    private static Object resultKey(CompareResult result, List<DataItem> uniqueItems) {
+        Object[] values = new Object[uniqueItems.size()];
+        for (int i = 0; i < values.length; i++) {
+            CellResult cell = result.getCellResult(uniqueItems.get(i).getCode());
+            if (cell != null) {
+                values[i] = cell.getPrimaryValue() != null ? cell.getPrimaryValue() : cell.getShadowValue();
+            }
+        }
+        return KeyHashPushdown.normalizeKey(values);
+    }
+
+    /**
+     * 判断是否可以按主键查询影子数据库
+     * 需要影子数据源为提供数据库方言的数据库,存在主键且主键数据项在两侧都有映射
+     *
+     * @param primary     主数据源对象
+     * @param shadow      影子数据源对象
+     * @param uniqueItems 主键数据项列表
+     * @return 可以按主键查询时返回true
+     */
+    private static boolean supportsLookup(DataSource primary, DataSource shadow, List<DataItem> uniqueItems) {
+        boolean supported = shadow instanceof DataSourceDb shadowDb
+                && shadowDb.getDialect() != null
+                && !uniqueItems.isEmpty()
+                && uniqueItems.stream().allMatch(item -> primary.getMappedField(item.getCode()) != null
+                        && shadow.getMappedField(item.getCode()) != null);
+        if (!supported) {
+            log.info("数据源不满足按主键查询条件,使用全量对比");
+            return false;
+        }
+        if (((DataSourceDb) shadow).availableConnectionsBeside(primary) == 0) {
+            log.info("两侧数据库共用连接池且主数据源读取时占满连接池,使用全量对比");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按主键查询影子数据库进行对比
+     * 逐行读取主数据源,每攒够一批主键就提交到线程池查询影子数据库,
+     * 同时进行中的查询数不超过配置的并发数,按提交顺序取回结果并立即对比,
+     * 内存中只保留进行中的批次
+     *
+     * 两侧数据库共用连接池时,主数据源的游标在整个对比过程中占用连接,
+     * 并发数同时不超过连接池中扣除这些连接后剩余的连接数,避免获取连接超时
+     *
+     * 与全量对比的差异:
+     * 1. 不读取影子数据库的全部数据,只在影子数据源中存在的数据行不会出现在对比结果中
+     * 2. 各批次独立匹配,主数据源中不同批次的重复主键会匹配到同一影子数据行
+     *
+     * @param primary     主数据源对象
+     * @param shadow      影子数据库数据源
+     * @param dataItems   数据项定义列表
+     * @param uniqueItems 主键数据项列表
+     * @param results     存储对比结果的列表
      * @throws DataAccessException 数据访问异常
      */
-    private static CompareData getCompareData(DataSource primary, DataSource shadow) throws DataAccessException {
-        return new CompareData(
-                primary.acquireValues(),
-                primary.getMappings(),
-                shadow.acquireValues(),
-                shadow.getMappings());
+    private static void compareByLookup(DataSource primary, DataSourceDb shadow, List<DataItem> dataItems,
+            List<DataItem> uniqueItems, ObservableList<CompareResult> results) throws DataAccessException {
+        Configuration config = ConfigFactory.getInstance().getConfiguration();
+        int batchSize = config.getLookupBatchSize();
+        int concurrency = Math.min(config.getLookupConcurrency(), shadow.availableConnectionsBeside(primary));
+        Map<String, String> primaryMapping = primary.getMappings();
+        List<String> shadowKeys = uniqueItems.stream().map(item -> shadow.getMappedField(item.getCode())).toList();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "datashadow-lookup-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<LookupBatch> pending = new ArrayDeque<>();
+        long primaryRows = 0;
+        try (RowCursor primaryCursor = primary.openCursor()) {
+            List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+            while (primaryCursor.next()) {
+                batch.add(primaryCursor.current());
+                primaryRows++;
+                if (batch.size() == batchSize) {
+                    if (pending.size() >= concurrency) {
+                        finishLookup(pending.pollFirst(), primaryMapping, dataItems, uniqueItems, results);
+                    }
+                    pending.addLast(submitLookup(executor, batch, primaryMapping, shadow, shadowKeys,
+                            dataItems, uniqueItems));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                pending.addLast(submitLookup(executor, batch, primaryMapping, shadow, shadowKeys,
+                        dataItems, uniqueItems));
+            }
+            while (!pending.isEmpty()) {
+                finishLookup(pending.pollFirst(), primaryMapping, dataItems, uniqueItems, results);
+            }
+        } finally {
+            pending.forEach(lookup -> lookup.shadowRows().cancel(true));
+            executor.shutdownNow();
+        }
+        log.info("按主键查询影子数据库完成: 主数据源{}行, 每批{}个主键, 并发{}个查询", primaryRows, batchSize, concurrency);
     }
 
     /**
-     * 构建影子数据Map
-     * 将影子数据源数据构建成以主键为索引的Map结构
+     * 提交一批主键到线程池查询影子数据库
+     *
+     * @param executor       查询线程池
+     * @param primaryBatch   主数据源原始数据行
+     * @param primaryMapping 主数据源字段映射关系
+     * @param shadow         影子数据库数据源
+     * @param shadowKeys     影子数据源的主键列
+     * @param dataItems      数据项定义列表
+     * @param uniqueItems    主键数据项列表
+     * @return 进行中的批次
      */
-    private static List<Map<String, Object>> buildShadowList(
-            List<Map<String, Object>> shadowData,
-            Map<String, String> shadowMapping,
-            List<DataItem> dataItems) {
-        return shadowData.stream()
-                .map(shadowRow -> mapDataSourceRow(shadowRow, shadowMapping, dataItems))
-                .collect(Collectors.toList());
+    private static LookupBatch submitLookup(ExecutorService executor, List<Map<String, Object>> primaryBatch,
+            Map<String, String> primaryMapping, DataSourceDb shadow, List<String> shadowKeys,
+            List<DataItem> dataItems, List<DataItem> uniqueItems) {
+        List<Object[]> keys = new ArrayList<>(primaryBatch.size());
+        for (Map<String, Object> row : primaryBatch) {
+            Object[] key = new Object[uniqueItems.size()];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = row.get(primaryMapping.get(uniqueItems.get(i).getCode()));
+            }
+            keys.add(key);
+        }
+        Future<List<Map<String, Object>>> shadowRows = executor.submit(
+                () -> buildShadowList(() -> shadow.openCursorByKeys(shadowKeys, keys), shadow.getMappings(),
+                        dataItems));
+        return new LookupBatch(primaryBatch, shadowRows);
+    }
+
+    /**
+     * 等待一批主键的查询结果并对比
+     * 查询返回但未能按主键比较器匹配的影子数据行作为仅在影子数据源中存在的数据处理
+     *
+     * @param lookup         进行中的批次
+     * @param primaryMapping 主数据源字段映射关系
+     * @param dataItems      数据项定义列表
+     * @param uniqueItems    主键数据项列表
+     * @param results        存储对比结果的列表
+     * @throws DataAccessException 查询影子数据库失败时抛出
+     */
+    private static void finishLookup(LookupBatch lookup, Map<String, String> primaryMapping,
+            List<DataItem> dataItems, List<DataItem> uniqueItems, ObservableList<CompareResult> results)
+            throws DataAccessException {
+        List<Map<String, Object>> shadowList;
+        try {
+            shadowList = lookup.shadowRows().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("按主键查询影子数据库被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataAccessException dataAccessException) {
+                throw dataAccessException;
+            }
+            throw new DataAccessException("按主键查询影子数据库失败: " + e.getCause().getMessage(), e.getCause());
+        }
+        processPrimaryData(RowCursor.of(lookup.primaryRows()), primaryMapping, shadowList, dataItems, uniqueItems,
+                results);
+        processShadowOnlyData(shadowList, dataItems, results);
+    }
+
+    /**
+     * 进行中的按主键查询批次
+     *
+     * @param primaryRows 主数据源原始数据行
+     * @param shadowRows  影子数据库的查询结果,已完成字段映射
+     */
+    private record LookupBatch(List<Map<String, Object>> primaryRows,
+            Future<List<Map<String, Object>>> shadowRows) {
+    }
+
+    /**
+     * 解析计算下推使用的两侧主键列和对比列
+     * 需要两侧为同一方言且方言支持哈希的数据库、存在主键,每个数据项在两侧都有映射或都没有映射,
+     * 且参与对比的列都可以计算哈希(如Oracle的大字段不能参与ORA_HASH),不满足条件时返回null,由调用方使用全量对比
+     *
+     * @param primary     主数据源对象
+     * @param shadow      影子数据源对象
+     * @param dataItems   数据项定义列表
+     * @param uniqueItems 主键数据项列表
+     * @return 两侧的主键列和对比列,不满足条件时返回null
+     */
+    private static PushdownColumns resolvePushdownColumns(DataSource primary, DataSource shadow,
+            List<DataItem> dataItems, List<DataItem> uniqueItems) {
+        if (uniqueItems.isEmpty() || !ChecksumPushdown.supports(primary, shadow)) {
+            log.info("数据源不满足计算下推条件,使用全量对比");
+            return null;
+        }
+        List<String> primaryKeys = new ArrayList<>();
+        List<String> primaryColumns = new ArrayList<>();
+        List<String> shadowKeys = new ArrayList<>();
+        List<String> shadowColumns = new ArrayList<>();
+        for (DataItem item : dataItems) {
+            String primaryField = primary.getMappedField(item.getCode());
+            String shadowField = shadow.getMappedField(item.getCode());
+            if (primaryField == null && shadowField == null) {
+                continue;
+            }
+            if (primaryField == null || shadowField == null) {
+                log.info("数据项{}只在一侧数据源中映射,使用全量对比", item.getCode());
+                return null;
+            }
+            primaryColumns.add(primaryField);
+            shadowColumns.add(shadowField);
+            if (item.isUnique()) {
+                primaryKeys.add(primaryField);
+                shadowKeys.add(shadowField);
+            }
+        }
+        if (primaryKeys.size() != uniqueItems.size()) {
+            log.info("存在未映射的主键数据项,使用全量对比");
+            return null;
+        }
+        if (!((DataSourceDb) primary).supportsHash(primaryColumns)
+                || !((DataSourceDb) shadow).supportsHash(shadowColumns)) {
+            log.info("参与对比的列中有不能计算哈希的列(如大字段),使用全量对比");
+            return null;
+        }
+        return new PushdownColumns(primaryKeys, primaryColumns, shadowKeys, shadowColumns);
+    }
+
+    /**
+     * 计算下推使用的两侧主键列和对比列,按数据项顺序一一对应
+     *
+     * @param primaryKeys    主数据源的主键列
+     * @param primaryColumns 主数据源参与对比的列
+     * @param shadowKeys     影子数据源的主键列
+     * @param shadowColumns  影子数据源参与对比的列
+     */
+    private record PushdownColumns(List<String> primaryKeys, List<String> primaryColumns,
+            List<String> shadowKeys, List<String> shadowColumns) {
+    }
+
+    /**
+     * 为数据项的比较器启用值缓存
+     * 复制数据项并将比较器替换为带缓存的包装,缓存仅在本次对比中有效,不影响原数据项
+     *
+     * @param dataItems 数据项定义列表
+     * @return 比较器带缓存的数据项列表
+     */
+    private static List<DataItem> memoizeComparators(List<DataItem> dataItems) {
+        return dataItems.stream().map(item -> {
+            DataItem copy = new DataItem();
+            copy.setCode(item.getCode());
+            copy.setUnique(item.isUnique());
+            copy.setNick(item.getNick());
+            copy.setRemark(item.getRemark());
+            copy.setComparatorGroup(item.getComparatorGroup());
+            copy.setComparatorName(item.getComparatorName());
+            copy.setComparator(MemoizingDataComparator.wrap(item.getComparator()));
+            return copy;
+        }).toList();
+    }
+
+    /**
+     * 获取主键数据项
+     * 从数据项列表中筛选出标记为唯一键的字段
+     *
+     * @param dataItems 数据项定义列表
+     * @return 主键数据项列表
+     */
+    private static List<DataItem> getUniqueItems(List<DataItem> dataItems) {
+        return dataItems.stream()
+                .filter(DataItem::isUnique)
+                .toList();
+    }
+
+    /**
+     * 构建影子数据列表
+     * 通过游标逐行读取影子数据源,读取时即完成字段映射,不保留原始数据行
+     *
+     * @param shadowRows    影子数据源游标的打开方式
+     * @param shadowMapping 影子数据源字段映射关系
+     * @param dataItems     数据项定义列表
+     * @return 映射后的影子数据列表
+     * @throws DataAccessException 数据访问异常
+     */
+    private static List<Map<String, Object>> buildShadowList(Supplier<RowCursor> shadowRows,
+            Map<String, String> shadowMapping, List<DataItem> dataItems) throws DataAccessException {
+        List<Map<String, Object>> shadowList = new ArrayList<>();
+        try (RowCursor cursor = shadowRows.get()) {
+            while (cursor.next()) {
+                shadowList.add(mapDataSourceRow(cursor.current(), shadowMapping, dataItems));
+            }
+        }
+        return shadowList;
     }
 
     /**
@@ -177,26 +600,129 @@ public class CompareEngine {
 
     /**
      * 处理主数据源数据
+     * 通过游标逐行读取主数据源并立即对比,主数据源的数据不需要整体驻留内存
      */
     private static void processPrimaryData(
-            List<Map<String, Object>> primaryData,
+            RowCursor primaryCursor,
             Map<String, String> primaryMapping,
             List<Map<String, Object>> shadowList,
             List<DataItem> dataItems,
             List<DataItem> uniqueItems,
             ObservableList<CompareResult> results) {
 
-        for (Map<String, Object> primaryRow : primaryData) {
-            Map<String, Object> primaryObject = mapDataSourceRow(primaryRow, primaryMapping, dataItems);
-            Map<String, Object> shadowObject = findMatchingShadowRow(primaryObject, shadowList, uniqueItems);
-
-            if (shadowObject != null) {
-                shadowList.remove(shadowObject);
+        ShadowIndex shadowIndex = ShadowIndex.supports(uniqueItems) ? new ShadowIndex(shadowList, uniqueItems) : null;
+        while (primaryCursor.next()) {
+            Map<String, Object> primaryObject = mapDataSourceRow(primaryCursor.current(), primaryMapping, dataItems);
+            Map<String, Object> shadowObject;
+            if (shadowIndex != null) {
+                shadowObject = shadowIndex.take(primaryObject);
+            } else {
+                shadowObject = findMatchingShadowRow(primaryObject, shadowList, uniqueItems);
+                if (shadowObject != null) {
+                    shadowList.remove(shadowObject);
+                }
             }
 
             CompareResult result = compareDataRows(primaryObject, shadowObject, dataItems);
             results.add(result);
         }
+        if (shadowIndex != null) {
+            shadowIndex.removeMatched(shadowList);
+        }
+    }
+
+    /**
+     * 影子数据哈希索引
+     * 当所有主键数据项的比较器都实现了CanonicalDataComparator时,
+     * 以主键规范键组合为键对影子数据建立索引,将逐行线性查找降为哈希查找
+     * 
+     * 匹配语义与线性查找一致:
+     * 1. 同一规范键下按影子数据原始顺序取第一条未匹配的数据行
+     * 2. 已匹配的数据行不再参与后续匹配
+     */
+    private static class ShadowIndex {
+
+        /**
+         * 主键数据项列表
+         */
+        private final List<DataItem> uniqueItems;
+
+        /**
+         * 规范键到影子数据行队列的映射
+         */
+        private final Map<Object, Deque<Map<String, Object>>> index = new HashMap<>();
+
+        /**
+         * 已匹配的影子数据行,按对象标识判断
+         */
+        private final Set<Map<String, Object>> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * 判断主键数据项是否都支持规范键
+         * 
+         * @param uniqueItems 主键数据项列表
+         * @return 所有主键比较器都可规范化时返回true
+         */
+        static boolean supports(List<DataItem> uniqueItems) {
+            return uniqueItems.stream().allMatch(item -> item.getComparator() instanceof CanonicalDataComparator);
+        }
+
+        /**
+         * 构建影子数据索引
+         * 
+         * @param shadowList  影子数据列表
+         * @param uniqueItems 主键数据项列表
+         */
+        ShadowIndex(List<Map<String, Object>> shadowList, List<DataItem> uniqueItems) {
+            this.uniqueItems = uniqueItems;
+            for (Map<String, Object> shadowRow : shadowList) {
+                index.computeIfAbsent(keyOf(shadowRow), k -> new ArrayDeque<>()).addLast(shadowRow);
+            }
+        }
+
+        /**
+         * 取出与主数据行主键匹配的影子数据行
+         * 
+         * @param primaryObject 主数据行
+         * @return 匹配的影子数据行,未找到时返回null
+         */
+        Map<String, Object> take(Map<String, Object> primaryObject) {
+            Deque<Map<String, Object>> rows = index.get(keyOf(primaryObject));
+            if (rows == null || rows.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> shadowRow = rows.pollFirst();
+            matched.add(shadowRow);
+            return shadowRow;
+        }
+
+        /**
+         * 从影子数据列表中移除已匹配的数据行
+         * 
+         * @param shadowList 影子数据列表
+         */
+        void removeMatched(List<Map<String, Object>> shadowList) {
+            shadowList.removeIf(matched::contains);
+        }
+
+        /**
+         * 计算数据行的主键规范键组合
+         * 
+         * @param row 数据行
+         * @return 单个主键时为该主键的规范键,多个主键时为规范键列表
+         */
+        private Object keyOf(Map<String, Object> row) {
+            if (uniqueItems.size() == 1) {
+                DataItem item = uniqueItems.get(0);
+                return ((CanonicalDataComparator) item.getComparator()).canonicalKey(row.get(item.getCode()));
+            }
+            Object[] keys = new Object[uniqueItems.size()];
+            for (int i = 0; i < keys.length; i++) {
+                DataItem item = uniqueItems.get(i);
+                keys[i] = ((CanonicalDataComparator) item.getComparator()).canonicalKey(row.get(item.getCode()));
+            }
+            return Arrays.asList(keys);
+        }
     }
 
     /**
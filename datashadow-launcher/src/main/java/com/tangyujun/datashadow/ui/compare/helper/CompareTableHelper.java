@@ -1,14 +1,30 @@
 package com.tangyujun.datashadow.ui.compare.helper;
 
+import com.tangyujun.datashadow.core.DataFactory;
 import com.tangyujun.datashadow.dataitem.DataItem;
 import com.tangyujun.datashadow.dataresult.CellResult;
 import com.tangyujun.datashadow.dataresult.CompareResult;
+import com.tangyujun.datashadow.datasource.DataSource;
+import com.tangyujun.datashadow.datasource.db.DataSourceDb;
+import com.tangyujun.datashadow.datasource.db.LobDigest;
+import com.tangyujun.datashadow.exception.DataAccessException;
 
 import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Insets;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
 
+import java.util.HexFormat;
 import java.util.List;
 
 /**
@@ -19,9 +35,15 @@ import java.util.List;
  * 3. 列标题显示逻辑 - 支持根据显示模式切换列标题的显示方式
  * 4. 差异项标记 - 对比结果中的差异项使用特殊样式标记
  * 5. 数据项校验 - 检查数据项配置的完整性并给出提示
+ * 6. 大字段查看 - 双击只保留了摘要的大字段单元格时,按主键读取两侧的完整内容并展示
  */
 public class CompareTableHelper {
 
+    /**
+     * 二进制大字段最多显示的字节数
+     */
+    private static final int LOB_DISPLAY_BYTES = 64 * 1024;
+
     /**
      * 更新表格列
      * 根据提供的数据项列表和标题显示模式，重新创建并配置表格的所有列
@@ -36,8 +58,9 @@ public class CompareTableHelper {
         resultTable.getColumns().clear();
 
         if (dataItems != null) {
+            List<DataItem> uniqueItems = dataItems.stream().filter(DataItem::isUnique).toList();
             for (DataItem dataItem : dataItems) {
-                TableColumn<CompareResult, String> column = createColumn(dataItem, headerDisplayMode);
+                TableColumn<CompareResult, String> column = createColumn(dataItem, uniqueItems, headerDisplayMode);
                 resultTable.getColumns().add(column);
             }
         }
@@ -48,15 +71,17 @@ public class CompareTableHelper {
      * 根据数据项和标题显示模式创建一个新的表格列
      * 
      * @param dataItem          数据项，包含列的基本信息
+     * @param uniqueItems       主键数据项列表,用于读取大字段的完整内容
      * @param headerDisplayMode 列标题显示模式
      * @return 配置好的表格列对象
      */
-    private static TableColumn<CompareResult, String> createColumn(DataItem dataItem, String headerDisplayMode) {
+    private static TableColumn<CompareResult, String> createColumn(DataItem dataItem, List<DataItem> uniqueItems,
+            String headerDisplayMode) {
         TableColumn<CompareResult, String> column = new TableColumn<>(getColumnHeader(dataItem, headerDisplayMode));
         column.setId(dataItem.getCode());
         column.setPrefWidth(150);
 
-        configureColumnFactory(column, dataItem);
+        configureColumnFactory(column, dataItem, uniqueItems);
 
         return column;
     }
@@ -65,10 +90,12 @@ public class CompareTableHelper {
      * 配置列的工厂方法
      * 设置列的值工厂和单元格工厂，处理数据显示和样式
      * 
-     * @param column   要配置的表格列
-     * @param dataItem 与该列关联的数据项
+     * @param column      要配置的表格列
+     * @param dataItem    与该列关联的数据项
+     * @param uniqueItems 主键数据项列表
      */
-    private static void configureColumnFactory(TableColumn<CompareResult, String> column, DataItem dataItem) {
+    private static void configureColumnFactory(TableColumn<CompareResult, String> column, DataItem dataItem,
+            List<DataItem> uniqueItems) {
         // 设置值工厂 - 从CompareResult中获取对应数据项的显示值
         column.setCellValueFactory(cellData -> {
             CellResult cellResult = cellData.getValue().getCellResult(dataItem.getCode());
@@ -76,15 +103,114 @@ public class CompareTableHelper {
         });
 
         // 设置单元格工厂 - 处理单元格的显示样式
-        column.setCellFactory(col -> new TableCell<>() {
-            @Override
-            protected void updateItem(String item, boolean empty) {
-                super.updateItem(item, empty);
-                applyCellStyle(this, item, empty);
-            }
+        column.setCellFactory(col -> {
+            TableCell<CompareResult, String> cell = new TableCell<>() {
+                @Override
+                protected void updateItem(String item, boolean empty) {
+                    super.updateItem(item, empty);
+                    applyCellStyle(this, item, empty);
+                    applyDifferenceTooltip(this, dataItem, empty);
+                }
+            };
+            cell.setOnMouseClicked(event -> {
+                CompareResult row = cell.isEmpty() || cell.getTableRow() == null ? null : cell.getTableRow().getItem();
+                if (event.getClickCount() == 2 && row != null) {
+                    showLobContent(cell, row, dataItem, uniqueItems);
+                }
+            });
+            return cell;
         });
     }
 
+    /**
+     * 展示大字段的完整内容
+     * 单元格任一侧的值为大字段摘要时,按主键分别从两侧数据库读取完整内容,二进制内容以十六进制显示
+     *
+     * @param cell        双击的单元格
+     * @param row         单元格所在的对比结果
+     * @param dataItem    与该列关联的数据项
+     * @param uniqueItems 主键数据项列表
+     */
+    private static void showLobContent(TableCell<CompareResult, String> cell, CompareResult row, DataItem dataItem,
+            List<DataItem> uniqueItems) {
+        CellResult cellResult = row.getCellResult(dataItem.getCode());
+        if (cellResult == null || !(cellResult.getPrimaryValue() instanceof LobDigest
+                || cellResult.getShadowValue() instanceof LobDigest)) {
+            return;
+        }
+        DataFactory factory = DataFactory.getInstance();
+        String primaryContent;
+        String shadowContent;
+        try {
+            primaryContent = loadLobContent(factory.getPrimaryDataSource(), cellResult.getPrimaryValue(), row,
+                    dataItem, uniqueItems, true);
+            shadowContent = loadLobContent(factory.getShadowDataSource(), cellResult.getShadowValue(), row,
+                    dataItem, uniqueItems, false);
+        } catch (DataAccessException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("错误");
+            alert.setHeaderText("读取大字段失败");
+            alert.setContentText(e.getMessage());
+            alert.showAndWait();
+            return;
+        }
+
+        TextArea primaryArea = new TextArea(primaryContent);
+        TextArea shadowArea = new TextArea(shadowContent);
+        for (TextArea area : List.of(primaryArea, shadowArea)) {
+            area.setEditable(false);
+            area.setWrapText(true);
+            area.setPrefSize(400, 400);
+            HBox.setHgrow(area, Priority.ALWAYS);
+        }
+        HBox content = new HBox(10,
+                new VBox(5, new Label("主数据源"), primaryArea),
+                new VBox(5, new Label("影子数据源"), shadowArea));
+        content.setPadding(new Insets(10));
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.initOwner(cell.getScene().getWindow());
+        dialog.setTitle("大字段内容: " + dataItem.getCode());
+        dialog.setResizable(true);
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.showAndWait();
+    }
+
+    /**
+     * 读取一侧大字段的完整内容
+     * 值不是大字段摘要时直接显示其文本,二进制内容最多显示LOB_DISPLAY_BYTES个字节
+     *
+     * @param source      数据源
+     * @param value       该侧单元格的值
+     * @param row         单元格所在的对比结果
+     * @param dataItem    与该列关联的数据项
+     * @param uniqueItems 主键数据项列表
+     * @param primary     是否为主数据源一侧
+     * @return 显示的内容
+     * @throws DataAccessException 数据源不是数据库或读取失败时抛出
+     */
+    private static String loadLobContent(DataSource source, Object value, CompareResult row, DataItem dataItem,
+            List<DataItem> uniqueItems, boolean primary) throws DataAccessException {
+        if (!(value instanceof LobDigest)) {
+            return value == null ? "" : value.toString();
+        }
+        if (!(source instanceof DataSourceDb db) || uniqueItems.isEmpty()) {
+            throw new DataAccessException("数据源不是数据库或未配置主键数据项,无法读取完整内容", null);
+        }
+        List<String> keyColumns = uniqueItems.stream().map(item -> source.getMappedField(item.getCode())).toList();
+        Object[] key = uniqueItems.stream().map(item -> {
+            CellResult keyCell = row.getCellResult(item.getCode());
+            return keyCell == null ? null : primary ? keyCell.getPrimaryValue() : keyCell.getShadowValue();
+        }).toArray();
+        Object content = db.readLob(source.getMappedField(dataItem.getCode()), keyColumns, key);
+        if (content instanceof byte[] bytes) {
+            String hex = HexFormat.of().formatHex(bytes, 0, Math.min(bytes.length, LOB_DISPLAY_BYTES));
+            return bytes.length > LOB_DISPLAY_BYTES ? hex + "\n…(共" + bytes.length + "字节)" : hex;
+        }
+        return content == null ? "" : content.toString();
+    }
+
     /**
      * 应用单元格样式
      * 根据单元格内容设置不同的显示样式：
@@ -109,6 +235,22 @@ public class CompareTableHelper {
         }
     }
 
+    /**
+     * 应用差异详情提示
+     * 比较器提供了差异详情(如JSON文档中首个差异的路径)时,以提示框的形式展示
+     * 
+     * @param cell     要设置提示的单元格
+     * @param dataItem 与该列关联的数据项
+     * @param empty    单元格是否为空
+     */
+    private static void applyDifferenceTooltip(TableCell<CompareResult, String> cell, DataItem dataItem,
+            boolean empty) {
+        CompareResult row = empty || cell.getTableRow() == null ? null : cell.getTableRow().getItem();
+        CellResult cellResult = row == null ? null : row.getCellResult(dataItem.getCode());
+        String detail = cellResult == null ? null : cellResult.getDifferenceDetail();
+        cell.setTooltip(detail == null ? null : new Tooltip(detail));
+    }
+
     /**
      * 获取列标题
      * 根据显示模式和数据项配置生成列标题：
@@ -1,6 +1,7 @@
 package com.tangyujun.datashadow.ui.menu.dialog;
 
 import com.tangyujun.datashadow.ai.Models;
+import com.tangyujun.datashadow.config.CompareStrategy;
 import com.tangyujun.datashadow.config.ConfigFactory;
 import com.tangyujun.datashadow.ai.AIService;
 
@@ -23,6 +24,7 @@ import java.net.URISyntaxException;
 import javafx.application.Platform;
 
 import com.tangyujun.datashadow.config.Configuration;
+import com.tangyujun.datashadow.datasource.db.DataSourceDb;
 
 /**
  * 系统设置对话框
@@ -31,7 +33,8 @@ import com.tangyujun.datashadow.config.Configuration;
  * 主要功能:
  * 1. 插件目录配置 - 包括选择、重置、打开目录等操作
  * 2. AI模型配置 - 选择AI模型和配置API Key
- * 3. 配置保存功能
+ * 3. 对比配置 - 比较器值缓存、对比策略等对比性能选项
+ * 4. 配置保存功能
  */
 public class SystemSettingDialog extends Dialog<Boolean> {
     /** 日志记录器 */
@@ -49,6 +52,18 @@ public class SystemSettingDialog extends Dialog<Boolean> {
     /** API Key输入框 */
     private final PasswordField apiKeyField;
 
+    /** 比较器值缓存复选框 */
+    private final CheckBox memoizeComparatorsCheckBox;
+
+    /** 对比策略选择下拉框 */
+    private final ComboBox<CompareStrategy> compareStrategyComboBox;
+
+    /** 按主键查询每批主键数输入框 */
+    private final Spinner<Integer> lookupBatchSizeSpinner;
+
+    /** 按主键查询并发数输入框 */
+    private final Spinner<Integer> lookupConcurrencySpinner;
+
     /** API Key验证按钮 */
     private final Button validateButton;
 
@@ -103,7 +118,31 @@ public class SystemSettingDialog extends Dialog<Boolean> {
             }
         });
 
+        lookupBatchSizeSpinner = new Spinner<>(1, 10000, Configuration.DEFAULT_LOOKUP_BATCH_SIZE, 100);
+        lookupBatchSizeSpinner.setEditable(true);
+        lookupConcurrencySpinner = new Spinner<>(1, DataSourceDb.MAX_PARALLELISM,
+                Configuration.DEFAULT_LOOKUP_CONCURRENCY);
+        lookupConcurrencySpinner.setEditable(true);
+
         apiKeyField = new PasswordField();
+        memoizeComparatorsCheckBox = new CheckBox("为比较器启用值缓存");
+        compareStrategyComboBox = new ComboBox<>();
+        compareStrategyComboBox.getItems().addAll(CompareStrategy.values());
+        // 设置单元格工厂，显示displayName
+        compareStrategyComboBox.setCellFactory(listView -> new ListCell<CompareStrategy>() {
+            @Override
+            protected void updateItem(CompareStrategy item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.getDisplayName());
+            }
+        });
+        compareStrategyComboBox.setButtonCell(new ListCell<CompareStrategy>() {
+            @Override
+            protected void updateItem(CompareStrategy item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.getDisplayName());
+            }
+        });
         validateButton = new Button("验证");
         apiKeyBox = new HBox(10);
 
@@ -118,6 +157,7 @@ public class SystemSettingDialog extends Dialog<Boolean> {
         // 添加基础配置和AI配置表单
         mainContainer.getChildren().addAll(
                 createBasicConfigForm(),
+                createCompareConfigForm(),
                 createAIConfigForm());
 
         // 设置对话框内容
@@ -170,6 +210,44 @@ public class SystemSettingDialog extends Dialog<Boolean> {
         return form;
     }
 
+    /**
+     * 创建对比配置表单
+     * 包含比较器值缓存、对比策略等对比性能相关控件
+     * 
+     * @return 对比配置表单面板
+     */
+    private TitledPane createCompareConfigForm() {
+        GridPane content = new GridPane();
+        content.setPadding(new Insets(10));
+        content.setHgap(10);
+        content.setVgap(10);
+
+        content.add(memoizeComparatorsCheckBox, 0, 0);
+
+        Label noteLabel = new Label("注：适用于状态、币种、国家等重复值较多的数据项，命中率过低时自动停用。");
+        noteLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #666666;");
+        content.add(noteLabel, 0, 1);
+
+        HBox strategyBox = new HBox(10, new Label("对比策略："), compareStrategyComboBox);
+        compareStrategyComboBox.setPrefWidth(200);
+        content.add(strategyBox, 0, 2);
+
+        Label strategyNoteLabel = new Label("注：校验和下推和主键哈希两阶段仅在两侧为同类数据库时生效，一致的数据不会出现在对比结果中；\n按主键查询影子数据库要求影子数据源为数据库，只在影子数据源中存在的数据不会出现在对比结果中。");
+        strategyNoteLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #666666;");
+        content.add(strategyNoteLabel, 0, 3);
+
+        HBox lookupBox = new HBox(10,
+                new Label("按主键查询每批主键数："), lookupBatchSizeSpinner,
+                new Label("并发查询数："), lookupConcurrencySpinner);
+        lookupBatchSizeSpinner.setPrefWidth(100);
+        lookupConcurrencySpinner.setPrefWidth(80);
+        content.add(lookupBox, 0, 4);
+
+        TitledPane form = new TitledPane("对比配置", content);
+        form.setCollapsible(false);
+        return form;
+    }
+
     /**
      * 创建AI配置表单
      * 包含AI模型选择和API Key配置相关控件
@@ -238,6 +316,14 @@ public class SystemSettingDialog extends Dialog<Boolean> {
             pluginDirField.setText(pluginDir);
         }
 
+        // 比较器值缓存
+        memoizeComparatorsCheckBox.setSelected(config.isMemoizeComparators());
+
+        // 对比策略
+        compareStrategyComboBox.setValue(config.getCompareStrategy());
+        lookupBatchSizeSpinner.getValueFactory().setValue(config.getLookupBatchSize());
+        lookupConcurrencySpinner.getValueFactory().setValue(config.getLookupConcurrency());
+
         // 设置当前选中的AI模型
         Models savedModel = config.getAiModel();
         if (savedModel != null) {
@@ -421,6 +507,10 @@ public class SystemSettingDialog extends Dialog<Boolean> {
                         config.setAiModel(selectedModel);
                     }
                     config.setAiApiKey(apiKeyField.getText());
+                    config.setMemoizeComparators(memoizeComparatorsCheckBox.isSelected());
+                    config.setCompareStrategy(compareStrategyComboBox.getValue());
+                    config.setLookupBatchSize(lookupBatchSizeSpinner.getValue());
+                    config.setLookupConcurrency(lookupConcurrencySpinner.getValue());
                     ConfigFactory.getInstance().updateConfiguration(config, true);
 
                     Alert alert = new Alert(Alert.AlertType.INFORMATION);